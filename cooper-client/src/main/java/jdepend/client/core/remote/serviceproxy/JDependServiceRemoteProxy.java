@@ -5,26 +5,37 @@ import java.io.PrintWriter;
 import java.net.MalformedURLException;
 import java.rmi.ConnectException;
 import java.rmi.Naming;
+import java.rmi.NoSuchObjectException;
 import java.rmi.NotBoundException;
 import java.rmi.RemoteException;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import jdepend.client.core.remote.config.ServerConfigurator;
 import jdepend.client.core.remote.session.RemoteSessionProxy;
 import jdepend.core.serviceproxy.framework.AbstractJDependServiceProxy;
 import jdepend.framework.exception.JDependException;
 import jdepend.framework.file.AnalyzeData;
+import jdepend.framework.file.TargetFileInfo;
 import jdepend.framework.file.TargetFileManager;
 import jdepend.framework.log.LogUtil;
 import jdepend.metadata.JavaPackage;
 import jdepend.model.Component;
 import jdepend.model.result.AnalysisResult;
+import jdepend.model.result.AnalysisResultDetailSource;
 import jdepend.model.result.ProfileFacadeImpl;
 import jdepend.parse.ParseConfigurator;
 import jdepend.parse.ParseListener;
 import jdepend.server.service.AnalyseDataDTO;
+import jdepend.server.service.ContentChunk;
 import jdepend.server.service.JDependRemoteService;
+import jdepend.server.service.RemoteAnalysisResult;
+import jdepend.server.service.RemoteAnalyzeListener;
 import jdepend.server.service.ServiceConf;
 import jdepend.server.service.session.JDependRequest;
 import jdepend.service.config.ServiceConfigurator;
@@ -54,9 +65,7 @@ public class JDependServiceRemoteProxy extends AbstractJDependServiceProxy {
 
 	private static final String DEFAULT_REMOTE_SERVICE = "rmi://localhost/JDependRemoteService";
 
-	private static final long WATCH_TIME = 300;// 进度监控间隔时间
-
-	private static final int TIMEOUT = 20;// 超时次数
+	private static final int CHUNK_SIZE = 1024 * 1024;// 每次上传的最大字节数
 
 	public JDependServiceRemoteProxy(String groupName, String commandName) {
 		this.groupName = groupName;
@@ -127,49 +136,119 @@ public class JDependServiceRemoteProxy extends AbstractJDependServiceProxy {
 	}
 
 	protected AnalysisResult doAnalyze() throws JDependException {
+		RemoteAnalyzeListener progressListener = null;
 		try {
-			// 启动监控进度服务
-			startMonitorAnalyseService();
-			// 本地计算分析数据
-			data.calAnalyzeData();
-			// 执行分析服务
-			AnalysisResult result = getRemoteService().analyze(request, data);
-			result.unSequence();
-
-			return result;
+			// 本地计算分析数据并上传服务器缺少的内容
+			AnalyseDataDTO manifest = this.uploadAnalyzeData();
+			// 导出接收进度推送的监听器
+			progressListener = this.exportProgressListener();
+			// 执行分析服务，只返回摘要，类细节在第一次访问时获取
+			final JDependRemoteService service = getRemoteService();
+			final JDependRequest analyzeRequest = request;
+			final RemoteAnalysisResult result = service.analyze(analyzeRequest, manifest, progressListener);
+			return AnalysisResult.create(result.getSummary(), null, new AnalysisResultDetailSource() {
+				@Override
+				public byte[] getDetails() throws IOException {
+					LogUtil.getInstance(JDependServiceRemoteProxy.class).systemLog("从服务器获取类细节");
+					return service.getClassDetails(analyzeRequest, result.getId());
+				}
+			});
+		} catch (ClassNotFoundException e) {
+			e.printStackTrace();
+			throw new JDependException("读取服务器分析结果出现问题:" + e.getMessage(), e);
 		} catch (RemoteException e) {
 			e.printStackTrace();
 			throw new JDependException("服务器分析出现问题:" + e.getMessage(), e);
 		} catch (IOException e) {
 			e.printStackTrace();
 			throw new JDependException("服务器分析出现问题:" + e.getMessage(), e);
+		} finally {
+			if (progressListener != null) {
+				try {
+					UnicastRemoteObject.unexportObject(progressListener, true);
+				} catch (NoSuchObjectException e) {
+					e.printStackTrace();
+				}
+			}
 		}
 	}
 
-	private void startMonitorAnalyseService() {
-		new Thread() {
+	/**
+	 * 导出由服务器回调的进度监听器，将进度转给解析监听器
+	 * 
+	 * @return
+	 * @throws RemoteException
+	 */
+	private RemoteAnalyzeListener exportProgressListener() throws RemoteException {
+		RemoteAnalyzeListener progressListener = new RemoteAnalyzeListener() {
 			@Override
-			public void run() {
-				int schedule = 0;
-				int count = 0;// 超时计数
-				try {
-					do {
-						Thread.sleep(WATCH_TIME);
-						schedule = getRemoteService().getAnalyzeSchedule(request);
-						listener.onParsedJavaClass(null, schedule);
-						count++;
-					} while (schedule < data.getAnalyzeData().getClassesCount() && count < TIMEOUT);
-					LogUtil.getInstance(JDependServiceRemoteProxy.class).systemLog(
-							"监控远程服务执行进度线程结束，结束参数为 schedule:" + schedule + " count:" + count);
-				} catch (RemoteException e) {
-					e.printStackTrace();
-				} catch (JDependException e) {
-					e.printStackTrace();
-				} catch (InterruptedException e) {
-					e.printStackTrace();
+			public void onParsed(int count) {
+				if (listener != null) {
+					listener.onParsedJavaClass(null, count);
 				}
 			}
-		}.start();
+
+			@Override
+			public void onPhase(String phase) {
+				LogUtil.getInstance(JDependServiceRemoteProxy.class).systemLog("远程分析阶段：" + phase);
+			}
+		};
+		UnicastRemoteObject.exportObject(progressListener, 0);
+		return progressListener;
+	}
+
+	/**
+	 * 先发送文件内容摘要，只上传服务器缺少的内容，得到只包含文件摘要的分析数据
+	 * 
+	 * @return
+	 * @throws JDependException
+	 * @throws IOException
+	 */
+	private AnalyseDataDTO uploadAnalyzeData() throws JDependException, IOException {
+		data.calAnalyzeData();
+		AnalyseDataDTO manifest = data.createManifest();
+
+		Map<String, byte[]> contents = new HashMap<String, byte[]>();
+		for (List<TargetFileInfo> targetFileInfos : data.getAnalyzeData().getFiles().values()) {
+			for (TargetFileInfo targetFileInfo : targetFileInfos) {
+				contents.put(targetFileInfo.getHash(), targetFileInfo.getContent());
+			}
+		}
+		Collection<String> missing = getRemoteService().getMissingContents(request,
+				new ArrayList<String>(contents.keySet()));
+
+		// 多个内容合并上传，较大的内容分段上传，每次上传不超过CHUNK_SIZE字节
+		List<ContentChunk> chunks = new ArrayList<ContentChunk>();
+		int size = 0;
+		long uploaded = 0;
+		byte[] content;
+		int offset;
+		int length;
+		for (String hash : missing) {
+			content = contents.get(hash);
+			offset = 0;
+			do {
+				length = Math.min(content.length - offset, CHUNK_SIZE - size);
+				chunks.add(new ContentChunk(hash, offset, Arrays.copyOfRange(content, offset, offset + length),
+						offset + length == content.length));
+				offset += length;
+				size += length;
+				if (size == CHUNK_SIZE) {
+					getRemoteService().uploadContents(request, chunks);
+					chunks = new ArrayList<ContentChunk>();
+					uploaded += size;
+					size = 0;
+				}
+			} while (offset < content.length);
+		}
+		if (chunks.size() > 0) {
+			getRemoteService().uploadContents(request, chunks);
+			uploaded += size;
+		}
+		LogUtil.getInstance(JDependServiceRemoteProxy.class).systemLog(
+				"上传文件内容：服务器缺少" + missing.size() + "个（共" + contents.size() + "个），上传" + uploaded + "字节");
+
+		return manifest;
 	}
 
 	public int countClasses() {
@@ -215,9 +294,9 @@ public class JDependServiceRemoteProxy extends AbstractJDependServiceProxy {
 	public Collection<JavaPackage> getPackages() throws JDependException {
 
 		try {
-			// 本地计算分析数据
-			data.calAnalyzeData();
-			return getRemoteService().getPackages(request, data);
+			// 本地计算分析数据并上传服务器缺少的内容
+			AnalyseDataDTO manifest = this.uploadAnalyzeData();
+			return getRemoteService().getPackages(request, manifest);
 		} catch (RemoteException e) {
 			e.printStackTrace();
 			throw new JDependException("服务器分析出现问题:" + e.getMessage(), e);
@@ -45,8 +45,6 @@ final class ScoreRepository {
 
 	private final static String deleteScoreExtSQL = "delete from scoreext where scoreid = ?";
 
-	private static String findScoreExtSql = "select itemname, score from scoreext where scoreid = ?";
-
 	public static void save(ScoreInfo score) throws JDependException {
 
 		if (score.group == null || score.command == null) {
@@ -188,32 +186,11 @@ final class ScoreRepository {
 		PreparedStatement ps = null;
 		ResultSet rs = null;
 
-		PreparedStatement ps1 = null;
-		ResultSet rs1 = null;
-		String itemname;
-
-		List<ScoreInfo> scoreList = new ArrayList<ScoreInfo>();
-		ScoreInfo score;
 		try {
 			conn = ConnectionFactory.getConnection();
 			ps = conn.prepareStatement(findAllSql);
 			rs = ps.executeQuery();
-			while (rs.next()) {
-				score = getScoreInfo(rs);
-
-				ps1 = conn.prepareStatement(findScoreExtSql);
-				ps1.setString(1, score.id);
-				rs1 = ps1.executeQuery();
-				while (rs1.next()) {
-					itemname = rs1.getString("itemname");
-					// if (itemname.equals(Encapsulation)) {
-					// score.encapsulation = rs1.getFloat("score");
-					// }
-				}
-
-				scoreList.add(score);
-			}
-			return scoreList;
+			return getScoreList(rs);
 
 		} catch (SQLException e) {
 			e.printStackTrace();
@@ -241,33 +218,12 @@ final class ScoreRepository {
 		PreparedStatement ps = null;
 		ResultSet rs = null;
 
-		PreparedStatement ps1 = null;
-		ResultSet rs1 = null;
-		String itemname;
-
-		List<ScoreInfo> scoreList = new ArrayList<ScoreInfo>();
-		ScoreInfo score;
 		try {
 			conn = ConnectionFactory.getConnection();
 			ps = conn.prepareStatement(findSqlFromBeginDate);
 			ps.setTimestamp(1, new Timestamp(begin.getTime()));
 			rs = ps.executeQuery();
-			while (rs.next()) {
-				score = getScoreInfo(rs);
-
-				ps1 = conn.prepareStatement(findScoreExtSql);
-				ps1.setString(1, score.id);
-				rs1 = ps1.executeQuery();
-				while (rs1.next()) {
-					itemname = rs1.getString("itemname");
-					// if (itemname.equals(Encapsulation)) {
-					// score.encapsulation = rs1.getFloat("score");
-					// }
-				}
-
-				scoreList.add(score);
-			}
-			return scoreList;
+			return getScoreList(rs);
 
 		} catch (SQLException e) {
 			e.printStackTrace();
@@ -473,6 +429,14 @@ final class ScoreRepository {
 		}
 	}
 
+	private static List<ScoreInfo> getScoreList(ResultSet rs) throws SQLException {
+		List<ScoreInfo> scoreList = new ArrayList<ScoreInfo>();
+		while (rs.next()) {
+			scoreList.add(getScoreInfo(rs));
+		}
+		return scoreList;
+	}
+
 	private static ScoreInfo getScoreInfo(ResultSet rs) throws SQLException {
 		ScoreInfo score = new ScoreInfo();
 		score.id = rs.getString("id");
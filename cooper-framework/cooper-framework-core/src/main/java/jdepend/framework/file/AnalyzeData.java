@@ -35,6 +35,30 @@ public class AnalyzeData implements Serializable {
 		files.get(place).add(targetFileInfo);
 	}
 
+	/**
+	 * 得到各位置下的文件
+	 * 
+	 * @return
+	 */
+	public Map<String, List<TargetFileInfo>> getFiles() {
+		return Collections.unmodifiableMap(files);
+	}
+
+	/**
+	 * 复制文件清单，只包含文件名称、类型和内容摘要，用于先确认对方缺少哪些内容再传输
+	 * 
+	 * @return
+	 */
+	public AnalyzeData createManifest() {
+		AnalyzeData manifest = new AnalyzeData();
+		for (String place : files.keySet()) {
+			for (TargetFileInfo targetFileInfo : files.get(place)) {
+				manifest.addFileInfo(place, targetFileInfo.createManifest());
+			}
+		}
+		return manifest;
+	}
+
 	public String getPath() {
 		StringBuilder path = new StringBuilder();
 		for (String fileName : files.keySet()) {
@@ -98,7 +122,13 @@ public class AnalyzeData implements Serializable {
 		}
 	}
 
-	private String getSmallPlace(String place) {
+	/**
+	 * 得到去掉公共前缀后的位置名称，与getClasses、getConfigs中的key一致
+	 * 
+	 * @param place
+	 * @return
+	 */
+	public String getSmallPlace(String place) {
 		if (this.placePos == null) {
 			List<String> places = new ArrayList<String>(files.keySet());
 			List<String[]> placeSegments = new ArrayList<String[]>();
@@ -5,46 +5,198 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
 
+import jdepend.framework.util.ThreadPool;
 import jdepend.framework.util.zip.ZipEntry;
 import jdepend.framework.util.zip.ZipInputStream;
 
 public class JarFileReader extends FileReader {
 
+	/**
+	 * 压缩包中文件名的编码，与jdepend.framework.util.zip.ZipInputStream保持一致
+	 */
+	private static final Charset EntryNameCharset = Charset.forName("gbk");
+
+	/**
+	 * 并行解压时预先提交的文件个数
+	 */
+	private static final int ReadAheadCount = ThreadPool.ThreadCount * 2;
+
+	private ExecutorService pool;
+
 	public JarFileReader(boolean acceptInnerClasses) {
 		super(acceptInnerClasses);
 	}
 
+	/**
+	 * @param acceptInnerClasses
+	 * @param pool
+	 *            用于并行解压的线程池，由调用者负责关闭
+	 */
+	public JarFileReader(boolean acceptInnerClasses, ExecutorService pool) {
+		super(acceptInnerClasses);
+		this.pool = pool;
+	}
+
 	public List<TargetFileInfo> readDatas(InputStream in) throws IOException {
 
-		List<TargetFileInfo> targetFileInfos = new ArrayList<TargetFileInfo>();
+		final List<TargetFileInfo> targetFileInfos = new ArrayList<TargetFileInfo>();
+
+		this.readDatas(in, null, true, true, new TargetFileHandler() {
+			@Override
+			public void handle(String place, TargetFileInfo targetFileInfo) throws IOException {
+				targetFileInfos.add(targetFileInfo);
+			}
+		});
+
+		return targetFileInfos;
+	}
+
+	/**
+	 * 逐个读取压缩包中的文件并交给handler处理，不在内存中保留已处理的文件
+	 * 
+	 * @param in
+	 * @param place
+	 * @param isReadClassContent
+	 *            为false时类文件只记录类名，不读取内容
+	 * @param isAcceptXML
+	 *            是否读取XML文件
+	 * @param handler
+	 * @throws IOException
+	 */
+	public void readDatas(InputStream in, String place, boolean isReadClassContent, boolean isAcceptXML,
+			TargetFileHandler handler) throws IOException {
+
 		TargetFileInfo targetFileInfo;
 
 		ZipInputStream zipInput = new ZipInputStream(in);
 
 		ZipEntry entry = zipInput.getNextEntry();
 		while (entry != null) {
-			if (this.acceptClassFileName(entry.getName()) || this.acceptXMLFileName(entry.getName())) {
+			if (this.acceptClassFileName(entry.getName())) {
 				targetFileInfo = new TargetFileInfo();
-				byte[] data = getData(zipInput);
-				targetFileInfo.setContent(data);
-				if (this.acceptClassFileName(entry.getName())) {
-					targetFileInfo.setName(parseClassName(entry.getName()));
-					targetFileInfo.setType(TargetFileInfo.TYPE_CLASS);
-				} else {
-					targetFileInfo.setName(entry.getName());
-					targetFileInfo.setType(TargetFileInfo.TYPE_XML);
+				if (isReadClassContent) {
+					targetFileInfo.setContent(getData(zipInput, entry.getSize()));
 				}
-				targetFileInfos.add(targetFileInfo);
+				targetFileInfo.setName(parseClassName(entry.getName()));
+				targetFileInfo.setType(TargetFileInfo.TYPE_CLASS);
+				handler.handle(place, targetFileInfo);
+			} else if (isAcceptXML && this.acceptXMLFileName(entry.getName())) {
+				targetFileInfo = new TargetFileInfo();
+				targetFileInfo.setContent(getData(zipInput, entry.getSize()));
+				targetFileInfo.setName(entry.getName());
+				targetFileInfo.setType(TargetFileInfo.TYPE_XML);
+				handler.handle(place, targetFileInfo);
 			}
 			entry = zipInput.getNextEntry();
 		}
 
 		zipInput.close();
+	}
 
-		return targetFileInfos;
+	/**
+	 * 通过压缩包的中心目录随机读取文件并交给handler处理
+	 * 
+	 * 文件按在压缩包中的顺序交给handler，handler只在调用线程中执行；设置了线程池时，后续文件的解压在线程池中并行进行。
+	 * 不是有效压缩包的文件按流式读取处理。
+	 * 
+	 * @param file
+	 * @param place
+	 * @param isReadClassContent
+	 *            为false时类文件只记录类名，不读取内容
+	 * @param isAcceptXML
+	 *            是否读取XML文件
+	 * @param handler
+	 * @throws IOException
+	 */
+	public void readDatas(File file, String place, boolean isReadClassContent, boolean isAcceptXML,
+			TargetFileHandler handler) throws IOException {
+
+		ZipFile zipFile;
+		try {
+			zipFile = new ZipFile(file, EntryNameCharset);
+		} catch (ZipException e) {
+			InputStream in = new FileInputStream(file);
+			try {
+				this.readDatas(in, place, isReadClassContent, isAcceptXML, handler);
+			} finally {
+				in.close();
+			}
+			return;
+		}
+
+		try {
+			LinkedList<Future<TargetFileInfo>> readings = new LinkedList<Future<TargetFileInfo>>();
+			Enumeration<? extends java.util.zip.ZipEntry> entries = zipFile.entries();
+			while (entries.hasMoreElements()) {
+				java.util.zip.ZipEntry entry = entries.nextElement();
+				Callable<TargetFileInfo> reading = null;
+				if (this.acceptClassFileName(entry.getName())) {
+					reading = new EntryReading(zipFile, entry, TargetFileInfo.TYPE_CLASS, isReadClassContent);
+				} else if (isAcceptXML && this.acceptXMLFileName(entry.getName())) {
+					reading = new EntryReading(zipFile, entry, TargetFileInfo.TYPE_XML, true);
+				}
+				if (reading != null) {
+					if (pool == null) {
+						handler.handle(place, call(reading));
+					} else {
+						readings.add(pool.submit(reading));
+						if (readings.size() >= ReadAheadCount) {
+							handler.handle(place, get(readings.removeFirst()));
+						}
+					}
+				}
+			}
+			while (!readings.isEmpty()) {
+				handler.handle(place, get(readings.removeFirst()));
+			}
+		} finally {
+			zipFile.close();
+		}
+	}
+
+	/**
+	 * 只通过压缩包的中心目录计算类个数，不解压文件内容
+	 * 
+	 * @param file
+	 * @return
+	 * @throws IOException
+	 */
+	public int countClasses(File file) throws IOException {
+		ZipFile zipFile;
+		try {
+			zipFile = new ZipFile(file, EntryNameCharset);
+		} catch (ZipException e) {
+			InputStream in = new FileInputStream(file);
+			try {
+				return this.countClasses(in);
+			} finally {
+				in.close();
+			}
+		}
+		try {
+			int count = 0;
+			Enumeration<? extends java.util.zip.ZipEntry> entries = zipFile.entries();
+			while (entries.hasMoreElements()) {
+				if (acceptClassFileName(entries.nextElement().getName())) {
+					count++;
+				}
+			}
+			return count;
+		} finally {
+			zipFile.close();
+		}
 	}
 
 	public int countClasses(InputStream in) throws IOException {
@@ -66,10 +218,32 @@ public class JarFileReader extends FileReader {
 		return count;
 	}
 
-	private static byte[] getData(InputStream in) throws IOException {
+	/**
+	 * 读取文件内容，已知文件大小时直接读入同样大小的数组
+	 * 
+	 * @param in
+	 * @param size
+	 *            未知时为-1
+	 * @return
+	 * @throws IOException
+	 */
+	private static byte[] getData(InputStream in, long size) throws IOException {
+		if (size >= 0 && size <= Integer.MAX_VALUE) {
+			byte[] data = new byte[(int) size];
+			int offset = 0;
+			int chunk;
+			while (offset < data.length && -1 != (chunk = in.read(data, offset, data.length - offset))) {
+				offset += chunk;
+			}
+			if (offset == data.length) {
+				return data;
+			}
+			throw new IOException("Unexpected end of entry, expected " + size + " bytes but read " + offset);
+		}
+
 		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
 		int chunk = 0;
-		byte[] data = new byte[256];
+		byte[] data = new byte[8192];
 		while (-1 != (chunk = in.read(data))) {
 			outputStream.write(data, 0, chunk);
 		}
@@ -78,6 +252,72 @@ public class JarFileReader extends FileReader {
 
 	}
 
+	private static TargetFileInfo call(Callable<TargetFileInfo> reading) throws IOException {
+		try {
+			return reading.call();
+		} catch (IOException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IOException(e);
+		}
+	}
+
+	private static TargetFileInfo get(Future<TargetFileInfo> reading) throws IOException {
+		try {
+			return reading.get();
+		} catch (InterruptedException e) {
+			throw new IOException(e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			} else {
+				throw new IOException(e.getCause());
+			}
+		}
+	}
+
+	/**
+	 * 读取压缩包中的一个文件
+	 * 
+	 */
+	private static class EntryReading implements Callable<TargetFileInfo> {
+
+		private ZipFile zipFile;
+
+		private java.util.zip.ZipEntry entry;
+
+		private String type;
+
+		private boolean isReadContent;
+
+		public EntryReading(ZipFile zipFile, java.util.zip.ZipEntry entry, String type, boolean isReadContent) {
+			this.zipFile = zipFile;
+			this.entry = entry;
+			this.type = type;
+			this.isReadContent = isReadContent;
+		}
+
+		@Override
+		public TargetFileInfo call() throws IOException {
+			TargetFileInfo targetFileInfo = new TargetFileInfo();
+			if (isReadContent) {
+				InputStream in = zipFile.getInputStream(entry);
+				try {
+					targetFileInfo.setContent(getData(in, entry.getSize()));
+				} finally {
+					in.close();
+				}
+			}
+			if (TargetFileInfo.TYPE_CLASS.equals(type)) {
+				targetFileInfo.setName(parseClassName(entry.getName()));
+			} else {
+				targetFileInfo.setName(entry.getName());
+			}
+			targetFileInfo.setType(type);
+			return targetFileInfo;
+		}
+	}
+
 	/**
 	 * 从压缩包中识别类名
 	 * 
@@ -14,23 +14,40 @@ public class SimpileFileReader extends FileReader {
 	}
 
 	public TargetFileInfo readDatas(String place, File file) throws IOException {
+		return this.readDatas(place, file, true);
+	}
+
+	/**
+	 * 读取文件
+	 * 
+	 * @param place
+	 * @param file
+	 * @param isReadClassContent
+	 *            为false时类文件只记录类名，不读取内容
+	 * @return
+	 * @throws IOException
+	 */
+	public TargetFileInfo readDatas(String place, File file, boolean isReadClassContent) throws IOException {
 
 		TargetFileInfo targetFileInfo;
 		byte[] fileData = null;
 
 		if (this.acceptClassFile(file) || this.acceptXMLFile(file)) {
+			targetFileInfo = new TargetFileInfo();
+			targetFileInfo.setName(parseClassName(place, file.getPath()));
+			if (this.acceptClassFile(file)) {
+				targetFileInfo.setType(TargetFileInfo.TYPE_CLASS);
+				if (!isReadClassContent) {
+					return targetFileInfo;
+				}
+			} else {
+				targetFileInfo.setType(TargetFileInfo.TYPE_XML);
+			}
 			FileInputStream fis = null;
 			try {
 				fis = new FileInputStream(file);
 				fileData = StreamUtil.getData(fis);
-				targetFileInfo = new TargetFileInfo();
-				targetFileInfo.setName(parseClassName(place, file.getPath()));
 				targetFileInfo.setContent(fileData);
-				if (this.acceptClassFile(file)) {
-					targetFileInfo.setType(TargetFileInfo.TYPE_CLASS);
-				} else {
-					targetFileInfo.setType(TargetFileInfo.TYPE_XML);
-				}
 				return targetFileInfo;
 			} catch (JDependException e) {
 				e.printStackTrace();
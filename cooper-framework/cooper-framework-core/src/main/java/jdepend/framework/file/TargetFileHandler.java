@@ -0,0 +1,25 @@
+package jdepend.framework.file;
+
+import java.io.IOException;
+
+/**
+ * 目标文件处理器
+ * 
+ * 用于逐个接收读取到的目标文件，使文件读取与后续处理可以交替进行。
+ * 
+ * @author user
+ * 
+ */
+public interface TargetFileHandler {
+
+	/**
+	 * 处理读取到的目标文件
+	 * 
+	 * @param place
+	 *            文件所在的目录或压缩包
+	 * @param targetFileInfo
+	 * @throws IOException
+	 */
+	void handle(String place, TargetFileInfo targetFileInfo) throws IOException;
+
+}
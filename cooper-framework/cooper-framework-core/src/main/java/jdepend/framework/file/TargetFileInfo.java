@@ -1,6 +1,8 @@
 package jdepend.framework.file;
 
 import java.io.Serializable;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 public class TargetFileInfo implements Serializable {
 
@@ -9,10 +11,18 @@ public class TargetFileInfo implements Serializable {
 	private String name;
 	private String type;
 	private byte[] content;
+	private String hash;// 内容的SHA-256摘要
 
 	public final static String TYPE_CLASS = "CLASS";
 	public final static String TYPE_XML = "XML";
 
+	/**
+	 * 内容摘要的十六进制长度
+	 */
+	public static final int HashLength = 64;
+
+	private static final char[] HexDigits = "0123456789abcdef".toCharArray();
+
 	public TargetFileInfo() {
 		super();
 	}
@@ -39,6 +49,46 @@ public class TargetFileInfo implements Serializable {
 
 	public void setContent(byte[] content) {
 		this.content = content;
+		this.hash = null;
+	}
+
+	/**
+	 * 得到内容的SHA-256摘要（十六进制），内容为空时返回null
+	 * 
+	 * @return
+	 */
+	public String getHash() {
+		if (this.hash == null && this.content != null) {
+			this.hash = calHash(this.content);
+		}
+		return hash;
+	}
+
+	/**
+	 * 复制名称、类型和摘要，不复制内容
+	 * 
+	 * @return
+	 */
+	public TargetFileInfo createManifest() {
+		TargetFileInfo manifest = new TargetFileInfo();
+		manifest.name = this.name;
+		manifest.type = this.type;
+		manifest.hash = this.getHash();
+		return manifest;
+	}
+
+	public static String calHash(byte[] content) {
+		try {
+			byte[] bytes = MessageDigest.getInstance("SHA-256").digest(content);
+			char[] chars = new char[bytes.length * 2];
+			for (int i = 0; i < bytes.length; i++) {
+				chars[i * 2] = HexDigits[(bytes[i] >> 4) & 0x0f];
+				chars[i * 2 + 1] = HexDigits[bytes[i] & 0x0f];
+			}
+			return new String(chars);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
 	}
 
 }
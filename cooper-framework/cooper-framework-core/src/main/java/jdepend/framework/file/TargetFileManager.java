@@ -1,17 +1,17 @@
 package jdepend.framework.file;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 import jdepend.framework.file.gather.AcceptFile;
 import jdepend.framework.file.gather.FileGatherUtil;
 import jdepend.framework.file.gather.FileGatherUtilFactory;
 import jdepend.framework.file.gather.TargetFiles;
 import jdepend.framework.util.FileUtil;
+import jdepend.framework.util.ThreadPool;
 
 /**
  * The <code>TargetFileManager</code> class is responsible for extracting Java
@@ -89,39 +89,76 @@ public class TargetFileManager extends FileReader implements AcceptFile {
 	}
 
 	public AnalyzeData getAnalyzeData() throws IOException {
+		return this.getAnalyzeData(true);
+	}
 
-		data = new AnalyzeData();
-		SimpileFileReader simpileFileReader = new SimpileFileReader(this.isAcceptInnerClasses());
+	/**
+	 * 得到分析数据
+	 * 
+	 * @param isReadClassContent
+	 *            为false时类文件只记录类名，类文件内容通过readClassDatas流式读取
+	 * @return
+	 * @throws IOException
+	 */
+	public AnalyzeData getAnalyzeData(boolean isReadClassContent) throws IOException {
+
+		final AnalyzeData data = new AnalyzeData();
+
+		this.readFiles(isReadClassContent, true, new TargetFileHandler() {
+			@Override
+			public void handle(String place, TargetFileInfo targetFileInfo) throws IOException {
+				data.addFileInfo(place, targetFileInfo);
+			}
+		});
 
-		for (String place : this.extractFiles().getFiles().keySet()) {
-			for (File file : this.extractFiles().getFiles().get(place)) {
-				try {
-					if (this.acceptClassFile(file) || this.acceptXMLFile(file)) {
-						TargetFileInfo targetFileInfo = simpileFileReader.readDatas(place, file);
-						if (targetFileInfo != null) {
-							data.addFileInfo(place, targetFileInfo);
-						}
-					} else if (FileUtil.acceptCompressFile(file)) {
+		this.data = data;
+		return data;
+	}
+
+	/**
+	 * 逐个读取类文件并交给handler处理，读取顺序与getAnalyzeData一致
+	 * 
+	 * @param handler
+	 * @throws IOException
+	 */
+	public void readClassDatas(TargetFileHandler handler) throws IOException {
+		this.readFiles(true, false, handler);
+	}
 
-						InputStream in = new FileInputStream(file);
-						JarFileReader reader = new JarFileReader(this.isAcceptInnerClasses());
-						List<TargetFileInfo> targetFileInfos2 = reader.readDatas(in);
-						in.close();
+	private void readFiles(boolean isReadClassContent, boolean isAcceptXML, TargetFileHandler handler)
+			throws IOException {
 
-						for (TargetFileInfo targetFileInfo2 : targetFileInfos2) {
-							data.addFileInfo(file.getAbsolutePath(), targetFileInfo2);
+		SimpileFileReader simpileFileReader = new SimpileFileReader(this.isAcceptInnerClasses());
+		ExecutorService pool = ThreadPool.getPool();
+		JarFileReader jarFileReader = new JarFileReader(this.isAcceptInnerClasses(), pool);
+
+		try {
+			for (String place : this.extractFiles().getFiles().keySet()) {
+				for (File file : this.extractFiles().getFiles().get(place)) {
+					try {
+						if (this.acceptClassFile(file) || (isAcceptXML && this.acceptXMLFile(file))) {
+							TargetFileInfo targetFileInfo = simpileFileReader.readDatas(place, file,
+									isReadClassContent);
+							if (targetFileInfo != null) {
+								handler.handle(place, targetFileInfo);
+							}
+						} else if (this.acceptXMLFile(file)) {
+							continue;
+						} else if (FileUtil.acceptCompressFile(file)) {
+							jarFileReader.readDatas(file, file.getAbsolutePath(), isReadClassContent, isAcceptXML,
+									handler);
+						} else {
+							throw new IOException("File is not a valid " + ".class, .jar, .war, .dll, or .zip file: "
+									+ file.getPath());
 						}
-					} else {
-						throw new IOException("File is not a valid " + ".class, .jar, .war, .dll, or .zip file: "
-								+ file.getPath());
+					} catch (IOException e) {
+						throw new IOException(file.getPath() + " File read error ", e);
 					}
-				} catch (IOException e) {
-					throw new IOException(file.getPath() + " File read error ", e);
 				}
 			}
+		} finally {
+			ThreadPool.shutdown(pool);
 		}
-
-		return data;
 	}
 
 	public int countClasses() {
@@ -145,13 +182,7 @@ public class TargetFileManager extends FileReader implements AcceptFile {
 	}
 
 	private int countClasses(File file) throws IOException {
-
-		InputStream in = new FileInputStream(file);
-		JarFileReader reader = new JarFileReader(this.isAcceptInnerClasses());
-		int count = reader.countClasses(in);
-		in.close();
-
-		return count;
+		return new JarFileReader(this.isAcceptInnerClasses()).countClasses(file);
 	}
 
 	@Override
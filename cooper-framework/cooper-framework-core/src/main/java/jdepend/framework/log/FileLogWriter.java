@@ -1,24 +1,80 @@
 package jdepend.framework.log;
 
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Calendar;
+import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
 import jdepend.framework.context.JDependContext;
 import jdepend.framework.exception.JDependException;
 import jdepend.framework.util.FileUtil;
 
+/**
+ * 写入日志文件的SystemLogWriter
+ *
+ * 日志先放入环形缓冲区，由后台线程批量写入保持打开的日志文件；缓冲区满时写日志的线程等待后台线程写出。
+ * 进程退出时写出缓冲区中剩余的日志。
+ *
+ * @author <b>Abner</b>
+ *
+ */
 public class FileLogWriter implements SystemLogWriter {
 
 	private String file;
 
-	private List<LogListener> logListeners = new ArrayList<LogListener>();
+	private List<LogListener> logListeners = new CopyOnWriteArrayList<LogListener>();
 
 	public transient static final String DEFAULT_PROPERTY_FILE = "JDependLog.log";
 
+	private static final int BufferSize = 8192;
+
+	private static final int BatchSize = 512;
+
+	private static final long IdleWait = TimeUnit.MILLISECONDS.toNanos(50);
+
+	private final LogRingBuffer<LogItem> buffer = new LogRingBuffer<LogItem>(BufferSize);
+
+	private final Object fileLock = new Object();
+
+	private Writer fileWriter;// 由fileLock保护
+
+	private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd hh:mm:ss");// 由fileLock保护
+
+	private final Thread flusher;
+
+	private volatile boolean closed = false;
+
 	public FileLogWriter() {
 		file = JDependContext.getWorkspacePath() + "//" + DEFAULT_PROPERTY_FILE;
+
+		flusher = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				List<LogItem> items = new ArrayList<LogItem>(BatchSize);
+				while (!closed) {
+					if (writeBuffer(items) == 0) {
+						LockSupport.parkNanos(this, IdleWait);
+					}
+				}
+			}
+		}, "FileLogWriter");
+		flusher.setDaemon(true);
+		flusher.start();
+
+		Runtime.getRuntime().addShutdownHook(new Thread() {
+			@Override
+			public void run() {
+				FileLogWriter.this.close();
+			}
+		});
 	}
 
 	public void systemError(String error) {
@@ -30,29 +86,138 @@ public class FileLogWriter implements SystemLogWriter {
 	}
 
 	public void systemLog(String log) {
-		this.writer(SYSTEMLOG, Runtime.getRuntime().totalMemory() / 1048576 + "M-" + log);
+		this.writer(SYSTEMLOG, log);
 	}
 
 	private void writer(String type, String log) {
+		// 打印者保存在调用线程中，需在放入缓冲区前获取
+		Class printer = LogUtil.getPrinter();
+		LogItem item = new LogItem(type, printer == null ? "" : printer.getName(), System.currentTimeMillis(), log);
+		if (closed) {
+			this.writeDirect(item);
+			return;
+		}
+		while (!buffer.offer(item)) {
+			if (closed) {
+				this.writeDirect(item);
+				return;
+			}
+			LockSupport.unpark(flusher);
+			Thread.yield();
+		}
+		if (closed) {
+			// 放入缓冲区时后台线程可能已经退出，由当前线程写出
+			this.flush();
+			synchronized (fileLock) {
+				this.closeFile();
+			}
+		}
+	}
+
+	/**
+	 * 关闭后不经过缓冲区直接写入文件
+	 *
+	 * @param item
+	 */
+	private void writeDirect(LogItem item) {
+		List<LogItem> items = new ArrayList<LogItem>(1);
+		items.add(item);
+		synchronized (fileLock) {
+			this.write(items);
+			this.closeFile();
+		}
+		onLog();
+	}
+
+	/**
+	 * 将缓冲区中的日志写入文件
+	 *
+	 * @param items
+	 * @return 写入的条数
+	 */
+	private int writeBuffer(List<LogItem> items) {
+		int count = 0;
+		synchronized (fileLock) {
+			while (buffer.drain(items, BatchSize) > 0) {
+				this.write(items);
+				count += items.size();
+				items.clear();
+			}
+			if (count > 0) {
+				this.flushFile();
+			}
+		}
+		if (count > 0) {
+			onLog();
+		}
+		return count;
+	}
+
+	private void write(List<LogItem> items) {
 		StringBuilder info = new StringBuilder();
-		info.append(type);
-		info.append("-");
-		info.append(LogUtil.getPrinter().getName());
-		info.append("-");
-		info.append(getCurrentDate());
-		info.append("-");
-		info.append(log);
-		info.append("\r\n");
+		long memory = Runtime.getRuntime().totalMemory() / 1048576;
+		for (LogItem item : items) {
+			info.append(item.type);
+			info.append("-");
+			info.append(item.printer);
+			info.append("-");
+			info.append(dateFormat.format(new Date(item.time)));
+			info.append("-");
+			if (item.type == SYSTEMLOG) {
+				info.append(memory);
+				info.append("M-");
+			}
+			info.append(item.log);
+			info.append("\r\n");
+		}
 		try {
-			FileUtil.appendFileContent(file, info, "UTF-8");
-		} catch (JDependException e) {
+			if (fileWriter == null) {
+				fileWriter = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), "UTF-8"));
+			}
+			fileWriter.write(info.toString());
+		} catch (IOException e) {
 			e.printStackTrace();
 		}
-		onLog();
 	}
 
-	private String getCurrentDate() {
-		return (new SimpleDateFormat("yyyy-MM-dd hh:mm:ss")).format(Calendar.getInstance().getTime());
+	private void flushFile() {
+		if (fileWriter != null) {
+			try {
+				fileWriter.flush();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	private void closeFile() {
+		if (fileWriter != null) {
+			try {
+				fileWriter.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+			fileWriter = null;
+		}
+	}
+
+	/**
+	 * 将已经记录的日志写入文件
+	 */
+	public void flush() {
+		this.writeBuffer(new ArrayList<LogItem>(BatchSize));
+	}
+
+	/**
+	 * 写出剩余的日志并停止后台线程，之后的日志直接写入文件
+	 */
+	public void close() {
+		closed = true;
+		LockSupport.unpark(flusher);
+		this.flush();
+		synchronized (fileLock) {
+			this.closeFile();
+		}
 	}
 
 	private void onLog() {
@@ -64,6 +229,7 @@ public class FileLogWriter implements SystemLogWriter {
 	}
 
 	public StringBuilder read() throws JDependException {
+		this.flush();
 		try {
 			return FileUtil.readFileContent(file, "GBK");
 		} catch (JDependException e) {
@@ -79,12 +245,33 @@ public class FileLogWriter implements SystemLogWriter {
 	}
 
 	public void clear() throws JDependException {
-		try {
-			FileUtil.saveFileContent(file, new StringBuilder(), "GBK");
-		} catch (JDependException e) {
-			e.printStackTrace();
-			throw new JDependException("清除日志文件[" + file + "]失败。", e);
+		this.flush();
+		synchronized (fileLock) {
+			this.closeFile();
+			try {
+				FileUtil.saveFileContent(file, new StringBuilder(), "GBK");
+			} catch (JDependException e) {
+				e.printStackTrace();
+				throw new JDependException("清除日志文件[" + file + "]失败。", e);
+			}
 		}
+	}
+
+	private static final class LogItem {
+
+		private final String type;
+
+		private final String printer;
 
+		private final long time;
+
+		private final String log;
+
+		public LogItem(String type, String printer, long time, String log) {
+			this.type = type;
+			this.printer = printer;
+			this.time = time;
+			this.log = log;
+		}
 	}
 }
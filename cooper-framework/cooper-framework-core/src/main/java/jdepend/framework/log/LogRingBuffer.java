@@ -0,0 +1,86 @@
+package jdepend.framework.log;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 多生产者单消费者的无锁环形缓冲区
+ *
+ * 生产者通过CAS占用序号后写入对应槽位；消费者按序号顺序读取并清空槽位，槽位为null表示占用该序号的生产者尚未写入。
+ *
+ * @author <b>Abner</b>
+ *
+ */
+final class LogRingBuffer<T> {
+
+	private final AtomicReferenceArray<T> slots;
+
+	private final int mask;
+
+	private final AtomicLong tail = new AtomicLong();
+
+	private volatile long head = 0;
+
+	/**
+	 * @param capacity
+	 *            容量，必须为2的幂
+	 */
+	public LogRingBuffer(int capacity) {
+		if (capacity <= 0 || (capacity & (capacity - 1)) != 0) {
+			throw new IllegalArgumentException("容量必须为2的幂：" + capacity);
+		}
+		this.slots = new AtomicReferenceArray<T>(capacity);
+		this.mask = capacity - 1;
+	}
+
+	/**
+	 * 放入元素
+	 *
+	 * @param item
+	 * @return 缓冲区已满时返回false
+	 */
+	public boolean offer(T item) {
+		long t;
+		do {
+			t = tail.get();
+			if (t - head >= slots.length()) {
+				return false;
+			}
+		} while (!tail.compareAndSet(t, t + 1));
+		slots.set((int) (t & mask), item);
+		return true;
+	}
+
+	/**
+	 * 按放入顺序取出元素，同一时刻只能有一个线程调用
+	 *
+	 * @param items
+	 * @param max
+	 *            最多取出的个数
+	 * @return 取出的个数
+	 */
+	public int drain(Collection<T> items, int max) {
+		long h = head;
+		int count = 0;
+		int index;
+		T item;
+		while (count < max) {
+			index = (int) (h & mask);
+			item = slots.get(index);
+			if (item == null) {
+				break;
+			}
+			slots.set(index, null);
+			items.add(item);
+			h++;
+			count++;
+		}
+		head = h;
+		return count;
+	}
+
+	public boolean isEmpty() {
+		return head == tail.get();
+	}
+}
@@ -1,5 +1,7 @@
 package jdepend.framework.log;
 
+import java.util.function.Supplier;
+
 import jdepend.framework.config.PropertyConfigurator;
 
 public class LogUtil {
@@ -64,6 +66,80 @@ public class LogUtil {
 			writer.systemError(error);
 	}
 
+	/**
+	 * 日志关闭时不生成日志内容
+	 * 
+	 * @param log
+	 */
+	public void systemLog(Supplier<String> log) {
+		if (SYSTEMLOG)
+			writer.systemLog(log.get());
+	}
+
+	public void systemWarning(Supplier<String> log) {
+		if (SYSTEMWARNING)
+			writer.systemWarning(log.get());
+	}
+
+	public void systemError(Supplier<String> error) {
+		if (SYSTEMERROR)
+			writer.systemError(error.get());
+	}
+
+	/**
+	 * 以参数依次替换pattern中的{}，日志关闭时不拼接日志内容
+	 * 
+	 * @param pattern
+	 * @param args
+	 */
+	public void systemLog(String pattern, Object... args) {
+		if (SYSTEMLOG)
+			writer.systemLog(format(pattern, args));
+	}
+
+	public void systemWarning(String pattern, Object... args) {
+		if (SYSTEMWARNING)
+			writer.systemWarning(format(pattern, args));
+	}
+
+	public void systemError(String pattern, Object... args) {
+		if (SYSTEMERROR)
+			writer.systemError(format(pattern, args));
+	}
+
+	/**
+	 * 以参数依次替换pattern中的{}，参数多于{}时忽略多余的参数
+	 * 
+	 * @param pattern
+	 * @param args
+	 * @return
+	 */
+	public static String format(String pattern, Object... args) {
+		if (args == null || args.length == 0) {
+			return pattern;
+		}
+		StringBuilder info = new StringBuilder(pattern.length() + 16 * args.length);
+		int start = 0;
+		int pos;
+		int arg = 0;
+		while (arg < args.length && (pos = pattern.indexOf("{}", start)) != -1) {
+			info.append(pattern, start, pos);
+			info.append(args[arg++]);
+			start = pos + 2;
+		}
+		info.append(pattern, start, pattern.length());
+		return info.toString();
+	}
+
+	/**
+	 * 将缓冲的日志写出
+	 */
+	public void flush() {
+		if (writer instanceof FileLogWriter) {
+			((FileLogWriter) writer).flush();
+		}
+	}
+
 	public void addLogListener(LogListener logListener) {
 		if (writer instanceof FileLogWriter) {
 			((FileLogWriter) writer).addLogListener(logListener);
@@ -14,4 +14,13 @@ public final class ConnectionFactory {
 	public static void setProvider(ConnectionProvider provider) {
 		ConnectionFactory.provider = provider;
 	}
+
+	/**
+	 * 关闭连接池中的连接
+	 */
+	public static void close() {
+		if (provider instanceof PooledConnectionProvider) {
+			((PooledConnectionProvider) provider).close();
+		}
+	}
 }
@@ -0,0 +1,284 @@
+package jdepend.framework.persistent;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import jdepend.framework.log.LogUtil;
+
+/**
+ * 带连接池的ConnectionProvider
+ *
+ * 调用者关闭连接时连接归还到池中，不再每次都创建物理连接；同一连接上按SQL缓存PreparedStatement，
+ * 调用者关闭PreparedStatement时只清除参数；超出缓存个数被移出缓存的PreparedStatement在连接归还时才关闭，
+ * 借用者仍持有的PreparedStatement不会被关闭。子类通过createConnection创建物理连接。
+ *
+ * 同一连接上以相同SQL准备的PreparedStatement为同一个对象，不能交替使用。
+ *
+ * @author <b>Abner</b>
+ *
+ */
+public abstract class PooledConnectionProvider implements ConnectionProvider {
+
+	private static final int DefaultMaxIdle = 8;
+
+	private static final int DefaultMaxStatements = 32;
+
+	private final int maxIdle;
+
+	private final int maxStatements;
+
+	private final LinkedList<PooledConnection> idleConnections = new LinkedList<PooledConnection>();
+
+	private boolean closed = false;
+
+	public PooledConnectionProvider() {
+		this(DefaultMaxIdle, DefaultMaxStatements);
+	}
+
+	/**
+	 * @param maxIdle
+	 *            池中保留的最大空闲连接数
+	 * @param maxStatements
+	 *            每个连接缓存的最大PreparedStatement数
+	 */
+	public PooledConnectionProvider(int maxIdle, int maxStatements) {
+		this.maxIdle = maxIdle;
+		this.maxStatements = maxStatements;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		PooledConnection connection = null;
+		synchronized (this) {
+			while (connection == null && !idleConnections.isEmpty()) {
+				connection = idleConnections.removeFirst();
+				if (connection.physical.isClosed()) {
+					connection = null;
+				}
+			}
+		}
+		if (connection == null) {
+			connection = new PooledConnection(this.createConnection());
+		}
+		return connection.open();
+	}
+
+	/**
+	 * 创建物理连接
+	 *
+	 * @return
+	 * @throws SQLException
+	 */
+	protected abstract Connection createConnection() throws SQLException;
+
+	/**
+	 * 关闭池中的空闲连接，之后归还的连接直接关闭
+	 */
+	public void close() {
+		LinkedList<PooledConnection> connections;
+		synchronized (this) {
+			this.closed = true;
+			connections = new LinkedList<PooledConnection>(idleConnections);
+			idleConnections.clear();
+		}
+		for (PooledConnection connection : connections) {
+			connection.closePhysical();
+		}
+	}
+
+	private void release(PooledConnection connection) {
+		connection.closeEvictedStatements();
+		boolean pooled = false;
+		try {
+			if (!connection.physical.isClosed()) {
+				// 未提交的事务回滚，恢复自动提交
+				if (!connection.physical.getAutoCommit()) {
+					connection.physical.rollback();
+					connection.physical.setAutoCommit(true);
+				}
+				synchronized (this) {
+					if (!closed && idleConnections.size() < maxIdle) {
+						idleConnections.addLast(connection);
+						pooled = true;
+					}
+				}
+			}
+		} catch (SQLException e) {
+			LogUtil.getInstance(PooledConnectionProvider.class).systemWarning("归还连接失败：" + e.getMessage());
+		}
+		if (!pooled) {
+			connection.closePhysical();
+		}
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getTargetException();
+		}
+	}
+
+	/**
+	 * 池中的物理连接及其PreparedStatement缓存
+	 *
+	 * @author <b>Abner</b>
+	 *
+	 */
+	private final class PooledConnection {
+
+		private final Connection physical;
+
+		private final Map<String, PreparedStatement> statements;
+
+		/**
+		 * 移出缓存但可能仍被借用者使用的PreparedStatement，连接归还时关闭
+		 */
+		private final List<PreparedStatement> evictedStatements = new ArrayList<PreparedStatement>();
+
+		public PooledConnection(Connection physical) {
+			this.physical = physical;
+			this.statements = new LinkedHashMap<String, PreparedStatement>(16, 0.75F, true) {
+				private static final long serialVersionUID = -6270513287935208584L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+					if (this.size() > maxStatements) {
+						evictedStatements.add(eldest.getValue());
+						return true;
+					} else {
+						return false;
+					}
+				}
+			};
+		}
+
+		/**
+		 * 得到交给调用者的连接，每次借出都是新的代理对象，关闭后不能再使用
+		 *
+		 * @return
+		 */
+		public Connection open() {
+			return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+					new Class<?>[] { Connection.class }, new ConnectionHandler(this));
+		}
+
+		public PreparedStatement prepareStatement(Connection proxy, String sql) throws SQLException {
+			PreparedStatement statement = statements.get(sql);
+			if (statement == null) {
+				statement = physical.prepareStatement(sql);
+				statements.put(sql, statement);
+			}
+			return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+					new Class<?>[] { PreparedStatement.class }, new StatementHandler(proxy, statement));
+		}
+
+		public void closeEvictedStatements() {
+			for (PreparedStatement statement : evictedStatements) {
+				closeStatement(statement);
+			}
+			evictedStatements.clear();
+		}
+
+		public void closePhysical() {
+			this.closeEvictedStatements();
+			for (PreparedStatement statement : statements.values()) {
+				closeStatement(statement);
+			}
+			statements.clear();
+			try {
+				physical.close();
+			} catch (SQLException e) {
+				LogUtil.getInstance(PooledConnectionProvider.class).systemWarning("关闭连接失败：" + e.getMessage());
+			}
+		}
+
+		private void closeStatement(PreparedStatement statement) {
+			try {
+				statement.close();
+			} catch (SQLException e) {
+				LogUtil.getInstance(PooledConnectionProvider.class).systemWarning(
+						"关闭PreparedStatement失败：" + e.getMessage());
+			}
+		}
+	}
+
+	private final class ConnectionHandler implements InvocationHandler {
+
+		private PooledConnection connection;
+
+		public ConnectionHandler(PooledConnection connection) {
+			this.connection = connection;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if (name.equals("close")) {
+				if (connection != null) {
+					PooledConnection released = connection;
+					connection = null;
+					release(released);
+				}
+				return null;
+			} else if (name.equals("isClosed")) {
+				return connection == null || connection.physical.isClosed();
+			} else if (name.equals("equals")) {
+				return proxy == args[0];
+			} else if (name.equals("hashCode")) {
+				return System.identityHashCode(proxy);
+			} else if (name.equals("toString")) {
+				return "PooledConnection[" + (connection == null ? "closed" : connection.physical) + "]";
+			}
+			if (connection == null) {
+				throw new SQLException("连接已经关闭");
+			}
+			if (name.equals("prepareStatement") && args.length == 1) {
+				return connection.prepareStatement((Connection) proxy, (String) args[0]);
+			} else {
+				return PooledConnectionProvider.invoke(connection.physical, method, args);
+			}
+		}
+	}
+
+	private static final class StatementHandler implements InvocationHandler {
+
+		private final Connection connection;
+
+		private final PreparedStatement statement;
+
+		public StatementHandler(Connection connection, PreparedStatement statement) {
+			this.connection = connection;
+			this.statement = statement;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if (name.equals("close")) {
+				// 缓存的PreparedStatement只清除参数和批量语句
+				statement.clearParameters();
+				statement.clearBatch();
+				return null;
+			} else if (name.equals("getConnection")) {
+				return connection;
+			} else if (name.equals("equals")) {
+				return proxy == args[0];
+			} else if (name.equals("hashCode")) {
+				return System.identityHashCode(proxy);
+			} else {
+				return PooledConnectionProvider.invoke(statement, method, args);
+			}
+		}
+	}
+}
@@ -0,0 +1,351 @@
+package jdepend.framework.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+import jdepend.framework.log.LogUtil;
+
+/**
+ * 分析执行器
+ *
+ * 各分析阶段共用一个ForkJoin线程池，任务按区间二分拆分，空闲线程窃取其他线程未执行的子区间；
+ * 同时进行的多个分析共用该线程池，线程总数不超过并行度。
+ * 并行度默认为CPU个数，可通过系统属性jdepend.analysis.parallelism设置。
+ *
+ * 每个阶段结束后记录该阶段的执行次数、任务数和耗时。
+ *
+ * @author <b>Abner</b>
+ *
+ */
+public final class AnalysisExecutor {
+
+	public static final String ParallelismProperty = "jdepend.analysis.parallelism";
+
+	/**
+	 * 每个线程平均分到的子区间个数，用于计算拆分的下限
+	 */
+	private static final int SplitFactor = 8;
+
+	private static final ForkJoinPool pool = createPool(getDefaultParallelism());
+
+	private static final ConcurrentMap<String, PhaseMetrics> phaseMetrics = new ConcurrentHashMap<String, PhaseMetrics>();
+
+	private AnalysisExecutor() {
+	}
+
+	public static int getParallelism() {
+		return pool.getParallelism();
+	}
+
+	/**
+	 * 并行处理集合中的每个元素，全部处理完成后返回
+	 *
+	 * 单个元素处理失败时记录错误并继续处理其他元素。
+	 *
+	 * @param phase
+	 *            阶段名称
+	 * @param items
+	 * @param action
+	 */
+	public static <T> void forEach(String phase, Collection<T> items, final Consumer<? super T> action) {
+		final List<T> list;
+		if (items instanceof List && items instanceof RandomAccess) {
+			list = (List<T>) items;
+		} else {
+			list = new ArrayList<T>(items);
+		}
+		forEach(phase, list.size(), new IntConsumer() {
+			@Override
+			public void accept(int index) {
+				action.accept(list.get(index));
+			}
+		});
+	}
+
+	/**
+	 * 并行处理0到count-1的每个序号，全部处理完成后返回
+	 *
+	 * 单个序号处理失败时记录错误并继续处理其他序号。
+	 *
+	 * @param phase
+	 *            阶段名称
+	 * @param count
+	 * @param action
+	 */
+	public static void forEach(String phase, int count, IntConsumer action) {
+		long start = System.currentTimeMillis();
+		if (count > 0) {
+			int threshold = Math.max(1, count / (pool.getParallelism() * SplitFactor));
+			pool.invoke(new ForEachTask(0, count, threshold, action));
+		}
+		record(phase, count, System.currentTimeMillis() - start);
+	}
+
+	/**
+	 * 开始一个逐个提交任务的阶段，用于任务个数事先未知的场景
+	 *
+	 * @param phase
+	 *            阶段名称
+	 * @return
+	 */
+	public static Phase startPhase(String phase) {
+		return new Phase(phase, pool);
+	}
+
+	/**
+	 * 得到各阶段的执行统计，按阶段名称排序
+	 *
+	 * @return
+	 */
+	public static Map<String, PhaseMetrics> getPhaseMetrics() {
+		Map<String, PhaseMetrics> metrics = new TreeMap<String, PhaseMetrics>();
+		for (Map.Entry<String, PhaseMetrics> entry : phaseMetrics.entrySet()) {
+			metrics.put(entry.getKey(), entry.getValue().copy());
+		}
+		return Collections.unmodifiableMap(metrics);
+	}
+
+	public static void clearPhaseMetrics() {
+		phaseMetrics.clear();
+	}
+
+	private static void record(String phase, int taskCount, long time) {
+		PhaseMetrics metrics = phaseMetrics.get(phase);
+		if (metrics == null) {
+			PhaseMetrics newMetrics = new PhaseMetrics();
+			metrics = phaseMetrics.putIfAbsent(phase, newMetrics);
+			if (metrics == null) {
+				metrics = newMetrics;
+			}
+		}
+		metrics.add(taskCount, time);
+		LogUtil.getInstance(AnalysisExecutor.class).systemLog("阶段[{}]结束，任务数：{}，耗时：{}ms", phase, taskCount,
+				time);
+	}
+
+	private static void onError(RuntimeException e) {
+		e.printStackTrace();
+		LogUtil.getInstance(AnalysisExecutor.class).systemError("分析任务执行失败：" + e.getMessage());
+	}
+
+	private static int getDefaultParallelism() {
+		String value = System.getProperty(ParallelismProperty);
+		if (value != null) {
+			try {
+				int parallelism = Integer.parseInt(value.trim());
+				if (parallelism > 0) {
+					return parallelism;
+				}
+			} catch (NumberFormatException e) {
+				e.printStackTrace();
+			}
+		}
+		return ThreadPool.ThreadCount;
+	}
+
+	private static ForkJoinPool createPool(int parallelism) {
+		final AtomicInteger threadIndex = new AtomicInteger();
+		return new ForkJoinPool(parallelism, new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+			@Override
+			public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+				ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+				thread.setName("AnalysisExecutor-" + threadIndex.incrementAndGet());
+				return thread;
+			}
+		}, null, false);
+	}
+
+	/**
+	 * 处理一个序号区间，区间大于threshold时二分后并行处理
+	 */
+	private static final class ForEachTask extends RecursiveAction {
+
+		private static final long serialVersionUID = -3538374452566370342L;
+
+		private final int from;
+
+		private final int to;
+
+		private final int threshold;
+
+		private final IntConsumer action;
+
+		public ForEachTask(int from, int to, int threshold, IntConsumer action) {
+			this.from = from;
+			this.to = to;
+			this.threshold = threshold;
+			this.action = action;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > threshold) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new ForEachTask(from, middle, threshold, action), new ForEachTask(middle, to, threshold,
+						action));
+			} else {
+				for (int i = from; i < to; i++) {
+					try {
+						action.accept(i);
+					} catch (RuntimeException e) {
+						onError(e);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * 逐个提交任务的阶段，await等待已提交的任务全部完成
+	 *
+	 * @author <b>Abner</b>
+	 *
+	 */
+	public static final class Phase {
+
+		private final String name;
+
+		private final ForkJoinPool pool;
+
+		private final AtomicInteger taskCount = new AtomicInteger();
+
+		private final AtomicInteger pendingCount = new AtomicInteger();
+
+		private final long start = System.currentTimeMillis();
+
+		private Phase(String name, ForkJoinPool pool) {
+			this.name = name;
+			this.pool = pool;
+		}
+
+		public void execute(final Runnable task) {
+			taskCount.incrementAndGet();
+			pendingCount.incrementAndGet();
+			try {
+				pool.execute(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							task.run();
+						} catch (RuntimeException e) {
+							onError(e);
+						} finally {
+							finish();
+						}
+					}
+				});
+			} catch (RuntimeException e) {
+				finish();
+				throw e;
+			}
+		}
+
+		private void finish() {
+			if (pendingCount.decrementAndGet() == 0) {
+				synchronized (this) {
+					this.notifyAll();
+				}
+			}
+		}
+
+		/**
+		 * 等待已提交的任务全部完成，不能在本阶段的任务中调用
+		 */
+		public void await() {
+			boolean interrupted = false;
+			synchronized (this) {
+				while (pendingCount.get() > 0) {
+					try {
+						this.wait();
+					} catch (InterruptedException e) {
+						interrupted = true;
+					}
+				}
+			}
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+			record(name, taskCount.get(), System.currentTimeMillis() - start);
+		}
+	}
+
+	/**
+	 * 阶段执行统计
+	 *
+	 * @author <b>Abner</b>
+	 *
+	 */
+	public static final class PhaseMetrics {
+
+		private int count;
+
+		private long taskCount;
+
+		private long totalTime;
+
+		private long lastTime;
+
+		private synchronized void add(int taskCount, long time) {
+			this.count++;
+			this.taskCount += taskCount;
+			this.totalTime += time;
+			this.lastTime = time;
+		}
+
+		private synchronized PhaseMetrics copy() {
+			PhaseMetrics metrics = new PhaseMetrics();
+			metrics.count = this.count;
+			metrics.taskCount = this.taskCount;
+			metrics.totalTime = this.totalTime;
+			metrics.lastTime = this.lastTime;
+			return metrics;
+		}
+
+		/**
+		 * @return 执行次数
+		 */
+		public int getCount() {
+			return count;
+		}
+
+		/**
+		 * @return 累计任务数
+		 */
+		public long getTaskCount() {
+			return taskCount;
+		}
+
+		/**
+		 * @return 累计耗时（毫秒）
+		 */
+		public long getTotalTime() {
+			return totalTime;
+		}
+
+		/**
+		 * @return 最近一次耗时（毫秒）
+		 */
+		public long getLastTime() {
+			return lastTime;
+		}
+
+		@Override
+		public String toString() {
+			return "count=" + count + ", taskCount=" + taskCount + ", totalTime=" + totalTime + "ms, lastTime="
+					+ lastTime + "ms";
+		}
+	}
+}
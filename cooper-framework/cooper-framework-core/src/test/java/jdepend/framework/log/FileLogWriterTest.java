@@ -0,0 +1,77 @@
+package jdepend.framework.log;
+
+import java.io.File;
+
+import jdepend.framework.config.PropertyConfigurator;
+import jdepend.framework.context.JDependContext;
+import jdepend.framework.util.FileUtil;
+import junit.framework.TestCase;
+
+public class FileLogWriterTest extends TestCase {
+
+	@Override
+	protected void setUp() throws Exception {
+		if (JDependContext.getWorkspacePath() == null) {
+			File workspace = new File(System.getProperty("java.io.tmpdir"), "FileLogWriterTest" + System.nanoTime());
+			File conf = new File(workspace, PropertyConfigurator.DEFAULT_PROPERTY_DIR);
+			conf.mkdirs();
+			new File(conf, PropertyConfigurator.DEFAULT_PROPERTY_FILE).createNewFile();
+			JDependContext.setWorkspacePath(workspace.getAbsolutePath());
+		}
+	}
+
+	public void testConcurrentWrite() throws Exception {
+		final FileLogWriter writer = new FileLogWriter();
+		writer.clear();
+
+		final int threads = 4;
+		final int lines = 5000;
+		Thread[] workers = new Thread[threads];
+		for (int i = 0; i < threads; i++) {
+			workers[i] = new Thread() {
+				@Override
+				public void run() {
+					LogUtil.getInstance(FileLogWriterTest.class);
+					for (int j = 0; j < lines; j++) {
+						writer.systemLog("line" + j);
+					}
+				}
+			};
+			workers[i].start();
+		}
+		for (Thread worker : workers) {
+			worker.join();
+		}
+
+		String content = writer.read().toString();
+		int count = 0;
+		for (String line : content.split("\r\n")) {
+			if (line.startsWith(SystemLogWriter.SYSTEMLOG + "-" + FileLogWriterTest.class.getName() + "-")) {
+				count++;
+			}
+		}
+		assertEquals(threads * lines, count);
+
+		writer.close();
+		writer.systemWarning("after close");
+		assertTrue(writer.read().toString().contains("after close"));
+	}
+
+	public void testWriteAfterClose() throws Exception {
+		FileLogWriter writer = new FileLogWriter();
+		writer.clear();
+		writer.close();
+
+		writer.systemWarning("写入于关闭之后");
+
+		// 不经过read()，避免其中的flush()把遗留在缓冲区的日志写出
+		String file = JDependContext.getWorkspacePath() + "//" + FileLogWriter.DEFAULT_PROPERTY_FILE;
+		assertTrue(FileUtil.readFileContent(file, "UTF-8").toString().contains("写入于关闭之后"));
+	}
+
+	public void testFormat() {
+		assertEquals("a1b2c", LogUtil.format("a{}b{}c", 1, 2));
+		assertEquals("a1b{}", LogUtil.format("a{}b{}", 1));
+		assertEquals("ab", LogUtil.format("ab", 1));
+	}
+}
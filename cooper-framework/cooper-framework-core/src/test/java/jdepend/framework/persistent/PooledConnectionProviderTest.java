@@ -0,0 +1,174 @@
+package jdepend.framework.persistent;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import jdepend.framework.config.PropertyConfigurator;
+import jdepend.framework.context.JDependContext;
+import junit.framework.TestCase;
+
+/**
+ * 使用内存数据库校验PooledConnectionProvider的连接复用、PreparedStatement缓存以及归还时的状态恢复
+ *
+ * @author user
+ *
+ */
+public class PooledConnectionProviderTest extends TestCase {
+
+	private static final String InsertSql = "insert into item values(?)";
+
+	private static final String CountSql = "select count(*) from item";
+
+	private CountingConnectionProvider provider;
+
+	@Override
+	protected void setUp() throws Exception {
+		if (JDependContext.getWorkspacePath() == null) {
+			File workspace = new File(System.getProperty("java.io.tmpdir"), "PooledConnectionProviderTest"
+					+ System.nanoTime());
+			File conf = new File(workspace, PropertyConfigurator.DEFAULT_PROPERTY_DIR);
+			conf.mkdirs();
+			new File(conf, PropertyConfigurator.DEFAULT_PROPERTY_FILE).createNewFile();
+			JDependContext.setWorkspacePath(workspace.getAbsolutePath());
+		}
+		Class.forName("org.hsqldb.jdbc.JDBCDriver");
+		provider = new CountingConnectionProvider("jdbc:hsqldb:mem:pool" + System.nanoTime(), 2, 1);
+
+		Connection conn = provider.getConnection();
+		Statement statement = conn.createStatement();
+		statement.execute("create table item(id integer)");
+		statement.close();
+		conn.close();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		provider.close();
+	}
+
+	public void testReuseIdleConnection() throws Exception {
+		Connection conn = provider.getConnection();
+		Connection physical = conn.unwrap(Connection.class);
+		conn.close();
+		assertTrue(conn.isClosed());
+		try {
+			conn.createStatement();
+			fail();
+		} catch (SQLException ignore) {
+		}
+
+		Connection other = provider.getConnection();
+		assertNotSame(conn, other);
+		assertSame(physical, other.unwrap(Connection.class));
+		// 空闲连接被借出时再借用创建新的物理连接
+		Connection another = provider.getConnection();
+		assertNotSame(physical, another.unwrap(Connection.class));
+		assertEquals(2, provider.created);
+		other.close();
+		another.close();
+	}
+
+	public void testStatementCache() throws Exception {
+		Connection conn = provider.getConnection();
+		PreparedStatement ps = conn.prepareStatement(InsertSql);
+		PreparedStatement physical = ps.unwrap(PreparedStatement.class);
+		ps.setInt(1, 1);
+		ps.executeUpdate();
+		ps.close();
+		assertFalse(physical.isClosed());
+
+		assertSame(physical, conn.prepareStatement(InsertSql).unwrap(PreparedStatement.class));
+		conn.close();
+
+		// 归还后再借出同一连接，缓存的PreparedStatement仍然可用
+		conn = provider.getConnection();
+		ps = conn.prepareStatement(InsertSql);
+		assertSame(physical, ps.unwrap(PreparedStatement.class));
+		assertSame(conn, ps.getConnection());
+		ps.setInt(1, 2);
+		ps.executeUpdate();
+		ps.close();
+		assertEquals(2, this.count(conn));
+		conn.close();
+	}
+
+	public void testEvictedStatementUsableUntilRelease() throws Exception {
+		Connection conn = provider.getConnection();
+		PreparedStatement insert = conn.prepareStatement(InsertSql);
+		PreparedStatement physical = insert.unwrap(PreparedStatement.class);
+		// 每个连接只缓存一个PreparedStatement，插入语句被移出缓存
+		assertEquals(0, this.count(conn));
+
+		insert.setInt(1, 1);
+		insert.executeUpdate();
+		assertFalse(physical.isClosed());
+		assertNotSame(physical, conn.prepareStatement(InsertSql).unwrap(PreparedStatement.class));
+
+		conn.close();
+		assertTrue(physical.isClosed());
+	}
+
+	public void testRestoreOnRelease() throws Exception {
+		Connection conn = provider.getConnection();
+		conn.setAutoCommit(false);
+		PreparedStatement ps = conn.prepareStatement(InsertSql);
+		ps.setInt(1, 1);
+		ps.executeUpdate();
+		ps.close();
+		conn.close();
+
+		conn = provider.getConnection();
+		assertTrue(conn.getAutoCommit());
+		assertEquals(0, this.count(conn));
+		conn.close();
+	}
+
+	public void testClose() throws Exception {
+		Connection conn = provider.getConnection();
+		Connection physical = conn.unwrap(Connection.class);
+		conn.close();
+		provider.close();
+		assertTrue(physical.isClosed());
+
+		// 关闭后归还的连接直接关闭
+		conn = provider.getConnection();
+		physical = conn.unwrap(Connection.class);
+		conn.close();
+		assertTrue(physical.isClosed());
+	}
+
+	private int count(Connection conn) throws SQLException {
+		PreparedStatement ps = conn.prepareStatement(CountSql);
+		ResultSet rs = ps.executeQuery();
+		try {
+			rs.next();
+			return rs.getInt(1);
+		} finally {
+			rs.close();
+			ps.close();
+		}
+	}
+
+	private static class CountingConnectionProvider extends PooledConnectionProvider {
+
+		private final String url;
+
+		private int created;
+
+		public CountingConnectionProvider(String url, int maxIdle, int maxStatements) {
+			super(maxIdle, maxStatements);
+			this.url = url;
+		}
+
+		@Override
+		protected Connection createConnection() throws SQLException {
+			created++;
+			return DriverManager.getConnection(url, "SA", "");
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package jdepend.framework.util;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+import jdepend.framework.config.PropertyConfigurator;
+import jdepend.framework.context.JDependContext;
+import junit.framework.TestCase;
+
+public class AnalysisExecutorTest extends TestCase {
+
+	@Override
+	protected void setUp() throws Exception {
+		if (JDependContext.getWorkspacePath() == null) {
+			File workspace = new File(System.getProperty("java.io.tmpdir"), "AnalysisExecutorTest" + System.nanoTime());
+			File conf = new File(workspace, PropertyConfigurator.DEFAULT_PROPERTY_DIR);
+			conf.mkdirs();
+			new File(conf, PropertyConfigurator.DEFAULT_PROPERTY_FILE).createNewFile();
+			JDependContext.setWorkspacePath(workspace.getAbsolutePath());
+		}
+	}
+
+	public void testForEach() {
+		final int count = 10000;
+		final AtomicIntegerArray visited = new AtomicIntegerArray(count);
+		AnalysisExecutor.forEach("testForEach", count, new IntConsumer() {
+			@Override
+			public void accept(int index) {
+				visited.incrementAndGet(index);
+				if (index % 1000 == 0) {
+					throw new IllegalStateException("index " + index);
+				}
+			}
+		});
+		for (int i = 0; i < count; i++) {
+			assertEquals(1, visited.get(i));
+		}
+
+		List<Integer> items = new ArrayList<Integer>();
+		for (int i = 0; i < count; i++) {
+			items.add(i);
+		}
+		final AtomicInteger sum = new AtomicInteger();
+		AnalysisExecutor.forEach("testForEach", new HashSet<Integer>(items), new Consumer<Integer>() {
+			@Override
+			public void accept(Integer item) {
+				sum.addAndGet(item);
+			}
+		});
+		assertEquals(count * (count - 1) / 2, sum.get());
+
+		AnalysisExecutor.PhaseMetrics metrics = AnalysisExecutor.getPhaseMetrics().get("testForEach");
+		assertEquals(2, metrics.getCount());
+		assertEquals(2 * count, metrics.getTaskCount());
+	}
+
+	public void testPhase() {
+		final AtomicInteger finished = new AtomicInteger();
+		AnalysisExecutor.Phase phase = AnalysisExecutor.startPhase("testPhase");
+		for (int i = 0; i < 100; i++) {
+			phase.execute(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						Thread.sleep(1);
+					} catch (InterruptedException e) {
+						e.printStackTrace();
+					}
+					finished.incrementAndGet();
+				}
+			});
+		}
+		phase.await();
+		assertEquals(100, finished.get());
+	}
+}
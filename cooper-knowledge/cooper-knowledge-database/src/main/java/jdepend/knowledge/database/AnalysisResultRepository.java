@@ -6,7 +6,6 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -328,22 +327,17 @@ public final class AnalysisResultRepository {
 			conn = ConnectionFactory.getConnection();
 			conn.setAutoCommit(false);
 
-			List<String> deleteSqls = new ArrayList<String>();
+			List<String> ids = new ArrayList<String>();
 
 			ps = conn.prepareStatement(FindLocalIDSQLByGroupCommand);
 			ps.setString(1, group);
 			ps.setString(2, command);
 			rs = ps.executeQuery();
 			while (rs.next()) {
-				deleteSqls.add("delete from analysisdata where id = '" + rs.getString("id") + "'");
-				deleteSqls.add("delete from analysissummry where id = '" + rs.getString("id") + "'");
+				ids.add(rs.getString("id"));
 				rtn++;
 			}
-			Statement st = conn.createStatement();
-			for (String deleteSql : deleteSqls) {
-				st.addBatch(deleteSql);
-			}
-			st.executeBatch();
+			deleteBatch(conn, ids);
 			conn.commit();
 			return rtn;
 		} catch (Exception e) {
@@ -372,6 +366,19 @@ public final class AnalysisResultRepository {
 		}
 	}
 
+	private static void deleteBatch(Connection conn, List<String> ids) throws SQLException {
+		PreparedStatement deleteData = conn.prepareStatement(DeleteAnalysisDataSQL);
+		PreparedStatement deleteSummry = conn.prepareStatement(DeleteSummrySQL);
+		for (String id : ids) {
+			deleteData.setString(1, id);
+			deleteData.addBatch();
+			deleteSummry.setString(1, id);
+			deleteSummry.addBatch();
+		}
+		deleteData.executeBatch();
+		deleteSummry.executeBatch();
+	}
+
 	public synchronized int deleteAll(String group) throws JDependException {
 		Connection conn = null;
 		PreparedStatement ps = null;
@@ -381,21 +388,16 @@ public final class AnalysisResultRepository {
 			conn = ConnectionFactory.getConnection();
 			conn.setAutoCommit(false);
 
-			List<String> deleteSqls = new ArrayList<String>();
+			List<String> ids = new ArrayList<String>();
 
 			ps = conn.prepareStatement(FindLocalIDSQLByGroup);
 			ps.setString(1, group);
 			rs = ps.executeQuery();
 			while (rs.next()) {
-				deleteSqls.add("delete from analysisdata where id = '" + rs.getString("id") + "'");
-				deleteSqls.add("delete from analysissummry where id = '" + rs.getString("id") + "'");
+				ids.add(rs.getString("id"));
 				rtn++;
 			}
-			Statement st = conn.createStatement();
-			for (String deleteSql : deleteSqls) {
-				st.addBatch(deleteSql);
-			}
-			st.executeBatch();
+			deleteBatch(conn, ids);
 			conn.commit();
 			return rtn;
 		} catch (Exception e) {
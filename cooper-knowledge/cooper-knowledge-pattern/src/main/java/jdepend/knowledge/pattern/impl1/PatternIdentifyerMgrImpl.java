@@ -4,9 +4,9 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
 
-import jdepend.framework.util.ThreadPool;
+import jdepend.framework.util.AnalysisExecutor;
 import jdepend.knowledge.pattern.AbstractPatternIdentifyerMgr;
 import jdepend.knowledge.pattern.PatternInfo;
 import jdepend.model.JavaClassUnit;
@@ -24,28 +24,25 @@ public final class PatternIdentifyerMgrImpl extends AbstractPatternIdentifyerMgr
 		final Collection<JavaClassUnit> javaClasses = result.getClasses();
 		final Map<String, Collection<PatternInfo>> rtn = new HashMap<String, Collection<PatternInfo>>();
 
-		ExecutorService pool = ThreadPool.getPool();
-
-		for (final String identifyerName : identifyers.keySet()) {
-			final PatternIdentifyer identifyer = identifyers.get(identifyerName);
+		for (PatternIdentifyer identifyer : identifyers.values()) {
 			if (identifyer instanceof AbstractPatternIdentifyer) {
 				((AbstractPatternIdentifyer) identifyer).setResult(result);
 			}
-			pool.execute(new Runnable() {
-				@Override
-				public void run() {
-					Collection<PatternInfo> items = identifyer.identify(javaClasses);
-					synchronized (rtn) {
-						if (items != null && items.size() > 0) {
-							rtn.put(identifyerName, items);
-						} else {
-							rtn.put(identifyerName, null);
-						}
+		}
+
+		AnalysisExecutor.forEach("identifyPattern", identifyers.keySet(), new Consumer<String>() {
+			@Override
+			public void accept(String identifyerName) {
+				Collection<PatternInfo> items = identifyers.get(identifyerName).identify(javaClasses);
+				synchronized (rtn) {
+					if (items != null && items.size() > 0) {
+						rtn.put(identifyerName, items);
+					} else {
+						rtn.put(identifyerName, null);
 					}
 				}
-			});
-		}
-		ThreadPool.awaitTermination(pool);
+			}
+		});
 		return rtn;
 	}
 
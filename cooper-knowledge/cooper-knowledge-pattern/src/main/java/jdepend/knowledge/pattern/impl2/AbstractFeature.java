@@ -3,16 +3,10 @@ package jdepend.knowledge.pattern.impl2;
 import java.util.ArrayList;
 import java.util.List;
 
-import jdepend.metadata.JavaClass;
-
 public abstract class AbstractFeature implements Feature {
 
 	private List<Identifyer> identifyers;
 
-	private JavaClass current;
-
-	private String patternInfo;
-
 	public AbstractFeature() {
 		this.identifyers = new ArrayList<Identifyer>();
 	}
@@ -24,38 +18,21 @@ public abstract class AbstractFeature implements Feature {
 		}
 	}
 
-	public void check(FeatureCheckContext context) {
-
-		this.current = context.getCurrent();
+	public FeatureMatch check(FeatureCheckContext context) {
+		context.setPatternInfo(null);
 		if (this.have(context)) {
-			this.onHave();
+			return new FeatureMatch(this.getName(), context.getPatternInfo());
+		} else {
+			return null;
 		}
-		this.clear();
 	}
 
+	/**
+	 * 当前类是否具有该特征，需要输出模式信息时调用context.setPatternInfo
+	 * 
+	 * @param context
+	 * @return
+	 */
 	protected abstract boolean have(FeatureCheckContext context);
 
-	private void onHave() {
-		for (Identifyer identifyer : this.identifyers) {
-			identifyer.accumulate(this);
-		}
-	}
-
-	public void clear() {
-		this.patternInfo = null;
-	}
-
-	@Override
-	public JavaClass getCurrent() {
-		return this.current;
-	}
-
-	public String getPatternInfo() {
-		return patternInfo;
-	}
-
-	public void setPatternInfo(String patternInfo) {
-		this.patternInfo = patternInfo;
-	}
-
 }
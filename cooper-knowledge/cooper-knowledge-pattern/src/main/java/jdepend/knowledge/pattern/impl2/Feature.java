@@ -1,24 +1,24 @@
 package jdepend.knowledge.pattern.impl2;
 
-import jdepend.metadata.JavaClass;
-
 /**
  * 特征识别器
  * 
+ * 识别时只读写传入的FeatureCheckContext，不保存当前类的状态，可以在多个线程中同时识别不同的类。
+ * 
  * @author user
  *
  */
 public interface Feature {
 
-	public void check(FeatureCheckContext context);
-
-	public JavaClass getCurrent();
+	/**
+	 * 识别当前类是否具有该特征
+	 * 
+	 * @param context
+	 * @return 具有该特征时返回识别记录，否则返回null
+	 */
+	public FeatureMatch check(FeatureCheckContext context);
 
 	public String getName();
 
-	public String getPatternInfo();
-
-	public void setPatternInfo(String patternInfo);
-
 	public void addIdentifyer(Identifyer identifyer);
 }
@@ -2,6 +2,7 @@ package jdepend.knowledge.pattern.impl2;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
 
 import jdepend.metadata.Attribute;
@@ -10,6 +11,14 @@ import jdepend.metadata.Method;
 import jdepend.model.JavaClassUnit;
 import jdepend.model.result.AnalysisResult;
 
+/**
+ * 一个类的特征识别上下文
+ * 
+ * 保存前面的特征计算出的中间结果供后面的特征使用，以及已识别的特征记录；只在识别该类的线程中使用。
+ * 
+ * @author user
+ *
+ */
 public class FeatureCheckContext {
 
 	private AnalysisResult result;
@@ -44,6 +53,10 @@ public class FeatureCheckContext {
 
 	private Collection<Method> returnIsSuperOverrideMethods;
 
+	private String patternInfo;
+
+	private Map<String, FeatureMatch> matches = new HashMap<String, FeatureMatch>();
+
 	public FeatureCheckContext(JavaClassUnit javaClass) {
 		super();
 		this.javaClass = javaClass.getJavaClass();
@@ -178,4 +191,27 @@ public class FeatureCheckContext {
 	public Collection<JavaClass> getSubClasses() {
 		return subClasses;
 	}
+
+	/**
+	 * @return 当前特征给出的模式信息
+	 */
+	public String getPatternInfo() {
+		return patternInfo;
+	}
+
+	public void setPatternInfo(String patternInfo) {
+		this.patternInfo = patternInfo;
+	}
+
+	public void addMatch(FeatureMatch match) {
+		this.matches.put(match.getFeatureName(), match);
+	}
+
+	/**
+	 * @param featureName
+	 * @return 当前类不具有该特征时返回null
+	 */
+	public FeatureMatch getMatch(String featureName) {
+		return this.matches.get(featureName);
+	}
 }
@@ -0,0 +1,31 @@
+package jdepend.knowledge.pattern.impl2;
+
+/**
+ * 一个类具有某个特征的识别记录
+ * 
+ * @author user
+ *
+ */
+public final class FeatureMatch {
+
+	private final String featureName;
+
+	private final String patternInfo;
+
+	public FeatureMatch(String featureName, String patternInfo) {
+		super();
+		this.featureName = featureName;
+		this.patternInfo = patternInfo;
+	}
+
+	public String getFeatureName() {
+		return featureName;
+	}
+
+	/**
+	 * @return 该特征给出的模式信息，可以为null
+	 */
+	public String getPatternInfo() {
+		return patternInfo;
+	}
+}
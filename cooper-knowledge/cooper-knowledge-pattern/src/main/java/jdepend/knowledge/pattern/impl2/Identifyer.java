@@ -1,8 +1,6 @@
 package jdepend.knowledge.pattern.impl2;
 
-import java.util.Map;
-
-import jdepend.metadata.JavaClass;
+import jdepend.knowledge.pattern.PatternInfo;
 
 /**
  * 设计模式识别器
@@ -13,14 +11,7 @@ import jdepend.metadata.JavaClass;
 public interface Identifyer {
 
 	public String getName();
-	
-	/**
-	 * 累加特征
-	 * 
-	 * @param feature
-	 */
-	public void accumulate(Feature feature);
-	
+
 	/**
 	 * 注册一个该模式需要的特征
 	 * 
@@ -28,10 +19,14 @@ public interface Identifyer {
 	 */
 	public void registFeature(String featureName);
 
-	public String getExplain();
+	/**
+	 * 根据当前类具有的特征识别该模式
+	 * 
+	 * @param context
+	 * @return 当前类具有全部注册的特征时返回模式信息，否则返回null
+	 */
+	public PatternInfo identify(FeatureCheckContext context);
 
-	public Map<JavaClass, String> getResult();
-	
-	public void clear();
+	public String getExplain();
 
 }
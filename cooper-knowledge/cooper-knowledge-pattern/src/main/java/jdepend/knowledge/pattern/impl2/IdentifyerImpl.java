@@ -1,12 +1,9 @@
 package jdepend.knowledge.pattern.impl2;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 
-import jdepend.metadata.JavaClass;
+import jdepend.knowledge.pattern.PatternInfo;
 
 public class IdentifyerImpl implements Identifyer {
 
@@ -14,10 +11,6 @@ public class IdentifyerImpl implements Identifyer {
 
 	private List<String> featureNames = new ArrayList<String>();
 
-	private Map<JavaClass, List<String>> javaClasses = new LinkedHashMap<JavaClass, List<String>>();
-
-	private Map<JavaClass, String> patternInfos = new HashMap<JavaClass, String>();
-
 	public IdentifyerImpl(String name) {
 		super();
 		this.name = name;
@@ -27,32 +20,26 @@ public class IdentifyerImpl implements Identifyer {
 		return name;
 	}
 
-	public void accumulate(Feature feature) {
-		// 增加符合特性的类
-		if (!this.javaClasses.containsKey(feature.getCurrent())) {
-			this.javaClasses.put(feature.getCurrent(), new ArrayList<String>());
-		}
-		this.javaClasses.get(feature.getCurrent()).add(feature.getName());
-		// 设置最终输出结果
-		if (feature.getPatternInfo() != null) {
-			this.patternInfos.put(feature.getCurrent(), feature.getPatternInfo());
-		}
-	}
-
 	public void registFeature(String featureName) {
 		if (!this.featureNames.contains(featureName)) {
 			this.featureNames.add(featureName);
 		}
 	}
 
-	public Map<JavaClass, String> getResult() {
-		Map<JavaClass, String> results = new LinkedHashMap<JavaClass, String>();
-		for (JavaClass javaClass : this.javaClasses.keySet()) {
-			if (this.javaClasses.get(javaClass).size() == featureNames.size()) {
-				results.put(javaClass, this.patternInfos.get(javaClass));
+	public PatternInfo identify(FeatureCheckContext context) {
+		String patternInfo = null;
+		FeatureMatch match;
+		for (String featureName : this.featureNames) {
+			match = context.getMatch(featureName);
+			if (match == null) {
+				return null;
+			}
+			// 以最后一个给出模式信息的特征为准
+			if (match.getPatternInfo() != null) {
+				patternInfo = match.getPatternInfo();
 			}
 		}
-		return results;
+		return new PatternInfo(context.getCurrent(), patternInfo);
 	}
 
 	public String getExplain() {
@@ -66,10 +53,4 @@ public class IdentifyerImpl implements Identifyer {
 		explain.append("<br><br>");
 		return explain.toString();
 	}
-
-	@Override
-	public void clear() {
-		this.javaClasses = new LinkedHashMap<JavaClass, List<String>>();
-		this.patternInfos = new HashMap<JavaClass, String>();
-	}
 }
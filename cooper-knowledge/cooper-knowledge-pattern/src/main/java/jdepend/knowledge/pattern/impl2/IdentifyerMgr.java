@@ -5,7 +5,9 @@ import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.IntConsumer;
 
+import jdepend.framework.util.AnalysisExecutor;
 import jdepend.knowledge.pattern.AbstractPatternIdentifyerMgr;
 import jdepend.knowledge.pattern.PatternInfo;
 import jdepend.knowledge.pattern.impl2.feature.AdapterClassFeature;
@@ -40,7 +42,6 @@ import jdepend.knowledge.pattern.impl2.feature.leaf.StaticAttributeFeature;
 import jdepend.knowledge.pattern.impl2.feature.leaf.StaticMethodFeature;
 import jdepend.knowledge.pattern.impl2.feature.leaf.SubClassesFeature;
 import jdepend.knowledge.pattern.impl2.feature.leaf.SuperHaveOtherSubClassFeature;
-import jdepend.metadata.JavaClass;
 import jdepend.model.JavaClassUnit;
 import jdepend.model.result.AnalysisResult;
 
@@ -314,34 +315,69 @@ public class IdentifyerMgr extends AbstractPatternIdentifyerMgr {
 
 	protected Map<String, Collection<PatternInfo>> doIdentify(AnalysisResult result) {
 
-		FeatureCheckContext context;
-		for (JavaClassUnit javaClass : result.getClasses()) {
-			context = new FeatureCheckContext(javaClass);
-			for (Feature feature : this.features) {
-				feature.check(context);
+		final List<JavaClassUnit> javaClasses = new ArrayList<JavaClassUnit>(result.getClasses());
+		// 类序号 -> 识别器序号 -> 模式信息，每个类由一个线程识别
+		final PatternInfo[][] classPatternInfos = new PatternInfo[javaClasses.size()][];
+		AnalysisExecutor.forEach("identifyPattern", javaClasses.size(), new IntConsumer() {
+			@Override
+			public void accept(int index) {
+				classPatternInfos[index] = identify(javaClasses.get(index));
 			}
-		}
+		});
+
+		return this.merge(classPatternInfos);
+	}
+
+	/**
+	 * 按类的顺序合并识别结果
+	 * 
+	 * @param classPatternInfos
+	 *            类序号 -> 识别器序号 -> 模式信息
+	 * @return
+	 */
+	Map<String, Collection<PatternInfo>> merge(PatternInfo[][] classPatternInfos) {
 		Map<String, Collection<PatternInfo>> results = new LinkedHashMap<String, Collection<PatternInfo>>();
 		Collection<PatternInfo> patternInfos;
-
-		for (Identifyer identifyer : this.identifyers) {
+		for (int identifyerIndex = 0; identifyerIndex < this.identifyers.size(); identifyerIndex++) {
 			patternInfos = new ArrayList<PatternInfo>();
-			Map<JavaClass, String> resultData = identifyer.getResult();
-			for (JavaClass javaClass : resultData.keySet()) {
-				patternInfos.add(new PatternInfo(javaClass, resultData.get(javaClass)));
+			for (PatternInfo[] found : classPatternInfos) {
+				if (found != null && found[identifyerIndex] != null) {
+					patternInfos.add(found[identifyerIndex]);
+				}
 			}
-			results.put(identifyer.getName(), patternInfos);
+			results.put(this.identifyers.get(identifyerIndex).getName(), patternInfos);
 		}
 
-		this.clear();
-
 		return results;
 	}
 
-	private void clear() {
-		for (Identifyer identifyer : this.identifyers) {
-			identifyer.clear();
+	/**
+	 * 识别一个类
+	 * 
+	 * @param javaClass
+	 * @return 按识别器顺序排列的模式信息，没有识别到任何模式时返回null
+	 */
+	PatternInfo[] identify(JavaClassUnit javaClass) {
+		FeatureCheckContext context = new FeatureCheckContext(javaClass);
+		FeatureMatch match;
+		for (Feature feature : this.features) {
+			match = feature.check(context);
+			if (match != null) {
+				context.addMatch(match);
+			}
+		}
+		PatternInfo[] patternInfos = null;
+		PatternInfo patternInfo;
+		for (int identifyerIndex = 0; identifyerIndex < this.identifyers.size(); identifyerIndex++) {
+			patternInfo = this.identifyers.get(identifyerIndex).identify(context);
+			if (patternInfo != null) {
+				if (patternInfos == null) {
+					patternInfos = new PatternInfo[this.identifyers.size()];
+				}
+				patternInfos[identifyerIndex] = patternInfo;
+			}
 		}
+		return patternInfos;
 	}
 
 	@Override
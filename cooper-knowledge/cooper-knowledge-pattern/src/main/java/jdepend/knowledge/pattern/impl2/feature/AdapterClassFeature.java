@@ -21,7 +21,7 @@ public class AdapterClassFeature extends AbstractFeature {
 							theSuperClass = item.getCallee().getJavaClass();
 							if (context.getSupers().contains(theSuperClass)) {
 								if (!theSuperClass.getSupers().contains(theInterfaceClass)) {
-									this.setPatternInfo(method.getName());
+									context.setPatternInfo(method.getName());
 									return true;
 								}
 							}
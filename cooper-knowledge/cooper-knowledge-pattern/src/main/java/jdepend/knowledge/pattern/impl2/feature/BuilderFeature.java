@@ -25,7 +25,7 @@ public class BuilderFeature extends AbstractFeature {
 										&& invokeMethod.getReturnTypes().size() == 1
 										&& invokeMethod.getReturnClassTypes().size() == 1) {
 									if (invokeMethod.getReturnClassTypes().iterator().next().equals(productType)) {
-										this.setPatternInfo(attribute.getName() + "."
+										context.setPatternInfo(attribute.getName() + "."
 												+ invokeItem.getCallee().getName());
 										return true;
 									}
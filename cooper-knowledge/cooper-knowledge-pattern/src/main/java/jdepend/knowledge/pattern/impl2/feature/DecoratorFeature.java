@@ -19,7 +19,7 @@ public class DecoratorFeature extends AbstractFeature {
 						if (item.getCallee().equals(superMethod)) {
 							for (Attribute attribute : context.getAbstractAttributes()) {
 								if (method.getReadFields().contains(attribute.getName())) {
-									this.setPatternInfo(item.getCallee().getName());
+									context.setPatternInfo(item.getCallee().getName());
 									return true;
 								}
 							}
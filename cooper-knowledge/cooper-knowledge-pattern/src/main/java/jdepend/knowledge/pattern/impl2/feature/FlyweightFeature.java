@@ -19,7 +19,7 @@ public class FlyweightFeature extends AbstractFeature {
 						if (attribute.getTypeClasses().contains(rtnClass)) {
 							if (method.getArgumentCount() > 0) {
 								if (method.getReadFields().contains(attribute.getName())) {
-									this.setPatternInfo(attribute.getName());
+									context.setPatternInfo(attribute.getName());
 									return true;
 								}
 							}
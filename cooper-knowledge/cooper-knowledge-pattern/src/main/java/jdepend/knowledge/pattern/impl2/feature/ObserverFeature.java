@@ -28,7 +28,7 @@ public class ObserverFeature extends AbstractFeature {
 						for (InvokeItem item : method.getInvokeItems()) {
 							if (item.getCallee().getArgClassTypes().contains(context.getCurrent())
 									&& attribute.getTypeClasses().contains(item.getCallee().getJavaClass())) {
-								this.setPatternInfo(method.getName());
+								context.setPatternInfo(method.getName());
 								return true;
 							}
 						}
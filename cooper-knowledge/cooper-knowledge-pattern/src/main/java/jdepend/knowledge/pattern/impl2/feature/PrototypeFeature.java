@@ -14,7 +14,7 @@ public class PrototypeFeature extends AbstractFeature {
 				if (method.getReturnTypes().size() == 1) {
 					for (JavaClass javaClass : method.getReturnClassTypes()) {
 						if (context.getCurrent().getSupers().contains(javaClass)) {
-							this.setPatternInfo(method.getName());
+							context.setPatternInfo(method.getName());
 							return true;
 						}
 					}
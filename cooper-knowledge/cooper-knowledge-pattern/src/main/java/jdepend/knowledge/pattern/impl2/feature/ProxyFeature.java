@@ -18,7 +18,7 @@ public class ProxyFeature extends AbstractFeature {
 					for (InvokeItem item : method.getInvokeItems()) {
 						if (context.getSuperOtherSubClasses().contains(item.getCallee().getJavaClass())
 								&& item.math2(superMethod)) {
-							this.setPatternInfo(item.getCallee().getName());
+							context.setPatternInfo(item.getCallee().getName());
 							return true;
 						}
 					}
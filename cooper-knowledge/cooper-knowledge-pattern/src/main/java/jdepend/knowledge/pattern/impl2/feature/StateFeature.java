@@ -13,7 +13,7 @@ public class StateFeature extends AbstractFeature {
 				if (!method.isConstruction() && method.getReturnTypes().size() == 1
 						&& method.getReturnClassTypes().size() == 1
 						&& method.getReturnClassTypes().iterator().next().equals(context.getCurrent())) {
-					this.setPatternInfo(method.getName());
+					context.setPatternInfo(method.getName());
 					return true;
 				}
 			}
@@ -15,7 +15,7 @@ public class StrategyFeature extends AbstractFeature {
 					if (!method.isConstruction() && method.getSelfLineCount() >= 5) {
 						for (Method superMethod : context.getAbstractMethods()) {
 							if (method.isOverride(superMethod)) {
-								this.setPatternInfo(method.getName());
+								context.setPatternInfo(method.getName());
 								return true;
 							}
 						}
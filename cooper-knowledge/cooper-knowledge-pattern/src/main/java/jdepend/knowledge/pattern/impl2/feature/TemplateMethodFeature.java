@@ -21,7 +21,7 @@ public class TemplateMethodFeature extends AbstractFeature {
 									// 子类覆盖了抽象方法
 									for (JavaClass subClass : context.getSubClasses()) {
 										if (subClass.getOverridedMethods().contains(abstractMethod)) {
-											this.setPatternInfo(publicMethod.getName());
+											context.setPatternInfo(publicMethod.getName());
 											return true;
 										}
 									}
@@ -15,7 +15,7 @@ public class CollectionAttributeIsSelfSuperFeature extends AbstractFeature {
 			for (Attribute attribute : context.getCollectionAttributes()) {
 				for (JavaClass javaClass : attribute.getTypeClasses()) {
 					if (context.getAllSupers().contains(javaClass)) {
-						this.setPatternInfo(attribute.getName());
+						context.setPatternInfo(attribute.getName());
 						return true;
 					}
 				}
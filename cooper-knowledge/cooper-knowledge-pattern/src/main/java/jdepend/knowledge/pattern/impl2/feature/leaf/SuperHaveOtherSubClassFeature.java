@@ -1,7 +1,7 @@
 package jdepend.knowledge.pattern.impl2.feature.leaf;
 
-import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashSet;
 
 import jdepend.knowledge.pattern.impl2.AbstractFeature;
 import jdepend.knowledge.pattern.impl2.FeatureCheckContext;
@@ -14,14 +14,11 @@ public class SuperHaveOtherSubClassFeature extends AbstractFeature {
 		if (context.getAllSupers() == null) {
 			return false;
 		} else {
-			Collection<JavaClass> otherSubClasses = new ArrayList<JavaClass>();
+			Collection<JavaClass> otherSubClasses = new LinkedHashSet<JavaClass>();
 			for (JavaClass superClass : context.getAllSupers()) {
-				for (JavaClass subClass : superClass.getSubClasses()) {
-					if (!subClass.equals(context.getCurrent()) && !otherSubClasses.contains(subClass)) {
-						otherSubClasses.add(subClass);
-					}
-				}
+				otherSubClasses.addAll(superClass.getSubClasses());
 			}
+			otherSubClasses.remove(context.getCurrent());
 			if (otherSubClasses.size() > 0) {
 				context.setSuperOtherSubClasses(otherSubClasses);
 				return true;
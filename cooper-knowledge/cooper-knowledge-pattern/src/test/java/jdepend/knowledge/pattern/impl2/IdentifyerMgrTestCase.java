@@ -0,0 +1,107 @@
+package jdepend.knowledge.pattern.impl2;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jdepend.framework.config.PropertyConfigurator;
+import jdepend.framework.context.JDependContext;
+import jdepend.knowledge.pattern.PatternInfo;
+import jdepend.metadata.JavaPackage;
+import jdepend.model.Component;
+import jdepend.model.JavaClassUnit;
+import jdepend.model.result.AnalysisResult;
+import jdepend.model.result.AnalysisRunningContext;
+import jdepend.model.result.ProfileFacadeImpl;
+import jdepend.parse.Parse;
+import jdepend.parse.ParseConfigurator;
+import jdepend.parse.impl.PackageFilter;
+import junit.framework.TestCase;
+
+/**
+ * 校验并行识别设计模式的结果与逐个类串行识别的结果一致
+ *
+ * @author user
+ *
+ */
+public class IdentifyerMgrTestCase extends TestCase {
+
+	private static final int Count = 3;
+
+	@Override
+	protected void setUp() throws Exception {
+		if (JDependContext.getWorkspacePath() == null) {
+			File workspace = new File(System.getProperty("java.io.tmpdir"), "identifyermgr-" + System.nanoTime());
+			File conf = new File(workspace, PropertyConfigurator.DEFAULT_PROPERTY_DIR);
+			conf.mkdirs();
+			new File(conf, PropertyConfigurator.DEFAULT_PROPERTY_FILE).createNewFile();
+			JDependContext.setWorkspacePath(workspace.getAbsolutePath());
+		}
+	}
+
+	public void testParallelSameAsSequential() throws Exception {
+		AnalysisResult result = this.analyze();
+		IdentifyerMgr mgr = new IdentifyerMgr();
+		List<JavaClassUnit> javaClasses = new ArrayList<JavaClassUnit>(result.getClasses());
+		PatternInfo[][] classPatternInfos = new PatternInfo[javaClasses.size()][];
+		for (int i = 0; i < javaClasses.size(); i++) {
+			classPatternInfos[i] = mgr.identify(javaClasses.get(i));
+		}
+		List<String> expected = this.describe(mgr.merge(classPatternInfos));
+
+		int patternCount = 0;
+		for (String patterns : expected) {
+			if (!patterns.endsWith("[]")) {
+				patternCount++;
+			}
+		}
+		assertTrue(expected.toString(), patternCount > 1);
+
+		for (int i = 0; i < Count; i++) {
+			assertEquals(expected, this.describe(new IdentifyerMgr().identify(this.analyze())));
+		}
+	}
+
+	private List<String> describe(Map<String, Collection<PatternInfo>> results) {
+		List<String> infos = new ArrayList<String>();
+		List<String> patterns;
+		for (String name : results.keySet()) {
+			patterns = new ArrayList<String>();
+			for (PatternInfo patternInfo : results.get(name)) {
+				patterns.add(patternInfo.getJavaClass().getName() + ":" + patternInfo.getInfo());
+			}
+			infos.add(name + patterns);
+		}
+		return infos;
+	}
+
+	/**
+	 * 分析cooper-model-core的类
+	 * 
+	 * @return
+	 * @throws Exception
+	 */
+	private AnalysisResult analyze() throws Exception {
+		ProfileFacadeImpl profileFacade = new ProfileFacadeImpl(new ProfileFacadeImpl());
+
+		ParseConfigurator conf = new ParseConfigurator(new HashMap<String, String>());
+		conf.setPackageFilter(new PackageFilter(new ArrayList<String>(), new ArrayList<String>()));
+		conf.setJavaClassRelationTypes(profileFacade.getJavaClassRelationItemProfile().getJavaClassRelationTypes());
+
+		Parse parse = new Parse(conf);
+		parse.addDirectorys(new File(AnalysisResult.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+				.getAbsolutePath());
+		Collection<JavaPackage> javaPackages = parse.execute();
+
+		AnalysisRunningContext context = new AnalysisRunningContext();
+		Component component = Component.getDefaultComponent();
+		context.setComponent(component);
+		context.setProfileFacade(profileFacade);
+		context.setJavaPackages(new ArrayList<JavaPackage>(javaPackages));
+
+		return new AnalysisResult(component.list(javaPackages), context);
+	}
+}
@@ -1,6 +1,5 @@
 package jdepend.model;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import jdepend.model.result.AnalysisResult;
@@ -22,7 +21,7 @@ public abstract class AbstractJDependUnit extends ObjectMeasured implements JDep
 
 	private int lineCount = -1;
 
-	private transient List<? extends JDependUnit> cycles = null;
+	private transient volatile List<? extends JDependUnit> cycles = null;
 
 	private transient Float coupling = null;
 	private transient Float encapsulation = null;
@@ -35,11 +34,6 @@ public abstract class AbstractJDependUnit extends ObjectMeasured implements JDep
 	private transient boolean stabilityCal = false;
 	private transient boolean distanceCal = false;
 
-	public final static int Cycle = 2;
-	public final static int LocalCycle = 1;
-	public final static int NoCycle = 0;
-	public final static int StopCheckCycle = -1;
-
 	public AbstractJDependUnit() {
 
 	}
@@ -91,6 +85,13 @@ public abstract class AbstractJDependUnit extends ObjectMeasured implements JDep
 
 	public abstract AnalysisResult getResult();
 
+	/**
+	 * 得到识别该分析单元所在依赖图的循环依赖识别器
+	 * 
+	 * @return
+	 */
+	protected abstract CycleIdentifyer getCycleIdentifyer();
+
 	/**
 	 * @return Instability (0-1).
 	 */
@@ -154,45 +155,32 @@ public abstract class AbstractJDependUnit extends ObjectMeasured implements JDep
 		return this.collectCycle().size() > 1;
 	}
 
-	public synchronized List<? extends JDependUnit> collectCycle() {
-		if (this.cycles == null) {
-			List<List<? extends JDependUnit>> cycleses = (new OnlyOneCycleIdentifyer()).collectCycle(this);
-			if (cycleses != null) {
-				this.cycles = cycleses.get(0);
-			} else {
-				this.cycles = new ArrayList<JDependUnit>();
-			}
+	/**
+	 * 得到经过该分析单元的最短循环依赖链
+	 * 
+	 * 不持有自身的锁计算，避免与其他分析单元在计算依赖图时互相等待
+	 */
+	public List<? extends JDependUnit> collectCycle() {
+		List<? extends JDependUnit> cycles = this.cycles;
+		if (cycles == null) {
+			cycles = this.getCycleIdentifyer().collectCycle(this);
+			this.cycles = cycles;
 		}
-		return this.cycles;
+		return cycles;
 	}
 
-	public synchronized void setCycles(List<? extends JDependUnit> cycles) {
-		// 计算循环依赖的顺序
-		List<JDependUnit> sortCycles = new ArrayList<JDependUnit>();
-		if (cycles.get(0).equals(this)) {
-			sortCycles = (List<JDependUnit>) cycles;
-		} else {
-			int pos;
-			JDependUnit unit;
-			L: for (pos = 1; pos < cycles.size(); pos++) {
-				unit = cycles.get(pos);
-				if (unit.equals(this)) {
-					break L;
-				}
-			}
-			for (int index = pos; index < cycles.size(); index++) {
-				sortCycles.add(cycles.get(index));
-			}
-			for (int index = 0; index < pos; index++) {
-				sortCycles.add(cycles.get(index));
-			}
-		}
-		// 赋值
-		this.cycles = sortCycles;
+	public List<? extends JDependUnit> getCycles() {
+		return this.collectCycle();
 	}
 
-	public synchronized List<? extends JDependUnit> getCycles() {
-		return cycles;
+	/**
+	 * 是否与指定的分析单元处于同一循环依赖中
+	 * 
+	 * @param unit
+	 * @return
+	 */
+	public boolean inSameCycle(JDependUnit unit) {
+		return this.getCycleIdentifyer().inSameCycle(this, unit);
 	}
 
 	public synchronized int getLineCount() {
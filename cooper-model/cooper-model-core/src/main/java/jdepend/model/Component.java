@@ -4,12 +4,12 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 
-import jdepend.framework.log.LogUtil;
 import jdepend.framework.util.MetricsFormat;
 import jdepend.metadata.JavaClass;
 import jdepend.metadata.JavaClassRelationItem;
@@ -637,8 +637,13 @@ public abstract class Component extends AbstractSubJDependUnit {
 			obj.setLayer(this.getLayer());
 			obj.setAreaComponent(this.getAreaComponent());
 
+			// 不在javaClasses中的类不加入克隆的组件（传入空Map时只复制组件描述）
+			JavaClassUnit newJavaClass;
 			for (JavaClassUnit javaClass : this.javaClasses) {
-				obj.addJavaClass(javaClasses.get(javaClass.getId()));
+				newJavaClass = javaClasses.get(javaClass.getId());
+				if (newJavaClass != null) {
+					obj.addJavaClass(newJavaClass);
+				}
 			}
 			return obj;
 		} catch (Exception e) {
@@ -704,70 +709,17 @@ public abstract class Component extends AbstractSubJDependUnit {
 		return this.result;
 	}
 
-	public static Component getDefaultComponent() {
-		return new JavaPackageComponent();
-	}
-
 	@Override
-	public int collectCycle(List<JDependUnit> list, Map<JDependUnit, Integer> knowledge) {
-
-		if (list.size() > 20) {
-			LogUtil.getInstance(JavaClassUnit.class).systemWarning(
-					"Component[" + list.get(0).getName() + "][" + this.getName() + "] collectCycle 搜索深度大于20停止搜索");
-			return StopCheckCycle;// 搜索深度大于20时停止
-		}
-
-		if (list.contains(this)) {
-			if (list.get(0).equals(this)) {
-				return Cycle;// 存在循环依赖
-			} else {
-				// 通知其他组件存在循环依赖
-				int index;
-				L: for (index = 1; index < list.size(); index++) {
-					if (list.get(index).equals(this)) {
-						break L;
-					}
-				}
-				List<Component> otherCycles = new ArrayList<Component>();
-				for (int pos = index; pos < list.size(); pos++) {
-					otherCycles.add((Component) list.get(pos));
-				}
-				for (Component unit : otherCycles) {
-					unit.setCycles(otherCycles);
-				}
-
-				knowledge.put(this, LocalCycle);
-				return LocalCycle;// 存在局部循环依赖
-			}
-		}
-
-		list.add(this);// 将当前分析单元入栈
-
-		if (this.getEfferents().contains(list.get(0))) {// 直接依赖进行广度搜索
-			return Cycle;
-		}
-
-		L: for (Component efferent : this.getEfferents()) {
-			Integer rtnInteger = (Integer) knowledge.get(efferent);// 获取历史扫描数据
-			if (rtnInteger == null) {// 没有扫描过的区域进行深度扫描
-				int rtn = efferent.collectCycle(list, knowledge);// 深度搜索该区域
-				if (rtn == Cycle) {// 存在循环依赖
-					// 通知其他组件存在循环依赖
-					for (int index = 1; index < list.size(); index++) {
-						((Component) list.get(index)).setCycles(list);
-					}
-					return Cycle;
-				} else if (rtn == StopCheckCycle) {
-					break L;// 搜索深度大于20时停止
-				}
-			}
+	protected CycleIdentifyer getCycleIdentifyer() {
+		if (this.result != null) {
+			return this.result.getComponentCycleIdentifyer();
+		} else {
+			return new TarjanCycleIdentifyer(Collections.singletonList(this));
 		}
+	}
 
-		list.remove(this);// 将当前分析单元出栈
-
-		knowledge.put(this, NoCycle);// 记录该对象扫描过的结果
-
-		return NoCycle;// 不存在循环依赖
+	public static Component getDefaultComponent() {
+		return new JavaPackageComponent();
 	}
 
 	@Override
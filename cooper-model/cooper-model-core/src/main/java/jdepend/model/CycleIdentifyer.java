@@ -10,15 +10,27 @@ import java.util.List;
  */
 public interface CycleIdentifyer {
 
-	public final static int Cycle = 2;
-	public final static int LocalCycle = 1;
-	public final static int NoCycle = 0;
-
 	/**
-	 * 返回循环依赖链
+	 * 返回经过该分析单元的最短循环依赖链
 	 * 
 	 * @param unit
+	 * @return 以unit开头的循环依赖链，不存在循环依赖时返回空列表
+	 */
+	public List<? extends JDependUnit> collectCycle(JDependUnit unit);
+
+	/**
+	 * 返回全部循环依赖（存在循环依赖的强连通分量）
+	 * 
+	 * @return
+	 */
+	public List<List<? extends JDependUnit>> getCycles();
+
+	/**
+	 * 两个分析单元是否处于同一循环依赖中
+	 * 
+	 * @param unit1
+	 * @param unit2
 	 * @return
 	 */
-	public List<List<? extends JDependUnit>> collectCycle(JDependUnit unit);
+	public boolean inSameCycle(JDependUnit unit1, JDependUnit unit2);
 }
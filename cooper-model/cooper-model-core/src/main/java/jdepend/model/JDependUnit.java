@@ -3,7 +3,6 @@ package jdepend.model;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 
 import jdepend.metadata.JavaClass;
 import jdepend.metadata.JavaPackage;
@@ -53,16 +52,7 @@ public interface JDependUnit extends Serializable, Measurable, Comparable<JDepen
 	public Collection<? extends JDependUnit> getEfferents();
 
 	/**
-	 * 收集循环依赖信息
-	 * 
-	 * @param list
-	 * @param knowledge
-	 * @return
-	 */
-	int collectCycle(List<JDependUnit> list, Map<JDependUnit, Integer> knowledge);
-
-	/**
-	 * 收集第一个循环依赖链
+	 * 收集经过该分析单元的最短循环依赖链
 	 * 
 	 * @return
 	 */
@@ -4,9 +4,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 
-import jdepend.framework.log.LogUtil;
 import jdepend.metadata.JavaClass;
 import jdepend.metadata.JavaClassRelationItem;
 import jdepend.metadata.JavaPackage;
@@ -371,88 +369,13 @@ public class JavaClassUnit extends AbstractSubJDependUnit {
 	}
 
 	@Override
-	protected GroupInfoCalculator createGroupInfoCalculator() {
-		return new GroupInfoCalculator(this);
+	protected CycleIdentifyer getCycleIdentifyer() {
+		return this.getResult().getClassCycleIdentifyer();
 	}
 
 	@Override
-	public int collectCycle(List<JDependUnit> list, Map<JDependUnit, Integer> knowledge) {
-
-		if (!this.getComponent().getContainsCycle()) {
-			return NoCycle;// 当类所在的组件不存在循环依赖时，类也不会存在循环依赖
-		}
-
-		if (list.size() > 20) {
-			LogUtil.getInstance(JavaClassUnit.class).systemWarning(
-					"JavaClass[" + list.get(0).getName() + "] [" + this.getName() + "]collectCycle 搜索深度大于20停止搜索");
-			return StopCheckCycle;// 搜索深度大于20时停止
-		}
-
-		if (list.contains(this)) {
-			if (list.get(0).equals(this)) {
-				for (JDependUnit unit : list) {
-					if (!this.component.containsClass((JavaClassUnit) unit)) {
-						return Cycle;// 存在循环依赖
-					}
-				}
-				knowledge.put(this, LocalCycle);
-				return LocalCycle;// 存在局部循环依赖
-			} else {
-				// 通知其他组件存在循环依赖
-				int index;
-				L: for (index = 1; index < list.size(); index++) {
-					if (list.get(index).equals(this)) {
-						break L;
-					}
-				}
-				List<JavaClassUnit> otherCycles = new ArrayList<JavaClassUnit>();
-				Collection<Component> otherCycleComponents = new HashSet<Component>();
-				for (int pos = index; pos < list.size(); pos++) {
-					otherCycles.add((JavaClassUnit) list.get(pos));
-					otherCycleComponents.add(((JavaClassUnit) list.get(pos)).getComponent());
-				}
-				if (otherCycleComponents.size() > 1) {
-					for (JavaClassUnit unit : otherCycles) {
-						unit.setCycles(otherCycles);
-					}
-				}
-
-				knowledge.put(this, LocalCycle);
-				return LocalCycle;// 存在局部循环依赖
-			}
-		}
-
-		list.add(this);// 将当前分析单元入栈
-
-		if (this.getCeList().contains(list.get(0))) {// 直接依赖进行广度搜索
-			for (JDependUnit unit : list) {
-				if (!this.component.containsClass((JavaClassUnit) unit)) {
-					return Cycle;// 存在循环依赖
-				}
-			}
-		}
-
-		L: for (JavaClassUnit efferent : this.getCeList()) {
-			Integer rtnInteger = (Integer) knowledge.get(efferent);// 获取历史扫描数据
-			if (rtnInteger == null) {// 没有扫描过的区域进行深度扫描
-				int rtn = efferent.collectCycle(list, knowledge);// 深度搜索该区域
-				if (rtn == Cycle) {// 存在循环依赖
-					// 通知其他组件存在循环依赖
-					for (int index = 1; index < list.size(); index++) {
-						((JavaClassUnit) list.get(index)).setCycles(list);
-					}
-					return Cycle;
-				} else if (rtn == StopCheckCycle) {
-					break L;// 搜索深度大于20时停止
-				}
-			}
-		}
-
-		list.remove(this);// 将当前分析单元出栈
-
-		knowledge.put(this, NoCycle);// 记录该对象扫描过的结果
-
-		return NoCycle;// 不存在循环依赖
+	protected GroupInfoCalculator createGroupInfoCalculator() {
+		return new GroupInfoCalculator(this);
 	}
 
 	public JavaClassUnit clone() {
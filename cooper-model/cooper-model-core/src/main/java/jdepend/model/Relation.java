@@ -273,7 +273,7 @@ public final class Relation implements Comparable<Relation>, Serializable {
 				return MutualDependAttentionType;
 		} else if (this.current.getComponent().stability(this.depend.getComponent())) {// 检测稳定依赖（按着自动计算的稳定性）
 			return SDPAttentionType;
-		} else if (this.current.getComponent().collectCycle().contains(this.depend.getComponent())) {// 检测循环依赖
+		} else if (this.current.getComponent().inSameCycle(this.depend.getComponent())) {// 检测循环依赖
 			return CycleDependAttentionType;
 		} else {
 			return DefaultAttentionType;
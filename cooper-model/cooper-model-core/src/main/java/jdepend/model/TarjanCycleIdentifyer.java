@@ -0,0 +1,273 @@
+package jdepend.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基于强连通分量的循环依赖识别器
+ *
+ * 用Tarjan算法一次计算出分析单元依赖图中的全部强连通分量，包含多个分析单元的强连通分量即为一组循环依赖，没有搜索深度限制。
+ * 经过某个分析单元的最短循环依赖链在其所在的强连通分量内广度优先搜索得到，在第一次使用时计算。
+ *
+ * 识别JavaClassUnit的循环依赖时，只有跨越多个组件的循环才被认为是循环依赖。
+ *
+ * @author user
+ *
+ */
+public final class TarjanCycleIdentifyer implements CycleIdentifyer {
+
+	private final Map<JDependUnit, Integer> sccIndexes = new HashMap<JDependUnit, Integer>();
+
+	private final List<List<JDependUnit>> sccs = new ArrayList<List<JDependUnit>>();
+
+	private final List<Boolean> sccCycles = new ArrayList<Boolean>();
+
+	private List<List<? extends JDependUnit>> cycles;
+
+	/**
+	 * @param units
+	 *            分析单元集合，从这些分析单元传出可达的分析单元也会被识别
+	 */
+	public TarjanCycleIdentifyer(Collection<? extends JDependUnit> units) {
+		this.calSccs(units);
+	}
+
+	@Override
+	public List<? extends JDependUnit> collectCycle(JDependUnit unit) {
+		Integer index = sccIndexes.get(unit);
+		if (index == null || !sccCycles.get(index)) {
+			return new ArrayList<JDependUnit>();
+		}
+		return this.searchShortestCycle(unit, index);
+	}
+
+	@Override
+	public synchronized List<List<? extends JDependUnit>> getCycles() {
+		if (this.cycles == null) {
+			this.cycles = new ArrayList<List<? extends JDependUnit>>();
+			for (int index = 0; index < sccs.size(); index++) {
+				if (sccCycles.get(index)) {
+					this.cycles.add(Collections.unmodifiableList(sccs.get(index)));
+				}
+			}
+		}
+		return this.cycles;
+	}
+
+	@Override
+	public boolean inSameCycle(JDependUnit unit1, JDependUnit unit2) {
+		Integer index = sccIndexes.get(unit1);
+		return index != null && sccCycles.get(index) && index.equals(sccIndexes.get(unit2));
+	}
+
+	/**
+	 * 非递归的Tarjan算法
+	 *
+	 * @param units
+	 */
+	private void calSccs(Collection<? extends JDependUnit> units) {
+
+		Map<JDependUnit, Integer> indexes = new HashMap<JDependUnit, Integer>();
+		Map<JDependUnit, Integer> lowLinks = new HashMap<JDependUnit, Integer>();
+		LinkedList<JDependUnit> stack = new LinkedList<JDependUnit>();
+		Map<JDependUnit, Boolean> onStack = new HashMap<JDependUnit, Boolean>();
+
+		LinkedList<JDependUnit> callStack = new LinkedList<JDependUnit>();
+		LinkedList<Iterator<? extends JDependUnit>> iteratorStack = new LinkedList<Iterator<? extends JDependUnit>>();
+
+		int nextIndex = 0;
+		JDependUnit current;
+		JDependUnit efferent;
+		Iterator<? extends JDependUnit> it;
+
+		for (JDependUnit root : units) {
+			if (indexes.containsKey(root)) {
+				continue;
+			}
+			indexes.put(root, nextIndex);
+			lowLinks.put(root, nextIndex);
+			nextIndex++;
+			stack.push(root);
+			onStack.put(root, true);
+			callStack.push(root);
+			iteratorStack.push(getEfferents(root).iterator());
+
+			while (!callStack.isEmpty()) {
+				current = callStack.peek();
+				it = iteratorStack.peek();
+				if (it.hasNext()) {
+					efferent = it.next();
+					if (!indexes.containsKey(efferent)) {
+						indexes.put(efferent, nextIndex);
+						lowLinks.put(efferent, nextIndex);
+						nextIndex++;
+						stack.push(efferent);
+						onStack.put(efferent, true);
+						callStack.push(efferent);
+						iteratorStack.push(getEfferents(efferent).iterator());
+					} else if (onStack.containsKey(efferent)) {
+						lowLinks.put(current, Math.min(lowLinks.get(current), indexes.get(efferent)));
+					}
+				} else {
+					callStack.pop();
+					iteratorStack.pop();
+					if (!callStack.isEmpty()) {
+						JDependUnit parent = callStack.peek();
+						lowLinks.put(parent, Math.min(lowLinks.get(parent), lowLinks.get(current)));
+					}
+					if (lowLinks.get(current).equals(indexes.get(current))) {
+						// current为强连通分量的根
+						List<JDependUnit> scc = new ArrayList<JDependUnit>();
+						JDependUnit member;
+						do {
+							member = stack.pop();
+							onStack.remove(member);
+							scc.add(member);
+							sccIndexes.put(member, sccs.size());
+						} while (member != current);
+						sccs.add(scc);
+						sccCycles.add(isCycle(scc));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * 在强连通分量内广度优先搜索经过unit的最短循环依赖链
+	 *
+	 * 识别JavaClassUnit时搜索状态包含是否已经经过其他组件的Class，以保证得到的循环跨越多个组件。
+	 * 同一个Class可以以不同的状态出现在搜索中，扩展时跳过已经在当前路径上的Class，以保证得到的循环依赖链中没有重复的分析单元。
+	 *
+	 * @param unit
+	 * @param sccIndex
+	 * @return 以unit开头的循环依赖链，没有经过unit的跨组件简单循环时为空
+	 */
+	private List<JDependUnit> searchShortestCycle(JDependUnit unit, Integer sccIndex) {
+
+		Component component = getComponent(unit);
+
+		Map<SearchState, SearchState> parents = new HashMap<SearchState, SearchState>();
+		LinkedList<SearchState> queue = new LinkedList<SearchState>();
+		SearchState start = new SearchState(unit, false);
+		queue.add(start);
+
+		SearchState state;
+		SearchState next;
+		SearchState end = null;
+		L: while (!queue.isEmpty()) {
+			state = queue.removeFirst();
+			for (JDependUnit efferent : getEfferents(state.unit)) {
+				if (!sccIndex.equals(sccIndexes.get(efferent))) {
+					continue;
+				}
+				next = new SearchState(efferent, state.crossed
+						|| (component != null && !component.equals(getComponent(efferent))));
+				if (efferent.equals(unit)) {
+					if (component == null || next.crossed) {
+						end = state;
+						break L;
+					}
+				} else if (!parents.containsKey(next) && !onPath(state, next, parents)) {
+					parents.put(next, state);
+					queue.add(next);
+				}
+			}
+		}
+
+		LinkedList<JDependUnit> cycle = new LinkedList<JDependUnit>();
+		if (end != null) {
+			for (state = end; !state.equals(start); state = parents.get(state)) {
+				cycle.addFirst(state.unit);
+			}
+			cycle.addFirst(unit);
+		}
+		return new ArrayList<JDependUnit>(cycle);
+	}
+
+	/**
+	 * next的分析单元是否已经在从起点到state的路径上
+	 *
+	 * 分析单元以另一个状态被搜索到过时才可能在路径上，只在这种情况下回溯路径。
+	 *
+	 * @param state
+	 * @param next
+	 * @param parents
+	 * @return
+	 */
+	private static boolean onPath(SearchState state, SearchState next, Map<SearchState, SearchState> parents) {
+		if (!parents.containsKey(new SearchState(next.unit, !next.crossed))) {
+			return false;
+		}
+		for (SearchState s = state; s != null; s = parents.get(s)) {
+			if (s.unit.equals(next.unit)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean isCycle(List<JDependUnit> scc) {
+		if (scc.size() < 2) {
+			return false;
+		}
+		Component component = getComponent(scc.get(0));
+		if (component == null) {
+			return true;
+		}
+		for (JDependUnit unit : scc) {
+			if (!component.equals(getComponent(unit))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static Collection<? extends JDependUnit> getEfferents(JDependUnit unit) {
+		if (unit instanceof JavaClassUnit) {
+			return ((JavaClassUnit) unit).getCeList();
+		} else {
+			return unit.getEfferents();
+		}
+	}
+
+	private static Component getComponent(JDependUnit unit) {
+		if (unit instanceof JavaClassUnit) {
+			return ((JavaClassUnit) unit).getComponent();
+		} else {
+			return null;
+		}
+	}
+
+	private static class SearchState {
+
+		private final JDependUnit unit;
+
+		private final boolean crossed;
+
+		public SearchState(JDependUnit unit, boolean crossed) {
+			this.unit = unit;
+			this.crossed = crossed;
+		}
+
+		@Override
+		public int hashCode() {
+			return unit.hashCode() * 2 + (crossed ? 1 : 0);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof SearchState)) {
+				return false;
+			}
+			SearchState other = (SearchState) obj;
+			return crossed == other.crossed && unit.equals(other.unit);
+		}
+	}
+}
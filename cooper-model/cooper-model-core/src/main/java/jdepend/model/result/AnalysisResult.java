@@ -5,7 +5,6 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -15,23 +14,26 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
 
 import jdepend.framework.exception.JDependException;
 import jdepend.framework.util.MathUtil;
 import jdepend.framework.util.MetricsFormat;
+import jdepend.metadata.JavaClass;
 import jdepend.metadata.JavaClassRelationItem;
 import jdepend.metadata.JavaPackage;
 import jdepend.metadata.Method;
 import jdepend.metadata.tree.JavaPackageNode;
 import jdepend.metadata.tree.JavaPackageTreeCreator;
+import jdepend.metadata.util.CallGraph;
 import jdepend.metadata.util.JavaClassCollection;
 import jdepend.metadata.util.JavaClassUtil;
 import jdepend.model.AreaComponent;
 import jdepend.model.Component;
+import jdepend.model.CycleIdentifyer;
 import jdepend.model.JDependUnit;
 import jdepend.model.JavaClassUnit;
 import jdepend.model.Relation;
+import jdepend.model.TarjanCycleIdentifyer;
 import jdepend.model.area.AreaCreatorChain;
 import jdepend.model.component.MemoryComponent;
 import jdepend.model.util.CopyUtil;
@@ -74,6 +76,12 @@ public class AnalysisResult extends AnalysisResultScored implements Serializable
 
 	private transient Map<String, JavaClassRelationItem> javaClassRelationItems;
 
+	private transient CycleIdentifyer componentCycleIdentifyer;
+
+	private transient CycleIdentifyer classCycleIdentifyer;
+
+	private transient CallGraph callGraph;
+
 	public static final String Metrics_D = "Result_Metrics_D";
 	public static final String Metrics_Balance = "Result_Metrics_Balance";
 	public static final String Metrics_RelationRationality = "Result_Metrics_RelationRationality";
@@ -97,6 +105,24 @@ public class AnalysisResult extends AnalysisResultScored implements Serializable
 		this.init();
 	}
 
+	/**
+	 * 增量分析时使用，两端组件都未受影响且上次分析中没有关系的组件对不再计算关系
+	 * 
+	 * @param components
+	 * @param runningContext
+	 * @param previousResult
+	 *            上次分析结果
+	 * @param affectedClassIds
+	 *            重新建立了关系的Class的id集合
+	 */
+	public AnalysisResult(List<Component> components, AnalysisRunningContext runningContext,
+			AnalysisResult previousResult, Collection<String> affectedClassIds) {
+		super();
+		this.runningContext = runningContext;
+		this.components = components;
+		this.init(previousResult, affectedClassIds);
+	}
+
 	public AnalysisResult(AnalysisResult result) {
 
 		this.runningContext = result.runningContext;
@@ -120,13 +146,27 @@ public class AnalysisResult extends AnalysisResultScored implements Serializable
 		this.javaPackageTree = result.javaPackageTree;
 	}
 
-	private void init() {
+	void init() {
+		this.init(null, null);
+	}
+
+	/**
+	 * @param previousResult
+	 *            上次分析结果，为null时计算全部关系
+	 * @param affectedClassIds
+	 */
+	private void init(AnalysisResult previousResult, Collection<String> affectedClassIds) {
 		// 填充Result
 		for (Component component : this.components) {
 			component.setResult(this);
 		}
 		// 计算关系
-		this.calRelations();
+		if (previousResult == null) {
+			this.calRelations();
+		} else {
+			this.relations = new RelationCreator().create(components,
+					calAffectedComponents(previousResult, affectedClassIds), previousResult.getRelations());
+		}
 		// 重新计算组件区域
 		this.calAreaComponents();
 		// 初始化Relations
@@ -350,6 +390,63 @@ public class AnalysisResult extends AnalysisResultScored implements Serializable
 		return this.relations;
 	}
 
+	/**
+	 * 得到组件的循环依赖识别器，每个分析结果只计算一次
+	 * 
+	 * @return
+	 */
+	public synchronized CycleIdentifyer getComponentCycleIdentifyer() {
+		if (this.componentCycleIdentifyer == null) {
+			this.componentCycleIdentifyer = new TarjanCycleIdentifyer(this.components);
+		}
+		return this.componentCycleIdentifyer;
+	}
+
+	/**
+	 * 得到类的循环依赖识别器，每个分析结果只计算一次
+	 * 
+	 * @return
+	 */
+	public synchronized CycleIdentifyer getClassCycleIdentifyer() {
+		if (this.classCycleIdentifyer == null) {
+			this.classCycleIdentifyer = new TarjanCycleIdentifyer(this.getClasses());
+		}
+		return this.classCycleIdentifyer;
+	}
+
+	/**
+	 * 得到方法调用图，每个分析结果只建立一次，并设置到全部方法上
+	 * 
+	 * @return
+	 */
+	public synchronized CallGraph getCallGraph() {
+		if (this.callGraph == null) {
+			this.callGraph = new CallGraph(this.getMethods());
+			for (Method method : this.callGraph.getMethods()) {
+				method.setCallGraph(this.callGraph);
+			}
+		}
+		return this.callGraph;
+	}
+
+	/**
+	 * 得到组件间的全部循环依赖
+	 * 
+	 * @return
+	 */
+	public List<List<? extends JDependUnit>> getComponentCycles() {
+		return this.getComponentCycleIdentifyer().getCycles();
+	}
+
+	/**
+	 * 得到跨越组件的全部类循环依赖
+	 * 
+	 * @return
+	 */
+	public List<List<? extends JDependUnit>> getClassCycles() {
+		return this.getClassCycleIdentifyer().getCycles();
+	}
+
 	public synchronized List<AreaComponent> getAreaComponents() {
 		if (this.areaComponents == null) {
 			this.calAreaComponents();
@@ -361,6 +458,46 @@ public class AnalysisResult extends AnalysisResultScored implements Serializable
 		this.relations = new RelationCreator().create(components);
 	}
 
+	/**
+	 * 计算受影响的组件：包含重新建立了关系的Class，或者包含的Class与上次分析不同
+	 * 
+	 * @param previousResult
+	 * @param affectedClassIds
+	 * @return 受影响的组件名称
+	 */
+	private Collection<String> calAffectedComponents(AnalysisResult previousResult,
+			Collection<String> affectedClassIds) {
+		Collection<String> affectedComponents = new HashSet<String>();
+		Collection<String> classIds;
+		Component previousComponent;
+		for (Component component : this.components) {
+			classIds = getClassIds(component);
+			previousComponent = previousResult.getTheComponent(component.getName());
+			if (previousComponent == null || !classIds.equals(getClassIds(previousComponent))) {
+				affectedComponents.add(component.getName());
+			} else {
+				L: for (String classId : classIds) {
+					if (affectedClassIds.contains(classId)) {
+						affectedComponents.add(component.getName());
+						break L;
+					}
+				}
+			}
+		}
+		return affectedComponents;
+	}
+
+	private static Collection<String> getClassIds(Component component) {
+		Collection<String> classIds = new HashSet<String>();
+		for (JavaClassUnit javaClass : component.getClasses()) {
+			classIds.add(javaClass.getId());
+			for (JavaClass innerClass : javaClass.getJavaClass().getInnerClasses()) {
+				classIds.add(innerClass.getId());
+			}
+		}
+		return classIds;
+	}
+
 	private void calAreaComponents() {
 		if (this.runningContext.getProfileFacade().getAreaComponentProfile().isCreate()) {
 			this.areaComponents = new AreaCreatorChain(this).create();
@@ -418,6 +555,14 @@ public class AnalysisResult extends AnalysisResultScored implements Serializable
 		this.javaClassForIds = null;
 		this.methods = null;
 		this.javaClassRelationItems = null;
+		this.componentCycleIdentifyer = null;
+		this.classCycleIdentifyer = null;
+		if (this.callGraph != null) {
+			for (Method method : this.callGraph.getMethods()) {
+				method.setCallGraph(null);
+			}
+			this.callGraph = null;
+		}
 
 		this.clearScore();
 
@@ -466,17 +611,9 @@ public class AnalysisResult extends AnalysisResultScored implements Serializable
 	private byte[] getBytes() throws IOException {
 		if (this.data == null) {
 			ByteArrayOutputStream outstream = null;
-			GZIPOutputStream gzip = null;
-			ObjectOutputStream out = null;
 			try {
 				outstream = new ByteArrayOutputStream();
-				gzip = new GZIPOutputStream(outstream);
-				out = new ObjectOutputStream(gzip);
-				out.writeObject(this);
-				out.flush();
-				gzip.flush();
-				gzip.finish();
-				outstream.flush();
+				AnalysisResultFormat.write(this, outstream);
 				this.data = outstream.toByteArray();
 			} catch (Exception e) {
 				e.printStackTrace();
@@ -488,20 +625,6 @@ public class AnalysisResult extends AnalysisResultScored implements Serializable
 						e.printStackTrace();
 					}
 				}
-				if (gzip != null) {
-					try {
-						gzip.close();
-					} catch (IOException e) {
-						e.printStackTrace();
-					}
-				}
-				if (out != null) {
-					try {
-						out.close();
-					} catch (IOException e) {
-						e.printStackTrace();
-					}
-				}
 			}
 		}
 		return this.data;
@@ -513,6 +636,26 @@ public class AnalysisResult extends AnalysisResultScored implements Serializable
 
 	public static AnalysisResult create(byte[] data, AnalysisResultUnSequenceListener listener) throws IOException,
 			ClassNotFoundException {
+		return create(data, listener, null);
+	}
+
+	/**
+	 * 读取分析结果
+	 * 
+	 * @param data
+	 * @param listener
+	 * @param detailSource
+	 *            data为不包含类细节的摘要时提供类细节
+	 * @return
+	 * @throws IOException
+	 * @throws ClassNotFoundException
+	 */
+	public static AnalysisResult create(byte[] data, AnalysisResultUnSequenceListener listener,
+			AnalysisResultDetailSource detailSource) throws IOException, ClassNotFoundException {
+		if (AnalysisResultFormat.accept(data)) {
+			return AnalysisResultFormat.read(new ByteArrayInputStream(data), listener, detailSource);
+		}
+		// 兼容以前保存的GZIP压缩的Java序列化格式
 		InputStream inputstream = null;
 		GZIPInputStream gzip = null;
 		ObjectInputStream in = null;
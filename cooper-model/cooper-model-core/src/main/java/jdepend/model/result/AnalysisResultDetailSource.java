@@ -0,0 +1,15 @@
+package jdepend.model.result;
+
+import java.io.IOException;
+
+/**
+ * 不包含类细节的分析结果摘要在第一次访问类细节时，通过该接口得到AnalysisResultFormat.writeDetails写出的类细节
+ *
+ * @author user
+ *
+ */
+public interface AnalysisResultDetailSource {
+
+	public byte[] getDetails() throws IOException;
+
+}
@@ -0,0 +1,671 @@
+package jdepend.model.result;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import jdepend.metadata.JavaClass;
+import jdepend.metadata.JavaClassDetail;
+import jdepend.metadata.JavaClassDetailLoader;
+import jdepend.metadata.JavaClassRelationItem;
+import jdepend.metadata.JavaClassRelationType;
+import jdepend.metadata.JavaPackage;
+import jdepend.metadata.Method;
+import jdepend.metadata.relationtype.JavaClassRelationTypes;
+import jdepend.metadata.util.JavaClassCollection;
+import jdepend.model.Component;
+import jdepend.model.util.JavaClassUnitUtil;
+
+/**
+ * 分析结果的紧凑二进制格式
+ *
+ * 格式依次为：格式标识和版本号、字符串表、包表、类表、分析结果主体、类关系表，格式标识和版本号之后的内容经过Deflate压缩。
+ *
+ * 类名、方法名、包名等字符串只在字符串表中保存一次，其他位置只保存序号；类关系以类的序号对保存。
+ * 分析结果主体（组件、运行上下文等）仍然使用Java序列化，但其中的JavaClass和JavaPackage被替换为类表和包表中的序号。
+ * 每个类的JavaClassDetail单独编码，读取时不解码，第一次访问任意一个JavaClassDetail时再统一解码并填充。
+ *
+ * 写出摘要时不包含JavaClassDetail（编码长度为0），类细节由writeDetails单独写出，按类Id对应；
+ * 读取摘要时需提供AnalysisResultDetailSource，第一次访问类细节时再得到全部类细节。
+ *
+ * @author user
+ *
+ */
+public final class AnalysisResultFormat {
+
+	private static final byte[] Magic = new byte[] { 'C', 'P', 'R' };
+
+	private static final byte[] DetailMagic = new byte[] { 'C', 'P', 'D' };
+
+	/**
+	 * 格式版本，格式变化时递增
+	 */
+	public static final int Version = 1;
+
+	private AnalysisResultFormat() {
+	}
+
+	/**
+	 * 判断数据是否为该格式
+	 *
+	 * @param data
+	 * @return
+	 */
+	public static boolean accept(byte[] data) {
+		return startsWith(data, Magic);
+	}
+
+	private static boolean startsWith(byte[] data, byte[] magic) {
+		if (data == null || data.length < magic.length) {
+			return false;
+		}
+		for (int i = 0; i < magic.length; i++) {
+			if (data[i] != magic[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public static void write(AnalysisResult result, OutputStream outputStream) throws IOException {
+		write(result, outputStream, true);
+	}
+
+	/**
+	 * 写出不包含类细节的摘要
+	 *
+	 * @param result
+	 * @param outputStream
+	 * @throws IOException
+	 */
+	public static void writeSummary(AnalysisResult result, OutputStream outputStream) throws IOException {
+		write(result, outputStream, false);
+	}
+
+	private static void write(AnalysisResult result, OutputStream outputStream, boolean withDetail)
+			throws IOException {
+
+		// 建立类表和包表
+		Map<JavaClass, Integer> classIndexes = new IdentityHashMap<JavaClass, Integer>();
+		List<JavaClass> classes = new ArrayList<JavaClass>();
+		Map<JavaPackage, Integer> packageIndexes = new IdentityHashMap<JavaPackage, Integer>();
+		List<JavaPackage> packages = new ArrayList<JavaPackage>();
+		Collection<JavaClass> suppliedClasses = collectClasses(result, classIndexes, classes, packageIndexes,
+				packages);
+
+		FormatOutput.StringTable strings = new FormatOutput.StringTable();
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		FormatOutput out = new FormatOutput(body, strings);
+
+		// 包表
+		out.writeVarInt(packages.size());
+		for (JavaPackage javaPackage : packages) {
+			out.writeString(javaPackage.getPlace());
+			out.writeString(javaPackage.getName());
+		}
+
+		// 类表
+		ByteArrayOutputStream detailData = new ByteArrayOutputStream();
+		FormatOutput detailOut = new FormatOutput(detailData, strings);
+		out.writeVarInt(classes.size());
+		for (JavaClass javaClass : classes) {
+			out.writeString(javaClass.getName());
+			out.writeString(javaClass.getPlace());
+			out.writeString(javaClass.getPackageName());
+			out.writeBoolean(javaClass.isInner());
+			out.writeVarInt(javaClass.getAccessFlags());
+			out.writeSignedVarInt(javaClass.getLineCount());
+			out.writeBoolean(javaClass.isState());
+			out.writeStrings(javaClass.getImportedPackages());
+			out.writeVarInt(indexOf(packageIndexes, javaClass.getJavaPackage()));
+
+			if (withDetail) {
+				detailData.reset();
+				JavaClassDetailFormat.write(javaClass.getDetail(), detailOut);
+				detailOut.flush();
+				out.writeBytes(detailData.toByteArray());
+			} else {
+				out.writeBytes(new byte[0]);
+			}
+		}
+		// 包中的类和宿主类都在类表中，最后写入
+		for (JavaPackage javaPackage : packages) {
+			out.writeVarInt(javaPackage.getClasses().size());
+			for (JavaClass javaClass : javaPackage.getClasses()) {
+				out.writeVarInt(indexOf(classIndexes, javaClass));
+			}
+		}
+		for (JavaClass javaClass : classes) {
+			out.writeVarInt(indexOf(classIndexes, javaClass.getHostClass()));
+		}
+
+		// 分析结果主体
+		ByteArrayOutputStream shellData = new ByteArrayOutputStream();
+		ShellOutputStream shellOut = new ShellOutputStream(shellData, classIndexes, packageIndexes);
+		shellOut.writeObject(result);
+		shellOut.close();
+		out.writeBytes(shellData.toByteArray());
+
+		// 类关系表，与反序列化后的填充一致，只保留两端都在分析结果中的关系
+		Map<JavaClassRelationItem, Integer> ceItemIndexes = new IdentityHashMap<JavaClassRelationItem, Integer>();
+		List<JavaClassRelationItem> ceItems = new ArrayList<JavaClassRelationItem>();
+		for (JavaClass javaClass : classes) {
+			ceItems.clear();
+			if (suppliedClasses.contains(javaClass)) {
+				for (JavaClassRelationItem item : javaClass.getSelfCeItems()) {
+					if (item.getTarget() != null && suppliedClasses.contains(item.getTarget())
+							&& classIndexes.containsKey(item.getTarget())) {
+						ceItemIndexes.put(item, ceItems.size());
+						ceItems.add(item);
+					}
+				}
+			}
+			out.writeVarInt(ceItems.size());
+			for (JavaClassRelationItem item : ceItems) {
+				out.writeVarInt(classIndexes.get(item.getTarget()));
+				out.writeString(getTypeName(item));
+			}
+		}
+		List<JavaClassRelationItem> caItems = new ArrayList<JavaClassRelationItem>();
+		Integer ceItemIndex;
+		for (JavaClass javaClass : classes) {
+			caItems.clear();
+			if (suppliedClasses.contains(javaClass)) {
+				for (JavaClassRelationItem item : javaClass.getSelfCaItems()) {
+					if (item.getSource() != null && suppliedClasses.contains(item.getSource())
+							&& classIndexes.containsKey(item.getSource())) {
+						caItems.add(item);
+					}
+				}
+			}
+			out.writeVarInt(caItems.size());
+			for (JavaClassRelationItem item : caItems) {
+				out.writeVarInt(classIndexes.get(item.getSource()));
+				// 与源类的传出关系为同一对象时只保存其位置
+				ceItemIndex = ceItemIndexes.get(item);
+				out.writeVarInt(ceItemIndex == null ? 0 : ceItemIndex + 1);
+				if (ceItemIndex == null) {
+					out.writeString(getTypeName(item));
+				}
+			}
+		}
+		out.flush();
+
+		writeData(Magic, strings, body, outputStream);
+	}
+
+	/**
+	 * 写出全部类的细节，与writeSummary写出的摘要按类Id对应
+	 *
+	 * @param result
+	 * @param outputStream
+	 * @throws IOException
+	 */
+	public static void writeDetails(AnalysisResult result, OutputStream outputStream) throws IOException {
+		List<JavaClass> classes = new ArrayList<JavaClass>();
+		collectClasses(result, new IdentityHashMap<JavaClass, Integer>(), classes,
+				new IdentityHashMap<JavaPackage, Integer>(), new ArrayList<JavaPackage>());
+
+		FormatOutput.StringTable strings = new FormatOutput.StringTable();
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		FormatOutput out = new FormatOutput(body, strings);
+		ByteArrayOutputStream detailData = new ByteArrayOutputStream();
+		FormatOutput detailOut = new FormatOutput(detailData, strings);
+		out.writeVarInt(classes.size());
+		for (JavaClass javaClass : classes) {
+			out.writeString(javaClass.getId());
+			detailData.reset();
+			JavaClassDetailFormat.write(javaClass.getDetail(), detailOut);
+			detailOut.flush();
+			out.writeBytes(detailData.toByteArray());
+		}
+		out.flush();
+
+		writeData(DetailMagic, strings, body, outputStream);
+	}
+
+	private static void writeData(byte[] magic, FormatOutput.StringTable strings, ByteArrayOutputStream body,
+			OutputStream outputStream) throws IOException {
+		DataOutputStream header = new DataOutputStream(outputStream);
+		header.write(magic);
+		header.writeInt(Version);
+		header.flush();
+		DeflaterOutputStream deflater = new DeflaterOutputStream(outputStream);
+		DataOutputStream dataOut = new DataOutputStream(deflater);
+		strings.writeTo(dataOut);
+		body.writeTo(dataOut);
+		dataOut.flush();
+		deflater.finish();
+	}
+
+	private static DataInputStream readData(byte[] magic, InputStream inputStream) throws IOException {
+		DataInputStream dataIn = new DataInputStream(inputStream);
+		byte[] data = new byte[magic.length];
+		dataIn.readFully(data);
+		if (!startsWith(data, magic)) {
+			throw new IOException("不是分析结果的紧凑格式");
+		}
+		int version = dataIn.readInt();
+		if (version != Version) {
+			throw new IOException("不支持的分析结果格式版本：" + version);
+		}
+		return new DataInputStream(new BufferedInputStream(new InflaterInputStream(inputStream)));
+	}
+
+	public static AnalysisResult read(InputStream inputStream, AnalysisResultUnSequenceListener listener)
+			throws IOException, ClassNotFoundException {
+		return read(inputStream, listener, null);
+	}
+
+	/**
+	 * 读取分析结果
+	 *
+	 * @param inputStream
+	 * @param listener
+	 * @param detailSource
+	 *            读取摘要时提供类细节，读取完整结果时可以为null
+	 * @return
+	 * @throws IOException
+	 * @throws ClassNotFoundException
+	 */
+	public static AnalysisResult read(InputStream inputStream, AnalysisResultUnSequenceListener listener,
+			AnalysisResultDetailSource detailSource) throws IOException, ClassNotFoundException {
+
+		DataInputStream dataIn = readData(Magic, inputStream);
+		String[] strings = FormatInput.readStringTable(dataIn);
+		FormatInput in = new FormatInput(dataIn, strings);
+
+		if (listener != null) {
+			listener.onUnSequence("正在创建类集合");
+		}
+		// 包表
+		JavaPackage[] packages = new JavaPackage[in.readVarInt()];
+		for (int i = 0; i < packages.length; i++) {
+			packages[i] = new JavaPackage(in.readString(), in.readString());
+		}
+
+		// 类表
+		JavaClass[] classes = new JavaClass[in.readVarInt()];
+		byte[][] details = new byte[classes.length][];
+		boolean summary = false;
+		JavaClass javaClass;
+		int index;
+		for (int i = 0; i < classes.length; i++) {
+			String name = in.readString();
+			String place = in.readString();
+			String packageName = in.readString();
+			boolean isInner = in.readBoolean();
+			javaClass = new JavaClass(name, isInner, in.readVarInt());
+			javaClass.setPlace(place);
+			javaClass.setPackageName(packageName);
+			javaClass.setLineCount(in.readSignedVarInt());
+			javaClass.setState(in.readBoolean());
+			for (String importPackage : in.readStrings()) {
+				javaClass.addImportedPackage(importPackage);
+			}
+			index = in.readVarInt();
+			if (index != 0) {
+				javaClass.setJavaPackage(packages[index - 1]);
+			}
+			details[i] = in.readBytes();
+			if (details[i].length == 0) {
+				summary = true;
+			}
+			classes[i] = javaClass;
+		}
+		int count;
+		for (JavaPackage javaPackage : packages) {
+			count = in.readVarInt();
+			for (int i = 0; i < count; i++) {
+				javaPackage.getClasses().add(classes[in.readVarInt() - 1]);
+			}
+		}
+		for (JavaClass innerClass : classes) {
+			index = in.readVarInt();
+			if (index != 0) {
+				classes[index - 1].addInnerClass(innerClass);
+			}
+		}
+		if (summary && detailSource == null) {
+			throw new IOException("分析结果摘要不包含类细节");
+		}
+
+		// 分析结果主体
+		ShellInputStream shellIn = new ShellInputStream(new ByteArrayInputStream(in.readBytes()), classes, packages);
+		AnalysisResult result = (AnalysisResult) shellIn.readObject();
+		shellIn.close();
+
+		// 类关系表
+		if (listener != null) {
+			listener.onUnSequence("正在填充类关系");
+		}
+		JavaClassRelationTypes types = result.getRunningContext().getProfileFacade()
+				.getJavaClassRelationItemProfile().getJavaClassRelationTypes();
+		List<List<JavaClassRelationItem>> ceItems = new ArrayList<List<JavaClassRelationItem>>(classes.length);
+		List<JavaClassRelationItem> classCeItems;
+		JavaClassRelationItem item;
+		for (JavaClass source : classes) {
+			count = in.readVarInt();
+			classCeItems = new ArrayList<JavaClassRelationItem>(count);
+			for (int i = 0; i < count; i++) {
+				item = createItem(source, classes[in.readVarInt()], types.getType(in.readString()));
+				source.addCeItems(item);
+				classCeItems.add(item);
+			}
+			ceItems.add(classCeItems);
+		}
+		int sourceIndex;
+		for (JavaClass target : classes) {
+			count = in.readVarInt();
+			for (int i = 0; i < count; i++) {
+				sourceIndex = in.readVarInt();
+				index = in.readVarInt();
+				if (index != 0) {
+					item = ceItems.get(sourceIndex).get(index - 1);
+				} else {
+					item = createItem(classes[sourceIndex], target, types.getType(in.readString()));
+				}
+				target.addCaItems(item);
+			}
+		}
+
+		// JavaClassDetail延迟加载
+		JavaClassCollection javaClasses = new JavaClassCollection(types,
+				JavaClassUnitUtil.getAllClasses(result.getComponents()));
+		DetailLoader detailLoader = summary ? new DetailLoader(classes, detailSource, javaClasses)
+				: new DetailLoader(classes, details, strings, javaClasses);
+		for (JavaClass theClass : classes) {
+			theClass.setDetailLoader(detailLoader);
+		}
+
+		result.init();
+		return result;
+	}
+
+	/**
+	 * 建立类表和包表
+	 *
+	 * @return 分析结果中组件包含的类
+	 */
+	private static Collection<JavaClass> collectClasses(AnalysisResult result, Map<JavaClass, Integer> classIndexes,
+			List<JavaClass> classes, Map<JavaPackage, Integer> packageIndexes, List<JavaPackage> packages) {
+		Collection<JavaClass> suppliedClasses = JavaClassUnitUtil.getAllClasses(result.getComponents());
+		for (JavaClass javaClass : suppliedClasses) {
+			addClass(javaClass, classIndexes, classes, packageIndexes, packages);
+		}
+		if (result.getRunningContext().getJavaPackages() != null) {
+			for (JavaPackage javaPackage : result.getRunningContext().getJavaPackages()) {
+				addPackage(javaPackage, classIndexes, classes, packageIndexes, packages);
+			}
+		}
+		for (Component component : result.getComponents()) {
+			for (JavaPackage javaPackage : component.getJavaPackages()) {
+				addPackage(javaPackage, classIndexes, classes, packageIndexes, packages);
+			}
+		}
+		return suppliedClasses;
+	}
+
+	private static void addClass(JavaClass javaClass, Map<JavaClass, Integer> classIndexes, List<JavaClass> classes,
+			Map<JavaPackage, Integer> packageIndexes, List<JavaPackage> packages) {
+		if (classIndexes.containsKey(javaClass)) {
+			return;
+		}
+		classIndexes.put(javaClass, classes.size());
+		classes.add(javaClass);
+		for (JavaClass innerClass : javaClass.getInnerClasses()) {
+			addClass(innerClass, classIndexes, classes, packageIndexes, packages);
+		}
+		if (javaClass.getHostClass() != null) {
+			addClass(javaClass.getHostClass(), classIndexes, classes, packageIndexes, packages);
+		}
+		if (javaClass.getJavaPackage() != null) {
+			addPackage(javaClass.getJavaPackage(), classIndexes, classes, packageIndexes, packages);
+		}
+	}
+
+	private static void addPackage(JavaPackage javaPackage, Map<JavaClass, Integer> classIndexes,
+			List<JavaClass> classes, Map<JavaPackage, Integer> packageIndexes, List<JavaPackage> packages) {
+		if (packageIndexes.containsKey(javaPackage)) {
+			return;
+		}
+		packageIndexes.put(javaPackage, packages.size());
+		packages.add(javaPackage);
+		for (JavaClass javaClass : javaPackage.getClasses()) {
+			addClass(javaClass, classIndexes, classes, packageIndexes, packages);
+		}
+	}
+
+	private static <T> int indexOf(Map<T, Integer> indexes, T obj) {
+		Integer index = obj == null ? null : indexes.get(obj);
+		return index == null ? 0 : index + 1;
+	}
+
+	private static String getTypeName(JavaClassRelationItem item) {
+		return item.getType() != null ? item.getType().getName() : item.getTypeName();
+	}
+
+	private static JavaClassRelationItem createItem(JavaClass source, JavaClass target, JavaClassRelationType type) {
+		JavaClassRelationItem item = new JavaClassRelationItem();
+		item.setSource(source);
+		item.setTarget(target);
+		item.setType(type);
+		return item;
+	}
+
+	/**
+	 * 第一次访问任意一个JavaClassDetail时解码全部JavaClassDetail，并按反序列化后的方式填充
+	 *
+	 * 读取的是摘要时，先从AnalysisResultDetailSource得到全部类细节。
+	 *
+	 * @author user
+	 *
+	 */
+	private static final class DetailLoader implements JavaClassDetailLoader {
+
+		private final JavaClass[] classes;
+
+		private byte[][] details;
+
+		private String[] strings;
+
+		private AnalysisResultDetailSource detailSource;
+
+		private final JavaClassCollection javaClasses;
+
+		private boolean loading = false;
+
+		private boolean decoded = false;
+
+		private Exception failure;
+
+		public DetailLoader(JavaClass[] classes, byte[][] details, String[] strings, JavaClassCollection javaClasses) {
+			this.classes = classes;
+			this.details = details;
+			this.strings = strings;
+			this.javaClasses = javaClasses;
+		}
+
+		public DetailLoader(JavaClass[] classes, AnalysisResultDetailSource detailSource,
+				JavaClassCollection javaClasses) {
+			this.classes = classes;
+			this.detailSource = detailSource;
+			this.javaClasses = javaClasses;
+		}
+
+		@Override
+		public synchronized void load(JavaClass javaClass) {
+			// 填充过程中同一线程再次访问时直接返回已经解码的detail
+			if (this.loading) {
+				return;
+			}
+			// 其他线程在本线程等待锁期间已经完成填充
+			if (this.decoded) {
+				return;
+			}
+			// 解码或填充失败后不再重试，每次访问都抛出同一个错误
+			if (this.failure != null) {
+				throw new IllegalStateException("解码JavaClassDetail失败", this.failure);
+			}
+			this.loading = true;
+
+			try {
+				if (this.detailSource != null) {
+					this.readDetails(this.detailSource.getDetails());
+					this.detailSource = null;
+				}
+				JavaClassDetail[] decoded = new JavaClassDetail[classes.length];
+				for (int i = 0; i < classes.length; i++) {
+					decoded[i] = JavaClassDetailFormat.read(classes[i], new FormatInput(new ByteArrayInputStream(
+							details[i]), strings));
+				}
+				for (int i = 0; i < classes.length; i++) {
+					classes[i].setDetail(decoded[i]);
+				}
+				this.details = null;
+
+				// 填充过程在当前线程中执行，其他线程访问detail时等待填充完成
+				for (JavaClass theClass : javaClasses.getJavaClasses()) {
+					theClass.supplyDetail(javaClasses);
+				}
+				for (JavaClass theClass : javaClasses.getJavaClasses()) {
+					for (Method method : theClass.getSelfMethods()) {
+						method.supplyInvokeItem(javaClasses);
+					}
+				}
+				this.decoded = true;
+
+				for (JavaClass theClass : classes) {
+					theClass.setDetailLoader(null);
+				}
+			} catch (Exception e) {
+				this.failure = e;
+				this.details = null;
+				throw new IllegalStateException("解码JavaClassDetail失败", e);
+			} finally {
+				this.loading = false;
+			}
+		}
+
+		/**
+		 * 读取writeDetails写出的类细节，按类Id对应到类表
+		 *
+		 * @param data
+		 * @throws IOException
+		 */
+		private void readDetails(byte[] data) throws IOException {
+			DataInputStream dataIn = readData(DetailMagic, new ByteArrayInputStream(data));
+			this.strings = FormatInput.readStringTable(dataIn);
+			FormatInput in = new FormatInput(dataIn, strings);
+			int count = in.readVarInt();
+			Map<String, byte[]> classDetails = new HashMap<String, byte[]>(count * 2);
+			for (int i = 0; i < count; i++) {
+				classDetails.put(in.readString(), in.readBytes());
+			}
+			this.details = new byte[classes.length][];
+			for (int i = 0; i < classes.length; i++) {
+				this.details[i] = classDetails.get(classes[i].getId());
+				if (this.details[i] == null) {
+					throw new IOException("缺少类[" + classes[i].getId() + "]的细节");
+				}
+			}
+		}
+	}
+
+	private static final class ClassRef implements Serializable {
+
+		private static final long serialVersionUID = 5917423306416128520L;
+
+		private final int index;
+
+		public ClassRef(int index) {
+			this.index = index;
+		}
+	}
+
+	private static final class PackageRef implements Serializable {
+
+		private static final long serialVersionUID = -1694528871347738416L;
+
+		private final int index;
+
+		public PackageRef(int index) {
+			this.index = index;
+		}
+	}
+
+	private static final class ShellOutputStream extends ObjectOutputStream {
+
+		private final Map<JavaClass, Integer> classIndexes;
+
+		private final Map<JavaPackage, Integer> packageIndexes;
+
+		public ShellOutputStream(OutputStream out, Map<JavaClass, Integer> classIndexes,
+				Map<JavaPackage, Integer> packageIndexes) throws IOException {
+			super(out);
+			this.classIndexes = classIndexes;
+			this.packageIndexes = packageIndexes;
+			this.enableReplaceObject(true);
+		}
+
+		@Override
+		protected Object replaceObject(Object obj) throws IOException {
+			Integer index = null;
+			if (obj instanceof JavaClass) {
+				index = classIndexes.get(obj);
+				if (index != null) {
+					return new ClassRef(index);
+				}
+			} else if (obj instanceof JavaPackage) {
+				index = packageIndexes.get(obj);
+				if (index != null) {
+					return new PackageRef(index);
+				}
+			} else if (obj instanceof JavaClassDetail) {
+				throw new IOException("分析结果主体中不应包含JavaClassDetail");
+			}
+			return obj;
+		}
+	}
+
+	private static final class ShellInputStream extends ObjectInputStream {
+
+		private final JavaClass[] classes;
+
+		private final JavaPackage[] packages;
+
+		public ShellInputStream(InputStream in, JavaClass[] classes, JavaPackage[] packages) throws IOException {
+			super(in);
+			this.classes = classes;
+			this.packages = packages;
+			this.enableResolveObject(true);
+		}
+
+		@Override
+		protected Object resolveObject(Object obj) throws IOException {
+			if (obj instanceof ClassRef) {
+				return classes[((ClassRef) obj).index];
+			} else if (obj instanceof PackageRef) {
+				return packages[((PackageRef) obj).index];
+			} else {
+				return obj;
+			}
+		}
+	}
+}
@@ -0,0 +1,98 @@
+package jdepend.model.result;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 紧凑格式的读取流，与FormatOutput对应
+ *
+ * @author user
+ *
+ */
+final class FormatInput {
+
+	private final DataInputStream in;
+
+	private final String[] strings;
+
+	public FormatInput(InputStream in, String[] strings) {
+		this.in = new DataInputStream(in);
+		this.strings = strings;
+	}
+
+	public int readVarInt() throws IOException {
+		int value = 0;
+		int shift = 0;
+		int b;
+		do {
+			if (shift > 28) {
+				throw new IOException("变长整数格式错误");
+			}
+			b = in.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			shift += 7;
+		} while ((b & 0x80) != 0);
+		return value;
+	}
+
+	public int readSignedVarInt() throws IOException {
+		int value = this.readVarInt();
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	public boolean readBoolean() throws IOException {
+		return in.readBoolean();
+	}
+
+	public Boolean readBooleanObject() throws IOException {
+		int value = in.readUnsignedByte();
+		return value == 0 ? null : value == 2;
+	}
+
+	public String readString() throws IOException {
+		int index = this.readVarInt();
+		if (index == 0) {
+			return null;
+		}
+		if (index > strings.length) {
+			throw new IOException("字符串序号[" + index + "]超出字符串表范围");
+		}
+		return strings[index - 1];
+	}
+
+	public List<String> readStrings() throws IOException {
+		int count = this.readVarInt();
+		List<String> values = new ArrayList<String>(count);
+		for (int i = 0; i < count; i++) {
+			values.add(this.readString());
+		}
+		return values;
+	}
+
+	public byte[] readBytes() throws IOException {
+		byte[] data = new byte[this.readVarInt()];
+		in.readFully(data);
+		return data;
+	}
+
+	/**
+	 * 读取FormatOutput.StringTable写入的字符串表
+	 *
+	 * @param in
+	 * @return
+	 * @throws IOException
+	 */
+	public static String[] readStringTable(DataInputStream in) throws IOException {
+		String[] strings = new String[in.readInt()];
+		byte[] data;
+		for (int i = 0; i < strings.length; i++) {
+			data = new byte[in.readInt()];
+			in.readFully(data);
+			strings[i] = new String(data, FormatOutput.StringTable.Charset);
+		}
+		return strings;
+	}
+}
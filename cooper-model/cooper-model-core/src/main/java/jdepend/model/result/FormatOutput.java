@@ -0,0 +1,126 @@
+package jdepend.model.result;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 紧凑格式的写入流
+ *
+ * 字符串写入字符串表，流中只保存其序号；非负整数按变长格式写入。多个写入流可以共用一个字符串表。
+ *
+ * @author user
+ *
+ */
+final class FormatOutput {
+
+	private final DataOutputStream out;
+
+	private final StringTable strings;
+
+	public FormatOutput(OutputStream out, StringTable strings) {
+		this.out = new DataOutputStream(out);
+		this.strings = strings;
+	}
+
+	/**
+	 * 写入非负整数
+	 *
+	 * @param value
+	 * @throws IOException
+	 */
+	public void writeVarInt(int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	/**
+	 * 写入可能为负数的整数
+	 *
+	 * @param value
+	 * @throws IOException
+	 */
+	public void writeSignedVarInt(int value) throws IOException {
+		this.writeVarInt((value << 1) ^ (value >> 31));
+	}
+
+	public void writeBoolean(boolean value) throws IOException {
+		out.writeBoolean(value);
+	}
+
+	/**
+	 * 写入可以为null的Boolean
+	 *
+	 * @param value
+	 * @throws IOException
+	 */
+	public void writeBooleanObject(Boolean value) throws IOException {
+		out.writeByte(value == null ? 0 : (value ? 2 : 1));
+	}
+
+	public void writeString(String value) throws IOException {
+		this.writeVarInt(strings.indexOf(value));
+	}
+
+	public void writeStrings(Collection<String> values) throws IOException {
+		this.writeVarInt(values.size());
+		for (String value : values) {
+			this.writeString(value);
+		}
+	}
+
+	public void writeBytes(byte[] data) throws IOException {
+		this.writeVarInt(data.length);
+		out.write(data);
+	}
+
+	public void flush() throws IOException {
+		out.flush();
+	}
+
+	/**
+	 * 字符串表，序号0表示null
+	 *
+	 * @author user
+	 *
+	 */
+	static final class StringTable {
+
+		static final String Charset = "UTF-8";
+
+		private final Map<String, Integer> indexes = new HashMap<String, Integer>();
+
+		private final List<String> values = new ArrayList<String>();
+
+		public int indexOf(String value) {
+			if (value == null) {
+				return 0;
+			}
+			Integer index = indexes.get(value);
+			if (index == null) {
+				values.add(value);
+				index = values.size();
+				indexes.put(value, index);
+			}
+			return index;
+		}
+
+		public void writeTo(DataOutputStream out) throws IOException {
+			out.writeInt(values.size());
+			byte[] data;
+			for (String value : values) {
+				data = value.getBytes(Charset);
+				out.writeInt(data.length);
+				out.write(data);
+			}
+		}
+	}
+}
@@ -0,0 +1,287 @@
+package jdepend.model.result;
+
+import java.io.IOException;
+import java.util.Collection;
+
+import jdepend.metadata.Attribute;
+import jdepend.metadata.HttpInvokeItem;
+import jdepend.metadata.InvokeItem;
+import jdepend.metadata.JavaClass;
+import jdepend.metadata.JavaClassDetail;
+import jdepend.metadata.LocalInvokeItem;
+import jdepend.metadata.Method;
+import jdepend.metadata.RMIInvokeItem;
+import jdepend.metadata.TableInfo;
+import jdepend.metadata.annotation.AnnotationDefs;
+import jdepend.metadata.annotation.AnnotationRefs;
+import jdepend.metadata.annotation.Autowired;
+import jdepend.metadata.annotation.Controller;
+import jdepend.metadata.annotation.Qualifier;
+import jdepend.metadata.annotation.RequestMapping;
+import jdepend.metadata.annotation.Service;
+import jdepend.metadata.annotation.Transactional;
+
+/**
+ * JavaClassDetail的紧凑格式
+ *
+ * 只保存解析得到的信息，superClass、interfaces、InvokeItem的callee等引用在读取后通过supply填充。
+ *
+ * @author user
+ *
+ */
+final class JavaClassDetailFormat {
+
+	private static final int LocalInvoke = 1;
+	private static final int RMIInvoke = 2;
+	private static final int HttpInvoke = 3;
+
+	private JavaClassDetailFormat() {
+	}
+
+	public static void write(JavaClassDetail detail, FormatOutput out) throws IOException {
+
+		out.writeString(detail.getSuperClassName());
+		out.writeStrings(detail.getInterfaceNames());
+		out.writeStrings(detail.getVariableTypes());
+
+		out.writeVarInt(detail.getTables().size());
+		for (TableInfo tableInfo : detail.getTables()) {
+			out.writeString(tableInfo.getTableName());
+			out.writeString(tableInfo.getType());
+		}
+
+		out.writeBoolean(detail.isHttpCaller());
+		writeAnnotationDefs(detail.getAnnotations(), out);
+
+		out.writeVarInt(detail.getAttributes().size());
+		for (Attribute attribute : detail.getAttributes()) {
+			out.writeVarInt(attribute.getAccessFlags());
+			out.writeString(attribute.getName());
+			out.writeString(attribute.getSignature());
+			out.writeString(attribute.getInfo());
+			out.writeStrings(attribute.getTypes());
+			out.writeString(attribute.getStaticValue());
+			writeAnnotationRefs(attribute.getAnnotations(), out);
+		}
+
+		out.writeVarInt(detail.getMethods().size());
+		for (Method method : detail.getMethods()) {
+			out.writeVarInt(method.getAccessFlags());
+			out.writeString(method.getName());
+			out.writeString(method.getSignature());
+			out.writeString(method.getInfo());
+			out.writeSignedVarInt(method.getSelfLineCount());
+			writeAnnotationDefs(method.getAnnotations(), out);
+			writeFieldNames(method.getReadFields(), out);
+			writeFieldNames(method.getWriteFields(), out);
+			out.writeVarInt(method.getInvokeItems().size());
+			for (InvokeItem invokeItem : method.getInvokeItems()) {
+				writeInvokeItem(invokeItem, out);
+			}
+		}
+	}
+
+	public static JavaClassDetail read(JavaClass javaClass, FormatInput in) throws IOException {
+
+		JavaClassDetail detail = new JavaClassDetail(javaClass);
+		String javaClassId = javaClass.getId();
+
+		detail.setSuperClassName(in.readString());
+		for (String interfaceName : in.readStrings()) {
+			detail.addInterfaceName(interfaceName);
+		}
+		for (String variableType : in.readStrings()) {
+			detail.addVariableType(variableType);
+		}
+
+		int count = in.readVarInt();
+		for (int i = 0; i < count; i++) {
+			detail.addTable(new TableInfo(in.readString(), in.readString()));
+		}
+
+		detail.setHttpCaller(in.readBoolean());
+		readAnnotationDefs(detail.getAnnotations(), in);
+
+		Attribute attribute;
+		count = in.readVarInt();
+		for (int i = 0; i < count; i++) {
+			attribute = new Attribute(javaClassId, in.readVarInt(), in.readString(), in.readString(),
+					in.readString(), in.readStrings(), in.readString(), readAnnotationRefs(in));
+			attribute.setJavaClass(javaClass);
+			detail.addAttribute(attribute);
+		}
+
+		Method method;
+		int accessFlags;
+		String name;
+		String signature;
+		String info;
+		int selfLineCount;
+		int itemCount;
+		count = in.readVarInt();
+		for (int i = 0; i < count; i++) {
+			accessFlags = in.readVarInt();
+			name = in.readString();
+			signature = in.readString();
+			info = in.readString();
+			selfLineCount = in.readSignedVarInt();
+			method = new Method(javaClassId, accessFlags, name, signature, info, readAnnotationDefs(
+					new AnnotationDefs(), in));
+			method.setJavaClass(javaClass);
+			method.setSelfLineCount(selfLineCount);
+			readFields(detail, method.getReadFields(), in);
+			readFields(detail, method.getWriteFields(), in);
+			itemCount = in.readVarInt();
+			for (int j = 0; j < itemCount; j++) {
+				method.addInvokeItem(readInvokeItem(in));
+			}
+			detail.addMethod(method);
+		}
+
+		return detail;
+	}
+
+	private static void writeFieldNames(Collection<Attribute> fields, FormatOutput out) throws IOException {
+		out.writeVarInt(fields.size());
+		for (Attribute field : fields) {
+			out.writeString(field.getName());
+		}
+	}
+
+	private static void readFields(JavaClassDetail detail, Collection<Attribute> fields, FormatInput in)
+			throws IOException {
+		int count = in.readVarInt();
+		Attribute field;
+		for (int i = 0; i < count; i++) {
+			field = detail.getTheAttribute(in.readString());
+			if (field != null) {
+				fields.add(field);
+			}
+		}
+	}
+
+	private static void writeInvokeItem(InvokeItem invokeItem, FormatOutput out) throws IOException {
+		if (invokeItem instanceof LocalInvokeItem) {
+			LocalInvokeItem item = (LocalInvokeItem) invokeItem;
+			out.writeVarInt(LocalInvoke);
+			out.writeString(item.getInvokeType());
+			out.writeString(item.getInvokeClassPlace());
+			out.writeString(item.getInvokeClassName());
+			out.writeString(item.getInvokeMethodName());
+			out.writeString(item.getInvokeMethodSignature());
+		} else if (invokeItem instanceof RMIInvokeItem) {
+			RMIInvokeItem item = (RMIInvokeItem) invokeItem;
+			out.writeVarInt(RMIInvoke);
+			out.writeString(item.getInvokeClassPlace());
+			out.writeString(item.getInvokeClassName());
+			out.writeString(item.getInvokeMethodName());
+			out.writeString(item.getInvokeMethodSignature());
+		} else if (invokeItem instanceof HttpInvokeItem) {
+			HttpInvokeItem item = (HttpInvokeItem) invokeItem;
+			out.writeVarInt(HttpInvoke);
+			out.writeString(item.getUrl());
+			out.writeString(item.getConstantClassName());
+			out.writeString(item.getConstantAttributeName());
+		} else {
+			throw new IOException("不支持的InvokeItem类型：" + invokeItem.getClass().getName());
+		}
+	}
+
+	private static InvokeItem readInvokeItem(FormatInput in) throws IOException {
+		int type = in.readVarInt();
+		switch (type) {
+		case LocalInvoke:
+			return new LocalInvokeItem(in.readString(), in.readString(), in.readString(), in.readString(),
+					in.readString());
+		case RMIInvoke:
+			return new RMIInvokeItem(new LocalInvokeItem(null, in.readString(), in.readString(), in.readString(),
+					in.readString()));
+		case HttpInvoke:
+			return new HttpInvokeItem(in.readString(), in.readString(), in.readString());
+		default:
+			throw new IOException("不支持的InvokeItem类型：" + type);
+		}
+	}
+
+	private static void writeAnnotationDefs(AnnotationDefs annotationDefs, FormatOutput out) throws IOException {
+		Transactional transactional = annotationDefs == null ? null : annotationDefs.getTransactional();
+		out.writeBoolean(transactional != null);
+		if (transactional != null) {
+			out.writeBooleanObject(transactional.isReadOnly());
+			out.writeString(transactional.getPropagation());
+			out.writeString(transactional.getValue());
+		}
+		RequestMapping requestMapping = annotationDefs == null ? null : annotationDefs.getRequestMapping();
+		out.writeBoolean(requestMapping != null);
+		if (requestMapping != null) {
+			out.writeString(requestMapping.getValue());
+			out.writeString(requestMapping.getMethod());
+		}
+		Controller controller = annotationDefs == null ? null : annotationDefs.getController();
+		out.writeBoolean(controller != null);
+		if (controller != null) {
+			out.writeString(controller.getValue());
+		}
+		Service service = annotationDefs == null ? null : annotationDefs.getService();
+		out.writeBoolean(service != null);
+		if (service != null) {
+			out.writeString(service.getValue());
+		}
+	}
+
+	private static AnnotationDefs readAnnotationDefs(AnnotationDefs annotationDefs, FormatInput in)
+			throws IOException {
+		if (in.readBoolean()) {
+			Transactional transactional = new Transactional();
+			transactional.setReadOnly(in.readBooleanObject());
+			transactional.setPropagation(in.readString());
+			transactional.setValue(in.readString());
+			annotationDefs.setTransactional(transactional);
+		}
+		if (in.readBoolean()) {
+			RequestMapping requestMapping = new RequestMapping();
+			requestMapping.setValue(in.readString());
+			requestMapping.setMethod(in.readString());
+			annotationDefs.setRequestMapping(requestMapping);
+		}
+		if (in.readBoolean()) {
+			Controller controller = new Controller();
+			controller.setValue(in.readString());
+			annotationDefs.setController(controller);
+		}
+		if (in.readBoolean()) {
+			Service service = new Service();
+			service.setValue(in.readString());
+			annotationDefs.setService(service);
+		}
+		return annotationDefs;
+	}
+
+	private static void writeAnnotationRefs(AnnotationRefs annotationRefs, FormatOutput out) throws IOException {
+		Autowired autowired = annotationRefs == null ? null : annotationRefs.getAutowired();
+		out.writeBoolean(autowired != null);
+		if (autowired != null) {
+			out.writeBooleanObject(autowired.getRequired());
+		}
+		Qualifier qualifier = annotationRefs == null ? null : annotationRefs.getQualifier();
+		out.writeBoolean(qualifier != null);
+		if (qualifier != null) {
+			out.writeString(qualifier.getValue());
+		}
+	}
+
+	private static AnnotationRefs readAnnotationRefs(FormatInput in) throws IOException {
+		AnnotationRefs annotationRefs = new AnnotationRefs();
+		if (in.readBoolean()) {
+			Autowired autowired = new Autowired();
+			autowired.setRequired(in.readBooleanObject());
+			annotationRefs.setAutowired(autowired);
+		}
+		if (in.readBoolean()) {
+			Qualifier qualifier = new Qualifier();
+			qualifier.setValue(in.readString());
+			annotationRefs.setQualifier(qualifier);
+		}
+		return annotationRefs;
+	}
+}
@@ -2,22 +2,30 @@ package jdepend.model.util;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Vector;
-import java.util.concurrent.ExecutorService;
+import java.util.function.IntConsumer;
 
-import jdepend.framework.util.ThreadPool;
+import jdepend.framework.util.AnalysisExecutor;
+import jdepend.metadata.JavaClass;
+import jdepend.metadata.JavaClassRelationItem;
 import jdepend.model.Component;
 import jdepend.model.Element;
+import jdepend.model.JavaClassUnit;
 import jdepend.model.Relation;
 import jdepend.model.RelationDetail;
 
 /**
  * 分析单元关系创建器
- * 
+ *
+ * 先为右侧组件建立Class到组件的索引，再按左侧组件并行地遍历一遍其Class的传出关系，
+ * 根据目标Class所在的组件将JavaClassRelationItem归入对应组件对的RelationDetail。
+ *
  * @author <b>Abner</b>
- * 
+ *
  */
 public class RelationCreator {
 
@@ -47,54 +55,201 @@ public class RelationCreator {
 
 	public Collection<Relation> create(Collection<? extends Component> lefts,
 			final Collection<? extends Component> rights) {
-		this.init();
-
-		final Collection<Relation> relations = new Vector<Relation>();
-
-		ExecutorService pool = ThreadPool.getPool();
-
-		for (final Component left : lefts) {
-			pool.execute(new Runnable() {
-				@Override
-				public void run() {
-					Relation r;
-					RelationDetail detail;
-					for (Component right : rights) {
-						detail = left.calCeCouplingDetail(right);
-						if (detail.getIntensity() != 0) {
-							r = new Relation();
-							r.setCurrent(createElement(left));
-							r.setDepend(createElement(right));
-							if (leftRelation) {
-								r.getCurrent().getComponent().addRelation(r);
-							}
-							if (rightRelation) {
-								r.getDepend().getComponent().addRelation(r);
-							}
-							r.setDetail(detail);
-							relations.add(r);
-						}
+		return this.create(lefts, rights, null, null);
+	}
+
+	/**
+	 * 增量建立关系
+	 *
+	 * 两端组件都未受影响时组件间的类关系与上次分析相同，上次分析中没有关系的组件对不再计算
+	 *
+	 * @param components
+	 * @param affectedComponents
+	 *            受影响的组件名称
+	 * @param previousRelations
+	 *            上次分析的关系
+	 * @return
+	 */
+	public Collection<Relation> create(Collection<? extends Component> components,
+			Collection<String> affectedComponents, Collection<Relation> previousRelations) {
+		Collection<String> previousRelationKeys = new HashSet<String>();
+		for (Relation relation : previousRelations) {
+			previousRelationKeys.add(getKey(relation.getCurrent().getName(), relation.getDepend().getName()));
+		}
+		return this.create(components, components, affectedComponents, previousRelationKeys);
+	}
+
+	private Collection<Relation> create(Collection<? extends Component> lefts,
+			Collection<? extends Component> rights, final Collection<String> affectedComponents,
+			final Collection<String> previousRelationKeys) {
+
+		final List<Component> leftList = new ArrayList<Component>(lefts);
+		final List<Component> rightList = new ArrayList<Component>(rights);
+		final Map<String, List<Integer>> classIndex = this.createClassIndex(rightList);
+
+		this.init(lefts, rightList);
+
+		// 每个左侧组件的关系单独保存，最后按左侧组件的顺序合并
+		final List<List<Relation>> relationsByLeft = new ArrayList<List<Relation>>();
+		for (int i = 0; i < lefts.size(); i++) {
+			relationsByLeft.add(null);
+		}
+
+		AnalysisExecutor.forEach("createRelation", leftList.size(), new IntConsumer() {
+			@Override
+			public void accept(int index) {
+				relationsByLeft.set(index, createRelations(leftList.get(index), rightList, classIndex,
+						affectedComponents, previousRelationKeys));
+			}
+		});
+
+		Collection<Relation> relations = new ArrayList<Relation>();
+		for (List<Relation> leftRelations : relationsByLeft) {
+			relations.addAll(leftRelations);
+		}
+		return relations;
+	}
+
+	/**
+	 * 建立左侧组件与右侧组件的关系
+	 *
+	 * @param left
+	 * @param rights
+	 * @param classIndex
+	 * @param affectedComponents
+	 * @param previousRelationKeys
+	 * @return 按右侧组件的顺序排列的关系
+	 */
+	private List<Relation> createRelations(Component left, List<Component> rights,
+			Map<String, List<Integer>> classIndex, Collection<String> affectedComponents,
+			Collection<String> previousRelationKeys) {
+
+		// 右侧组件位置到RelationDetail的映射，null表示与左侧组件相同或无需计算
+		Map<Integer, RelationDetail> details = new HashMap<Integer, RelationDetail>();
+		List<Integer> rightIndexes;
+		RelationDetail detail;
+		for (JavaClassUnit javaClass : left.getClasses()) {
+			for (JavaClassRelationItem relationItem : javaClass.getJavaClass().getCeItems()) {
+				rightIndexes = classIndex.get(getClassKey(relationItem.getTarget()));
+				if (rightIndexes == null) {
+					continue;
+				}
+				for (Integer rightIndex : rightIndexes) {
+					if (details.containsKey(rightIndex)) {
+						detail = details.get(rightIndex);
+					} else {
+						detail = this.isSkipped(left, rights.get(rightIndex), affectedComponents,
+								previousRelationKeys) ? null : new RelationDetail();
+						details.put(rightIndex, detail);
+					}
+					if (detail != null) {
+						detail.addItem(relationItem);
+						detail.setIntensity(detail.getIntensity() + relationItem.getRelationIntensity());
 					}
 				}
-			});
+			}
+		}
+
+		List<Integer> sortedIndexes = new ArrayList<Integer>(details.keySet());
+		Collections.sort(sortedIndexes);
+
+		List<Relation> relations = new ArrayList<Relation>();
+		Component right;
+		Relation r;
+		for (Integer rightIndex : sortedIndexes) {
+			detail = details.get(rightIndex);
+			if (detail == null || detail.getIntensity() == 0) {
+				continue;
+			}
+			right = rights.get(rightIndex);
+			r = new Relation();
+			r.setCurrent(elements.get(left.getName()));
+			r.setDepend(elements.get(right.getName()));
+			if (leftRelation) {
+				r.getCurrent().getComponent().addRelation(r);
+			}
+			if (rightRelation) {
+				r.getDepend().getComponent().addRelation(r);
+			}
+			r.setDetail(detail);
+			relations.add(r);
+		}
+		return relations;
+	}
+
+	private boolean isSkipped(Component left, Component right, Collection<String> affectedComponents,
+			Collection<String> previousRelationKeys) {
+		if (left.equals(right)) {
+			return true;
+		}
+		return affectedComponents != null && !affectedComponents.contains(left.getName())
+				&& !affectedComponents.contains(right.getName())
+				&& !previousRelationKeys.contains(getKey(left.getName(), right.getName()));
+	}
+
+	/**
+	 * 建立Class到包含它的右侧组件位置的索引
+	 *
+	 * @param rights
+	 * @return
+	 */
+	private Map<String, List<Integer>> createClassIndex(List<Component> rights) {
+		Map<String, List<Integer>> classIndex = new HashMap<String, List<Integer>>();
+		List<Integer> rightIndexes;
+		for (int rightIndex = 0; rightIndex < rights.size(); rightIndex++) {
+			for (JavaClassUnit javaClass : rights.get(rightIndex).getClasses()) {
+				rightIndexes = classIndex.get(javaClass.getId());
+				if (rightIndexes == null) {
+					rightIndexes = new ArrayList<Integer>(1);
+					classIndex.put(javaClass.getId(), rightIndexes);
+				}
+				if (!rightIndexes.contains(rightIndex)) {
+					rightIndexes.add(rightIndex);
+				}
+			}
 		}
+		return classIndex;
+	}
 
-		ThreadPool.awaitTermination(pool);
-		return new ArrayList<Relation>(relations);
+	/**
+	 * 与Component.containsClass一致，内部类按宿主类查找
+	 *
+	 * @param javaClass
+	 * @return
+	 */
+	private static String getClassKey(JavaClass javaClass) {
+		if (javaClass.isInnerClass()) {
+			JavaClass hostClass = javaClass.getHostClass();
+			if (hostClass != null) {
+				return hostClass.getId();
+			}
+		}
+		return javaClass.getId();
 	}
 
-	private void init() {
+	private static String getKey(String current, String depend) {
+		return current + "->" + depend;
+	}
+
+	/**
+	 * 预先为两侧组件创建Element，并行建立关系时只读
+	 *
+	 * @param lefts
+	 * @param rights
+	 */
+	private void init(Collection<? extends Component> lefts, Collection<? extends Component> rights) {
 		elements = new HashMap<String, Element>();
+		for (Component unit : lefts) {
+			this.createElement(unit);
+		}
+		for (Component unit : rights) {
+			this.createElement(unit);
+		}
 	}
 
-	private Element createElement(Component unit) {
-		synchronized (elements) {
-			Element element = elements.get(unit.getName());
-			if (element == null) {
-				element = new Element(unit);
-				elements.put(unit.getName(), element);
-			}
-			return element;
+	private void createElement(Component unit) {
+		if (!elements.containsKey(unit.getName())) {
+			elements.put(unit.getName(), new Element(unit));
 		}
 	}
 }
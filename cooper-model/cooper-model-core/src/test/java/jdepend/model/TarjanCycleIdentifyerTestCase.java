@@ -0,0 +1,204 @@
+package jdepend.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import jdepend.metadata.JavaClass;
+import jdepend.model.component.MemoryComponent;
+import junit.framework.TestCase;
+
+/**
+ * 校验TarjanCycleIdentifyer识别出的循环依赖
+ *
+ * 期望结果与原深度优先搜索的识别结果一致：自依赖不算循环依赖，位于多个组件组成的环上的组件存在循环依赖。
+ *
+ * @author user
+ *
+ */
+public class TarjanCycleIdentifyerTestCase extends TestCase {
+
+	private static final int DeepSize = 100000;
+
+	private Map<String, MemoryComponent> components;
+
+	@Override
+	protected void setUp() throws Exception {
+		components = new LinkedHashMap<String, MemoryComponent>();
+	}
+
+	/**
+	 * A->B->C->A与C->D->C交叠，E->F->G->E中嵌套E->F->E，H自依赖并依赖A，I->J无循环
+	 */
+	public void testNestedAndOverlappingCycles() {
+		this.depend("A", "B");
+		this.depend("B", "C");
+		this.depend("C", "A", "D");
+		this.depend("D", "C");
+		this.depend("E", "F");
+		this.depend("F", "G", "E");
+		this.depend("G", "E");
+		this.depend("H", "H", "A");
+		this.depend("I", "J");
+		this.depend("J");
+
+		TarjanCycleIdentifyer identifyer = new TarjanCycleIdentifyer(components.values());
+
+		// 原实现中isCycle()为true的组件
+		List<String> cycleNames = new ArrayList<String>();
+		for (MemoryComponent component : components.values()) {
+			if (identifyer.collectCycle(component).size() > 1) {
+				cycleNames.add(component.getName());
+			}
+		}
+		assertEquals(Arrays.asList("A", "B", "C", "D", "E", "F", "G"), cycleNames);
+
+		assertEquals(this.names("A", "B", "C"), this.names(identifyer.collectCycle(this.get("A"))));
+		assertEquals(this.names("D", "C"), this.names(identifyer.collectCycle(this.get("D"))));
+		assertEquals(this.names("E", "F"), this.names(identifyer.collectCycle(this.get("E"))));
+		assertEquals(this.names("G", "E", "F"), this.names(identifyer.collectCycle(this.get("G"))));
+		assertTrue(identifyer.collectCycle(this.get("H")).isEmpty());
+
+		List<Set<String>> sccs = new ArrayList<Set<String>>();
+		for (List<? extends JDependUnit> cycle : identifyer.getCycles()) {
+			sccs.add(new HashSet<String>(this.names(cycle)));
+		}
+		assertEquals(2, sccs.size());
+		assertTrue(sccs.contains(new HashSet<String>(this.names("A", "B", "C", "D"))));
+		assertTrue(sccs.contains(new HashSet<String>(this.names("E", "F", "G"))));
+
+		assertTrue(identifyer.inSameCycle(this.get("A"), this.get("D")));
+		assertTrue(identifyer.inSameCycle(this.get("F"), this.get("G")));
+		assertFalse(identifyer.inSameCycle(this.get("A"), this.get("E")));
+		assertFalse(identifyer.inSameCycle(this.get("H"), this.get("A")));
+		assertFalse(identifyer.inSameCycle(this.get("H"), this.get("H")));
+		assertFalse(identifyer.inSameCycle(this.get("I"), this.get("J")));
+	}
+
+	/**
+	 * 原实现在搜索深度大于20时停止，新实现不受依赖链长度限制，也不会因递归过深而栈溢出
+	 */
+	public void testDeepChain() {
+		for (int i = 0; i < DeepSize; i++) {
+			this.depend("N" + i, "N" + ((i + 1) % DeepSize));
+			this.depend("M" + i, i + 1 < DeepSize ? new String[] { "M" + (i + 1) } : new String[0]);
+		}
+
+		TarjanCycleIdentifyer identifyer = new TarjanCycleIdentifyer(components.values());
+
+		assertEquals(1, identifyer.getCycles().size());
+		assertEquals(DeepSize, identifyer.getCycles().get(0).size());
+		List<? extends JDependUnit> cycle = identifyer.collectCycle(this.get("N0"));
+		assertEquals(DeepSize, cycle.size());
+		assertEquals("N1", cycle.get(1).getName());
+		assertTrue(identifyer.inSameCycle(this.get("N0"), this.get("N" + (DeepSize - 1))));
+		assertTrue(identifyer.collectCycle(this.get("M0")).isEmpty());
+	}
+
+	/**
+	 * A1->A2->A1在组件A内，A2->B1->A2跨越组件B，A1->C1->C2->C3->C4->A1跨越组件C
+	 *
+	 * 经过A1且最短的跨组件链A1->A2->B1->A2->A1两次经过A2，不是循环依赖链，应得到经过组件C的循环。
+	 */
+	public void testClassCycleWithoutRepeatedClass() {
+		Map<String, ClassUnit> classes = new LinkedHashMap<String, ClassUnit>();
+		this.dependClass(classes, "A1", "A2", "C1");
+		this.dependClass(classes, "A2", "A1", "B1");
+		this.dependClass(classes, "B1", "A2");
+		this.dependClass(classes, "C1", "C2");
+		this.dependClass(classes, "C2", "C3");
+		this.dependClass(classes, "C3", "C4");
+		this.dependClass(classes, "C4", "A1");
+
+		TarjanCycleIdentifyer identifyer = new TarjanCycleIdentifyer(classes.values());
+
+		assertEquals(this.names("A1", "C1", "C2", "C3", "C4"), this.names(identifyer.collectCycle(classes.get("A1"))));
+		assertEquals(this.names("A2", "B1"), this.names(identifyer.collectCycle(classes.get("A2"))));
+		assertEquals(this.names("B1", "A2"), this.names(identifyer.collectCycle(classes.get("B1"))));
+
+		// 去掉组件C后，经过A1的跨组件链都要重复经过A2
+		classes.clear();
+		this.dependClass(classes, "A1", "A2");
+		this.dependClass(classes, "A2", "A1", "B1");
+		this.dependClass(classes, "B1", "A2");
+
+		identifyer = new TarjanCycleIdentifyer(classes.values());
+
+		assertTrue(identifyer.collectCycle(classes.get("A1")).isEmpty());
+		assertEquals(this.names("A2", "B1"), this.names(identifyer.collectCycle(classes.get("A2"))));
+		assertTrue(identifyer.inSameCycle(classes.get("A1"), classes.get("B1")));
+	}
+
+	private void dependClass(Map<String, ClassUnit> classes, String name, String... efferentNames) {
+		ClassUnit unit = this.getClass(classes, name);
+		for (String efferentName : efferentNames) {
+			unit.efferents.add(this.getClass(classes, efferentName));
+		}
+	}
+
+	private ClassUnit getClass(Map<String, ClassUnit> classes, String name) {
+		ClassUnit unit = classes.get(name);
+		if (unit == null) {
+			unit = new ClassUnit(name);
+			classes.put(name, unit);
+		}
+		return unit;
+	}
+
+	/**
+	 * 依赖固定的JavaClassUnit，所属组件为名称的第一个字母
+	 */
+	private static class ClassUnit extends JavaClassUnit {
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<JavaClassUnit> efferents = new ArrayList<JavaClassUnit>();
+
+		public ClassUnit(String name) {
+			super(new JavaClass(name, true));
+			this.setComponent(new MemoryComponent(name.substring(0, 1)));
+		}
+
+		@Override
+		public synchronized Collection<JavaClassUnit> getCeList() {
+			return efferents;
+		}
+	}
+
+	private void depend(String name, String... efferentNames) {
+		MemoryComponent component = this.get(name);
+		Collection<Component> efferents = new ArrayList<Component>();
+		for (String efferentName : efferentNames) {
+			efferents.add(this.get(efferentName));
+		}
+		component.setEfferents(efferents);
+	}
+
+	private MemoryComponent get(String name) {
+		MemoryComponent component = components.get(name);
+		if (component == null) {
+			component = new MemoryComponent(name);
+			component.setEfferents(Collections.<Component> emptyList());
+			components.put(name, component);
+		}
+		return component;
+	}
+
+	private List<String> names(String... names) {
+		return Arrays.asList(names);
+	}
+
+	private List<String> names(List<? extends JDependUnit> units) {
+		List<String> names = new ArrayList<String>();
+		for (JDependUnit unit : units) {
+			names.add(unit.getName());
+		}
+		return names;
+	}
+}
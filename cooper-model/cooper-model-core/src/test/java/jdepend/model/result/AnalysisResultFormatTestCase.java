@@ -0,0 +1,244 @@
+package jdepend.model.result;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jdepend.framework.config.PropertyConfigurator;
+import jdepend.framework.context.JDependContext;
+import jdepend.metadata.InvokeItem;
+import jdepend.metadata.JavaClass;
+import jdepend.metadata.JavaClassDetailLoader;
+import jdepend.metadata.JavaPackage;
+import jdepend.metadata.Method;
+import jdepend.model.Component;
+import jdepend.model.Relation;
+import jdepend.model.util.JavaClassUnitUtil;
+import jdepend.parse.Parse;
+import jdepend.parse.ParseConfigurator;
+import jdepend.parse.impl.PackageFilter;
+import junit.framework.TestCase;
+
+/**
+ * 校验分析结果以紧凑格式保存后再加载，组件、关系、得分以及延迟加载的类细节与保存前一致
+ *
+ * @author user
+ *
+ */
+public class AnalysisResultFormatTestCase extends TestCase {
+
+	@Override
+	protected void setUp() throws Exception {
+		if (JDependContext.getWorkspacePath() == null) {
+			File workspace = new File(System.getProperty("java.io.tmpdir"), "resultformat-" + System.nanoTime());
+			File conf = new File(workspace, PropertyConfigurator.DEFAULT_PROPERTY_DIR);
+			conf.mkdirs();
+			new File(conf, PropertyConfigurator.DEFAULT_PROPERTY_FILE).createNewFile();
+			JDependContext.setWorkspacePath(workspace.getAbsolutePath());
+		}
+	}
+
+	public void testSequenceAndCreate() throws Exception {
+		AnalysisResult result = this.analyze();
+		byte[] data = result.sequence();
+		assertTrue(AnalysisResultFormat.accept(data));
+
+		AnalysisResult loaded = AnalysisResult.create(data);
+
+		assertEquals(this.describeComponents(result), this.describeComponents(loaded));
+		List<String> relations = this.describeRelations(result);
+		assertTrue(relations.size() > 0);
+		assertEquals(relations, this.describeRelations(loaded));
+		assertEquals(result.getScore(), loaded.getScore());
+		assertEquals(result.getComponentCycles().size(), loaded.getComponentCycles().size());
+		// 类细节在第一次访问时解码
+		List<String> methods = this.describeMethods(result);
+		assertTrue(methods.size() > 0);
+		assertEquals(methods, this.describeMethods(loaded));
+	}
+
+	/**
+	 * 摘要不包含类细节，第一次访问类细节时从AnalysisResultDetailSource得到，与完整结果一致
+	 *
+	 * @throws Exception
+	 */
+	public void testSummaryAndDetails() throws Exception {
+		AnalysisResult result = this.analyze();
+		ByteArrayOutputStream summaryData = new ByteArrayOutputStream();
+		AnalysisResultFormat.writeSummary(result, summaryData);
+		byte[] summary = summaryData.toByteArray();
+		ByteArrayOutputStream detailData = new ByteArrayOutputStream();
+		AnalysisResultFormat.writeDetails(result, detailData);
+		final byte[] details = detailData.toByteArray();
+		assertTrue(AnalysisResultFormat.accept(summary));
+		assertTrue(summary.length < result.sequence().length);
+
+		try {
+			AnalysisResult.create(summary);
+			fail("摘要没有提供类细节时应该失败");
+		} catch (IOException e) {
+		}
+
+		final AtomicInteger fetched = new AtomicInteger();
+		AnalysisResult loaded = AnalysisResult.create(summary, null, new AnalysisResultDetailSource() {
+			@Override
+			public byte[] getDetails() throws IOException {
+				fetched.incrementAndGet();
+				return details;
+			}
+		});
+
+		assertEquals(this.describeComponents(result), this.describeComponents(loaded));
+		assertEquals(this.describeRelations(result), this.describeRelations(loaded));
+		assertEquals(result.getScore(), loaded.getScore());
+		assertEquals(0, fetched.get());
+
+		assertEquals(this.describeMethods(result), this.describeMethods(loaded));
+		assertEquals(1, fetched.get());
+		// 摘要读取的结果可以完整地保存
+		assertEquals(this.describeMethods(result), this.describeMethods(AnalysisResult.create(loaded.sequence())));
+	}
+
+	/**
+	 * 两个线程同时第一次访问类细节，都得到完整的细节
+	 *
+	 * @throws Exception
+	 */
+	public void testConcurrentLoad() throws Exception {
+		AnalysisResult result = this.analyze();
+		final List<String> methods = this.describeMethods(result);
+
+		final AnalysisResult loaded = AnalysisResult.create(result.sequence());
+		final CountDownLatch start = new CountDownLatch(1);
+		final List<Throwable> errors = Collections.synchronizedList(new ArrayList<Throwable>());
+		final List<List<String>> described = Collections.synchronizedList(new ArrayList<List<String>>());
+		Thread[] threads = new Thread[2];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+						described.add(describeMethods(loaded));
+					} catch (Throwable e) {
+						errors.add(e);
+					}
+				}
+			};
+			threads[i].start();
+		}
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals(errors.toString(), 0, errors.size());
+		assertEquals(2, described.size());
+		assertEquals(methods, described.get(0));
+		assertEquals(methods, described.get(1));
+	}
+
+	/**
+	 * 一个线程已经完成填充后，另一个线程以之前读到的加载器再次加载时直接返回
+	 *
+	 * @throws Exception
+	 */
+	public void testLoadAfterDecoded() throws Exception {
+		AnalysisResult loaded = AnalysisResult.create(this.analyze().sequence());
+		List<JavaClass> classes = new ArrayList<JavaClass>(JavaClassUnitUtil.getAllClasses(loaded.getComponents()));
+		JavaClass first = classes.get(0);
+		JavaClass second = classes.get(classes.size() - 1);
+
+		Field field = JavaClass.class.getDeclaredField("detailLoader");
+		field.setAccessible(true);
+		JavaClassDetailLoader loader = (JavaClassDetailLoader) field.get(second);
+		assertNotNull(loader);
+
+		first.getDetail();
+		assertNull(field.get(second));
+
+		loader.load(second);
+		assertNotNull(second.getDetail());
+	}
+
+	/**
+	 * 分析cooper-metadata的类，每个包为一个组件
+	 *
+	 * @return
+	 * @throws Exception
+	 */
+	private AnalysisResult analyze() throws Exception {
+		ProfileFacadeImpl profileFacade = new ProfileFacadeImpl(new ProfileFacadeImpl());
+
+		ParseConfigurator conf = new ParseConfigurator(new HashMap<String, String>());
+		conf.setPackageFilter(new PackageFilter(new ArrayList<String>(), new ArrayList<String>()));
+		conf.setJavaClassRelationTypes(profileFacade.getJavaClassRelationItemProfile().getJavaClassRelationTypes());
+
+		Parse parse = new Parse(conf);
+		parse.addDirectorys(new File(JavaClass.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+				.getAbsolutePath());
+		Collection<JavaPackage> javaPackages = parse.execute();
+
+		AnalysisRunningContext context = new AnalysisRunningContext();
+		Component component = Component.getDefaultComponent();
+		context.setComponent(component);
+		context.setProfileFacade(profileFacade);
+		context.setJavaPackages(new ArrayList<JavaPackage>(javaPackages));
+
+		return new AnalysisResult(component.list(javaPackages), context);
+	}
+
+	private List<String> describeComponents(AnalysisResult result) {
+		List<String> lines = new ArrayList<String>();
+		for (Component component : result.getComponents()) {
+			lines.add(component.getName() + " classes:" + component.getClasses().size() + " ca:"
+					+ component.getAfferentCoupling() + " ce:" + component.getEfferentCoupling() + " i:"
+					+ component.getStability() + " d:" + component.getDistance() + " cycle:"
+					+ component.collectCycle().size());
+		}
+		Collections.sort(lines);
+		return lines;
+	}
+
+	private List<String> describeRelations(AnalysisResult result) {
+		List<String> lines = new ArrayList<String>();
+		for (Relation relation : result.getRelations()) {
+			lines.add(relation.getCurrent().getName() + " -> " + relation.getDepend().getName() + " intensity:"
+					+ relation.getIntensity() + " items:" + relation.getItems().size() + " attention:"
+					+ relation.getAttentionType());
+		}
+		Collections.sort(lines);
+		return lines;
+	}
+
+	private List<String> describeMethods(AnalysisResult result) {
+		List<String> lines = new ArrayList<String>();
+		for (JavaClass javaClass : JavaClassUnitUtil.getAllClasses(result.getComponents())) {
+			for (Method method : javaClass.getDetail().getMethods()) {
+				StringBuilder line = new StringBuilder();
+				line.append(javaClass.getName()).append('.').append(method.getName()).append(method.getSignature());
+				line.append(" read:").append(method.getReadFields().size());
+				line.append(" write:").append(method.getWriteFields().size());
+				List<String> callees = new ArrayList<String>();
+				for (InvokeItem item : method.getInvokeItems()) {
+					if (item.getCallee() != null) {
+						callees.add(item.getCallee().getJavaClass().getName() + "." + item.getCallee().getName()
+								+ item.getCallee().getSignature());
+					}
+				}
+				Collections.sort(callees);
+				line.append(" invoke:").append(callees);
+				lines.add(line.toString());
+			}
+		}
+		Collections.sort(lines);
+		return lines;
+	}
+}
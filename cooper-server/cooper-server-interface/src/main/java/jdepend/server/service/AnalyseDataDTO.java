@@ -58,6 +58,20 @@ public class AnalyseDataDTO implements Serializable {
 		}
 	}
 
+	/**
+	 * 复制分析数据，其中的文件只包含名称、类型和内容摘要
+	 * 
+	 * @return
+	 */
+	public AnalyseDataDTO createManifest() {
+		AnalyseDataDTO manifest = new AnalyseDataDTO();
+		manifest.directories = this.directories;
+		manifest.data = this.data.createManifest();
+		manifest.component = this.component;
+		manifest.serviceConf = this.serviceConf;
+		return manifest;
+	}
+
 	public String getPath() {
 		if (this.directories == null || this.directories.size() == 0) {
 			return null;
@@ -0,0 +1,52 @@
+package jdepend.server.service;
+
+import java.io.Serializable;
+
+/**
+ * 上传的一段文件内容
+ *
+ * 内容以SHA-256摘要标识，较大的内容分为多段按偏移顺序上传，最后一段上传后服务器校验摘要。
+ *
+ * @author user
+ *
+ */
+public class ContentChunk implements Serializable {
+
+	private static final long serialVersionUID = -6402751946367335212L;
+
+	private String hash;
+
+	private long offset;
+
+	private byte[] data;
+
+	private boolean last;
+
+	public ContentChunk(String hash, long offset, byte[] data, boolean last) {
+		this.hash = hash;
+		this.offset = offset;
+		this.data = data;
+		this.last = last;
+	}
+
+	public String getHash() {
+		return hash;
+	}
+
+	public long getOffset() {
+		return offset;
+	}
+
+	public byte[] getData() {
+		return data;
+	}
+
+	public boolean isLast() {
+		return last;
+	}
+
+	@Override
+	public String toString() {
+		return "ContentChunk [hash=" + hash + ", offset=" + offset + ", length=" + data.length + ", last=" + last + "]";
+	}
+}
@@ -2,6 +2,7 @@ package jdepend.server.service;
 
 import java.rmi.Remote;
 import java.util.Collection;
+import java.util.List;
 
 import jdepend.metadata.JavaPackage;
 import jdepend.model.result.AnalysisResult;
@@ -17,6 +18,8 @@ public interface JDependRemoteService extends Remote {
 	/**
 	 * 分析服务
 	 * 
+	 * data中文件内容为空时按内容摘要从服务器已保存的内容中读取（先通过getMissingContents和uploadContents上传缺少的内容）
+	 * 
 	 * @param request
 	 * @param data
 	 * @return
@@ -24,6 +27,35 @@ public interface JDependRemoteService extends Remote {
 	 */
 	public abstract AnalysisResult analyze(JDependRequest request, AnalyseDataDTO data) throws java.rmi.RemoteException;
 
+	/**
+	 * 分析服务，分析进度通过listener推送
+	 * 
+	 * 只返回不包含类细节（方法、属性等）的分析结果摘要，由AnalysisResult.create读取；
+	 * 客户端第一次访问类细节时再通过getClassDetails按结果Id获取。
+	 * 
+	 * @param request
+	 * @param data
+	 * @param listener
+	 *            为null时不推送进度
+	 * @return
+	 * @throws java.rmi.RemoteException
+	 */
+	public abstract RemoteAnalysisResult analyze(JDependRequest request, AnalyseDataDTO data,
+			RemoteAnalyzeListener listener) throws java.rmi.RemoteException;
+
+	/**
+	 * 得到分析结果中全部类的细节，由AnalysisResultFormat.writeDetails写出
+	 * 
+	 * 服务器只保存最近的分析结果，结果已被淘汰时失败。
+	 * 
+	 * @param request
+	 * @param resultId
+	 *            RemoteAnalysisResult.getId
+	 * @return
+	 * @throws java.rmi.RemoteException
+	 */
+	public abstract byte[] getClassDetails(JDependRequest request, String resultId) throws java.rmi.RemoteException;
+
 	/**
 	 * 获得远程分析进度
 	 * 
@@ -43,4 +75,26 @@ public interface JDependRemoteService extends Remote {
 	 */
 	public abstract Collection<JavaPackage> getPackages(JDependRequest request, AnalyseDataDTO data)
 			throws java.rmi.RemoteException;
+
+	/**
+	 * 得到服务器缺少的文件内容
+	 * 
+	 * @param request
+	 * @param hashes
+	 *            文件内容的SHA-256摘要
+	 * @return 服务器没有保存的摘要
+	 * @throws java.rmi.RemoteException
+	 */
+	public abstract Collection<String> getMissingContents(JDependRequest request, Collection<String> hashes)
+			throws java.rmi.RemoteException;
+
+	/**
+	 * 上传文件内容
+	 * 
+	 * @param request
+	 * @param chunks
+	 * @throws java.rmi.RemoteException
+	 */
+	public abstract void uploadContents(JDependRequest request, List<ContentChunk> chunks)
+			throws java.rmi.RemoteException;
 }
@@ -0,0 +1,41 @@
+package jdepend.server.service;
+
+import java.io.Serializable;
+
+/**
+ * 远程分析结果：不包含类细节的分析结果摘要，以及按结果Id获取类细节所需的Id
+ *
+ * @author user
+ *
+ */
+public class RemoteAnalysisResult implements Serializable {
+
+	private static final long serialVersionUID = 3170431823946305146L;
+
+	private String id;
+
+	private byte[] summary;
+
+	public RemoteAnalysisResult(String id, byte[] summary) {
+		this.id = id;
+		this.summary = summary;
+	}
+
+	/**
+	 * 服务器上保存的分析结果Id，通过JDependRemoteService.getClassDetails获取类细节
+	 *
+	 * @return
+	 */
+	public String getId() {
+		return id;
+	}
+
+	/**
+	 * AnalysisResultFormat.writeSummary写出的分析结果摘要
+	 *
+	 * @return
+	 */
+	public byte[] getSummary() {
+		return summary;
+	}
+}
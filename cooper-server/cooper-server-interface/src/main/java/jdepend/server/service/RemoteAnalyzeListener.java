@@ -0,0 +1,29 @@
+package jdepend.server.service;
+
+import java.rmi.Remote;
+
+/**
+ * 远程分析进度监听器
+ *
+ * 由客户端导出，服务器在分析过程中回调，客户端不再需要轮询分析进度。
+ *
+ * @author user
+ *
+ */
+public interface RemoteAnalyzeListener extends Remote {
+	/**
+	 * 又解析了count个类
+	 *
+	 * @param count
+	 * @throws java.rmi.RemoteException
+	 */
+	public abstract void onParsed(int count) throws java.rmi.RemoteException;
+
+	/**
+	 * 进入新的分析阶段
+	 *
+	 * @param phase
+	 * @throws java.rmi.RemoteException
+	 */
+	public abstract void onPhase(String phase) throws java.rmi.RemoteException;
+}
@@ -0,0 +1,315 @@
+package jdepend.server.service.impl;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import jdepend.framework.context.JDependContext;
+import jdepend.framework.exception.JDependException;
+import jdepend.framework.file.AnalyzeData;
+import jdepend.framework.file.TargetFileInfo;
+import jdepend.framework.log.LogUtil;
+import jdepend.server.service.ContentChunk;
+
+/**
+ * 按内容摘要保存客户端上传的文件内容
+ *
+ * 内容保存在工作区的contentstore目录下，文件名为内容的SHA-256摘要。相同的jar被多个客户端反复分析时只需上传一次。
+ * 上传中的内容按会话写入临时文件，最后一段上传后校验摘要再改名，校验失败的内容不会被读到。
+ *
+ * 内容文件的修改时间记录最后一次访问（查询是否缺少和读取）的时间。保存的内容总大小超过上限时，
+ * 从最久未访问的内容开始删除，直到低于上限的90%；超过最长闲置时间的内容和临时文件定期删除。
+ *
+ * @author user
+ *
+ */
+public final class ContentStore {
+
+	public static final String DEFAULT_STORE_DIR = "contentstore";
+
+	/**
+	 * 保存的内容总大小上限
+	 */
+	public static final long MAX_STORE_SIZE = 2L * 1024 * 1024 * 1024;
+
+	/**
+	 * 内容的最长闲置时间
+	 */
+	public static final long MAX_IDLE_TIME = TimeUnit.DAYS.toMillis(30);
+
+	/**
+	 * 删除闲置内容的间隔
+	 */
+	private static final long SWEEP_INTERVAL = TimeUnit.HOURS.toMillis(1);
+
+	private static final String TMP_SUFFIX = ".tmp";
+
+	private static ContentStore inst;
+
+	private final File storeDir;
+
+	private final long maxSize;
+
+	private final long maxIdleTime;
+
+	private long size = -1;// 由this保护，第一次整理前扫描得到
+
+	private long lastSweepTime = 0;// 由this保护
+
+	ContentStore(File storeDir, long maxSize, long maxIdleTime) {
+		this.storeDir = storeDir;
+		this.maxSize = maxSize;
+		this.maxIdleTime = maxIdleTime;
+	}
+
+	public static synchronized ContentStore getInstance() {
+		if (inst == null) {
+			inst = new ContentStore(new File(JDependContext.getWorkspacePath(), DEFAULT_STORE_DIR), MAX_STORE_SIZE,
+					MAX_IDLE_TIME);
+		}
+		return inst;
+	}
+
+	/**
+	 * 得到没有保存的摘要
+	 *
+	 * @param hashes
+	 * @return
+	 */
+	public Collection<String> getMissing(Collection<String> hashes) {
+		Collection<String> missing = new LinkedHashSet<String>();
+		File file;
+		for (String hash : hashes) {
+			file = this.getFile(hash);
+			if (!touch(file)) {
+				missing.add(hash);
+			}
+		}
+		return new ArrayList<String>(missing);
+	}
+
+	/**
+	 * 保存上传的一段内容
+	 *
+	 * @param sessionId
+	 * @param chunk
+	 * @throws JDependException
+	 */
+	public void append(long sessionId, ContentChunk chunk) throws JDependException {
+		String hash = chunk.getHash();
+		File file = this.getFile(hash);
+		if (file.exists()) {
+			return;
+		}
+		File dir = file.getParentFile();
+		if (!dir.exists() && !dir.mkdirs() && !dir.exists()) {
+			throw new JDependException("创建目录[" + dir.getPath() + "]失败");
+		}
+		File tmpFile = new File(dir, hash + "." + sessionId + TMP_SUFFIX);
+		if (chunk.getOffset() == 0) {
+			tmpFile.delete();
+		} else if (tmpFile.length() != chunk.getOffset()) {
+			long length = tmpFile.length();
+			tmpFile.delete();
+			throw new JDependException("内容[" + hash + "]的上传偏移" + chunk.getOffset() + "与已上传的长度" + length + "不一致");
+		}
+		OutputStream out = null;
+		try {
+			out = new FileOutputStream(tmpFile, true);
+			out.write(chunk.getData());
+			out.close();
+			out = null;
+		} catch (IOException e) {
+			tmpFile.delete();
+			throw new JDependException("保存内容[" + hash + "]失败", e);
+		} finally {
+			if (out != null) {
+				try {
+					out.close();
+				} catch (IOException ignore) {
+				}
+			}
+		}
+		if (chunk.isLast()) {
+			String actual = TargetFileInfo.calHash(readFile(tmpFile));
+			if (!hash.equals(actual)) {
+				tmpFile.delete();
+				throw new JDependException("内容[" + hash + "]校验失败，实际摘要为" + actual);
+			}
+			if (!tmpFile.renameTo(file) && !file.exists()) {
+				tmpFile.delete();
+				throw new JDependException("保存内容[" + hash + "]失败");
+			}
+			tmpFile.delete();
+			this.added(file);
+		}
+	}
+
+	/**
+	 * 读取保存的内容
+	 *
+	 * @param hash
+	 * @return
+	 * @throws JDependException
+	 */
+	public byte[] read(String hash) throws JDependException {
+		File file = this.getFile(hash);
+		if (!touch(file)) {
+			throw new JDependException("服务器没有内容[" + hash + "]");
+		}
+		return readFile(file);
+	}
+
+	/**
+	 * 记录访问时间
+	 *
+	 * @param file
+	 * @return 文件是否存在
+	 */
+	private static boolean touch(File file) {
+		return file.setLastModified(System.currentTimeMillis()) || file.exists();
+	}
+
+	/**
+	 * 记录新保存的内容，超出上限或到达整理间隔时整理
+	 *
+	 * @param file
+	 */
+	private synchronized void added(File file) {
+		if (this.size >= 0) {
+			this.size += file.length();
+		}
+		long now = System.currentTimeMillis();
+		if (this.size < 0 || this.size > this.maxSize || now - this.lastSweepTime > SWEEP_INTERVAL) {
+			this.sweep(now);
+		}
+	}
+
+	/**
+	 * 删除闲置的内容和临时文件，总大小超过上限时从最久未访问的内容开始删除
+	 *
+	 * @param now
+	 */
+	private void sweep(long now) {
+		List<File> files = new ArrayList<File>();
+		long total = 0;
+		File[] dirs = this.storeDir.listFiles();
+		if (dirs != null) {
+			for (File dir : dirs) {
+				File[] children = dir.listFiles();
+				if (children == null) {
+					continue;
+				}
+				for (File child : children) {
+					if (now - child.lastModified() > this.maxIdleTime) {
+						child.delete();
+					} else if (!child.getName().endsWith(TMP_SUFFIX)) {
+						files.add(child);
+						total += child.length();
+					}
+				}
+			}
+		}
+		if (total > this.maxSize) {
+			final Map<File, Long> accessTimes = new HashMap<File, Long>();
+			for (File file : files) {
+				accessTimes.put(file, file.lastModified());
+			}
+			Collections.sort(files, new Comparator<File>() {
+				@Override
+				public int compare(File o1, File o2) {
+					return accessTimes.get(o1).compareTo(accessTimes.get(o2));
+				}
+			});
+			long lowWater = this.maxSize - this.maxSize / 10;
+			int count = 0;
+			for (File file : files) {
+				if (total <= lowWater) {
+					break;
+				}
+				long length = file.length();
+				if (file.delete()) {
+					total -= length;
+					count++;
+				}
+			}
+			LogUtil.getInstance(ContentStore.class).systemLog("删除了" + count + "个最久未访问的内容");
+		}
+		this.size = total;
+		this.lastSweepTime = now;
+	}
+
+	private static byte[] readFile(File file) throws JDependException {
+		byte[] content = new byte[(int) file.length()];
+		InputStream in = null;
+		try {
+			in = new FileInputStream(file);
+			int pos = 0;
+			int count;
+			while (pos < content.length && (count = in.read(content, pos, content.length - pos)) != -1) {
+				pos += count;
+			}
+			return content;
+		} catch (IOException e) {
+			throw new JDependException("读取内容[" + file.getName() + "]失败", e);
+		} finally {
+			if (in != null) {
+				try {
+					in.close();
+				} catch (IOException ignore) {
+				}
+			}
+		}
+	}
+
+	/**
+	 * 为只有摘要的文件填充内容
+	 *
+	 * @param data
+	 * @throws JDependException
+	 */
+	public void fill(AnalyzeData data) throws JDependException {
+		int count = 0;
+		for (Map.Entry<String, List<TargetFileInfo>> entry : data.getFiles().entrySet()) {
+			for (TargetFileInfo targetFileInfo : entry.getValue()) {
+				if (targetFileInfo.getContent() == null && targetFileInfo.getHash() != null) {
+					targetFileInfo.setContent(this.read(targetFileInfo.getHash()));
+					count++;
+				}
+			}
+		}
+		if (count > 0) {
+			LogUtil.getInstance(ContentStore.class).systemLog("从服务器保存的内容中读取了" + count + "个文件");
+		}
+	}
+
+	private File getFile(String hash) {
+		if (hash.length() != TargetFileInfo.HashLength || !isHex(hash)) {
+			throw new IllegalArgumentException("内容摘要[" + hash + "]格式错误");
+		}
+		return new File(new File(storeDir, hash.substring(0, 2)), hash);
+	}
+
+	private static boolean isHex(String hash) {
+		char c;
+		for (int i = 0; i < hash.length(); i++) {
+			c = hash.charAt(i);
+			if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
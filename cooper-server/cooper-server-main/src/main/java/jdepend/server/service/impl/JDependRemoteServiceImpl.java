@@ -1,5 +1,6 @@
 package jdepend.server.service.impl;
 
+import java.io.IOException;
 import java.rmi.RemoteException;
 import java.rmi.server.UnicastRemoteObject;
 import java.util.ArrayList;
@@ -13,7 +14,10 @@ import jdepend.model.result.AnalysisResult;
 import jdepend.parse.ParseConfigurator;
 import jdepend.parse.impl.PackageFilter;
 import jdepend.server.service.AnalyseDataDTO;
+import jdepend.server.service.ContentChunk;
 import jdepend.server.service.JDependRemoteService;
+import jdepend.server.service.RemoteAnalysisResult;
+import jdepend.server.service.RemoteAnalyzeListener;
 import jdepend.server.service.session.JDependRequest;
 import jdepend.server.service.session.JDependSession;
 import jdepend.service.JDependLocalService;
@@ -35,6 +39,37 @@ public class JDependRemoteServiceImpl extends UnicastRemoteObject implements JDe
 	}
 
 	public AnalysisResult analyze(JDependRequest request, AnalyseDataDTO data) throws RemoteException {
+		return this.doAnalyze(request, data, null);
+	}
+
+	@Override
+	public RemoteAnalysisResult analyze(JDependRequest request, AnalyseDataDTO data, RemoteAnalyzeListener listener)
+			throws RemoteException {
+		AnalysisResult result = this.doAnalyze(request, data, listener);
+		try {
+			byte[] summary = RemoteResultStore.getSummary(result);
+			return new RemoteAnalysisResult(RemoteResultStore.getInstance().put(request.getSessionId(), result),
+					summary);
+		} catch (IOException e) {
+			e.printStackTrace();
+			throw new RemoteException(e.getMessage());
+		}
+	}
+
+	@Override
+	public byte[] getClassDetails(JDependRequest request, String resultId) throws RemoteException {
+		try {
+			JDependSessionMgr.getInstance().getSession(request);
+			return RemoteResultStore.getInstance().getDetails(request.getSessionId(), resultId);
+		} catch (JDependException e) {
+			e.printStackTrace();
+			throw new RemoteException(e.getMessage());
+		}
+	}
+
+	private AnalysisResult doAnalyze(JDependRequest request, AnalyseDataDTO data, RemoteAnalyzeListener listener)
+			throws RemoteException {
+		RemoteParseListener parseListener = null;
 		try {
 			// 发送分析提醒
 			this.onAnalyse(request);
@@ -62,7 +97,11 @@ public class JDependRemoteServiceImpl extends UnicastRemoteObject implements JDe
 			if (data.getComponent() != null) {
 				localService.setComponent(data.getComponent());
 			}
+			// 增加解析监听器
+			parseListener = new RemoteParseListener(session, listener);
 			// 设置分析数据
+			parseListener.onPhase("读取分析数据");
+			ContentStore.getInstance().fill(data.getAnalyzeData());
 			localService.setAnalyzeData(data.getAnalyzeData());
 
 			String path = data.getPath();
@@ -72,17 +111,22 @@ public class JDependRemoteServiceImpl extends UnicastRemoteObject implements JDe
 
 			// 设置FileterPackages
 			localService.addCommandFilteredPackages(data.getServiceConf().getCommandFilteredPackages());
-			// 增加解析监听器
-			localService.addParseListener(new RemoteParseListener(JDependSessionMgr.getInstance().getSession(request)));
+			localService.addParseListener(parseListener);
 			// 分析服务
+			parseListener.onPhase("分析");
 			AnalysisResult result = localService.analyze();
 			// 保存分析结果
+			parseListener.onPhase("保存分析结果");
 			AnalysisResultRepository.getInstance().save(result);
 			// 返回结果
 			return result;
 		} catch (Exception e) {
 			e.printStackTrace();
 			throw new RemoteException(e.getMessage());
+		} finally {
+			if (parseListener != null) {
+				parseListener.close();
+			}
 		}
 	}
 
@@ -105,13 +149,39 @@ public class JDependRemoteServiceImpl extends UnicastRemoteObject implements JDe
 	@Override
 	public Collection<JavaPackage> getPackages(JDependRequest request, AnalyseDataDTO data) throws RemoteException {
 		JDependLocalService localService = new JDependLocalServiceImpl(request.getGroupName(), request.getCommandName());
-		// 设置分析数据
-		localService.setAnalyzeData(data.getAnalyzeData());
 		try {
+			// 设置分析数据
+			ContentStore.getInstance().fill(data.getAnalyzeData());
+			localService.setAnalyzeData(data.getAnalyzeData());
 			return localService.getPackages();
 		} catch (JDependException e) {
 			e.printStackTrace();
 			throw new RemoteException(e.getMessage());
 		}
 	}
+
+	@Override
+	public Collection<String> getMissingContents(JDependRequest request, Collection<String> hashes)
+			throws RemoteException {
+		try {
+			JDependSessionMgr.getInstance().getSession(request);
+			return ContentStore.getInstance().getMissing(hashes);
+		} catch (Exception e) {
+			e.printStackTrace();
+			throw new RemoteException(e.getMessage());
+		}
+	}
+
+	@Override
+	public void uploadContents(JDependRequest request, List<ContentChunk> chunks) throws RemoteException {
+		try {
+			JDependSessionMgr.getInstance().getSession(request);
+			for (ContentChunk chunk : chunks) {
+				ContentStore.getInstance().append(request.getSessionId(), chunk);
+			}
+		} catch (Exception e) {
+			e.printStackTrace();
+			throw new RemoteException(e.getMessage());
+		}
+	}
 }
@@ -1,22 +1,153 @@
 package jdepend.server.service.impl;
 
+import java.rmi.RemoteException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jdepend.framework.log.LogUtil;
 import jdepend.metadata.JavaClass;
 import jdepend.parse.ParseListener;
+import jdepend.server.service.RemoteAnalyzeListener;
 import jdepend.server.service.session.JDependSession;
 
+/**
+ * 远程分析的解析监听器
+ * 
+ * 解析线程只累加解析个数，由每次分析独有的推送线程定时向客户端推送，客户端回调缓慢或不可达时不会阻塞解析线程。
+ * 分析结束后需调用close停止推送线程。
+ * 
+ * @author user
+ * 
+ */
 public class RemoteParseListener implements ParseListener {
 
+	private static final long PUSH_TIME = 200;// 推送进度的间隔时间
+
+	private static final long CLOSE_TIME = 1000;// 关闭时等待剩余推送的最长时间
+
 	private JDependSession session;
 
+	private volatile RemoteAnalyzeListener listener;
+
+	private final AtomicInteger pushing = new AtomicInteger();// 尚未推送的解析个数
+
+	private final ScheduledExecutorService pusher;
+
 	public RemoteParseListener(JDependSession session) {
+		this(session, null);
+	}
+
+	public RemoteParseListener(JDependSession session, RemoteAnalyzeListener listener) {
 		super();
 		this.session = session;
 		this.session.clearAnalyzeSchedule();
+		this.listener = listener;
+		if (listener != null) {
+			this.pusher = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread thread = new Thread(r, "RemoteParseListener");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+			this.pusher.scheduleWithFixedDelay(new Runnable() {
+				@Override
+				public void run() {
+					pushParsed();
+				}
+			}, PUSH_TIME, PUSH_TIME, TimeUnit.MILLISECONDS);
+		} else {
+			this.pusher = null;
+		}
 	}
 
 	@Override
 	public void onParsedJavaClass(JavaClass parsedClass, int process) {
 		this.session.appendAnalyzeSchedule(process);
+		if (this.pusher != null) {
+			this.pushing.addAndGet(process);
+		}
+	}
+
+	@Override
+	public void onParseCache(int hitCount, int missCount) {
+		LogUtil.getInstance(RemoteParseListener.class).systemLog("解析缓存命中：" + hitCount + "，未命中：" + missCount);
+	}
+
+	/**
+	 * 推送新的分析阶段，之前未推送的解析进度一并推送
+	 * 
+	 * @param phase
+	 */
+	public void onPhase(final String phase) {
+		if (this.pusher != null) {
+			this.pusher.execute(new Runnable() {
+				@Override
+				public void run() {
+					pushParsed();
+					pushPhase(phase);
+				}
+			});
+		}
+	}
+
+	/**
+	 * 推送剩余的解析进度并停止推送线程，最多等待CLOSE_TIME
+	 */
+	public void close() {
+		if (this.pusher != null) {
+			this.pusher.execute(new Runnable() {
+				@Override
+				public void run() {
+					pushParsed();
+				}
+			});
+			this.pusher.shutdown();
+			try {
+				if (!this.pusher.awaitTermination(CLOSE_TIME, TimeUnit.MILLISECONDS)) {
+					this.pusher.shutdownNow();
+				}
+			} catch (InterruptedException e) {
+				this.pusher.shutdownNow();
+				Thread.currentThread().interrupt();
+			}
+		}
 	}
 
+	private void pushParsed() {
+		int count = this.pushing.getAndSet(0);
+		RemoteAnalyzeListener listener = this.listener;
+		if (listener != null && count > 0) {
+			try {
+				listener.onParsed(count);
+			} catch (RemoteException e) {
+				this.onPushError(e);
+			}
+		}
+	}
+
+	private void pushPhase(String phase) {
+		RemoteAnalyzeListener listener = this.listener;
+		if (listener != null) {
+			try {
+				listener.onPhase(phase);
+			} catch (RemoteException e) {
+				this.onPushError(e);
+			}
+		}
+	}
+
+	/**
+	 * 客户端不可回调时不再推送，客户端仍可通过getAnalyzeSchedule查询进度
+	 * 
+	 * @param e
+	 */
+	private void onPushError(RemoteException e) {
+		LogUtil.getInstance(RemoteParseListener.class).systemWarning("推送分析进度失败，不再推送：" + e.getMessage());
+		this.listener = null;
+	}
 }
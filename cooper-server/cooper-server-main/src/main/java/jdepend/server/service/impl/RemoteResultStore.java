@@ -0,0 +1,108 @@
+package jdepend.server.service.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import jdepend.framework.exception.JDependException;
+import jdepend.model.result.AnalysisResult;
+import jdepend.model.result.AnalysisResultFormat;
+
+/**
+ * 返回给客户端摘要的分析结果
+ *
+ * 客户端第一次访问类细节时按结果Id获取，结果只能由分析它的会话获取。只在内存中保存最近的结果，超出时淘汰最久未使用的结果。
+ *
+ * @author user
+ *
+ */
+public final class RemoteResultStore {
+
+	/**
+	 * 最多保存的结果数量
+	 */
+	public static final int MAX_RESULTS = 10;
+
+	private static RemoteResultStore inst = new RemoteResultStore(MAX_RESULTS);
+
+	private final int maxResults;
+
+	private final Map<String, Entry> results = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+
+	RemoteResultStore(int maxResults) {
+		this.maxResults = maxResults;
+	}
+
+	public static RemoteResultStore getInstance() {
+		return inst;
+	}
+
+	/**
+	 * 保存分析结果
+	 *
+	 * @param sessionId
+	 * @param result
+	 * @return 结果Id
+	 */
+	public synchronized String put(long sessionId, AnalysisResult result) {
+		String id = UUID.randomUUID().toString().replace("-", "");
+		this.results.put(id, new Entry(sessionId, result));
+		while (this.results.size() > this.maxResults) {
+			this.results.remove(this.results.keySet().iterator().next());
+		}
+		return id;
+	}
+
+	/**
+	 * 得到分析结果摘要
+	 *
+	 * @param result
+	 * @return
+	 * @throws IOException
+	 */
+	public static byte[] getSummary(AnalysisResult result) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		AnalysisResultFormat.writeSummary(result, out);
+		return out.toByteArray();
+	}
+
+	/**
+	 * 得到分析结果中全部类的细节
+	 *
+	 * @param sessionId
+	 * @param id
+	 * @return
+	 * @throws JDependException
+	 *             结果不存在、已被淘汰或不属于该会话
+	 */
+	public byte[] getDetails(long sessionId, String id) throws JDependException {
+		Entry entry;
+		synchronized (this) {
+			entry = this.results.get(id);
+		}
+		if (entry == null || entry.sessionId != sessionId) {
+			throw new JDependException("服务器上的分析结果[" + id + "]已过期，请重新分析。");
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try {
+			AnalysisResultFormat.writeDetails(entry.result, out);
+		} catch (IOException e) {
+			throw new JDependException("写出分析结果[" + id + "]的类细节失败", e);
+		}
+		return out.toByteArray();
+	}
+
+	private static final class Entry {
+
+		private final long sessionId;
+
+		private final AnalysisResult result;
+
+		public Entry(long sessionId, AnalysisResult result) {
+			this.sessionId = sessionId;
+			this.result = result;
+		}
+	}
+}
@@ -6,12 +6,12 @@ import java.sql.DriverManager;
 import java.sql.SQLException;
 
 import jdepend.framework.context.JDependContext;
-import jdepend.framework.persistent.ConnectionProvider;
+import jdepend.framework.persistent.PooledConnectionProvider;
 
-public final class ServerConnectionProvider implements ConnectionProvider {
+public final class ServerConnectionProvider extends PooledConnectionProvider {
 
 	@Override
-	public Connection getConnection() throws SQLException {
+	protected Connection createConnection() throws SQLException {
 		String dbPath = File.separator + "knowledge" + File.separator + "db" + File.separator + "knowledge";
 		return DriverManager.getConnection("jdbc:hsqldb:file:" + JDependContext.getWorkspacePath() + dbPath, "sa", "");
 	}
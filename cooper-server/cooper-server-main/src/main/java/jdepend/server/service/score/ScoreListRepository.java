@@ -28,8 +28,8 @@ public final class ScoreListRepository {
 		try {
 			conn = ConnectionFactory.getConnection();
 			conn.setAutoCommit(false);
+			ps = conn.prepareStatement(insertSql);
 			for (ScoreDTO score : scores) {
-				ps = conn.prepareStatement(insertSql);
 				ps.setString(1, UUID.randomUUID().toString());
 				ps.setString(2, score.ip);
 				ps.setString(3, score.user);
@@ -47,8 +47,9 @@ public final class ScoreListRepository {
 				ps.setFloat(15, score.coupling);
 				ps.setTimestamp(16, new java.sql.Timestamp(score.createDate.getTime()));
 
-				ps.execute();
+				ps.addBatch();
 			}
+			ps.executeBatch();
 
 			conn.commit();
 			LogUtil.getInstance(ScoreListRepository.class).systemLog("收集了" + scores.size() + "条分数信息");
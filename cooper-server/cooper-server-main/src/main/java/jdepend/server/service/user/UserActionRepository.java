@@ -31,8 +31,9 @@ public final class UserActionRepository {
 				ps.setTimestamp(5, new Timestamp(item.createdate.getTime()));
 				ps.setTimestamp(6, new Timestamp(System.currentTimeMillis()));
 
-				ps.execute();
+				ps.addBatch();
 			}
+			ps.executeBatch();
 			conn.commit();
 		} catch (Exception e) {
 			e.printStackTrace();
@@ -0,0 +1,142 @@
+package jdepend.server.service.impl;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+
+import jdepend.framework.config.PropertyConfigurator;
+import jdepend.framework.context.JDependContext;
+import jdepend.framework.exception.JDependException;
+import jdepend.framework.file.TargetFileInfo;
+import jdepend.server.service.ContentChunk;
+import junit.framework.TestCase;
+
+/**
+ * 校验ContentStore的缺失查询、分段上传、读取以及按访问时间的淘汰
+ *
+ * @author user
+ *
+ */
+public class ContentStoreTestCase extends TestCase {
+
+	private static final long MaxIdleTime = 60000;
+
+	private File storeDir;
+
+	private ContentStore store;
+
+	@Override
+	protected void setUp() throws Exception {
+		storeDir = new File(System.getProperty("java.io.tmpdir"), "contentstore-" + System.nanoTime());
+		if (JDependContext.getWorkspacePath() == null) {
+			File conf = new File(storeDir.getParentFile(), storeDir.getName() + "-workspace/"
+					+ PropertyConfigurator.DEFAULT_PROPERTY_DIR);
+			conf.mkdirs();
+			new File(conf, PropertyConfigurator.DEFAULT_PROPERTY_FILE).createNewFile();
+			JDependContext.setWorkspacePath(conf.getParent());
+		}
+		store = new ContentStore(storeDir, 25, MaxIdleTime);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		this.delete(storeDir);
+	}
+
+	public void testUploadAndRead() throws Exception {
+		byte[] content = "0123456789".getBytes("UTF-8");
+		String hash = TargetFileInfo.calHash(content);
+
+		assertEquals(Collections.singletonList(hash), store.getMissing(Arrays.asList(hash, hash)));
+
+		// 只上传了一部分时仍然缺少，不能读取
+		store.append(1, new ContentChunk(hash, 0, Arrays.copyOfRange(content, 0, 4), false));
+		assertEquals(Collections.singletonList(hash), store.getMissing(Arrays.asList(hash)));
+		try {
+			store.read(hash);
+			fail();
+		} catch (JDependException ignore) {
+		}
+
+		// 偏移与已上传的长度不一致时丢弃已上传的部分
+		try {
+			store.append(1, new ContentChunk(hash, 6, Arrays.copyOfRange(content, 6, 10), true));
+			fail();
+		} catch (JDependException ignore) {
+		}
+
+		store.append(2, new ContentChunk(hash, 0, Arrays.copyOfRange(content, 0, 4), false));
+		store.append(2, new ContentChunk(hash, 4, Arrays.copyOfRange(content, 4, 10), true));
+		assertTrue(store.getMissing(Arrays.asList(hash)).isEmpty());
+		assertTrue(Arrays.equals(content, store.read(hash)));
+	}
+
+	public void testRejectWrongHash() throws Exception {
+		String hash = TargetFileInfo.calHash("expected".getBytes("UTF-8"));
+		try {
+			store.append(1, new ContentChunk(hash, 0, "actual".getBytes("UTF-8"), true));
+			fail();
+		} catch (JDependException ignore) {
+		}
+		assertEquals(Collections.singletonList(hash), store.getMissing(Arrays.asList(hash)));
+	}
+
+	public void testRejectMalformedHash() throws Exception {
+		String hash = TargetFileInfo.calHash("content".getBytes("UTF-8"));
+		assertEquals(TargetFileInfo.HashLength, hash.length());
+		// SHA-1长度、非十六进制以及路径形式的摘要都不接受
+		for (String malformed : new String[] { hash.substring(0, 40), hash.toUpperCase(), "../" + hash.substring(3) }) {
+			try {
+				store.getMissing(Arrays.asList(malformed));
+				fail(malformed);
+			} catch (IllegalArgumentException ignore) {
+			}
+		}
+	}
+
+	public void testEvictLeastRecentlyUsed() throws Exception {
+		String a = this.upload("aaaaaaaaaa");
+		String b = this.upload("bbbbbbbbbb");
+		long now = System.currentTimeMillis();
+		this.getFile(a).setLastModified(now - 2000);
+		this.getFile(b).setLastModified(now - 1000);
+
+		// 读取a后b为最久未访问的内容，保存c超出上限时淘汰b
+		store.read(a);
+		String c = this.upload("cccccccccc");
+
+		assertEquals(Collections.singletonList(b), store.getMissing(Arrays.asList(a, b, c)));
+	}
+
+	public void testEvictIdle() throws Exception {
+		String a = this.upload("aaaaaaaaaa");
+		this.getFile(a).setLastModified(System.currentTimeMillis() - MaxIdleTime * 2);
+
+		// 新的实例在第一次保存内容时整理
+		store = new ContentStore(storeDir, 25, MaxIdleTime);
+		String b = this.upload("bbbbbbbbbb");
+
+		assertEquals(Collections.singletonList(a), store.getMissing(Arrays.asList(a, b)));
+	}
+
+	private String upload(String text) throws Exception {
+		byte[] content = text.getBytes("UTF-8");
+		String hash = TargetFileInfo.calHash(content);
+		store.append(1, new ContentChunk(hash, 0, content, true));
+		return hash;
+	}
+
+	private File getFile(String hash) {
+		return new File(new File(storeDir, hash.substring(0, 2)), hash);
+	}
+
+	private void delete(File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				this.delete(child);
+			}
+		}
+		file.delete();
+	}
+}
@@ -0,0 +1,80 @@
+package jdepend.server.service.impl;
+
+import java.io.File;
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import jdepend.framework.config.PropertyConfigurator;
+import jdepend.framework.context.JDependContext;
+import jdepend.server.service.RemoteAnalyzeListener;
+import jdepend.server.service.session.JDependSession;
+import junit.framework.TestCase;
+
+/**
+ * 校验客户端回调阻塞时解析线程不被阻塞，并且关闭时推送全部解析进度和分析阶段
+ *
+ * @author user
+ *
+ */
+public class RemoteParseListenerTestCase extends TestCase {
+
+	@Override
+	protected void setUp() throws Exception {
+		if (JDependContext.getWorkspacePath() == null) {
+			File conf = new File(System.getProperty("java.io.tmpdir"), "remoteparselistener-" + System.nanoTime()
+					+ "/" + PropertyConfigurator.DEFAULT_PROPERTY_DIR);
+			conf.mkdirs();
+			new File(conf, PropertyConfigurator.DEFAULT_PROPERTY_FILE).createNewFile();
+			JDependContext.setWorkspacePath(conf.getParent());
+		}
+	}
+
+	public void testSlowClient() throws Exception {
+		final CountDownLatch blocked = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final List<String> pushed = Collections.synchronizedList(new ArrayList<String>());
+		RemoteAnalyzeListener client = new RemoteAnalyzeListener() {
+			@Override
+			public void onParsed(int count) throws RemoteException {
+				blocked.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					throw new RemoteException("interrupted", e);
+				}
+				pushed.add("parsed:" + count);
+			}
+
+			@Override
+			public void onPhase(String phase) throws RemoteException {
+				pushed.add("phase:" + phase);
+			}
+		};
+
+		JDependSession session = new JDependSession();
+		RemoteParseListener listener = new RemoteParseListener(session, client);
+		listener.onParsedJavaClass(null, 1);
+		assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+		// 推送线程阻塞在客户端回调中，解析线程仍然可以继续
+		for (int i = 0; i < 99; i++) {
+			listener.onParsedJavaClass(null, 1);
+		}
+		listener.onPhase("end");
+		assertEquals(100, session.getAnalyzeSchedule());
+
+		release.countDown();
+		listener.close();
+
+		int parsed = 0;
+		for (String item : pushed.subList(0, pushed.size() - 1)) {
+			parsed += Integer.parseInt(item.substring("parsed:".length()));
+		}
+		assertEquals(100, parsed);
+		assertEquals("phase:end", pushed.get(pushed.size() - 1));
+	}
+}
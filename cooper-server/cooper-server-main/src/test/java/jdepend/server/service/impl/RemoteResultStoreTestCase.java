@@ -0,0 +1,74 @@
+package jdepend.server.service.impl;
+
+import java.io.File;
+import java.util.ArrayList;
+
+import jdepend.framework.config.PropertyConfigurator;
+import jdepend.framework.context.JDependContext;
+import jdepend.framework.exception.JDependException;
+import jdepend.model.Component;
+import jdepend.model.result.AnalysisResult;
+import jdepend.model.result.AnalysisRunningContext;
+import jdepend.model.result.ProfileFacadeImpl;
+import junit.framework.TestCase;
+
+/**
+ * 校验RemoteResultStore按会话获取类细节以及按最近使用淘汰结果
+ *
+ * @author user
+ *
+ */
+public class RemoteResultStoreTestCase extends TestCase {
+
+	private RemoteResultStore store;
+
+	@Override
+	protected void setUp() throws Exception {
+		if (JDependContext.getWorkspacePath() == null) {
+			File conf = new File(System.getProperty("java.io.tmpdir"), "remoteresultstore-" + System.nanoTime()
+					+ "/" + PropertyConfigurator.DEFAULT_PROPERTY_DIR);
+			conf.mkdirs();
+			new File(conf, PropertyConfigurator.DEFAULT_PROPERTY_FILE).createNewFile();
+			JDependContext.setWorkspacePath(conf.getParent());
+		}
+		store = new RemoteResultStore(2);
+	}
+
+	public void testGetDetailsBySession() throws Exception {
+		String id = store.put(1, this.newResult());
+
+		assertNotNull(store.getDetails(1, id));
+		try {
+			store.getDetails(2, id);
+			fail();
+		} catch (JDependException ignore) {
+		}
+		try {
+			store.getDetails(1, "unknown");
+			fail();
+		} catch (JDependException ignore) {
+		}
+	}
+
+	public void testEvictLeastRecentlyUsed() throws Exception {
+		String first = store.put(1, this.newResult());
+		String second = store.put(1, this.newResult());
+		// 访问第一个结果后，淘汰的是第二个
+		store.getDetails(1, first);
+		String third = store.put(1, this.newResult());
+
+		assertNotNull(store.getDetails(1, first));
+		assertNotNull(store.getDetails(1, third));
+		try {
+			store.getDetails(1, second);
+			fail();
+		} catch (JDependException ignore) {
+		}
+	}
+
+	private AnalysisResult newResult() {
+		AnalysisRunningContext context = new AnalysisRunningContext();
+		context.setProfileFacade(new ProfileFacadeImpl(new ProfileFacadeImpl()));
+		return new AnalysisResult(new ArrayList<Component>(), context);
+	}
+}
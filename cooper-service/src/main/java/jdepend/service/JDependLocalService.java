@@ -34,6 +34,22 @@ public interface JDependLocalService {
 	 */
 	public AnalysisResult analyze() throws ServiceException;
 
+	/**
+	 * 增量分析服务
+	 * 
+	 * 只为发生变化的类以及与其直接相关的类重新建立关系，并只重新计算受影响的组件关系。
+	 * 上次分析结果需由相同的分析配置得到，无法增量分析时进行全量分析。
+	 * 
+	 * @param previousResult
+	 *            上次分析结果，为null时进行全量分析
+	 * @param changedClassNames
+	 *            发生变化（修改、新增或删除）的类名
+	 * @return
+	 * @throws ServiceException
+	 */
+	public AnalysisResult analyze(AnalysisResult previousResult, Collection<String> changedClassNames)
+			throws ServiceException;
+
 	/**
 	 * 设置组件模型
 	 * 
@@ -104,4 +120,19 @@ public interface JDependLocalService {
 	 * @throws JDependException
 	 */
 	public Collection<JavaPackage> getPackages() throws ServiceException;
+
+	/**
+	 * 完整解析分析目标，得到的包可以通过setJavaPackages用于之后的分析
+	 * 
+	 * @return
+	 * @throws ServiceException
+	 */
+	public Collection<JavaPackage> parsePackages() throws ServiceException;
+
+	/**
+	 * 设置已解析的包，分析时不再解析分析目标
+	 * 
+	 * @param javaPackages
+	 */
+	public void setJavaPackages(Collection<JavaPackage> javaPackages);
 }
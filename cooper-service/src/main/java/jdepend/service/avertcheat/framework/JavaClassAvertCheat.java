@@ -1,12 +1,9 @@
 package jdepend.service.avertcheat.framework;
 
-import java.util.Collection;
-import java.util.Map;
-import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
 
 import jdepend.framework.log.LogUtil;
-import jdepend.framework.util.ThreadPool;
-import jdepend.metadata.util.JavaClassCollection;
+import jdepend.framework.util.AnalysisExecutor;
 import jdepend.model.JavaClassUnit;
 import jdepend.model.result.AnalysisResult;
 import jdepend.service.AbstractAnalyseListener;
@@ -26,23 +23,12 @@ public abstract class JavaClassAvertCheat extends AbstractAnalyseListener implem
 
 		this.init(result);
 
-		ExecutorService pool = ThreadPool.getPool();
-
-		final Map<String, Collection<JavaClassUnit>> unitJavaClasses = JavaClassCollection
-				.unitTheadClassCollection(result.getClasses());
-
-		for (final String unit : unitJavaClasses.keySet()) {
-			pool.execute(new Runnable() {
-				@Override
-				public void run() {
-					for (JavaClassUnit javaClass : unitJavaClasses.get(unit)) {
-						handle(javaClass);
-					}
-				}
-			});
-		}
-
-		ThreadPool.awaitTermination(pool);
+		AnalysisExecutor.forEach("JavaClassAvertCheat:" + this.getName(), result.getClasses(), new Consumer<JavaClassUnit>() {
+			@Override
+			public void accept(JavaClassUnit javaClass) {
+				handle(javaClass);
+			}
+		});
 
 		LogUtil.getInstance(this.getClass()).systemLog("结束执行JavaClassAvertCheat：" + this.getName());
 	}
@@ -10,8 +10,10 @@ import java.util.List;
 import jdepend.framework.exception.JDependException;
 import jdepend.framework.file.AnalyzeData;
 import jdepend.framework.log.LogUtil;
+import jdepend.metadata.JavaClass;
 import jdepend.metadata.JavaPackage;
 import jdepend.model.Component;
+import jdepend.model.JavaClassUnit;
 import jdepend.model.profile.ProfileFacade;
 import jdepend.model.result.AnalysisResult;
 import jdepend.model.result.AnalysisRunningContext;
@@ -48,6 +50,8 @@ public final class JDependLocalServiceImpl implements JDependLocalService {
 
 	private AnalyseContext context;
 
+	private Collection<JavaPackage> javaPackages;// 已解析的包
+
 	private ArrayList<AnalyseListener> listeners = new ArrayList<AnalyseListener>();
 
 	public JDependLocalServiceImpl(String groupName, String commandName) {
@@ -86,6 +90,30 @@ public final class JDependLocalServiceImpl implements JDependLocalService {
 	 * @see jdepend.client.core.JDependAnalyssisService#analyze()
 	 */
 	public AnalysisResult analyze() throws ServiceException {
+		return this.analyze(null);
+	}
+
+	@Override
+	public AnalysisResult analyze(AnalysisResult previousResult, Collection<String> changedClassNames)
+			throws ServiceException {
+		if (previousResult == null || changedClassNames == null) {
+			return this.analyze();
+		}
+		// 收集上次分析的Classes
+		Collection<JavaClass> previousClasses = new ArrayList<JavaClass>();
+		for (JavaClassUnit javaClass : previousResult.getClasses()) {
+			previousClasses.add(javaClass.getJavaClass());
+			previousClasses.addAll(javaClass.getJavaClass().getInnerClasses());
+		}
+		parse.setPreviousClasses(previousClasses, changedClassNames);
+		try {
+			return this.analyze(previousResult);
+		} finally {
+			parse.setPreviousClasses(null, null);
+		}
+	}
+
+	private AnalysisResult analyze(AnalysisResult previousResult) throws ServiceException {
 
 		try {
 			LogUtil.getInstance(JDependLocalServiceImpl.class).systemLog("analyze is start!");
@@ -96,14 +124,20 @@ public final class JDependLocalServiceImpl implements JDependLocalService {
 			// 启动防作弊器
 			startAvertCheat(context);
 			// 调用解析服务
-			Collection<JavaPackage> javaPackages = parse.execute();
+			Collection<JavaPackage> javaPackages = this.javaPackages != null ? this.javaPackages : parse.execute();
 			context.setJavaPackages(new ArrayList<JavaPackage>(javaPackages));
 			// 组织成组件
 			List<Component> components = component.list(javaPackages);
 
 			LogUtil.getInstance(JDependLocalServiceImpl.class).systemLog(components.size() + " components is created!");
 			// 创建返回结果
-			final AnalysisResult result = new AnalysisResult(components, context);
+			Collection<String> affectedClassIds = parse.getAffectedClassIds();
+			final AnalysisResult result;
+			if (previousResult != null && affectedClassIds != null) {
+				result = new AnalysisResult(components, context, previousResult, affectedClassIds);
+			} else {
+				result = new AnalysisResult(components, context);
+			}
 
 			LogUtil.getInstance(JDependLocalServiceImpl.class).systemLog("analysisResult is created!");
 			// 调用分析监听器
@@ -259,4 +293,18 @@ public final class JDependLocalServiceImpl implements JDependLocalService {
 			throw new ServiceException(e);
 		}
 	}
+
+	@Override
+	public Collection<JavaPackage> parsePackages() throws ServiceException {
+		try {
+			return new ArrayList<JavaPackage>(this.parse.execute());
+		} catch (ParseException e) {
+			throw new ServiceException(e);
+		}
+	}
+
+	@Override
+	public void setJavaPackages(Collection<JavaPackage> javaPackages) {
+		this.javaPackages = javaPackages;
+	}
 }
@@ -5,6 +5,8 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 
+import jdepend.metadata.annotation.Annotation;
+import jdepend.metadata.annotation.AnnotationMgr;
 import jdepend.metadata.annotation.AnnotationParse;
 import jdepend.metadata.annotation.AnnotationRefs;
 import jdepend.metadata.annotation.Autowired;
@@ -38,7 +40,13 @@ public class Attribute extends AccessFlags {
 
 	private transient Collection<JavaClass> typeClasses;
 
-	public Attribute(JavaClass javaClass, Field field, boolean isParseAnnotation) {
+	/**
+	 * @param javaClass
+	 * @param field
+	 * @param annotationMgr
+	 *            本次分析的Annotation享元管理器，为null时不处理Annotation
+	 */
+	public Attribute(JavaClass javaClass, Field field, AnnotationMgr<Annotation> annotationMgr) {
 		this.javaClass = javaClass;
 		this.javaClassId = javaClass.getId();
 
@@ -57,17 +65,31 @@ public class Attribute extends AccessFlags {
 
 		this.annotationRefs = new AnnotationRefs();
 		// 处理Annotation
-		if (isParseAnnotation) {
+		if (annotationMgr != null) {
 			for (AnnotationEntry annotationEntry : field.getAnnotationEntries()) {
 				if (annotationEntry.getAnnotationType().equals(AnnotationParse.Autowired)) {
-					this.annotationRefs.setAutowired(AnnotationParse.parseAutowired(annotationEntry));
+					this.annotationRefs.setAutowired((Autowired) annotationMgr.getType(AnnotationParse
+							.parseAutowired(annotationEntry)));
 				} else if (annotationEntry.getAnnotationType().equals(AnnotationParse.Qualifier)) {
-					this.annotationRefs.setQualifier(AnnotationParse.parseQualifier(annotationEntry));
+					this.annotationRefs.setQualifier((Qualifier) annotationMgr.getType(AnnotationParse
+							.parseQualifier(annotationEntry)));
 				}
 			}
 		}
 	}
 
+	public Attribute(String javaClassId, int access_flags, String name, String signature, String info,
+			List<String> types, String staticValue, AnnotationRefs annotationRefs) {
+		this.javaClassId = javaClassId;
+		this.access_flags = access_flags;
+		this.name = name;
+		this.signature = signature;
+		this.info = info;
+		this.types = types;
+		this.staticValue = staticValue;
+		this.annotationRefs = annotationRefs;
+	}
+
 	public Attribute(String javaClassId, Attribute attribute) {
 		this.javaClassId = javaClassId;
 
@@ -123,6 +145,10 @@ public class Attribute extends AccessFlags {
 		return staticValue;
 	}
 
+	public AnnotationRefs getAnnotations() {
+		return annotationRefs;
+	}
+
 	public void setStaticValue(String staticValue) {
 		this.staticValue = staticValue;
 	}
@@ -10,8 +10,8 @@ public final class HttpInvokeItem extends RemoteInvokeItem {
 
 	private String url;
 
-	private transient String constantClassName;
-	private transient String constantAttributeName;
+	private String constantClassName;
+	private String constantAttributeName;
 
 	public HttpInvokeItem(String url, String constantClassName, String constantAttributeName) {
 		super();
@@ -20,6 +20,18 @@ public final class HttpInvokeItem extends RemoteInvokeItem {
 		this.constantAttributeName = constantAttributeName;
 	}
 
+	public String getUrl() {
+		return url;
+	}
+
+	public String getConstantClassName() {
+		return constantClassName;
+	}
+
+	public String getConstantAttributeName() {
+		return constantAttributeName;
+	}
+
 	/**
 	 * 补充method信息
 	 * 
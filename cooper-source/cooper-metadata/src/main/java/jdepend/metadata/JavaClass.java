@@ -2,6 +2,7 @@ package jdepend.metadata;
 
 import java.io.IOException;
 import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -36,6 +37,8 @@ public final class JavaClass extends AccessFlags implements Candidate, Comparabl
 
 	private String place;
 
+	private transient String id;// place和name确定的id，在equals和hashCode中频繁使用
+
 	public static final String Extend_PlaceName = "outer";
 
 	private JavaPackage javaPackage;
@@ -44,6 +47,8 @@ public final class JavaClass extends AccessFlags implements Candidate, Comparabl
 
 	private JavaClassDetail detail;
 
+	private transient volatile JavaClassDetailLoader detailLoader;// 延迟加载detail
+
 	private Collection<JavaClassRelationItem> caItems = new ArrayList<JavaClassRelationItem>();
 
 	private Collection<JavaClassRelationItem> ceItems = new ArrayList<JavaClassRelationItem>();
@@ -60,19 +65,21 @@ public final class JavaClass extends AccessFlags implements Candidate, Comparabl
 
 	private transient Collection<Method> methods;
 
-	private transient Map<Method, Collection<Method>> overrideMethods;
+	private transient volatile Map<String, Map<String, Method>> methodIndex;// 方法名 -> 签名 -> 方法
+
+	private transient volatile Map<Method, Collection<Method>> overrideMethods;
 
 	private transient Map<Method, Collection<Method>> subOverrideMethods;
 
-	private transient Collection<JavaClass> supers;
+	private transient volatile Collection<JavaClass> supers;
 
-	private transient Collection<JavaClass> superClasses;
+	private transient volatile Collection<JavaClass> superClasses;
 
-	private transient Collection<JavaClass> interfaces;
+	private transient volatile Collection<JavaClass> interfaces;
 
 	private transient Collection<JavaClass> subClasses;
 
-	private transient Collection<JavaClass> subAllClasses;
+	private transient volatile Collection<JavaClass> subAllClasses;
 
 	private transient Collection<JavaClassRelationItem> allCaItems;
 
@@ -117,11 +124,17 @@ public final class JavaClass extends AccessFlags implements Candidate, Comparabl
 
 	public void setPlace(String place) {
 		this.place = place;
+		this.id = null;
 	}
 
 	@Override
 	public String getId() {
-		return CandidateUtil.getId(this);
+		String id = this.id;
+		if (id == null) {
+			id = CandidateUtil.getId(this);
+			this.id = id;
+		}
+		return id;
 	}
 
 	@Override
@@ -131,6 +144,7 @@ public final class JavaClass extends AccessFlags implements Candidate, Comparabl
 
 	public void setName(String name) {
 		this.name = name;
+		this.id = null;
 	}
 
 	@Override
@@ -224,6 +238,10 @@ public final class JavaClass extends AccessFlags implements Candidate, Comparabl
 	}
 
 	public JavaClassDetail getDetail() {
+		JavaClassDetailLoader loader = this.detailLoader;
+		if (loader != null) {
+			loader.load(this);
+		}
 		return detail;
 	}
 
@@ -231,12 +249,31 @@ public final class JavaClass extends AccessFlags implements Candidate, Comparabl
 		this.detail = detail;
 	}
 
+	/**
+	 * 设置JavaClassDetail的延迟加载器，第一次访问detail时调用
+	 * 
+	 * @param detailLoader
+	 *            为null时表示detail已经加载
+	 */
+	public void setDetailLoader(JavaClassDetailLoader detailLoader) {
+		this.detailLoader = detailLoader;
+	}
+
+	/**
+	 * 在获取本对象的锁之前加载detail，避免持有锁时等待其他线程填充detail
+	 */
+	private void loadDetail() {
+		if (this.detailLoader != null) {
+			this.getDetail();
+		}
+	}
+
 	public Collection<Attribute> getAttributes() {
-		return this.detail.getAttributes();
+		return this.getDetail().getAttributes();
 	}
 
 	public Attribute getTheAttribute(String name) {
-		return this.detail.getTheAttribute(name);
+		return this.getDetail().getTheAttribute(name);
 	}
 
 	/**
@@ -245,7 +282,7 @@ public final class JavaClass extends AccessFlags implements Candidate, Comparabl
 	 * @return
 	 */
 	public Collection<Method> getSelfMethods() {
-		return this.detail.getMethods();
+		return this.getDetail().getMethods();
 	}
 
 	public Method getTheMethod(String info) {
@@ -257,11 +294,66 @@ public final class JavaClass extends AccessFlags implements Candidate, Comparabl
 		return null;
 	}
 
-	public synchronized String getClassType() {
-		if (this.classType == null) {
-			this.classType = JavaClassUtil.getType(this).getType();
+	/**
+	 * 按方法名和签名查找其他类可以使用的方法（包含继承父类的方法）
+	 * 
+	 * 签名含泛型的方法也可以用去掉泛型后的签名查找。索引在第一次查找时建立。
+	 * 
+	 * @param name
+	 * @param signature
+	 * @return
+	 */
+	public Method getTheMethod(String name, String signature) {
+		Map<String, Map<String, Method>> index = this.methodIndex;
+		if (index == null) {
+			index = this.createMethodIndex(this.getMethods());
+		}
+		Map<String, Method> signatures = index.get(name);
+		if (signatures == null) {
+			return null;
+		} else {
+			return signatures.get(signature);
+		}
+	}
+
+	private synchronized Map<String, Map<String, Method>> createMethodIndex(Collection<Method> methods) {
+		if (this.methodIndex == null) {
+			Map<String, Map<String, Method>> index = new HashMap<String, Map<String, Method>>();
+			Map<String, Method> signatures;
+			for (Method method : methods) {
+				signatures = index.get(method.getName());
+				if (signatures == null) {
+					signatures = new HashMap<String, Method>(2);
+					index.put(method.getName(), signatures);
+				}
+				if (!signatures.containsKey(method.getSignature())) {
+					signatures.put(method.getSignature(), method);
+				}
+			}
+			// 签名完全一致的方法优先于去掉泛型后一致的方法
+			String filteredSignature;
+			for (Method method : methods) {
+				if (method.getSignature().indexOf('<') != -1) {
+					filteredSignature = ParseUtil.filterGenerics(method.getSignature());
+					signatures = index.get(method.getName());
+					if (!signatures.containsKey(filteredSignature)) {
+						signatures.put(filteredSignature, method);
+					}
+				}
+			}
+			this.methodIndex = index;
+		}
+		return this.methodIndex;
+	}
+
+	public String getClassType() {
+		this.loadDetail();
+		synchronized (this) {
+			if (this.classType == null) {
+				this.classType = JavaClassUtil.getType(this).getType();
+			}
+			return this.classType;
 		}
-		return this.classType;
 	}
 
 	/**
@@ -269,25 +361,34 @@ public final class JavaClass extends AccessFlags implements Candidate, Comparabl
 	 * 
 	 * @return
 	 */
-	public synchronized Map<Method, Collection<Method>> calOverrideMethods() {
-		if (this.overrideMethods == null) {
-			this.overrideMethods = new HashMap<Method, Collection<Method>>();
-			for (JavaClass superClass : this.getSupers()) {
-				for (Method method : superClass.getSelfMethods()) {
-					if (!method.isConstruction() && (method.isPublic() || method.isProtected())) {
-						for (Method selfMethod : this.getSelfMethods()) {
-							if (selfMethod.isOverride(method)) {
-								if (!this.overrideMethods.containsKey(selfMethod)) {
-									this.overrideMethods.put(selfMethod, new HashSet<Method>());
-								}
-								this.overrideMethods.get(selfMethod).add(method);
+	public Map<Method, Collection<Method>> calOverrideMethods() {
+		Map<Method, Collection<Method>> overrideMethods = this.overrideMethods;
+		if (overrideMethods != null) {
+			return overrideMethods;
+		}
+		this.loadDetail();
+		// 在锁外计算，避免持有自身的锁时再获取父类的锁
+		overrideMethods = new HashMap<Method, Collection<Method>>();
+		for (JavaClass superClass : this.getSupers()) {
+			for (Method method : superClass.getSelfMethods()) {
+				if (!method.isConstruction() && (method.isPublic() || method.isProtected())) {
+					for (Method selfMethod : this.getSelfMethods()) {
+						if (selfMethod.isOverride(method)) {
+							if (!overrideMethods.containsKey(selfMethod)) {
+								overrideMethods.put(selfMethod, new HashSet<Method>());
 							}
+							overrideMethods.get(selfMethod).add(method);
 						}
 					}
 				}
 			}
 		}
-		return this.overrideMethods;
+		synchronized (this) {
+			if (this.overrideMethods == null) {
+				this.overrideMethods = overrideMethods;
+			}
+			return this.overrideMethods;
+		}
 	}
 
 	/**
@@ -334,25 +435,28 @@ public final class JavaClass extends AccessFlags implements Candidate, Comparabl
 	 * 
 	 * @return
 	 */
-	public synchronized Map<Method, Collection<Method>> calSubOverrideMethods() {
-		if (this.subOverrideMethods == null) {
-			this.subOverrideMethods = new HashMap<Method, Collection<Method>>();
-			for (JavaClass subClass : this.getSubClasses()) {
-				for (Method method : subClass.getSelfMethods()) {
-					if (!method.isConstruction() && (method.isPublic() || method.isProtected())) {
-						for (Method selfMethod : this.getSelfMethods()) {
-							if (method.isOverride(selfMethod)) {
-								if (!this.subOverrideMethods.containsKey(selfMethod)) {
-									this.subOverrideMethods.put(selfMethod, new HashSet<Method>());
+	public Map<Method, Collection<Method>> calSubOverrideMethods() {
+		this.loadDetail();
+		synchronized (this) {
+			if (this.subOverrideMethods == null) {
+				this.subOverrideMethods = new HashMap<Method, Collection<Method>>();
+				for (JavaClass subClass : this.getSubClasses()) {
+					for (Method method : subClass.getSelfMethods()) {
+						if (!method.isConstruction() && (method.isPublic() || method.isProtected())) {
+							for (Method selfMethod : this.getSelfMethods()) {
+								if (method.isOverride(selfMethod)) {
+									if (!this.subOverrideMethods.containsKey(selfMethod)) {
+										this.subOverrideMethods.put(selfMethod, new HashSet<Method>());
+									}
+									this.subOverrideMethods.get(selfMethod).add(method);
 								}
-								this.subOverrideMethods.get(selfMethod).add(method);
 							}
 						}
 					}
 				}
 			}
+			return this.subOverrideMethods;
 		}
-		return this.subOverrideMethods;
 	}
 
 	/**
@@ -414,37 +518,40 @@ public final class JavaClass extends AccessFlags implements Candidate, Comparabl
 	 * 
 	 * @return
 	 */
-	public synchronized Collection<Method> getMethods() {
-		if (this.methods == null) {
-			boolean isOverride;
-			this.methods = new HashSet<Method>();
-			for (JavaClass superClass : this.getSupers()) {
-				for (Method method : superClass.getSelfMethods()) {
-					if (!method.isConstruction() && (method.isPublic() || method.isProtected())) {
-						isOverride = false;
-						L: for (Method selfMethod : this.getSelfMethods()) {
-							if (selfMethod.isOverride(method)) {
-								isOverride = true;
-								break L;
+	public Collection<Method> getMethods() {
+		this.loadDetail();
+		synchronized (this) {
+			if (this.methods == null) {
+				boolean isOverride;
+				this.methods = new HashSet<Method>();
+				for (JavaClass superClass : this.getSupers()) {
+					for (Method method : superClass.getSelfMethods()) {
+						if (!method.isConstruction() && (method.isPublic() || method.isProtected())) {
+							isOverride = false;
+							L: for (Method selfMethod : this.getSelfMethods()) {
+								if (selfMethod.isOverride(method)) {
+									isOverride = true;
+									break L;
+								}
+							}
+							if (!isOverride) {
+								this.methods.add(method);
 							}
-						}
-						if (!isOverride) {
-							this.methods.add(method);
 						}
 					}
 				}
+				this.methods.addAll(this.getSelfMethods());
 			}
-			this.methods.addAll(this.getSelfMethods());
+			return this.methods;
 		}
-		return this.methods;
 	}
 
 	public void addSelfMethod(Method method) {
-		this.detail.addMethod(method);
+		this.getDetail().addMethod(method);
 	}
 
 	public Collection<TableInfo> getTables() {
-		return this.detail.getTables();
+		return this.getDetail().getTables();
 	}
 
 	/**
@@ -452,13 +559,21 @@ public final class JavaClass extends AccessFlags implements Candidate, Comparabl
 	 * 
 	 * @return
 	 */
-	public synchronized Collection<JavaClass> getSupers() {
-		if (this.supers == null) {
-			supers = new HashSet<JavaClass>();
-			supers.addAll(this.getSuperClasses());
-			supers.addAll(this.getAllInterfaces());
+	public Collection<JavaClass> getSupers() {
+		Collection<JavaClass> supers = this.supers;
+		if (supers != null) {
+			return supers;
+		}
+		this.loadDetail();
+		supers = new HashSet<JavaClass>();
+		supers.addAll(this.getSuperClasses());
+		supers.addAll(this.getAllInterfaces());
+		synchronized (this) {
+			if (this.supers == null) {
+				this.supers = supers;
+			}
+			return this.supers;
 		}
-		return this.supers;
 	}
 
 	/**
@@ -466,16 +581,23 @@ public final class JavaClass extends AccessFlags implements Candidate, Comparabl
 	 * 
 	 * @return
 	 */
-	private synchronized Collection<JavaClass> getSuperClasses() {
-		if (this.superClasses == null) {
-			this.superClasses = new HashSet<JavaClass>();
-			JavaClass superClass = this.getSuperClass();
-			if (superClass != null) {
-				superClasses.add(superClass);
-				superClasses.addAll(superClass.getSuperClasses());
+	private Collection<JavaClass> getSuperClasses() {
+		Collection<JavaClass> superClasses = this.superClasses;
+		if (superClasses != null) {
+			return superClasses;
+		}
+		superClasses = new HashSet<JavaClass>();
+		JavaClass superClass = this.getSuperClass();
+		if (superClass != null) {
+			superClasses.add(superClass);
+			superClasses.addAll(superClass.getSuperClasses());
+		}
+		synchronized (this) {
+			if (this.superClasses == null) {
+				this.superClasses = superClasses;
 			}
+			return this.superClasses;
 		}
-		return this.superClasses;
 	}
 
 	/**
@@ -483,19 +605,26 @@ public final class JavaClass extends AccessFlags implements Candidate, Comparabl
 	 * 
 	 * @return
 	 */
-	private synchronized Collection<JavaClass> getAllInterfaces() {
-		if (this.interfaces == null) {
-			this.interfaces = new HashSet<JavaClass>();
-			for (JavaClass interfaceClass : this.getInterfaces()) {
-				this.interfaces.add(interfaceClass);
-				Collection<JavaClass> interfaceClasses = interfaceClass.getInterfaces();
-				for (JavaClass interfaceClass1 : interfaceClasses) {
-					this.interfaces.add(interfaceClass1);
-					this.interfaces.addAll(interfaceClass1.getAllInterfaces());
-				}
+	private Collection<JavaClass> getAllInterfaces() {
+		Collection<JavaClass> interfaces = this.interfaces;
+		if (interfaces != null) {
+			return interfaces;
+		}
+		interfaces = new HashSet<JavaClass>();
+		for (JavaClass interfaceClass : this.getInterfaces()) {
+			interfaces.add(interfaceClass);
+			Collection<JavaClass> interfaceClasses = interfaceClass.getInterfaces();
+			for (JavaClass interfaceClass1 : interfaceClasses) {
+				interfaces.add(interfaceClass1);
+				interfaces.addAll(interfaceClass1.getAllInterfaces());
 			}
 		}
-		return this.interfaces;
+		synchronized (this) {
+			if (this.interfaces == null) {
+				this.interfaces = interfaces;
+			}
+			return this.interfaces;
+		}
 	}
 
 	/**
@@ -503,33 +632,49 @@ public final class JavaClass extends AccessFlags implements Candidate, Comparabl
 	 * 
 	 * @return
 	 */
-	public synchronized Collection<JavaClass> getSelfSupers() {
+	public Collection<JavaClass> getSelfSupers() {
+		this.loadDetail();
+		synchronized (this) {
 
-		Collection<JavaClass> selfSupers = new HashSet<JavaClass>();
+			Collection<JavaClass> selfSupers = new HashSet<JavaClass>();
 
-		selfSupers.add(this.getSuperClass());
-		selfSupers.addAll(this.getInterfaces());
+			selfSupers.add(this.getSuperClass());
+			selfSupers.addAll(this.getInterfaces());
 
-		return selfSupers;
+			return selfSupers;
+		}
 	}
 
 	public Collection<JavaClass> getInterfaces() {
-		return this.detail.getInterfaces();
+		return this.getDetail().getInterfaces();
 	}
 
 	public JavaClass getSuperClass() {
-		return this.detail.getSuperClass();
+		return this.getDetail().getSuperClass();
 	}
 
-	public synchronized Collection<JavaClass> getSubClasses() {
-		if (this.subAllClasses == null) {
-			this.subAllClasses = new HashSet<JavaClass>();
-			this.subAllClasses.addAll(this.subClasses);
-			for (JavaClass subClass : subClasses) {
-				this.subAllClasses.addAll(subClass.getSubClasses());
+	public Collection<JavaClass> getSubClasses() {
+		Collection<JavaClass> subAllClasses = this.subAllClasses;
+		if (subAllClasses != null) {
+			return subAllClasses;
+		}
+		// 子类关系在填充子类的JavaClassDetail时建立
+		this.loadDetail();
+		// 在锁外计算，避免持有自身的锁时再获取子类的锁
+		Collection<JavaClass> subClasses;
+		synchronized (this) {
+			subClasses = new ArrayList<JavaClass>(this.subClasses);
+		}
+		subAllClasses = new HashSet<JavaClass>(subClasses);
+		for (JavaClass subClass : subClasses) {
+			subAllClasses.addAll(subClass.getSubClasses());
+		}
+		synchronized (this) {
+			if (this.subAllClasses == null) {
+				this.subAllClasses = subAllClasses;
 			}
+			return this.subAllClasses;
 		}
-		return this.subAllClasses;
 	}
 
 	public synchronized void addSubClass(JavaClass javaClass) {
@@ -628,12 +773,15 @@ public final class JavaClass extends AccessFlags implements Candidate, Comparabl
 		this.lineCount = lineCount;
 	}
 
-	public synchronized boolean isState() {
-		if (this.haveState == UnCalculate) {
-			this.haveState = this.searchState();
-		}
+	public boolean isState() {
+		this.loadDetail();
+		synchronized (this) {
+			if (this.haveState == UnCalculate) {
+				this.haveState = this.searchState();
+			}
 
-		return this.haveState == HaveState;
+			return this.haveState == HaveState;
+		}
 	}
 
 	public void setState(boolean haveState) {
@@ -653,7 +801,7 @@ public final class JavaClass extends AccessFlags implements Candidate, Comparabl
 	}
 
 	public Transactional getTransactional() {
-		return this.detail.getAnnotations().getTransactional();
+		return this.getDetail().getAnnotations().getTransactional();
 	}
 
 	public boolean haveBusinessMethod() {
@@ -804,7 +952,7 @@ public final class JavaClass extends AccessFlags implements Candidate, Comparabl
 
 	@Override
 	public String toString() {
-		return this.detail.toString();
+		return this.getDetail().toString();
 	}
 
 	public void clear() {
@@ -912,6 +1060,12 @@ public final class JavaClass extends AccessFlags implements Candidate, Comparabl
 		}
 	}
 
+	private void writeObject(ObjectOutputStream oos) throws IOException {
+		// 序列化前加载延迟加载的detail
+		this.loadDetail();
+		oos.defaultWriteObject();
+	}
+
 	private void readObject(ObjectInputStream ois) throws IOException, ClassNotFoundException {
 		ois.defaultReadObject();
 		this.subClasses = new HashSet<JavaClass>();
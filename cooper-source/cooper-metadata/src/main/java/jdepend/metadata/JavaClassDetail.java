@@ -10,11 +10,14 @@ import java.util.HashSet;
 import java.util.Map;
 
 import jdepend.framework.util.StringUtil;
+import jdepend.metadata.annotation.Annotation;
 import jdepend.metadata.annotation.AnnotationDefs;
+import jdepend.metadata.annotation.AnnotationMgr;
 import jdepend.metadata.annotation.AnnotationParse;
 import jdepend.metadata.annotation.Controller;
 import jdepend.metadata.annotation.RequestMapping;
 import jdepend.metadata.annotation.Service;
+import jdepend.metadata.annotation.Transactional;
 import jdepend.metadata.util.JavaClassCollection;
 
 import org.apache.bcel.classfile.AnnotationEntry;
@@ -66,7 +69,14 @@ public class JavaClassDetail implements Serializable {
 		this.annotationDefs = new AnnotationDefs();
 	}
 
-	public void parseAnnotation(org.apache.bcel.classfile.JavaClass obj) {
+	/**
+	 * 处理类上的Annotation
+	 * 
+	 * @param obj
+	 * @param annotationMgr
+	 *            本次分析的Annotation享元管理器
+	 */
+	public void parseAnnotation(org.apache.bcel.classfile.JavaClass obj, AnnotationMgr<Annotation> annotationMgr) {
 		// 处理Annotation
 		for (AnnotationEntry annotationEntry : obj.getAnnotationEntries()) {
 			if (annotationEntry.getAnnotationType().equals(AnnotationParse.Table)) {
@@ -75,13 +85,17 @@ public class JavaClassDetail implements Serializable {
 					this.addTable(tableInfo);
 				}
 			} else if (annotationEntry.getAnnotationType().equals(AnnotationParse.Transactional)) {
-				this.annotationDefs.setTransactional(AnnotationParse.parseTransactional(annotationEntry));
+				this.annotationDefs.setTransactional((Transactional) annotationMgr.getType(AnnotationParse
+						.parseTransactional(annotationEntry)));
 			} else if (annotationEntry.getAnnotationType().equals(AnnotationParse.RequestMapping)) {
-				this.annotationDefs.setRequestMapping(AnnotationParse.parseRequestMapping(annotationEntry));
+				this.annotationDefs.setRequestMapping((RequestMapping) annotationMgr.getType(AnnotationParse
+						.parseRequestMapping(annotationEntry)));
 			} else if (annotationEntry.getAnnotationType().equals(AnnotationParse.Controller)) {
-				this.annotationDefs.setController(AnnotationParse.parseController(annotationEntry));
+				this.annotationDefs.setController((Controller) annotationMgr.getType(AnnotationParse
+						.parseController(annotationEntry)));
 			} else if (annotationEntry.getAnnotationType().equals(AnnotationParse.Service)) {
-				this.annotationDefs.setService(AnnotationParse.parseService(annotationEntry));
+				this.annotationDefs.setService((Service) annotationMgr.getType(AnnotationParse
+						.parseService(annotationEntry)));
 			}
 		}
 	}
@@ -281,6 +295,9 @@ public class JavaClassDetail implements Serializable {
 		ois.defaultReadObject();
 		this.interfaces = new HashSet<JavaClass>();
 		this.attributeForNames = new HashMap<String, Attribute>();
+		for (Attribute attribute : this.attributes) {
+			this.attributeForNames.put(attribute.getName(), attribute);
+		}
 	}
 
 	public JavaClassDetail clone(JavaClass javaClass) {
@@ -0,0 +1,19 @@
+package jdepend.metadata;
+
+/**
+ * JavaClassDetail的延迟加载器
+ * 
+ * 从紧凑格式读取分析结果时，JavaClassDetail在第一次被访问时才解码并填充。
+ * 
+ * @author user
+ * 
+ */
+public interface JavaClassDetailLoader {
+
+	/**
+	 * 加载javaClass的detail，完成后通过JavaClass.setDetail设置并清除JavaClass上的加载器
+	 * 
+	 * @param javaClass
+	 */
+	public void load(JavaClass javaClass);
+}
@@ -28,6 +28,10 @@ public final class LocalInvokeItem extends InvokeItem {
 		this.invokeMethodSignature = invokeMethodSignature;
 	}
 
+	public String getInvokeType() {
+		return invokeType;
+	}
+
 	public String getInvokeClassPlace() {
 		return invokeClassPlace;
 	}
@@ -54,11 +58,10 @@ public final class LocalInvokeItem extends InvokeItem {
 	public boolean supplyCallee(JavaClassCollection javaClasses) {
 		JavaClass invokeClass = javaClasses.getTheClass(invokeClassPlace, invokeClassName);
 		if (invokeClass != null) {
-			for (Method invokeMethod : invokeClass.getMethods()) {
-				if (this.math2(invokeMethod)) {
-					this.setCallee(invokeMethod);
-					return true;
-				}
+			Method invokeMethod = invokeClass.getTheMethod(invokeMethodName, invokeMethodSignature);
+			if (invokeMethod != null) {
+				this.setCallee(invokeMethod);
+				return true;
 			}
 		}
 		return false;
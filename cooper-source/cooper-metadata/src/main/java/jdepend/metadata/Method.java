@@ -4,14 +4,18 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 
 import jdepend.framework.log.LogUtil;
+import jdepend.metadata.annotation.Annotation;
 import jdepend.metadata.annotation.AnnotationDefs;
+import jdepend.metadata.annotation.AnnotationMgr;
 import jdepend.metadata.annotation.AnnotationParse;
 import jdepend.metadata.annotation.RequestMapping;
 import jdepend.metadata.annotation.Transactional;
+import jdepend.metadata.util.CallGraph;
 import jdepend.metadata.util.JavaClassCollection;
 import jdepend.metadata.util.MethodUtil;
 import jdepend.metadata.util.ParseUtil;
@@ -61,9 +65,11 @@ public class Method extends AccessFlags {
 
 	private transient Collection<Method> invokedMethods;
 
-	private transient Collection<InvokeItem> cascadeInvokedItems;
+	private transient volatile Collection<InvokeItem> cascadeInvokedItems;
 
-	private transient Collection<Method> cascadeInvokedMethods;
+	private transient volatile Collection<Method> cascadeInvokedMethods;
+
+	private transient volatile CallGraph callGraph;
 
 	private transient JavaClass javaClass;
 
@@ -74,7 +80,14 @@ public class Method extends AccessFlags {
 	public Method() {
 	}
 
-	public Method(JavaClass javaClass, org.apache.bcel.classfile.Method method, boolean isParseAnnotation) {
+	/**
+	 * @param javaClass
+	 * @param method
+	 * @param annotationMgr
+	 *            本次分析的Annotation享元管理器，为null时不处理Annotation
+	 */
+	public Method(JavaClass javaClass, org.apache.bcel.classfile.Method method,
+			AnnotationMgr<Annotation> annotationMgr) {
 		this.javaClass = javaClass;
 		this.javaClassId = javaClass.getId();
 		this.access_flags = method.getAccessFlags();
@@ -90,17 +103,35 @@ public class Method extends AccessFlags {
 
 		this.annotationDefs = new AnnotationDefs();
 		// 处理Annotation
-		if (isParseAnnotation) {
+		if (annotationMgr != null) {
 			for (AnnotationEntry annotationEntry : method.getAnnotationEntries()) {
 				if (annotationEntry.getAnnotationType().equals(AnnotationParse.Transactional)) {
-					this.annotationDefs.setTransactional(AnnotationParse.parseTransactional(annotationEntry));
+					this.annotationDefs.setTransactional((Transactional) annotationMgr.getType(AnnotationParse
+							.parseTransactional(annotationEntry)));
 				} else if (annotationEntry.getAnnotationType().equals(AnnotationParse.RequestMapping)) {
-					this.annotationDefs.setRequestMapping(AnnotationParse.parseRequestMapping(annotationEntry));
+					this.annotationDefs.setRequestMapping((RequestMapping) annotationMgr.getType(AnnotationParse
+							.parseRequestMapping(annotationEntry)));
 				}
 			}
 		}
 	}
 
+	public Method(String javaClassId, int access_flags, String name, String signature, String info,
+			AnnotationDefs annotationDefs) {
+		this.javaClassId = javaClassId;
+		this.access_flags = access_flags;
+		this.name = name;
+		this.signature = signature;
+		this.info = info;
+		this.argumentCount = this.calArgumentCount();
+		this.invokeItems = new ArrayList<InvokeItem>();
+		this.readFields = new ArrayList<Attribute>();
+		this.writeFields = new ArrayList<Attribute>();
+		this.selfLineCount = -1;
+		this.invokedItems = new HashSet<InvokeItem>();
+		this.annotationDefs = annotationDefs;
+	}
+
 	public Method(String javaClassId, Method method) {
 
 		this.javaClassId = javaClassId;
@@ -151,6 +182,10 @@ public class Method extends AccessFlags {
 		return this.annotationDefs.getTransactional();
 	}
 
+	public AnnotationDefs getAnnotations() {
+		return annotationDefs;
+	}
+
 	public Collection<InvokeItem> getInvokeItems() {
 		return invokeItems;
 	}
@@ -183,26 +218,61 @@ public class Method extends AccessFlags {
 		return invokedMethods;
 	}
 
-	public synchronized Collection<InvokeItem> getCascadeInvokedItems() {
-		if (cascadeInvokedItems == null) {
-			cascadeInvokedItems = new HashSet<InvokeItem>();
-			cascadeInvokedItems.addAll(this.getInvokedItems());
-			for (Method method : this.getInvokedMethods()) {
-				cascadeInvokedItems.addAll(method.getInvokedItems());
-				cascadeInvokedItems.addAll(method.getCascadeInvokedItems());
-			}
+	/**
+	 * 得到调用该方法以及直接或间接调用该方法的方法的全部InvokeItem
+	 * 
+	 * @return
+	 */
+	public Collection<InvokeItem> getCascadeInvokedItems() {
+		Collection<InvokeItem> items = this.cascadeInvokedItems;
+		if (items == null) {
+			items = this.getCallGraph().getCascadeInvokedItems(this);
+			this.cascadeInvokedItems = items;
+		}
+		return items;
+	}
+
+	/**
+	 * 得到直接或间接调用该方法的方法
+	 * 
+	 * @return
+	 */
+	public Collection<Method> getCascadeInvokedMethods() {
+		Collection<Method> methods = this.cascadeInvokedMethods;
+		if (methods == null) {
+			methods = this.getCallGraph().getCascadeInvokedMethods(this);
+			this.cascadeInvokedMethods = methods;
 		}
-		return cascadeInvokedItems;
+		return methods;
 	}
 
-	public synchronized Collection<Method> getCascadeInvokedMethods() {
-		if (cascadeInvokedMethods == null) {
-			cascadeInvokedMethods = new HashSet<Method>();
-			for (InvokeItem invokeItem : getCascadeInvokedItems()) {
-				cascadeInvokedMethods.add(invokeItem.getCaller());
+	/**
+	 * 得到该方法所在的调用图
+	 * 
+	 * 未设置时由该方法通过调用关系可达的方法建立，并设置到其中的全部方法上。
+	 * 
+	 * @return
+	 */
+	public CallGraph getCallGraph() {
+		CallGraph graph = this.callGraph;
+		if (graph == null) {
+			graph = new CallGraph(Collections.singleton(this));
+			for (Method method : graph.getMethods()) {
+				method.setCallGraph(graph);
 			}
 		}
-		return cascadeInvokedMethods;
+		return graph;
+	}
+
+	/**
+	 * 设置该方法所在的调用图，清除按原调用图计算的结果
+	 * 
+	 * @param callGraph
+	 */
+	public void setCallGraph(CallGraph callGraph) {
+		this.callGraph = callGraph;
+		this.cascadeInvokedItems = null;
+		this.cascadeInvokedMethods = null;
 	}
 
 	public Collection<Attribute> getReadFields() {
@@ -23,6 +23,22 @@ public final class RMIInvokeItem extends RemoteInvokeItem {
 		this.callee = item.callee;
 	}
 
+	public String getInvokeClassPlace() {
+		return invokeClassPlace;
+	}
+
+	public String getInvokeClassName() {
+		return invokeClassName;
+	}
+
+	public String getInvokeMethodName() {
+		return invokeMethodName;
+	}
+
+	public String getInvokeMethodSignature() {
+		return invokeMethodSignature;
+	}
+
 	/**
 	 * 补充method信息
 	 * 
@@ -33,11 +49,10 @@ public final class RMIInvokeItem extends RemoteInvokeItem {
 	public boolean supplyCallee(JavaClassCollection javaClasses) {
 		JavaClass invokeClass = javaClasses.getTheClass(invokeClassPlace, invokeClassName);
 		if (invokeClass != null) {
-			for (Method invokeMethod : invokeClass.getMethods()) {
-				if (this.math2(invokeMethod)) {
-					this.setCallee(invokeMethod);
-					return true;
-				}
+			Method invokeMethod = invokeClass.getTheMethod(invokeMethodName, invokeMethodSignature);
+			if (invokeMethod != null) {
+				this.setCallee(invokeMethod);
+				return true;
 			}
 		}
 		return false;
@@ -19,7 +19,7 @@ public class AnnotationDefs implements Serializable {
 	}
 
 	public void setTransactional(Transactional transactional) {
-		this.transactional = (Transactional) AnnotationMgr.getInstance().getType(transactional);
+		this.transactional = transactional;
 	}
 
 	public RequestMapping getRequestMapping() {
@@ -27,7 +27,7 @@ public class AnnotationDefs implements Serializable {
 	}
 
 	public void setRequestMapping(RequestMapping requestMapping) {
-		this.requestMapping = (RequestMapping) AnnotationMgr.getInstance().getType(requestMapping);
+		this.requestMapping = requestMapping;
 	}
 
 	public Controller getController() {
@@ -35,7 +35,7 @@ public class AnnotationDefs implements Serializable {
 	}
 
 	public void setController(Controller controller) {
-		this.controller = (Controller) AnnotationMgr.getInstance().getType(controller);
+		this.controller = controller;
 	}
 
 	public Service getService() {
@@ -43,7 +43,7 @@ public class AnnotationDefs implements Serializable {
 	}
 
 	public void setService(Service service) {
-		this.service = (Service) AnnotationMgr.getInstance().getType(service);
+		this.service = service;
 	}
 
 }
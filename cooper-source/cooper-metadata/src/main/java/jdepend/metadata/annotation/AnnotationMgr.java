@@ -1,60 +1,51 @@
 package jdepend.metadata.annotation;
 
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Flyweight模式 用于减少Annotation被创建的量
  * 
+ * 每次分析使用各自的实例，分析结束后随分析上下文释放。以Annotation自身为键保存首次出现的实例，
+ * 不同类型的Annotation通过equals中的类型比较区分；多个解析线程同时调用时不需要加锁。
+ * 
  * @author Administrator
  *
  * @param <T>
  */
 public class AnnotationMgr<T extends Annotation> {
 
-	private static final AnnotationMgr<Annotation> mgr = new AnnotationMgr<Annotation>();
-
-	private Map<String, Collection<T>> elements;
-
-	private AnnotationMgr() {
-	}
+	private final ConcurrentMap<T, T> elements = new ConcurrentHashMap<T, T>();
 
-	public static AnnotationMgr<Annotation> getInstance() {
-		return mgr;
+	public AnnotationMgr() {
 	}
 
-	public synchronized T getType(T t) {
-		if (elements == null) {
-			elements = new HashMap<String, Collection<T>>();
+	/**
+	 * 得到与t相等的共享实例，t加入后不能再修改
+	 * 
+	 * @param t
+	 * @return t为null时返回null
+	 */
+	public T getType(T t) {
+		if (t == null) {
+			return null;
 		}
-		Collection<T> types = elements.get(t.getClass().getName());
-		if (types == null) {
-			types = new HashSet<T>();
-			elements.put(t.getClass().getName(), types);
-		}
-		if (!types.contains(t)) {
-			types.add(t);
-		}
-		T t1;
-		Iterator<T> it = types.iterator();
-		while (it.hasNext()) {
-			t1 = it.next();
-			if (t1.equals(t)) {
-				return t1;
+		T type = elements.get(t);
+		if (type == null) {
+			type = elements.putIfAbsent(t, t);
+			if (type == null) {
+				type = t;
 			}
 		}
-		return null;
+		return type;
 	}
 
-	public synchronized void clear() {
-		elements = null;
+	public int size() {
+		return elements.size();
 	}
-	
-	public synchronized void init() {
-		elements = null;
+
+	public void clear() {
+		elements.clear();
 	}
 
 }
@@ -15,7 +15,7 @@ public class AnnotationRefs implements Serializable {
 	}
 
 	public void setAutowired(Autowired autowired) {
-		this.autowired = (Autowired) AnnotationMgr.getInstance().getType(autowired);
+		this.autowired = autowired;
 	}
 
 	public Qualifier getQualifier() {
@@ -23,6 +23,6 @@ public class AnnotationRefs implements Serializable {
 	}
 
 	public void setQualifier(Qualifier qualifier) {
-		this.qualifier = (Qualifier) AnnotationMgr.getInstance().getType(qualifier);
+		this.qualifier = qualifier;
 	}
 }
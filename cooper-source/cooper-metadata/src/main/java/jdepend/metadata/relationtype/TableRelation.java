@@ -1,8 +1,10 @@
 package jdepend.metadata.relationtype;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 import jdepend.metadata.JavaClass;
@@ -19,6 +21,11 @@ public class TableRelation extends BaseJavaClassRelationType {
 
 	private String tableName;
 
+	/**
+	 * 表名（大写）与写入或定义该表的Class列表的索引，在init中建立
+	 */
+	private transient Map<String, List<JavaClass>> writeAndDefineClasses;
+
 	public TableRelation(float intensity) {
 		super(JavaClassRelationTypes.Table, intensity);
 	}
@@ -64,7 +71,7 @@ public class TableRelation extends BaseJavaClassRelationType {
 			L: for (TableInfo tableInfo : javaClass.getDetail().getTables()) {
 				if (tableInfo.isDefine()) {
 					littleClassName = javaClass.getName().substring(javaClass.getName().lastIndexOf('.') + 1)
-							.toUpperCase();
+							.toUpperCase(Locale.ROOT);
 					entryMapTableName.put(littleClassName, tableInfo.getTableName());
 
 					break L;
@@ -83,6 +90,25 @@ public class TableRelation extends BaseJavaClassRelationType {
 				}
 			}
 		}
+		// 建立表名索引
+		Map<String, List<JavaClass>> writeAndDefineClasses = new HashMap<String, List<JavaClass>>();
+		String key;
+		List<JavaClass> classes;
+		for (JavaClass javaClass : javaClasses.getJavaClasses()) {
+			for (TableInfo tableInfo : javaClass.getDetail().getTables()) {
+				if (tableInfo.isWrite()// 目标为写
+						|| tableInfo.isDefine()) {// 目标为定义
+					key = tableInfo.getTableName().toUpperCase(Locale.ROOT);
+					classes = writeAndDefineClasses.get(key);
+					if (classes == null) {
+						classes = new ArrayList<JavaClass>();
+						writeAndDefineClasses.put(key, classes);
+					}
+					classes.add(javaClass);
+				}
+			}
+		}
+		this.writeAndDefineClasses = writeAndDefineClasses;
 	}
 
 	@Override
@@ -94,7 +120,7 @@ public class TableRelation extends BaseJavaClassRelationType {
 				if (!tableInfo.isDefine()) {
 					// 判断是否忽略指定表的关系建立
 					if (!this.getTypes().isIgnoreTableInfo(tableInfo)) {
-						List<JavaClass> dependJavaClasses = getWriteAndDefineToTableClasses(tableInfo, javaClasses);
+						List<JavaClass> dependJavaClasses = getWriteAndDefineToTableClasses(tableInfo);
 						for (JavaClass dependJavaClass1 : dependJavaClasses) {
 							if (setDependInfo(javaClass, dependJavaClass1, this.clone(tableInfo.getTableName()))) {
 								isCreate = true;
@@ -107,20 +133,13 @@ public class TableRelation extends BaseJavaClassRelationType {
 		return isCreate;
 	}
 
-	private List<JavaClass> getWriteAndDefineToTableClasses(TableInfo tableInfo, JavaClassCollection javaClasses) {
-
-		List<JavaClass> rtn = new ArrayList<JavaClass>();
-		for (JavaClass javaClass : javaClasses.getJavaClasses()) {
-			for (TableInfo currentTableInfo : javaClass.getDetail().getTables()) {
-				if (currentTableInfo.getTableName().equalsIgnoreCase(tableInfo.getTableName())
-						&& (currentTableInfo.isWrite()// 目标为写
-						|| currentTableInfo.isDefine())// 目标为定义
-				) {
-					rtn.add(javaClass);
-				}
-			}
+	private List<JavaClass> getWriteAndDefineToTableClasses(TableInfo tableInfo) {
+		List<JavaClass> rtn = this.writeAndDefineClasses.get(tableInfo.getTableName().toUpperCase(Locale.ROOT));
+		if (rtn == null) {
+			return Collections.emptyList();
+		} else {
+			return rtn;
 		}
-		return rtn;
 	}
 
 }
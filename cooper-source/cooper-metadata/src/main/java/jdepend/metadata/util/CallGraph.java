@@ -0,0 +1,445 @@
+package jdepend.metadata.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import jdepend.metadata.InvokeItem;
+import jdepend.metadata.Method;
+
+/**
+ * 方法调用图
+ *
+ * 由方法的InvokeItem一次建立，方法以整数编号，调用关系保存为编号数组。
+ * 用非递归的Tarjan算法将调用图收缩为强连通分量组成的无环图，
+ * 每个强连通分量的全部间接调用者以BitSet保存，在第一次查询该分量时计算，之后的查询不再遍历调用图。
+ *
+ * 建立后不再变化，可以在多个线程中同时查询。
+ *
+ * @author <b>Abner</b>
+ *
+ */
+public final class CallGraph {
+
+	private final Method[] methods;
+
+	private final Map<Method, Integer> ids;
+
+	/**
+	 * 编号 -> 调用的方法编号（去重，按InvokeItem的顺序）
+	 */
+	private final int[][] callees;
+
+	/**
+	 * 编号 -> 调用者编号（去重）
+	 */
+	private final int[][] callers;
+
+	/**
+	 * 编号 -> 强连通分量编号，强连通分量按Tarjan算法得到的顺序编号，被调用的分量先于调用它的分量
+	 */
+	private final int[] sccIds;
+
+	/**
+	 * 强连通分量编号 -> 成员方法编号
+	 */
+	private final int[][] sccMembers;
+
+	/**
+	 * 强连通分量是否包含循环调用（多个方法或方法调用自身）
+	 */
+	private final boolean[] sccCycles;
+
+	/**
+	 * 强连通分量编号 -> 直接或间接调用该分量的其他分量，延迟计算
+	 */
+	private final BitSet[] sccCallers;
+
+	/**
+	 * 没有调用者的分量共用，只读
+	 */
+	private static final BitSet NoCallers = new BitSet(0);
+
+	/**
+	 * @param seeds
+	 *            方法集合，通过调用关系可达的方法（包括调用者）也会加入调用图
+	 */
+	public CallGraph(Collection<Method> seeds) {
+		List<Method> nodes = new ArrayList<Method>(seeds.size());
+		this.ids = new HashMap<Method, Integer>(seeds.size() * 2);
+		for (Method method : seeds) {
+			this.register(method, nodes);
+		}
+		// 加入可达的方法并记录调用关系，nodes在遍历时增长
+		List<int[]> calleeLists = new ArrayList<int[]>(nodes.size());
+		// marks[callee] == index + 1 表示index已调用过callee
+		int[] marks = new int[nodes.size() * 2 + 16];
+		int[] buffer = new int[16];
+		int size;
+		int calleeId;
+		Method method;
+		for (int index = 0; index < nodes.size(); index++) {
+			method = nodes.get(index);
+			size = 0;
+			for (InvokeItem item : method.getInvokeItems()) {
+				if (item.getCallee() != null) {
+					calleeId = this.register(item.getCallee(), nodes);
+					if (calleeId >= marks.length) {
+						marks = Arrays.copyOf(marks, Math.max(calleeId + 1, marks.length * 2));
+					}
+					if (marks[calleeId] != index + 1) {
+						marks[calleeId] = index + 1;
+						if (size == buffer.length) {
+							buffer = Arrays.copyOf(buffer, size * 2);
+						}
+						buffer[size++] = calleeId;
+					}
+				}
+			}
+			calleeLists.add(Arrays.copyOf(buffer, size));
+			if (method.getInvokedItems() != null && !method.getInvokedItems().isEmpty()) {
+				for (InvokeItem item : method.getInvokedItems()) {
+					if (item.getCaller() != null) {
+						this.register(item.getCaller(), nodes);
+					}
+				}
+			}
+		}
+		this.methods = nodes.toArray(new Method[nodes.size()]);
+
+		int count = this.methods.length;
+		this.callees = calleeLists.toArray(new int[count][]);
+		int[] callerCounts = new int[count];
+		for (int id = 0; id < count; id++) {
+			for (int callee : this.callees[id]) {
+				callerCounts[callee]++;
+			}
+		}
+		this.callers = new int[count][];
+		for (int id = 0; id < count; id++) {
+			this.callers[id] = new int[callerCounts[id]];
+			callerCounts[id] = 0;
+		}
+		for (int id = 0; id < count; id++) {
+			for (int callee : this.callees[id]) {
+				this.callers[callee][callerCounts[callee]++] = id;
+			}
+		}
+
+		this.sccIds = new int[count];
+		List<int[]> members = new ArrayList<int[]>();
+		this.calSccs(members);
+		this.sccMembers = members.toArray(new int[members.size()][]);
+		this.sccCycles = new boolean[this.sccMembers.length];
+		for (int scc = 0; scc < this.sccMembers.length; scc++) {
+			this.sccCycles[scc] = this.sccMembers[scc].length > 1 || this.callsSelf(this.sccMembers[scc][0]);
+		}
+		this.sccCallers = new BitSet[this.sccMembers.length];
+	}
+
+	private int register(Method method, List<Method> nodes) {
+		Integer id = this.ids.putIfAbsent(method, nodes.size());
+		if (id == null) {
+			nodes.add(method);
+			return nodes.size() - 1;
+		}
+		return id;
+	}
+
+	/**
+	 * @return 调用图中的方法个数
+	 */
+	public int size() {
+		return this.methods.length;
+	}
+
+	/**
+	 * @return 调用图中的全部方法，按编号排列
+	 */
+	public List<Method> getMethods() {
+		return Collections.unmodifiableList(Arrays.asList(this.methods));
+	}
+
+	/**
+	 * 是否包含该方法
+	 *
+	 * @param method
+	 * @return
+	 */
+	public boolean contains(Method method) {
+		return this.ids.containsKey(method);
+	}
+
+	/**
+	 * 得到方法直接调用的方法，按调用顺序排列
+	 *
+	 * @param method
+	 * @return
+	 */
+	public List<Method> getInvokeMethods(Method method) {
+		Integer id = this.ids.get(method);
+		if (id == null) {
+			return Collections.emptyList();
+		}
+		return this.toMethods(this.callees[id]);
+	}
+
+	/**
+	 * 得到直接调用该方法的方法
+	 *
+	 * @param method
+	 * @return
+	 */
+	public List<Method> getInvokedMethods(Method method) {
+		Integer id = this.ids.get(method);
+		if (id == null) {
+			return Collections.emptyList();
+		}
+		return this.toMethods(this.callers[id]);
+	}
+
+	/**
+	 * 得到直接或间接调用该方法的方法，处于循环调用中的方法包含自身
+	 *
+	 * @param method
+	 * @return
+	 */
+	public Collection<Method> getCascadeInvokedMethods(Method method) {
+		Integer id = this.ids.get(method);
+		if (id == null) {
+			return Collections.emptySet();
+		}
+		int scc = this.sccIds[id];
+		BitSet callerSccs = this.getSccCallers(scc);
+		Collection<Method> cascadeInvokedMethods = new HashSet<Method>();
+		for (int callerScc = callerSccs.nextSetBit(0); callerScc >= 0; callerScc = callerSccs
+				.nextSetBit(callerScc + 1)) {
+			for (int member : this.sccMembers[callerScc]) {
+				cascadeInvokedMethods.add(this.methods[member]);
+			}
+		}
+		if (this.sccCycles[scc]) {
+			for (int member : this.sccMembers[scc]) {
+				cascadeInvokedMethods.add(this.methods[member]);
+			}
+		}
+		return cascadeInvokedMethods;
+	}
+
+	/**
+	 * 得到调用该方法以及直接或间接调用该方法的方法的全部InvokeItem
+	 *
+	 * @param method
+	 * @return
+	 */
+	public Collection<InvokeItem> getCascadeInvokedItems(Method method) {
+		Collection<InvokeItem> cascadeInvokedItems = new HashSet<InvokeItem>();
+		if (method.getInvokedItems() != null) {
+			cascadeInvokedItems.addAll(method.getInvokedItems());
+		}
+		Integer id = this.ids.get(method);
+		if (id == null) {
+			return cascadeInvokedItems;
+		}
+		int scc = this.sccIds[id];
+		BitSet callerSccs = this.getSccCallers(scc);
+		for (int callerScc = callerSccs.nextSetBit(0); callerScc >= 0; callerScc = callerSccs
+				.nextSetBit(callerScc + 1)) {
+			this.addInvokedItems(callerScc, cascadeInvokedItems);
+		}
+		if (this.sccCycles[scc]) {
+			this.addInvokedItems(scc, cascadeInvokedItems);
+		}
+		return cascadeInvokedItems;
+	}
+
+	private void addInvokedItems(int scc, Collection<InvokeItem> invokedItems) {
+		for (int member : this.sccMembers[scc]) {
+			if (this.methods[member].getInvokedItems() != null && !this.methods[member].getInvokedItems().isEmpty()) {
+				invokedItems.addAll(this.methods[member].getInvokedItems());
+			}
+		}
+	}
+
+	/**
+	 * caller是否直接或间接调用了callee
+	 *
+	 * @param caller
+	 * @param callee
+	 * @return
+	 */
+	public boolean isCascadeInvoked(Method caller, Method callee) {
+		Integer callerId = this.ids.get(caller);
+		Integer calleeId = this.ids.get(callee);
+		if (callerId == null || calleeId == null) {
+			return false;
+		}
+		int callerScc = this.sccIds[callerId];
+		int calleeScc = this.sccIds[calleeId];
+		if (callerScc == calleeScc) {
+			return this.sccCycles[calleeScc];
+		}
+		// 被调用的分量编号小于调用它的分量
+		return callerScc > calleeScc && this.getSccCallers(calleeScc).get(callerScc);
+	}
+
+	/**
+	 * 得到直接或间接调用该分量的其他分量
+	 *
+	 * 从scc出发沿调用者遍历收缩后的无环图，用显式栈代替递归；遇到已计算过的分量直接合并其结果，不再向上遍历。
+	 * 只缓存被查询过的分量，避免长调用链上为每个分量都保存一份闭包。
+	 *
+	 * @param scc
+	 * @return
+	 */
+	private synchronized BitSet getSccCallers(int scc) {
+		if (this.sccCallers[scc] != null) {
+			return this.sccCallers[scc];
+		}
+		if (this.isRoot(scc)) {
+			this.sccCallers[scc] = NoCallers;
+			return NoCallers;
+		}
+		BitSet result = new BitSet();
+		int[] stack = new int[16];
+		int top = 0;
+		stack[top++] = scc;
+		int current;
+		int callerScc;
+		while (top > 0) {
+			current = stack[--top];
+			for (int member : this.sccMembers[current]) {
+				for (int caller : this.callers[member]) {
+					callerScc = this.sccIds[caller];
+					if (callerScc == scc || result.get(callerScc)) {
+						continue;
+					}
+					result.set(callerScc);
+					if (this.sccCallers[callerScc] != null) {
+						result.or(this.sccCallers[callerScc]);
+					} else {
+						if (top == stack.length) {
+							stack = Arrays.copyOf(stack, top * 2);
+						}
+						stack[top++] = callerScc;
+					}
+				}
+			}
+		}
+		this.sccCallers[scc] = result;
+		return result;
+	}
+
+	/**
+	 * 分量是否没有来自其他分量的调用
+	 *
+	 * @param scc
+	 * @return
+	 */
+	private boolean isRoot(int scc) {
+		for (int member : this.sccMembers[scc]) {
+			for (int caller : this.callers[member]) {
+				if (this.sccIds[caller] != scc) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 非递归的Tarjan算法，强连通分量按完成顺序编号
+	 *
+	 * @param members
+	 */
+	private void calSccs(List<int[]> members) {
+		int count = this.methods.length;
+		int[] indexes = new int[count];
+		Arrays.fill(indexes, -1);
+		int[] lowLinks = new int[count];
+		boolean[] onStack = new boolean[count];
+		int[] stack = new int[count];
+		int stackTop = 0;
+		int[] callStack = new int[count];
+		int[] edgeStack = new int[count];
+		int callTop = 0;
+
+		int nextIndex = 0;
+		int current;
+		int callee;
+		int member;
+		int size;
+		for (int root = 0; root < count; root++) {
+			if (indexes[root] != -1) {
+				continue;
+			}
+			indexes[root] = lowLinks[root] = nextIndex++;
+			stack[stackTop++] = root;
+			onStack[root] = true;
+			callStack[callTop] = root;
+			edgeStack[callTop] = 0;
+			callTop++;
+
+			while (callTop > 0) {
+				current = callStack[callTop - 1];
+				if (edgeStack[callTop - 1] < this.callees[current].length) {
+					callee = this.callees[current][edgeStack[callTop - 1]++];
+					if (indexes[callee] == -1) {
+						indexes[callee] = lowLinks[callee] = nextIndex++;
+						stack[stackTop++] = callee;
+						onStack[callee] = true;
+						callStack[callTop] = callee;
+						edgeStack[callTop] = 0;
+						callTop++;
+					} else if (onStack[callee]) {
+						lowLinks[current] = Math.min(lowLinks[current], indexes[callee]);
+					}
+				} else {
+					callTop--;
+					if (callTop > 0) {
+						int parent = callStack[callTop - 1];
+						lowLinks[parent] = Math.min(lowLinks[parent], lowLinks[current]);
+					}
+					if (lowLinks[current] == indexes[current]) {
+						// current为强连通分量的根
+						size = 0;
+						do {
+							member = stack[stackTop - 1 - size];
+							size++;
+						} while (member != current);
+						int[] scc = Arrays.copyOfRange(stack, stackTop - size, stackTop);
+						stackTop -= size;
+						for (int m : scc) {
+							onStack[m] = false;
+							this.sccIds[m] = members.size();
+						}
+						members.add(scc);
+					}
+				}
+			}
+		}
+	}
+
+	private boolean callsSelf(int id) {
+		for (int callee : this.callees[id]) {
+			if (callee == id) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private List<Method> toMethods(int[] methodIds) {
+		List<Method> result = new ArrayList<Method>(methodIds.length);
+		for (int id : methodIds) {
+			result.add(this.methods[id]);
+		}
+		return result;
+	}
+}
@@ -1,13 +1,11 @@
 package jdepend.metadata.util;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.TreeMap;
 
-import jdepend.framework.util.ThreadPool;
 import jdepend.metadata.CandidateUtil;
 import jdepend.metadata.JavaClass;
 import jdepend.metadata.Method;
@@ -23,10 +21,6 @@ public class JavaClassCollection {
 
 	private JavaClassRelationTypes javaClassRelationTypes;
 
-	private Map<String, Collection<JavaClass>> unitJavaClasses;
-
-	private final static int unitCount = ThreadPool.ThreadCount;
-
 	public JavaClassCollection(JavaClassRelationTypes javaClassRelationTypes, Collection<JavaClass> javaClasses) {
 		super();
 		this.javaClassRelationTypes = javaClassRelationTypes;
@@ -40,8 +34,6 @@ public class JavaClassCollection {
 			javaClassesForName.put(javaClass.getName(), javaClass);
 		}
 
-		unitJavaClasses = unitTheadClassCollection(javaClasses);
-
 	}
 
 	public Collection<JavaClass> getJavaClasses() {
@@ -61,10 +53,6 @@ public class JavaClassCollection {
 		}
 	}
 
-	public Map<String, Collection<JavaClass>> getUnitJavaClasses() {
-		return unitJavaClasses;
-	}
-
 	public synchronized Map<String, Method> getHttpMethod() {
 		if (this.httpMethods == null) {
 			this.httpMethods = new HashMap<String, Method>();
@@ -84,21 +72,4 @@ public class JavaClassCollection {
 	public JavaClassRelationTypes getJavaClassRelationTypes() {
 		return javaClassRelationTypes;
 	}
-
-	public static <T> Map<String, Collection<T>> unitTheadClassCollection(Collection<T> javaClasses) {
-
-		Map<String, Collection<T>> unitJavaClasses = new HashMap<String, Collection<T>>();
-
-		for (int unitIndex = 0; unitIndex < unitCount; unitIndex++) {
-			unitJavaClasses.put("unit" + unitIndex, new ArrayList<T>());
-		}
-		int unitIndex = 0;
-		for (T javaClass : javaClasses) {
-			unitJavaClasses.get("unit" + unitIndex % unitCount).add(javaClass);
-			unitIndex++;
-		}
-
-		return unitJavaClasses;
-
-	}
 }
@@ -2,10 +2,10 @@ package jdepend.metadata.util;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
 
+import jdepend.framework.util.AnalysisExecutor;
 import jdepend.framework.util.StringUtil;
-import jdepend.framework.util.ThreadPool;
 import jdepend.metadata.JavaClass;
 import jdepend.metadata.JavaClassRelationItem;
 import jdepend.metadata.JavaPackage;
@@ -109,20 +109,13 @@ public class JavaClassUtil {
 
 	public static void supplyJavaClassRelationItem(final JavaClassCollection javaClasses) {
 
-		ExecutorService pool = ThreadPool.getPool();
-
-		for (final String unit : javaClasses.getUnitJavaClasses().keySet()) {
-			pool.execute(new Runnable() {
-				@Override
-				public void run() {
-					for (JavaClass javaClass : javaClasses.getUnitJavaClasses().get(unit)) {
+		AnalysisExecutor.forEach("supplyJavaClassRelationItem", javaClasses.getJavaClasses(),
+				new Consumer<JavaClass>() {
+					@Override
+					public void accept(JavaClass javaClass) {
 						javaClass.supplyJavaClassRelationItem(javaClasses);
 					}
-				}
-			});
-		}
-
-		ThreadPool.awaitTermination(pool);
+				});
 	}
 
 	/**
@@ -177,20 +170,13 @@ public class JavaClassUtil {
 	 */
 	private static void supplyJavaClassDetailSimple(final JavaClassCollection javaClasses) {
 
-		ExecutorService pool = ThreadPool.getPool();
-
-		for (final String unit : javaClasses.getUnitJavaClasses().keySet()) {
-			pool.execute(new Runnable() {
-				@Override
-				public void run() {
-					for (JavaClass javaClass : javaClasses.getUnitJavaClasses().get(unit)) {
+		AnalysisExecutor.forEach("supplyJavaClassDetailSimple", javaClasses.getJavaClasses(),
+				new Consumer<JavaClass>() {
+					@Override
+					public void accept(JavaClass javaClass) {
 						javaClass.supplyDetail(javaClasses);
 					}
-				}
-			});
-		}
-
-		ThreadPool.awaitTermination(pool);
+				});
 	}
 
 	/**
@@ -200,23 +186,16 @@ public class JavaClassUtil {
 	 */
 	private static void supplyJavaClassDetailMethodInvoke(final JavaClassCollection javaClasses) {
 
-		ExecutorService pool = ThreadPool.getPool();
-
-		for (final String unit : javaClasses.getUnitJavaClasses().keySet()) {
-			pool.execute(new Runnable() {
-				@Override
-				public void run() {
-					for (JavaClass javaClass : javaClasses.getUnitJavaClasses().get(unit)) {
+		AnalysisExecutor.forEach("supplyJavaClassDetailMethodInvoke", javaClasses.getJavaClasses(),
+				new Consumer<JavaClass>() {
+					@Override
+					public void accept(JavaClass javaClass) {
 						// 填充Method中的InvokeItem
 						for (Method method : javaClass.getSelfMethods()) {
 							method.supplyInvokeItem(javaClasses);
 						}
 					}
-				}
-			});
-		}
-
-		ThreadPool.awaitTermination(pool);
+				});
 	}
 
 	public static void main(String[] args) {
@@ -0,0 +1,119 @@
+package jdepend.metadata.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+
+import jdepend.metadata.InvokeItem;
+import jdepend.metadata.Method;
+import junit.framework.TestCase;
+
+public class CallGraphTestCase extends TestCase {
+
+	private static Method method(String name) {
+		return new Method("test.Service", 1, name, "()V", name + "()", null);
+	}
+
+	private static void invoke(Method caller, Method callee) {
+		TestInvokeItem item = new TestInvokeItem();
+		item.setCaller(caller);
+		item.link(callee);
+		caller.getInvokeItems().add(item);
+	}
+
+	/**
+	 * a -> b -> c -> b（循环）, c -> d, e -> a
+	 */
+	public void testCascadeInvokedMethods() {
+		Method a = method("a");
+		Method b = method("b");
+		Method c = method("c");
+		Method d = method("d");
+		Method e = method("e");
+		invoke(a, b);
+		invoke(b, c);
+		invoke(c, b);
+		invoke(c, d);
+		invoke(e, a);
+
+		CallGraph callGraph = new CallGraph(Arrays.asList(a, b, c, d, e));
+		assertEquals(5, callGraph.size());
+
+		assertEquals(set(a, b, c, e), callGraph.getCascadeInvokedMethods(d));
+		assertEquals(set(a, b, c, e), callGraph.getCascadeInvokedMethods(b));
+		assertEquals(set(e), callGraph.getCascadeInvokedMethods(a));
+		assertEquals(set(), callGraph.getCascadeInvokedMethods(e));
+
+		assertTrue(callGraph.isCascadeInvoked(e, d));
+		assertTrue(callGraph.isCascadeInvoked(c, c));
+		assertFalse(callGraph.isCascadeInvoked(a, a));
+		assertFalse(callGraph.isCascadeInvoked(d, a));
+
+		assertEquals(Arrays.asList(c), callGraph.getInvokeMethods(b));
+		assertEquals(Arrays.asList(b, d), callGraph.getInvokeMethods(c));
+		assertEquals(new HashSet<Method>(Arrays.asList(a, c)), new HashSet<Method>(callGraph.getInvokedMethods(b)));
+	}
+
+	public void testMethodCascadeInvokedItems() {
+		Method a = method("a");
+		Method b = method("b");
+		Method c = method("c");
+		invoke(a, b);
+		invoke(b, c);
+		invoke(c, a);
+
+		// 未设置调用图时由可达的方法建立
+		assertEquals(set(a, b, c), c.getCascadeInvokedMethods());
+		assertEquals(3, c.getCascadeInvokedItems().size());
+		assertSame(a.getCallGraph(), c.getCallGraph());
+	}
+
+	/**
+	 * 很长的调用链不会栈溢出
+	 */
+	public void testDeepChain() {
+		int length = 100000;
+		List<Method> methods = new ArrayList<Method>(length);
+		for (int i = 0; i < length; i++) {
+			methods.add(method("m" + i));
+		}
+		for (int i = 0; i < length - 1; i++) {
+			invoke(methods.get(i), methods.get(i + 1));
+		}
+
+		CallGraph callGraph = new CallGraph(methods);
+		assertEquals(length - 1, callGraph.getCascadeInvokedMethods(methods.get(length - 1)).size());
+		assertTrue(callGraph.isCascadeInvoked(methods.get(0), methods.get(length - 1)));
+		assertEquals(0, callGraph.getCascadeInvokedMethods(methods.get(0)).size());
+	}
+
+	private static Collection<Method> set(Method... methods) {
+		return new HashSet<Method>(Arrays.asList(methods));
+	}
+
+	private static class TestInvokeItem extends InvokeItem {
+
+		private static final long serialVersionUID = 1L;
+
+		public void link(Method callee) {
+			this.setCallee(callee);
+		}
+
+		@Override
+		public boolean supplyCallee(JavaClassCollection javaClasses) {
+			return true;
+		}
+
+		@Override
+		public boolean math2(Method method) {
+			return method.equals(this.getCallee());
+		}
+
+		@Override
+		public String getName() {
+			return "Test";
+		}
+	}
+}
@@ -0,0 +1,29 @@
+package jdepend.parse;
+
+import jdepend.metadata.annotation.Annotation;
+import jdepend.metadata.annotation.AnnotationMgr;
+import jdepend.parse.sql.ConfigParseMgr;
+
+/**
+ * 一次分析的上下文
+ * 
+ * 持有分析过程中产生的配置文件表信息和Annotation享元，每次Parse.execute创建一个，
+ * 经ClassBuilder和Parser传递给类文件访问者；同一JVM中的多个分析互不影响。
+ * 
+ * @author <b>Abner</b>
+ * 
+ */
+public final class AnalysisScope {
+
+	private final ConfigParseMgr configParseMgr = new ConfigParseMgr();
+
+	private final AnnotationMgr<Annotation> annotationMgr = new AnnotationMgr<Annotation>();
+
+	public ConfigParseMgr getConfigParseMgr() {
+		return configParseMgr;
+	}
+
+	public AnnotationMgr<Annotation> getAnnotationMgr() {
+		return annotationMgr;
+	}
+}
@@ -14,11 +14,9 @@ import jdepend.framework.log.LogUtil;
 import jdepend.metadata.CandidateUtil;
 import jdepend.metadata.JavaClass;
 import jdepend.metadata.JavaPackage;
-import jdepend.metadata.annotation.AnnotationMgr;
 import jdepend.parse.impl.AbstractClassBuilder;
 import jdepend.parse.impl.CSharpClassBuilder;
 import jdepend.parse.impl.JavaClassBuilder;
-import jdepend.parse.sql.ConfigParseMgr;
 
 /**
  * 解析器
@@ -63,6 +61,26 @@ public class Parse {
 		this.getClassBuilder().setParseModel(parseModel);
 	}
 
+	/**
+	 * 设置上次分析的Classes以及发生变化的类名，只为受影响的Class重新建立关系
+	 * 
+	 * @param previousClasses
+	 *            为null时全量解析
+	 * @param changedClassNames
+	 */
+	public void setPreviousClasses(Collection<JavaClass> previousClasses, Collection<String> changedClassNames) {
+		this.getClassBuilder().setPreviousClasses(previousClasses, changedClassNames);
+	}
+
+	/**
+	 * 得到增量解析时重新建立了关系的Class的id集合
+	 * 
+	 * @return 全量解析时返回null
+	 */
+	public Collection<String> getAffectedClassIds() {
+		return this.getClassBuilder().getAffectedClassIds();
+	}
+
 	/**
 	 * 解析目标对象
 	 * 
@@ -71,19 +89,29 @@ public class Parse {
 	 */
 	public Collection<JavaPackage> execute() throws ParseException {
 
-		AnnotationMgr.getInstance().init();
-		ConfigParseMgr.getInstance().init();
+		// 每次解析使用新的分析上下文，同时进行的多个解析互不影响
+		getClassBuilder().setAnalysisScope(new AnalysisScope());
 
-		Collection<JavaClass> javaClasses = getClassBuilder().build(getAnalyseData());
+		Collection<JavaClass> javaClasses;
+		try {
+			if (this.data == null && conf.getStreamParse()) {
+				javaClasses = getClassBuilder().build(this.getStreamAnalyseData(), this.fileManager);
+			} else {
+				javaClasses = getClassBuilder().build(getAnalyseData());
+			}
+		} finally {
+			getClassBuilder().setAnalysisScope(null);
+		}
 
 		LogUtil.getInstance(Parse.class).systemLog("开始建立Package");
+		if (this.getClassBuilder().getPreviousClasses() != null) {
+			// 增量解析得到的是新的JavaClass，不能加入到上次建立的Package中
+			this.packages = new HashMap<String, JavaPackage>();
+		}
 		for (JavaClass javaClass : javaClasses) {
 			createPackage(javaClass);
 		}
-		
-		AnnotationMgr.getInstance().clear();
-		ConfigParseMgr.getInstance().clear();
-		
+
 		return packages.values();
 	}
 
@@ -214,6 +242,20 @@ public class Parse {
 		return data;
 	}
 
+	/**
+	 * 得到流式解析时的分析数据，只包含类名和配置文件，类文件内容在解析时读取
+	 * 
+	 * @return
+	 * @throws ParseException
+	 */
+	private AnalyzeData getStreamAnalyseData() throws ParseException {
+		try {
+			return this.fileManager.getAnalyzeData(false);
+		} catch (IOException e) {
+			throw new ParseException(e);
+		}
+	}
+
 	/**
 	 * Adds the specified Java package name to the collection of analyzed
 	 * packages.
@@ -46,6 +46,10 @@ public class ParseConfigurator {
 
 	private static final String analyzeModel = "analyzeModel";
 
+	private static final String streamParse = "streamParse";
+
+	private static final String parseCache = "parseCache";
+
 	public ParseConfigurator() {
 		this(new DefaultJavaClassRelationItemProfile().getJavaClassRelationTypes());
 	}
@@ -135,6 +139,36 @@ public class ParseConfigurator {
 		return null;
 	}
 
+	/**
+	 * 是否流式读取类文件，读取与解析交替进行，类文件内容解析后即释放
+	 * 
+	 * @return
+	 */
+	public boolean getStreamParse() {
+
+		if (properties.containsKey(streamParse)) {
+			String value = properties.get(streamParse);
+			return new Boolean(value).booleanValue();
+		}
+
+		return false;
+	}
+
+	/**
+	 * 是否启用解析缓存，类文件内容及相关配置不变时直接读取上次的解析结果
+	 * 
+	 * @return
+	 */
+	public boolean getParseCache() {
+
+		if (properties.containsKey(parseCache)) {
+			String value = properties.get(parseCache);
+			return new Boolean(value).booleanValue();
+		}
+
+		return false;
+	}
+
 	public JavaClassRelationTypes getJavaClassRelationTypes() {
 		return javaClassRelationTypes;
 	}
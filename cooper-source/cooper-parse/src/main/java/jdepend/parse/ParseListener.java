@@ -23,4 +23,16 @@ public interface ParseListener {
 	 *            Parsed Java class.
 	 */
 	public void onParsedJavaClass(JavaClass parsedClass, int process);
+
+	/**
+	 * Called after all class files are parsed when the parse cache is
+	 * enabled. Does nothing by default.
+	 * 
+	 * @param hitCount
+	 *            number of classes read from the parse cache.
+	 * @param missCount
+	 *            number of classes parsed.
+	 */
+	public default void onParseCache(int hitCount, int missCount) {
+	}
 }
@@ -1,14 +1,18 @@
 package jdepend.parse.impl;
 
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 
 import jdepend.framework.file.AnalyzeData;
+import jdepend.framework.file.TargetFileManager;
 import jdepend.metadata.JavaClass;
+import jdepend.parse.AnalysisScope;
 import jdepend.parse.BuildListener;
 import jdepend.parse.ParseConfigurator;
+import jdepend.parse.ParseException;
 import jdepend.parse.ParseListener;
 
 /**
@@ -31,6 +35,14 @@ public abstract class AbstractClassBuilder {
 
 	private String parseModel;
 
+	private Collection<JavaClass> previousClasses;
+
+	private Collection<String> changedClassNames;
+
+	private Collection<String> affectedClassIds;
+
+	private AnalysisScope analysisScope;
+
 	protected void onClassBuild(Collection<JavaClass> classes) {
 		for (Iterator<BuildListener> i = buildListeners.iterator(); i.hasNext();) {
 			i.next().onBuildJavaClasses(classes);
@@ -84,8 +96,74 @@ public abstract class AbstractClassBuilder {
 		this.parseModel = parseModel;
 	}
 
+	public Collection<JavaClass> getPreviousClasses() {
+		return previousClasses;
+	}
+
+	public Collection<String> getChangedClassNames() {
+		return changedClassNames;
+	}
+
+	/**
+	 * 设置上次分析的Classes以及发生变化的类名，构建时只为受影响的Class重新建立关系
+	 * 
+	 * @param previousClasses
+	 *            为null时全量构建
+	 * @param changedClassNames
+	 */
+	public void setPreviousClasses(Collection<JavaClass> previousClasses, Collection<String> changedClassNames) {
+		this.previousClasses = previousClasses;
+		this.changedClassNames = changedClassNames;
+		this.affectedClassIds = null;
+	}
+
+	/**
+	 * 得到增量构建时重新建立了关系的Class的id集合
+	 * 
+	 * @return 全量构建时返回null
+	 */
+	public Collection<String> getAffectedClassIds() {
+		return affectedClassIds;
+	}
+
+	protected void setAffectedClassIds(Collection<String> affectedClassIds) {
+		this.affectedClassIds = affectedClassIds;
+	}
+
+	public AnalysisScope getAnalysisScope() {
+		return analysisScope;
+	}
+
+	/**
+	 * 设置本次构建的分析上下文
+	 * 
+	 * @param analysisScope
+	 */
+	public void setAnalysisScope(AnalysisScope analysisScope) {
+		this.analysisScope = analysisScope;
+	}
+
 	public abstract Collection<JavaClass> build(AnalyzeData data);
 
+	/**
+	 * 构建Classes，类文件内容由fileManager流式读取
+	 * 
+	 * 默认实现一次性读取全部文件后构建，支持流式读取的构建器覆盖该方法。
+	 * 
+	 * @param data
+	 *            只包含类名和配置文件的分析数据
+	 * @param fileManager
+	 * @return
+	 * @throws ParseException
+	 */
+	public Collection<JavaClass> build(AnalyzeData data, TargetFileManager fileManager) throws ParseException {
+		try {
+			return this.build(fileManager.getAnalyzeData());
+		} catch (IOException e) {
+			throw new ParseException(e);
+		}
+	}
+
 	public abstract PackageFilter getFilter();
 
 	public abstract void addParseListener(ParseListener listener);
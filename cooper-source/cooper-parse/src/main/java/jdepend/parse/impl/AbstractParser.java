@@ -5,6 +5,7 @@ import java.io.PrintWriter;
 import java.util.ArrayList;
 
 import jdepend.metadata.JavaClass;
+import jdepend.parse.AnalysisScope;
 import jdepend.parse.ParseConfigurator;
 import jdepend.parse.ParseListener;
 
@@ -40,6 +41,8 @@ public abstract class AbstractParser {
 
 	private String model = Model_Big;
 
+	private AnalysisScope analysisScope = new AnalysisScope();
+
 	public final static String Model_Small = "small";
 	public final static String Model_Big = "big";
 
@@ -77,7 +80,8 @@ public abstract class AbstractParser {
 	public final JavaClass parse(String place, InputStream is) throws ParseClassException {
 		JavaClass jClass = null;
 		try {
-			return this.doParse(place, is, model);
+			jClass = this.doParse(place, is, model);
+			return jClass;
 		} finally {
 			this.onParsedJavaClass(jClass);
 		}
@@ -98,6 +102,20 @@ public abstract class AbstractParser {
 		}
 	}
 
+	/**
+	 * Informs registered parser listeners of the parse cache statistics.
+	 * 
+	 * @param hitCount
+	 *            number of classes read from the parse cache.
+	 * @param missCount
+	 *            number of classes parsed.
+	 */
+	protected void onParseCache(int hitCount, int missCount) {
+		for (ParseListener listener : parseListeners) {
+			listener.onParseCache(hitCount, missCount);
+		}
+	}
+
 	public ParseConfigurator getConf() {
 		return conf;
 	}
@@ -106,10 +124,27 @@ public abstract class AbstractParser {
 		this.conf = conf;
 	}
 
+	/**
+	 * 得到解析所属的分析上下文，单独使用Parser时为Parser自己的上下文
+	 * 
+	 * @return
+	 */
+	public AnalysisScope getAnalysisScope() {
+		return analysisScope;
+	}
+
+	public void setAnalysisScope(AnalysisScope analysisScope) {
+		this.analysisScope = analysisScope;
+	}
+
 	public void setModel(String model) {
 		this.model = model;
 	}
 
+	public String getModel() {
+		return model;
+	}
+
 	protected void debug(String message) {
 		if (DEBUG) {
 			this.writer.println(message);
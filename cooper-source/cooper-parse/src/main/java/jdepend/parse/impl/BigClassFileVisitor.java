@@ -6,7 +6,6 @@ import java.util.List;
 import java.util.Map;
 
 import jdepend.metadata.TableInfo;
-import jdepend.parse.sql.ConfigParseMgr;
 import jdepend.parse.sql.SqlParseUtil;
 import jdepend.parse.sql.TableInfoItem;
 import jdepend.parse.util.ParseTool;
@@ -20,24 +19,29 @@ import org.apache.bcel.classfile.Method;
 
 public class BigClassFileVisitor extends SmallClassFileVisitor {
 
+	private final MethodReaderChain methodReaderChain = new MethodReaderChain();
+
 	@Override
 	public void visitJavaClass(org.apache.bcel.classfile.JavaClass obj) {
 		super.visitJavaClass(obj);
 
 		// 处理表信息
-		Map<String, List<TableInfo>> tables = ConfigParseMgr.getInstance().getTheTables(TableInfoItem.ClassNameType);
-		if (tables.containsKey(jClass.getName())) {
-			for (TableInfo tableInfo : tables.get(jClass.getName())) {
+		Map<String, List<TableInfo>> tables = this.parser.getAnalysisScope().getConfigParseMgr()
+				.getTheTables(TableInfoItem.ClassNameType);
+		List<TableInfo> classTables = tables.get(jClass.getName());
+		if (classTables != null) {
+			for (TableInfo tableInfo : classTables) {
 				jClass.getDetail().addTable(tableInfo);
 			}
 		}
 
-		jClass.getDetail().parseAnnotation(obj);
+		jClass.getDetail().parseAnnotation(obj, this.parser.getAnalysisScope().getAnnotationMgr());
 	}
 
 	@Override
 	public void visitField(Field obj) {
-		jdepend.metadata.Attribute attribute = new jdepend.metadata.Attribute(this.jClass, obj, true);
+		jdepend.metadata.Attribute attribute = new jdepend.metadata.Attribute(this.jClass, obj, this.parser
+				.getAnalysisScope().getAnnotationMgr());
 		this.jClass.getDetail().addAttribute(attribute);
 		if (this.parser.isDebug()) {
 			this.parser.debug("visitField: obj.getSignature() = " + attribute.getSignature());
@@ -47,10 +51,11 @@ public class BigClassFileVisitor extends SmallClassFileVisitor {
 	@Override
 	public void visitMethod(Method obj) {
 		if (!obj.isSynthetic()) {// 不采集编译器生成的Method
-			jdepend.metadata.Method method = new jdepend.metadata.Method(this.jClass, obj, true);
+			jdepend.metadata.Method method = new jdepend.metadata.Method(this.jClass, obj, this.parser
+					.getAnalysisScope().getAnnotationMgr());
 			if (!obj.getName().equals(jdepend.metadata.Method.CLINIT)) {
 
-				MethodReaderChain methodReaderChain = new MethodReaderChain();
+				methodReaderChain.clearReaders();
 				methodReaderChain.addReader(new GeneralMethodReader(method, parser.getConf().getPackageFilter()));
 				methodReaderChain.addReader(new HttpInvokeMethodReader(method, parser.getConf()));
 				methodReaderChain.read(obj);
@@ -62,7 +67,7 @@ public class BigClassFileVisitor extends SmallClassFileVisitor {
 					this.parser.debug("visitMethod: method type = " + obj);
 				}
 			} else {
-				MethodReaderChain methodReaderChain = new MethodReaderChain();
+				methodReaderChain.clearReaders();
 				methodReaderChain.addReader(new ClInitMethodReader(method));
 				methodReaderChain.read(obj);
 			}
@@ -136,14 +141,12 @@ public class BigClassFileVisitor extends SmallClassFileVisitor {
 	private List<TableInfo> ParseTable(String constant) {
 		if (constant != null) {
 			if (SqlParseUtil.isSQL(constant)) {
-				return SqlParseUtil.parserSql(constant);
+				// 字符串常量引用的Utf8常量已在visitConstantUtf8中解析
+				return null;
 			} else {
-				Map<String, List<TableInfo>> tables = ConfigParseMgr.getInstance().getTheTables(TableInfoItem.KeyType);
-				if (tables != null && tables.containsKey(constant)) {
-					return tables.get(constant);
-				} else {
-					return null;
-				}
+				Map<String, List<TableInfo>> tables = this.parser.getAnalysisScope().getConfigParseMgr()
+						.getTheTables(TableInfoItem.KeyType);
+				return tables.get(constant);
 			}
 		}
 		return null;
@@ -20,36 +20,23 @@ public class ClInitMethodReader extends MethodReader {
 	}
 
 	@Override
-	protected void readInfo(int opcode, String info) {
-
-		String[] infos;
-		int pos;
-		String staticAtributeName;
+	protected void readField(int opcode, String owner, String name, String signature) {
 
 		if (opcode == Const.PUTSTATIC) {
-			infos = info.split("\\s+");
-			if (infos.length > 1) {
-				pos = infos[1].lastIndexOf('.');
-				if (pos != -1) {
-					staticAtributeName = infos[1].substring(pos + 1);
-					L: for (Attribute attribute : this.method.getJavaClass().getAttributes()) {
-						if (attribute.getName().equals(staticAtributeName)) {
-							if (attribute.getStaticValue() == null && staticValue.length() > 0) {
-								attribute.setStaticValue("\"" + staticValue + "\"");
-								staticValue = "";
-							}
-							break L;
-						}
+			L: for (Attribute attribute : this.method.getJavaClass().getAttributes()) {
+				if (attribute.getName().equals(name)) {
+					if (attribute.getStaticValue() == null && staticValue.length() > 0) {
+						attribute.setStaticValue("\"" + staticValue + "\"");
+						staticValue = "";
 					}
-
+					break L;
 				}
 			}
-		} else if (opcode == Const.LDC) {
-			infos = info.split("\\s+");
-			if (infos.length > 1 && infos[1].length() > 2) {
-				staticValue += infos[1].substring(1, infos[1].length() - 1);
-			}
 		}
+	}
 
+	@Override
+	protected void readConstant(int opcode, String value) {
+		staticValue += value;
 	}
 }
@@ -23,72 +23,48 @@ public class GeneralMethodReader extends MethodReader {
 	}
 
 	@Override
-	protected void readInfo(int opcode, String info) {
+	protected void readInvoke(int opcode, String owner, String name, String signature) {
 
-		String[] infos;
-		int pos;
-		int pos2;
-
-		String calledPlace;
-		String calledName;
+		String callType = getCallType(opcode);
+		if (callType == null) {
+			return;
+		}
+		// 得到包名
 		String calledPackageName;
-		String calledMethod;
-		String calledMethodSignature;
-
-		String callType;
-		int index;
-		String fieldName;
+		int index = owner.lastIndexOf('.');
+		if (index > 0) {
+			calledPackageName = owner.substring(0, index);
+		} else {
+			calledPackageName = JavaPackage.Default;
+		}
+		// 本次分析的类列表（filter.acceptClass）在解析后由JavaClassBuilder过滤，使解析结果可以被缓存
+		if (filter.accept(calledPackageName)) {
+			InvokeItem item = new LocalInvokeItem(callType, method.getJavaClass().getPlace(), owner, name, signature);
+			method.addInvokeItem(item);
+		}
+	}
 
-		if (opcode == Const.INVOKEVIRTUAL || opcode == Const.INVOKESPECIAL || opcode == Const.INVOKENONVIRTUAL
-				|| opcode == Const.INVOKESTATIC || opcode == Const.INVOKEINTERFACE || opcode == Const.INVOKEDYNAMIC) {
-			infos = info.split("\\s+");
-			if (infos.length > 1) {
-				pos = infos[1].lastIndexOf('.');
-				if (pos != -1) {
-					callType = infos[0].substring(6);
-					calledName = infos[1].substring(0, pos);
-					pos2 = infos[1].indexOf(':');
-					calledMethod = infos[1].substring(pos + 1, pos2);
-					calledMethodSignature = infos[1].substring(pos2 + 1);
-					calledPlace = method.getJavaClass().getPlace();
-					// 得到包名
-					index = calledName.lastIndexOf('.');
-					if (index > 0) {
-						calledPackageName = calledName.substring(0, index);
-					} else {
-						calledPackageName = JavaPackage.Default;
-					}
-					if (filter.accept(calledPackageName) && filter.acceptClass(calledName)) {
-						InvokeItem item = new LocalInvokeItem(callType, calledPlace, calledName, calledMethod,
-								calledMethodSignature);
-						method.addInvokeItem(item);
-					}
-				}
-			}
-		} else if (opcode == Const.GETFIELD) {
-			fieldName = this.getFieldName(info);
-			if (fieldName != null) {
-				method.addReadField(fieldName);
-			}
+	@Override
+	protected void readField(int opcode, String owner, String name, String signature) {
+		if (opcode == Const.GETFIELD) {
+			method.addReadField(name);
 		} else if (opcode == Const.PUTFIELD) {
-			fieldName = this.getFieldName(info);
-			if (fieldName != null) {
-				method.addWriteField(fieldName);
-			}
+			method.addWriteField(name);
 		}
-
 	}
 
-	private String getFieldName(String info) {
-		String[] infos = info.split("\\s+");
-		if (infos.length > 1) {
-			int pos = infos[1].lastIndexOf('.');
-			if (pos != -1) {
-				return infos[1].substring(pos + 1, infos[1].indexOf(':'));
-			} else {
-				return null;
-			}
-		} else {
+	private static String getCallType(int opcode) {
+		switch (opcode) {
+		case Const.INVOKEVIRTUAL:
+			return "virtual";
+		case Const.INVOKESPECIAL:
+			return "special";
+		case Const.INVOKESTATIC:
+			return "static";
+		case Const.INVOKEINTERFACE:
+			return "interface";
+		// INVOKEDYNAMIC的操作数是引导方法而非被调用类，原先按反汇编文本解析时也因取不到类名而从未记录
+		default:
 			return null;
 		}
 	}
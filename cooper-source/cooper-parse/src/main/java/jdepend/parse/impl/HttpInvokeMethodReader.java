@@ -40,47 +40,47 @@ public class HttpInvokeMethodReader extends MethodReader {
 	}
 
 	@Override
-	protected void readInfo(int opcode, String info) {
+	protected void readInvoke(int opcode, String owner, String name, String signature) {
 
 		if (invokeClassNames.size() == 0) {
 			return;
 		}
 
-		String[] infos;
-		int pos;
-		String calledName;
-
 		if (opcode == Const.INVOKEVIRTUAL || opcode == Const.INVOKESPECIAL || opcode == Const.INVOKESTATIC) {
-			infos = info.split("\\s+");
-			if (infos.length > 1) {
-				pos = infos[1].lastIndexOf('.');
-				if (pos != -1) {
-					calledName = infos[1].substring(0, pos);
-					if (invokeClassNames.contains(calledName)) {
-						if (url != null || constantClassName != null) {
-							HttpInvokeItem item = new HttpInvokeItem(url, constantClassName, constantAttributeName);
-							method.addInvokeItem(item);
-							url = null;
-							constantClassName = null;
-							constantAttributeName = null;
-						}
-					}
-				}
-			}
-		} else if (opcode == Const.LDC) {
-			infos = info.split("\\s+");
-			if (infos.length > 0 && infos[1].startsWith("\"/")) {
-				url = infos[1];
-			}
-		} else if (opcode == Const.GETSTATIC) {
-			infos = info.split("\\s+");
-			if (infos.length > 0) {
-				pos = infos[1].lastIndexOf('.');
-				if (pos != -1) {
-					constantClassName = infos[1].substring(0, pos);
-					constantAttributeName = infos[1].substring(pos + 1);
+			if (invokeClassNames.contains(owner)) {
+				if (url != null || constantClassName != null) {
+					HttpInvokeItem item = new HttpInvokeItem(url, constantClassName, constantAttributeName);
+					method.addInvokeItem(item);
+					url = null;
+					constantClassName = null;
+					constantAttributeName = null;
 				}
 			}
 		}
 	}
+
+	@Override
+	protected void readField(int opcode, String owner, String name, String signature) {
+
+		if (invokeClassNames.size() == 0) {
+			return;
+		}
+
+		if (opcode == Const.GETSTATIC) {
+			constantClassName = owner;
+			constantAttributeName = name;
+		}
+	}
+
+	@Override
+	protected void readConstant(int opcode, String value) {
+
+		if (invokeClassNames.size() == 0) {
+			return;
+		}
+
+		if (value.startsWith("/")) {
+			url = "\"" + value + "\"";
+		}
+	}
 }
@@ -0,0 +1,240 @@
+package jdepend.parse.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import jdepend.framework.log.LogUtil;
+import jdepend.metadata.InvokeItem;
+import jdepend.metadata.JavaClass;
+import jdepend.metadata.JavaClassDetail;
+import jdepend.metadata.JavaClassRelationItem;
+import jdepend.metadata.LocalInvokeItem;
+import jdepend.metadata.Method;
+import jdepend.metadata.util.JavaClassCollection;
+import jdepend.parse.ParseConfigurator;
+
+/**
+ * 增量建立Class的关系
+ *
+ * 除表关系和Http关系外，Class的传出关系只由自身的JavaClassDetail以及目标类是否存在决定。
+ * 因此只为发生变化的Class、与其直接相关的Class以及引用了新增Class的Class重新建立关系，
+ * 其余Class的传出关系从上次分析的结果中复制，并绑定到本次解析得到的JavaClass上。
+ *
+ * 变化的Class涉及表或Http调用，或受影响的Class过多时，全量建立关系。
+ *
+ * @author user
+ *
+ */
+class IncrementalRelationCreator {
+
+	/**
+	 * 受影响的Class超过该比例时全量建立关系
+	 */
+	private static final float MaxAffectedScale = 0.3F;
+
+	private static final String InnerClassSymbol = "$";
+
+	private JavaClassRelationCreator creator;
+
+	private Map<String, JavaClass> previousClasses;
+
+	private Collection<String> changedClassNames;
+
+	public IncrementalRelationCreator(ParseConfigurator conf, Collection<JavaClass> previousClasses,
+			Collection<String> changedClassNames) {
+		this.creator = new JavaClassRelationCreator(conf);
+
+		this.previousClasses = new HashMap<String, JavaClass>();
+		for (JavaClass javaClass : previousClasses) {
+			this.previousClasses.put(javaClass.getId(), javaClass);
+		}
+		this.changedClassNames = new HashSet<String>(changedClassNames);
+	}
+
+	/**
+	 * 建立Class的关系
+	 *
+	 * @param javaClasses
+	 * @return 重新建立了关系的Class的id集合，全量建立时返回null
+	 */
+	public Collection<String> create(JavaClassCollection javaClasses) {
+
+		Collection<String> affectedClassIds = this.calAffectedClassIds(javaClasses);
+		if (affectedClassIds == null) {
+			creator.create(javaClasses);
+			return null;
+		}
+
+		LogUtil.getInstance(IncrementalRelationCreator.class).systemLog(
+				"增量建立Class的关系，受影响的Class个数为：" + affectedClassIds.size());
+
+		Collection<JavaClass> affectedClasses = new ArrayList<JavaClass>();
+		for (JavaClass javaClass : javaClasses.getJavaClasses()) {
+			if (javaClass.isInner()) {
+				if (affectedClassIds.contains(javaClass.getId())) {
+					affectedClasses.add(javaClass);
+				} else {
+					this.copyCeItems(previousClasses.get(javaClass.getId()), javaClass, javaClasses);
+				}
+			}
+		}
+		creator.create(javaClasses, affectedClasses);
+
+		return affectedClassIds;
+	}
+
+	/**
+	 * 计算需要重新建立关系的Class
+	 *
+	 * @param javaClasses
+	 * @return 无法增量建立时返回null
+	 */
+	private Collection<String> calAffectedClassIds(JavaClassCollection javaClasses) {
+
+		Collection<JavaClass> changedClasses = new ArrayList<JavaClass>();
+		Collection<String> addedClassNames = new HashSet<String>();
+		int classCount = 0;
+		for (JavaClass javaClass : javaClasses.getJavaClasses()) {
+			if (javaClass.isInner()) {
+				classCount++;
+				JavaClass previousClass = previousClasses.get(javaClass.getId());
+				if (previousClass == null || !previousClass.isInner()) {
+					changedClasses.add(javaClass);
+					addedClassNames.add(javaClass.getName());
+				} else if (this.isChanged(javaClass)) {
+					changedClasses.add(javaClass);
+					changedClasses.add(previousClass);
+				}
+			}
+		}
+		// 删除的Class
+		for (JavaClass previousClass : previousClasses.values()) {
+			if (previousClass.isInner() && javaClasses.getTheClass(previousClass.getId()) == null) {
+				changedClasses.add(previousClass);
+			}
+		}
+
+		Collection<String> affectedClassIds = new HashSet<String>();
+		for (JavaClass changedClass : changedClasses) {
+			if (this.isGlobalRelated(changedClass)) {
+				LogUtil.getInstance(IncrementalRelationCreator.class).systemLog(
+						"变化的Class[" + changedClass.getName() + "]涉及表或Http调用，全量建立Class的关系");
+				return null;
+			}
+			affectedClassIds.add(changedClass.getId());
+			// 上次分析中与变化的Class直接相关的Class
+			for (JavaClassRelationItem item : changedClass.getSelfCaItems()) {
+				affectedClassIds.add(item.getSource().getId());
+			}
+			for (JavaClassRelationItem item : changedClass.getSelfCeItems()) {
+				affectedClassIds.add(item.getTarget().getId());
+			}
+		}
+		// 引用了新增Class的Class
+		if (addedClassNames.size() > 0) {
+			for (JavaClass javaClass : javaClasses.getJavaClasses()) {
+				if (javaClass.isInner() && this.isReferenced(javaClass.getDetail(), addedClassNames)) {
+					affectedClassIds.add(javaClass.getId());
+				}
+			}
+		}
+
+		if (affectedClassIds.size() > classCount * MaxAffectedScale) {
+			LogUtil.getInstance(IncrementalRelationCreator.class).systemLog(
+					"受影响的Class个数为" + affectedClassIds.size() + "，全量建立Class的关系");
+			return null;
+		}
+		return affectedClassIds;
+	}
+
+	private boolean isChanged(JavaClass javaClass) {
+		String name = javaClass.getName();
+		if (changedClassNames.contains(name)) {
+			return true;
+		}
+		// 内部类随宿主类一起变化
+		int pos = name.indexOf(InnerClassSymbol);
+		return pos > 0 && changedClassNames.contains(name.substring(0, pos));
+	}
+
+	/**
+	 * 表关系和Http关系依赖于全部Class的信息，无法增量计算
+	 *
+	 * @param javaClass
+	 * @return
+	 */
+	private boolean isGlobalRelated(JavaClass javaClass) {
+		JavaClassDetail info = javaClass.getDetail();
+		if (info.getTables().size() > 0 || info.isHttpCaller() || info.getRequestMapping() != null) {
+			return true;
+		}
+		for (Method method : info.getMethods()) {
+			if (method.getRequestMapping() != null) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean isReferenced(JavaClassDetail info, Collection<String> classNames) {
+		if (info.getSuperClassName() != null && classNames.contains(info.getSuperClassName())) {
+			return true;
+		}
+		for (String name : info.getInterfaceNames()) {
+			if (classNames.contains(name)) {
+				return true;
+			}
+		}
+		for (String name : info.getAttributeTypes()) {
+			if (classNames.contains(name)) {
+				return true;
+			}
+		}
+		for (String name : info.getParamTypes()) {
+			if (classNames.contains(name)) {
+				return true;
+			}
+		}
+		for (String name : info.getVariableTypes()) {
+			if (classNames.contains(name)) {
+				return true;
+			}
+		}
+		for (Method method : info.getMethods()) {
+			for (InvokeItem invokeItem : method.getInvokeItems()) {
+				if (invokeItem instanceof LocalInvokeItem
+						&& classNames.contains(((LocalInvokeItem) invokeItem).getInvokeClassName())) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * 复制上次分析中的传出关系，同时为目标Class增加传入关系
+	 *
+	 * @param previousClass
+	 * @param javaClass
+	 * @param javaClasses
+	 */
+	private void copyCeItems(JavaClass previousClass, JavaClass javaClass, JavaClassCollection javaClasses) {
+		JavaClass target;
+		JavaClassRelationItem newItem;
+		for (JavaClassRelationItem item : previousClass.getSelfCeItems()) {
+			target = javaClasses.getTheClass(item.getTarget().getId());
+			if (target != null) {
+				newItem = new JavaClassRelationItem();
+				newItem.setType(item.getType());
+				newItem.setTarget(target);
+				newItem.setSource(javaClass);
+
+				javaClass.addCeItems(newItem);
+				target.addCaItems(newItem);
+			}
+		}
+	}
+}
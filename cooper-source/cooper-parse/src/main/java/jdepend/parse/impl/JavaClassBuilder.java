@@ -4,23 +4,33 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintWriter;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
 
 import jdepend.framework.exception.JDependException;
 import jdepend.framework.file.AnalyzeData;
+import jdepend.framework.file.TargetFileHandler;
 import jdepend.framework.file.TargetFileInfo;
+import jdepend.framework.file.TargetFileManager;
 import jdepend.framework.log.LogUtil;
-import jdepend.framework.util.ThreadPool;
+import jdepend.framework.util.AnalysisExecutor;
+import jdepend.metadata.InvokeItem;
 import jdepend.metadata.JavaClass;
+import jdepend.metadata.LocalInvokeItem;
+import jdepend.metadata.Method;
 import jdepend.metadata.util.JavaClassCollection;
 import jdepend.metadata.util.JavaClassUtil;
+import jdepend.parse.AnalysisScope;
 import jdepend.parse.ParseConfigurator;
+import jdepend.parse.ParseException;
 import jdepend.parse.ParseListener;
-import jdepend.parse.sql.ConfigParseMgr;
 
 /**
  * The <code>JavaClassBuilder</code> builds <code>JavaClass</code> instances
@@ -36,7 +46,14 @@ public class JavaClassBuilder extends AbstractClassBuilder {
 
 	private Collection<JavaClass> javaClasses;
 
-	private int count = 0;
+	private final AtomicInteger count = new AtomicInteger();
+
+	private ParseCache parseCache;
+
+	/**
+	 * 流式解析时等待解析的类文件个数上限
+	 */
+	static final int StreamBufferSize = AnalysisExecutor.getParallelism() * 16;
 
 	public JavaClassBuilder(ParseConfigurator conf) {
 		this.setConf(conf);
@@ -46,8 +63,33 @@ public class JavaClassBuilder extends AbstractClassBuilder {
 
 	@Override
 	public Collection<JavaClass> build(AnalyzeData data) {
-		if (this.javaClasses == null || this.getConf().getEveryClassBuild()) {
+		try {
+			return this.build(data, null);
+		} catch (ParseException e) {
+			e.printStackTrace();
+			return this.javaClasses;
+		}
+	}
+
+	/**
+	 * 构建Classes
+	 * 
+	 * @param data
+	 * @param fileManager
+	 *            不为空时类文件内容由fileManager流式读取，data中只包含类名和配置文件
+	 * @return
+	 * @throws ParseException
+	 */
+	@Override
+	public Collection<JavaClass> build(AnalyzeData data, TargetFileManager fileManager) throws ParseException {
+		if (this.javaClasses == null || this.getConf().getEveryClassBuild() || this.getPreviousClasses() != null) {
 			javaClasses = new HashSet<JavaClass>();
+			// 设置本次分析的上下文，未设置时每次构建使用新的上下文
+			if (this.getAnalysisScope() != null) {
+				this.parser.setAnalysisScope(this.getAnalysisScope());
+			} else {
+				this.parser.setAnalysisScope(new AnalysisScope());
+			}
 			// 设置本次分析的classNames
 			this.parser.getConf().getPackageFilter().setClassNames(data.getClassNames());
 			// 解析Config
@@ -55,7 +97,11 @@ public class JavaClassBuilder extends AbstractClassBuilder {
 				this.parseConfigs(data.getConfigs());
 			}
 			// 解析JavaClasses
-			this.parseClasses(data.getClasses());
+			if (fileManager == null) {
+				this.parseClasses(data.getClasses());
+			} else {
+				this.parseClasses(data, fileManager);
+			}
 			// 补充JavaClassDetail信息
 			if (this.isSupplyJavaClassDetail()) {
 				LogUtil.getInstance(JavaClassBuilder.class).systemLog(
@@ -69,8 +115,14 @@ public class JavaClassBuilder extends AbstractClassBuilder {
 			// 建立Class的关系
 			if (this.isBuildClassRelation()) {
 				LogUtil.getInstance(JavaClassBuilder.class).systemLog("开始建立Class的关系");
-				(new JavaClassRelationCreator(this.getConf())).create(new JavaClassCollection(this.parser.getConf()
-						.getJavaClassRelationTypes(), this.javaClasses));
+				JavaClassCollection javaClassCollection = new JavaClassCollection(this.parser.getConf()
+						.getJavaClassRelationTypes(), this.javaClasses);
+				if (this.getPreviousClasses() != null) {
+					this.setAffectedClassIds(new IncrementalRelationCreator(this.getConf(), this.getPreviousClasses(),
+							this.getChangedClassNames()).create(javaClassCollection));
+				} else {
+					(new JavaClassRelationCreator(this.getConf())).create(javaClassCollection);
+				}
 			}
 			// 发出事件
 			this.onClassBuild(this.javaClasses);
@@ -80,7 +132,7 @@ public class JavaClassBuilder extends AbstractClassBuilder {
 
 	private void parseConfigs(Map<String, List<TargetFileInfo>> configs) {
 		try {
-			ConfigParseMgr.getInstance().parse(configs);
+			this.parser.getAnalysisScope().getConfigParseMgr().parse(configs);
 		} catch (JDependException e) {
 			e.printStackTrace();
 		}
@@ -90,49 +142,155 @@ public class JavaClassBuilder extends AbstractClassBuilder {
 
 		this.initParseClasses();
 
-		ExecutorService pool = ThreadPool.getPool();
-
-		for (final String place : classes.keySet()) {
-			for (final TargetFileInfo classData : classes.get(place)) {
-				pool.execute(new Runnable() {
-					@Override
-					public void run() {
-						InputStream is = null;
-						try {
-							LogUtil.getInstance(JavaClassBuilder.class).systemLog(
-									"开始解析文件[" + classData.getName() + "]" + (count++));
-							is = new ByteArrayInputStream(classData.getContent());
-							JavaClass javaClass = parser.parse(place, is);
-							if (parser.getConf().getPackageFilter().accept(javaClass.getPackageName())) {
-								synchronized (javaClasses) {
-									javaClasses.add(javaClass);
-								}
-							}
-						} catch (Exception e) {
-							e.printStackTrace();
-						} finally {
-							if (is != null) {
-								try {
-									is.close();
-								} catch (IOException e) {
-									e.printStackTrace();
-								}
+		// 全部位置的类文件作为一个阶段并行解析
+		final List<String> places = new ArrayList<String>();
+		final List<TargetFileInfo> classDatas = new ArrayList<TargetFileInfo>();
+		for (String place : classes.keySet()) {
+			for (TargetFileInfo classData : classes.get(place)) {
+				places.add(place);
+				classDatas.add(classData);
+			}
+		}
+
+		AnalysisExecutor.forEach("parseClass", classDatas.size(), new IntConsumer() {
+			@Override
+			public void accept(int index) {
+				parseClass(places.get(index), classDatas.get(index));
+			}
+		});
+
+		this.onParseCache();
+	}
+
+	/**
+	 * 流式解析类文件
+	 * 
+	 * 读取线程每读到一个类文件便提交解析，等待解析的类文件个数超过StreamBufferSize时读取线程等待；
+	 * 类文件内容在解析后即释放，内存中只保留有限个类文件内容。
+	 * 
+	 * @param data
+	 * @param fileManager
+	 * @throws ParseException
+	 */
+	private void parseClasses(final AnalyzeData data, TargetFileManager fileManager) throws ParseException {
+
+		this.initParseClasses();
+
+		final AnalysisExecutor.Phase phase = AnalysisExecutor.startPhase("parseClass");
+		final Semaphore buffer = new Semaphore(StreamBufferSize);
+
+		IOException readException = null;
+		try {
+			fileManager.readClassDatas(new TargetFileHandler() {
+				@Override
+				public void handle(String place, final TargetFileInfo classData) throws IOException {
+					final String smallPlace = data.getSmallPlace(place);
+					buffer.acquireUninterruptibly();
+					phase.execute(new Runnable() {
+						@Override
+						public void run() {
+							try {
+								parseClass(smallPlace, classData);
+							} finally {
+								classData.setContent(null);
+								buffer.release();
 							}
 						}
-					}
-				});
-			}
+					});
+				}
+			});
+		} catch (IOException e) {
+			readException = e;
+		} finally {
+			phase.await();
+		}
+		if (readException != null) {
+			throw new ParseException(readException);
 		}
 
-		ThreadPool.awaitTermination(pool);
+		this.onParseCache();
+	}
+
+	private void parseClass(String place, TargetFileInfo classData) {
+		InputStream is = null;
+		try {
+			LogUtil.getInstance(JavaClassBuilder.class).systemLog("开始解析文件[{}]{}", classData.getName(), count.getAndIncrement());
+			JavaClass javaClass = null;
+			String cacheKey = null;
+			if (parseCache != null) {
+				cacheKey = parseCache.getKey(place, classData.getContent());
+				javaClass = parseCache.get(cacheKey);
+				if (javaClass != null) {
+					parser.onParsedJavaClass(javaClass);
+				}
+			}
+			if (javaClass == null) {
+				is = new ByteArrayInputStream(classData.getContent());
+				javaClass = parser.parse(place, is);
+				if (cacheKey != null) {
+					parseCache.put(cacheKey, javaClass);
+				}
+			}
+			this.filterInvokeItems(javaClass);
+			if (parser.getConf().getPackageFilter().accept(javaClass.getPackageName())) {
+				synchronized (javaClasses) {
+					javaClasses.add(javaClass);
+				}
+			}
+		} catch (Exception e) {
+			e.printStackTrace();
+		} finally {
+			if (is != null) {
+				try {
+					is.close();
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+			}
+		}
 	}
 
 	private void initParseClasses() {
-		count = 0;
+		count.set(0);
 		String parsemodel = getParseModel();
 		if (parsemodel != null) {
 			parser.setModel(parsemodel);
 		}
+		// 解析缓存键包含配置文件中的表信息，需在parseConfigs之后创建
+		if (this.getConf().getParseCache()) {
+			parseCache = new ParseCache(parser);
+		} else {
+			parseCache = null;
+		}
+	}
+
+	private void onParseCache() {
+		if (parseCache != null) {
+			LogUtil.getInstance(JavaClassBuilder.class).systemLog(
+					"解析缓存命中：" + parseCache.getHitCount() + "，未命中：" + parseCache.getMissCount());
+			parser.onParseCache(parseCache.getHitCount(), parseCache.getMissCount());
+			parseCache.sweep();
+		}
+	}
+
+	/**
+	 * 删除调用本次分析之外的类的LocalInvokeItem
+	 * 
+	 * @param javaClass
+	 */
+	private void filterInvokeItems(JavaClass javaClass) {
+		PackageFilter filter = parser.getConf().getPackageFilter();
+		InvokeItem invokeItem;
+		for (Method method : javaClass.getDetail().getMethods()) {
+			Iterator<InvokeItem> it = method.getInvokeItems().iterator();
+			while (it.hasNext()) {
+				invokeItem = it.next();
+				if (invokeItem instanceof LocalInvokeItem
+						&& !filter.acceptClass(((LocalInvokeItem) invokeItem).getInvokeClassName())) {
+					it.remove();
+				}
+			}
+		}
 	}
 
 	private void appendExtClasses() {
@@ -1,9 +1,10 @@
 package jdepend.parse.impl;
 
-import java.util.concurrent.ExecutorService;
+import java.util.Collection;
+import java.util.function.Consumer;
 
 import jdepend.framework.log.LogUtil;
-import jdepend.framework.util.ThreadPool;
+import jdepend.framework.util.AnalysisExecutor;
 import jdepend.metadata.JavaClass;
 import jdepend.metadata.JavaClassRelationType;
 import jdepend.metadata.relationtype.JavaClassRelationTypes;
@@ -27,31 +28,31 @@ public class JavaClassRelationCreator {
 	}
 
 	public void create(final JavaClassCollection javaClasses) {
+		this.create(javaClasses, javaClasses.getJavaClasses());
+	}
 
-		this.init(javaClasses);
-
-		ExecutorService pool = ThreadPool.getPool();
+	/**
+	 * 只为指定的Class建立关系（关系的目标仍在全部Class中查找）
+	 * 
+	 * @param javaClasses
+	 * @param sources
+	 */
+	public void create(final JavaClassCollection javaClasses, Collection<JavaClass> sources) {
 
-		for (final String unit : javaClasses.getUnitJavaClasses().keySet()) {
-			pool.execute(new Runnable() {
-				@Override
-				public void run() {
-					for (JavaClass javaClass : javaClasses.getUnitJavaClasses().get(unit)) {
+		this.init(javaClasses);
 
-						if (javaClass.isInner()) {
-							LogUtil.getInstance(JavaClassRelationCreator.class).systemLog(
-									"开始建立Class的关系:" + javaClass.getName());
+		AnalysisExecutor.forEach("createJavaClassRelation", sources, new Consumer<JavaClass>() {
+			@Override
+			public void accept(JavaClass javaClass) {
+				if (javaClass.isInner()) {
+					LogUtil.getInstance(JavaClassRelationCreator.class).systemLog("开始建立Class的关系:{}",
+							javaClass.getName());
 
-							for (JavaClassRelationType javaClassRelationType : javaClassRelationTypes.getTypes()
-									.values()) {
-								javaClassRelationType.create(javaClass, javaClasses);
-							}
-						}
+					for (JavaClassRelationType javaClassRelationType : javaClassRelationTypes.getTypes().values()) {
+						javaClassRelationType.create(javaClass, javaClasses);
 					}
 				}
-			});
-		}
-
-		ThreadPool.awaitTermination(pool);
+			}
+		});
 	}
 }
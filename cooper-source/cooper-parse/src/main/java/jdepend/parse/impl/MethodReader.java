@@ -4,9 +4,12 @@ import jdepend.metadata.Method;
 
 /**
  * 方法內容读取器
- * 
+ *
+ * 由MethodReaderChain直接从字节码和常量池中解析出指令操作数后回调，类名已转换为以"."分隔的形式，
+ * signature保持字节码中的原始格式。
+ *
  * @author user
- * 
+ *
  */
 public abstract class MethodReader {
 
@@ -17,6 +20,35 @@ public abstract class MethodReader {
 		this.method = method;
 	}
 
-	protected abstract void readInfo(int opcode, String info);
+	/**
+	 * 读取方法调用指令（invokevirtual、invokespecial、invokestatic、invokeinterface）
+	 *
+	 * @param opcode
+	 * @param owner
+	 * @param name
+	 * @param signature
+	 */
+	protected void readInvoke(int opcode, String owner, String name, String signature) {
+	}
+
+	/**
+	 * 读取属性访问指令（getfield、putfield、getstatic、putstatic）
+	 *
+	 * @param opcode
+	 * @param owner
+	 * @param name
+	 * @param signature
+	 */
+	protected void readField(int opcode, String owner, String name, String signature) {
+	}
+
+	/**
+	 * 读取字符串常量加载指令（ldc）
+	 *
+	 * @param opcode
+	 * @param value
+	 */
+	protected void readConstant(int opcode, String value) {
+	}
 
 }
@@ -1,52 +1,186 @@
 package jdepend.parse.impl;
 
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.bcel.Const;
 import org.apache.bcel.classfile.Code;
-import org.apache.bcel.classfile.Utility;
-import org.apache.bcel.util.ByteSequence;
+import org.apache.bcel.classfile.Constant;
+import org.apache.bcel.classfile.ConstantCP;
+import org.apache.bcel.classfile.ConstantClass;
+import org.apache.bcel.classfile.ConstantNameAndType;
+import org.apache.bcel.classfile.ConstantPool;
+import org.apache.bcel.classfile.ConstantString;
+import org.apache.bcel.classfile.ConstantUtf8;
 
+/**
+ * 方法字节码读取链
+ *
+ * 直接遍历Code中的字节数组，按常量池索引解析调用和属性访问指令的操作数后分发给各MethodReader，
+ * 不再将每条指令反汇编为字符串。同一个类的多个方法可复用一个读取链，以共享常量池中类名的转换结果。
+ *
+ * @author user
+ *
+ */
 public class MethodReaderChain {
 
 	private List<MethodReader> readers = new ArrayList<MethodReader>();
 
+	private ConstantPool constantPool;
+
+	private String[] classNames;
+
 	public void addReader(MethodReader reader) {
 		readers.add(reader);
 	}
 
+	public void clearReaders() {
+		readers.clear();
+	}
+
 	public final void read(org.apache.bcel.classfile.Method obj) {
 
 		Code codeType = obj.getCode();
 		if (codeType != null) {
 			byte[] code = codeType.getCode();
 			if (code.length > 0) {
-				ByteSequence stream = new ByteSequence(code);
-				String info;
-
+				this.setConstantPool(obj.getConstantPool());
 				try {
-					while (stream.available() > 0) {
-						int opcode = code[stream.getIndex()] & 0xff;
-						info = Utility.codeToString(stream, obj.getConstantPool(), true);
-						for (MethodReader reader : readers) {
-							reader.readInfo(opcode, info);
+					int pc = 0;
+					int length;
+					while (pc < code.length) {
+						length = this.readInstruction(code, pc);
+						if (length <= 0) {
+							break;
 						}
-
+						pc += length;
 					}
 				} catch (Exception e) {
 					e.printStackTrace();
-				} finally {
-					if (stream != null) {
-						try {
-							stream.close();
-						} catch (IOException e) {
-							e.printStackTrace();
-						}
-					}
 				}
 			}
 		}
 	}
+
+	/**
+	 * 读取一条指令并返回该指令的字节长度
+	 *
+	 * @param code
+	 * @param pc
+	 * @return 指令长度，无法识别的指令返回-1
+	 */
+	private int readInstruction(byte[] code, int pc) {
+
+		int opcode = code[pc] & 0xff;
+		int index;
+
+		switch (opcode) {
+		case Const.INVOKEVIRTUAL:
+		case Const.INVOKESPECIAL:
+		case Const.INVOKESTATIC:
+		case Const.INVOKEINTERFACE:
+			index = readUnsignedShort(code, pc + 1);
+			this.dispatchMemberRef(opcode, index, true);
+			return opcode == Const.INVOKEINTERFACE ? 5 : 3;
+		case Const.GETFIELD:
+		case Const.PUTFIELD:
+		case Const.GETSTATIC:
+		case Const.PUTSTATIC:
+			index = readUnsignedShort(code, pc + 1);
+			this.dispatchMemberRef(opcode, index, false);
+			return 3;
+		case Const.LDC:
+			index = code[pc + 1] & 0xff;
+			this.dispatchConstant(opcode, index);
+			return 2;
+		case Const.TABLESWITCH: {
+			int pos = (pc + 4) & ~3;// 操作数按4字节对齐
+			int low = readInt(code, pos + 4);
+			int high = readInt(code, pos + 8);
+			return pos + 12 + (high - low + 1) * 4 - pc;
+		}
+		case Const.LOOKUPSWITCH: {
+			int pos = (pc + 4) & ~3;
+			int npairs = readInt(code, pos + 4);
+			return pos + 8 + npairs * 8 - pc;
+		}
+		case Const.WIDE:
+			return (code[pc + 1] & 0xff) == Const.IINC ? 6 : 4;
+		default:
+			short operands = Const.getNoOfOperands(opcode);
+			if (operands == Const.UNDEFINED) {
+				return -1;
+			}
+			return 1 + operands;
+		}
+	}
+
+	private void dispatchMemberRef(int opcode, int index, boolean isInvoke) {
+		Constant constant = constantPool.getConstant(index);
+		if (!(constant instanceof ConstantCP)) {
+			return;
+		}
+		ConstantCP memberRef = (ConstantCP) constant;
+		String owner = this.getClassName(memberRef.getClassIndex());
+		ConstantNameAndType nameAndType = (ConstantNameAndType) constantPool.getConstant(memberRef
+				.getNameAndTypeIndex());
+		String name = this.getUtf8(nameAndType.getNameIndex());
+		String signature = this.getUtf8(nameAndType.getSignatureIndex());
+
+		if (isInvoke) {
+			for (MethodReader reader : readers) {
+				reader.readInvoke(opcode, owner, name, signature);
+			}
+		} else {
+			for (MethodReader reader : readers) {
+				reader.readField(opcode, owner, name, signature);
+			}
+		}
+	}
+
+	private void dispatchConstant(int opcode, int index) {
+		Constant constant = constantPool.getConstant(index);
+		if (constant instanceof ConstantString) {
+			String value = this.getUtf8(((ConstantString) constant).getStringIndex());
+			for (MethodReader reader : readers) {
+				reader.readConstant(opcode, value);
+			}
+		}
+	}
+
+	private void setConstantPool(ConstantPool constantPool) {
+		if (this.constantPool != constantPool) {
+			this.constantPool = constantPool;
+			this.classNames = new String[constantPool.getLength()];
+		}
+	}
+
+	/**
+	 * 得到以"."分隔的类名，同一常量池中的类名只转换一次
+	 *
+	 * @param classIndex
+	 * @return
+	 */
+	private String getClassName(int classIndex) {
+		String className = classNames[classIndex];
+		if (className == null) {
+			ConstantClass constantClass = (ConstantClass) constantPool.getConstant(classIndex);
+			className = this.getUtf8(constantClass.getNameIndex()).replace('/', '.');
+			classNames[classIndex] = className;
+		}
+		return className;
+	}
+
+	private String getUtf8(int index) {
+		return ((ConstantUtf8) constantPool.getConstant(index)).getBytes();
+	}
+
+	private static int readUnsignedShort(byte[] code, int pos) {
+		return ((code[pos] & 0xff) << 8) | (code[pos + 1] & 0xff);
+	}
+
+	private static int readInt(byte[] code, int pos) {
+		return ((code[pos] & 0xff) << 24) | ((code[pos + 1] & 0xff) << 16) | ((code[pos + 2] & 0xff) << 8)
+				| (code[pos + 3] & 0xff);
+	}
 }
@@ -0,0 +1,349 @@
+package jdepend.parse.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jdepend.framework.context.JDependContext;
+import jdepend.framework.log.LogUtil;
+import jdepend.metadata.Attribute;
+import jdepend.metadata.InvokeItem;
+import jdepend.metadata.JavaClass;
+import jdepend.metadata.Method;
+import jdepend.metadata.TableInfo;
+import jdepend.parse.ParseConfigurator;
+import jdepend.parse.sql.TableInfoItem;
+
+/**
+ * 类文件解析结果缓存
+ *
+ * 将解析得到的JavaClass序列化保存在工作区的parsecache目录下。缓存键为以下内容的SHA-1摘要：
+ * 缓存格式版本、解析器、解析模式、包过滤列表、Http调用者类名、配置文件中解析出的表信息、类文件所在位置以及类文件内容。
+ * 任何一项发生变化都会得到不同的缓存键，过期的缓存文件不会被读到。
+ *
+ * 本次分析的类列表（PackageFilter.acceptClass）不参与缓存键，由JavaClassBuilder在解析后统一过滤。
+ *
+ * 缓存文件的修改时间记录最后一次命中的时间。写入了新缓存的解析结束后整理缓存目录：删除超过最长闲置时间的缓存，
+ * 总大小超过上限时从最久未命中的缓存开始删除，直到低于上限的90%。
+ *
+ * @author user
+ *
+ */
+public class ParseCache {
+
+	public static final String DEFAULT_CACHE_DIR = "parsecache";
+
+	/**
+	 * 解析逻辑或元数据结构发生不兼容变化时递增，使旧的缓存失效
+	 */
+	private static final int CacheVersion = 1;
+
+	/**
+	 * 缓存文件总大小上限
+	 */
+	public static final long MAX_CACHE_SIZE = 512L * 1024 * 1024;
+
+	/**
+	 * 缓存文件的最长闲置时间
+	 */
+	public static final long MAX_IDLE_TIME = TimeUnit.DAYS.toMillis(30);
+
+	private static final String TMP_SUFFIX = ".tmp";
+
+	private static final String Charset = "UTF-8";
+
+	private static final char[] HexDigits = "0123456789abcdef".toCharArray();
+
+	private final File cacheDir;
+
+	private final byte[] settingDigest;
+
+	private final long maxSize;
+
+	private final long maxIdleTime;
+
+	private final AtomicInteger hitCount = new AtomicInteger();
+
+	private final AtomicInteger missCount = new AtomicInteger();
+
+	private final AtomicLong addedSize = new AtomicLong();
+
+	public ParseCache(AbstractParser parser) {
+		this(new File(JDependContext.getWorkspacePath(), DEFAULT_CACHE_DIR), parser);
+	}
+
+	public ParseCache(File cacheDir, AbstractParser parser) {
+		this(cacheDir, parser, MAX_CACHE_SIZE, MAX_IDLE_TIME);
+	}
+
+	ParseCache(File cacheDir, AbstractParser parser, long maxSize, long maxIdleTime) {
+		this.cacheDir = cacheDir;
+		this.settingDigest = digest(calSetting(parser));
+		this.maxSize = maxSize;
+		this.maxIdleTime = maxIdleTime;
+	}
+
+	/**
+	 * 计算类文件对应的缓存键
+	 *
+	 * @param place
+	 * @param content
+	 * @return
+	 */
+	public String getKey(String place, byte[] content) {
+		MessageDigest md = createDigest();
+		md.update(settingDigest);
+		md.update(toBytes(place == null ? "" : place));
+		md.update((byte) 0);
+		md.update(content);
+		return toHex(md.digest());
+	}
+
+	/**
+	 * 读取缓存的解析结果
+	 *
+	 * @param key
+	 * @return 没有缓存或缓存不可读时返回null
+	 */
+	public JavaClass get(String key) {
+		File file = this.getFile(key);
+		if (!file.exists()) {
+			missCount.incrementAndGet();
+			return null;
+		}
+		ObjectInputStream ois = null;
+		try {
+			ois = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)));
+			JavaClass javaClass = (JavaClass) ois.readObject();
+			relink(javaClass);
+			file.setLastModified(System.currentTimeMillis());
+			hitCount.incrementAndGet();
+			return javaClass;
+		} catch (Exception e) {
+			LogUtil.getInstance(ParseCache.class).systemWarning("读取解析缓存[" + file.getPath() + "]失败：" + e.getMessage());
+			missCount.incrementAndGet();
+			return null;
+		} finally {
+			if (ois != null) {
+				try {
+					ois.close();
+				} catch (IOException ignore) {
+				}
+			}
+		}
+	}
+
+	/**
+	 * 保存解析结果，需在JavaClass被本次分析修改之前调用
+	 *
+	 * 先写入临时文件再改名，并发写入同一缓存键或中途失败都不会留下不完整的缓存文件。
+	 *
+	 * @param key
+	 * @param javaClass
+	 */
+	public void put(String key, JavaClass javaClass) {
+		File file = this.getFile(key);
+		File dir = file.getParentFile();
+		if (!dir.exists() && !dir.mkdirs() && !dir.exists()) {
+			LogUtil.getInstance(ParseCache.class).systemWarning("创建解析缓存目录[" + dir.getPath() + "]失败");
+			return;
+		}
+		File tmpFile = new File(dir, key + "." + Thread.currentThread().getId() + TMP_SUFFIX);
+		ObjectOutputStream oos = null;
+		try {
+			oos = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)));
+			oos.writeObject(javaClass);
+			oos.close();
+			oos = null;
+			if (tmpFile.renameTo(file)) {
+				addedSize.addAndGet(file.length());
+			} else if (!file.exists()) {
+				LogUtil.getInstance(ParseCache.class).systemWarning("保存解析缓存[" + file.getPath() + "]失败");
+			}
+		} catch (IOException e) {
+			LogUtil.getInstance(ParseCache.class).systemWarning("保存解析缓存[" + file.getPath() + "]失败：" + e.getMessage());
+		} finally {
+			if (oos != null) {
+				try {
+					oos.close();
+				} catch (IOException ignore) {
+				}
+			}
+			tmpFile.delete();
+		}
+	}
+
+	/**
+	 * 本次解析写入了新的缓存时整理缓存目录，删除闲置的缓存和临时文件，总大小超过上限时从最久未命中的缓存开始删除
+	 */
+	public void sweep() {
+		if (addedSize.getAndSet(0) == 0) {
+			return;
+		}
+		synchronized (ParseCache.class) {
+			long now = System.currentTimeMillis();
+			List<File> files = new ArrayList<File>();
+			long total = 0;
+			File[] dirs = this.cacheDir.listFiles();
+			if (dirs != null) {
+				for (File dir : dirs) {
+					File[] children = dir.listFiles();
+					if (children == null) {
+						continue;
+					}
+					for (File child : children) {
+						if (now - child.lastModified() > this.maxIdleTime) {
+							child.delete();
+						} else if (!child.getName().endsWith(TMP_SUFFIX)) {
+							files.add(child);
+							total += child.length();
+						}
+					}
+				}
+			}
+			if (total > this.maxSize) {
+				final Map<File, Long> accessTimes = new HashMap<File, Long>();
+				for (File file : files) {
+					accessTimes.put(file, file.lastModified());
+				}
+				Collections.sort(files, new Comparator<File>() {
+					@Override
+					public int compare(File o1, File o2) {
+						return accessTimes.get(o1).compareTo(accessTimes.get(o2));
+					}
+				});
+				long lowWater = this.maxSize - this.maxSize / 10;
+				int count = 0;
+				for (File file : files) {
+					if (total <= lowWater) {
+						break;
+					}
+					long length = file.length();
+					if (file.delete()) {
+						total -= length;
+						count++;
+					}
+				}
+				LogUtil.getInstance(ParseCache.class).systemLog("删除了" + count + "个最久未命中的解析缓存");
+			}
+		}
+	}
+
+	public int getHitCount() {
+		return hitCount.get();
+	}
+
+	public int getMissCount() {
+		return missCount.get();
+	}
+
+	public File getCacheDir() {
+		return cacheDir;
+	}
+
+	private File getFile(String key) {
+		return new File(new File(cacheDir, key.substring(0, 2)), key);
+	}
+
+	/**
+	 * 恢复反序列化后丢失的对象引用（Method、Attribute、InvokeItem中的transient字段）
+	 *
+	 * @param javaClass
+	 */
+	private static void relink(JavaClass javaClass) {
+		for (Attribute attribute : javaClass.getDetail().getAttributes()) {
+			attribute.setJavaClass(javaClass);
+		}
+		for (Method method : javaClass.getDetail().getMethods()) {
+			method.setJavaClass(javaClass);
+			for (InvokeItem invokeItem : method.getInvokeItems()) {
+				invokeItem.setCaller(method);
+			}
+		}
+	}
+
+	/**
+	 * 影响解析结果的配置项
+	 *
+	 * @param parser
+	 * @return
+	 */
+	private static String calSetting(AbstractParser parser) {
+		ParseConfigurator conf = parser.getConf();
+		StringBuilder setting = new StringBuilder();
+		setting.append("version=").append(CacheVersion).append('\n');
+		setting.append("parser=").append(parser.getClass().getName()).append('\n');
+		setting.append("model=").append(parser.getModel()).append('\n');
+
+		PackageFilter filter = conf.getPackageFilter();
+		if (filter != null) {
+			setting.append("filtered=").append(filter.getFiltered()).append('\n');
+			setting.append("notFiltered=").append(filter.getNotFiltered()).append('\n');
+		}
+		String[] httpInvokeClassNames = conf.getHttpInvokeClassNames();
+		if (httpInvokeClassNames != null) {
+			setting.append("httpInvokeClassNames=").append(Arrays.toString(httpInvokeClassNames)).append('\n');
+		}
+		if (AbstractParser.Model_Big.equals(parser.getModel())) {
+			appendTables(setting, parser, TableInfoItem.ClassNameType);
+			appendTables(setting, parser, TableInfoItem.KeyType);
+		}
+		return setting.toString();
+	}
+
+	private static void appendTables(StringBuilder setting, AbstractParser parser, String type) {
+		Map<String, List<TableInfo>> tables = new TreeMap<String, List<TableInfo>>(parser.getAnalysisScope()
+				.getConfigParseMgr().getTheTables(type));
+		for (String name : tables.keySet()) {
+			setting.append(type).append(':').append(name).append('=').append(tables.get(name)).append('\n');
+		}
+	}
+
+	private static byte[] digest(String value) {
+		return createDigest().digest(toBytes(value));
+	}
+
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-1");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static byte[] toBytes(String value) {
+		try {
+			return value.getBytes(Charset);
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String toHex(byte[] bytes) {
+		char[] chars = new char[bytes.length * 2];
+		for (int i = 0; i < bytes.length; i++) {
+			chars[i * 2] = HexDigits[(bytes[i] >> 4) & 0x0f];
+			chars[i * 2 + 1] = HexDigits[bytes[i] & 0x0f];
+		}
+		return new String(chars);
+	}
+}
@@ -103,7 +103,7 @@ public class SmallClassFileVisitor extends JDependClassFileVisitor {
 
 	@Override
 	public void visitField(Field obj) {
-		jdepend.metadata.Attribute attribute = new jdepend.metadata.Attribute(this.jClass, obj, false);
+		jdepend.metadata.Attribute attribute = new jdepend.metadata.Attribute(this.jClass, obj, null);
 		this.jClass.getDetail().addAttribute(attribute);
 		if (this.parser.isDebug()) {
 			this.parser.debug("visitField: obj.getSignature() = " + attribute.getSignature());
@@ -128,7 +128,7 @@ public class SmallClassFileVisitor extends JDependClassFileVisitor {
 	@Override
 	public void visitMethod(Method obj) {
 		if (!obj.isSynthetic()) {// 不采集编译器生成的Method
-			jdepend.metadata.Method method = new jdepend.metadata.Method(this.jClass, obj, false);
+			jdepend.metadata.Method method = new jdepend.metadata.Method(this.jClass, obj, null);
 			if (!obj.getName().equals("<clinit>")) {
 				this.jClass.getDetail().addMethod(method);
 				if (this.parser.isDebug()) {
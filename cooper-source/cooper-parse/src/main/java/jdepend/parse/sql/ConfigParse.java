@@ -4,6 +4,12 @@ import org.w3c.dom.Document;
 
 public interface ConfigParse {
 
-	public void parse(Document doc);
+	/**
+	 * 解析配置文件，得到的表信息加入tableInfoCollection
+	 * 
+	 * @param doc
+	 * @param tableInfoCollection
+	 */
+	public void parse(Document doc, TableInfoCollection tableInfoCollection);
 
 }
@@ -3,9 +3,13 @@ package jdepend.parse.sql;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -14,6 +18,7 @@ import javax.xml.parsers.ParserConfigurationException;
 import jdepend.framework.exception.JDependException;
 import jdepend.framework.file.TargetFileInfo;
 import jdepend.framework.log.LogUtil;
+import jdepend.framework.util.AnalysisExecutor;
 import jdepend.metadata.TableInfo;
 
 import org.w3c.dom.Document;
@@ -24,85 +29,128 @@ import org.xml.sax.SAXException;
 /**
  * 配置文件解析器
  * 
+ * 保存一次分析中从配置文件得到的表信息，由分析上下文AnalysisScope持有。
+ * 
+ * 各配置文件并行解析，结果按文件顺序合并；合并后按类型建立不可修改的索引，解析Class时按名称直接查找。
+ * 
  * @author wangdg
  * 
  */
 public final class ConfigParseMgr {
 
-	private static ConfigParseMgr inst = new ConfigParseMgr();
+	private static final String IBATIS_SQL_2_0 = "IBATIS_SQL_2_0";
+	private static final String IBATIS_Mapper_3_0 = "IBATIS_Mapper_3_0";
 
-	private Map<String, ConfigParse> parses = new HashMap<String, ConfigParse>();
+	private static final String Hibernate = "Hibernate";
 
-	private String currentXMLType;
+	private final Map<String, ConfigParse> parses = new HashMap<String, ConfigParse>();
 
-	private String IBATIS_SQL_2_0 = "IBATIS_SQL_2_0";
-	private String IBATIS_Mapper_3_0 = "IBATIS_Mapper_3_0";
+	private final TableInfoCollection tables = new TableInfoCollection();// 由this保护
 
-	private String Hibernate = "Hibernate";
-
-	private TableInfoCollection tables = new TableInfoCollection();
+	/**
+	 * 类型 -> 名称 -> 表信息，表信息变化时置为null，下次查找时重建
+	 */
+	private volatile Map<String, Map<String, List<TableInfo>>> indexes;
 
-	private ConfigParseMgr() {
+	public ConfigParseMgr() {
 		this.parses.put(IBATIS_SQL_2_0, new IBATIS20SQLConfigParse());
 		this.parses.put(IBATIS_Mapper_3_0, new IBATIS30MapperConfigParse());
 		this.parses.put(Hibernate, new HibernateConfigParse());
 	}
 
-	public static ConfigParseMgr getInstance() {
-		return inst;
-	}
-
 	public void parse(Map<String, List<TargetFileInfo>> configs) throws JDependException {
 
+		final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
 		try {
-			DocumentBuilder builder = getDocumentBuilder();
-			InputStream is = null;
-			Document doc = null;
-			int configCount = 0;
-			for (String place : configs.keySet()) {
-				for (TargetFileInfo config : configs.get(place)) {
-					try {
-						is = new ByteArrayInputStream(config.getContent());
-						doc = builder.parse(is);
-						if (currentXMLType != null && this.parses.get(currentXMLType) != null) {
-							this.parses.get(currentXMLType).parse(doc);
-						} else if (currentXMLType != null && this.parses.get(currentXMLType) == null) {
-							LogUtil.getInstance(ConfigParseMgr.class).systemWarning("未配置" + currentXMLType + "XML解析器。");
-						}
-						configCount++;
-					} catch (Exception e) {
-						e.printStackTrace();
-					} finally {
-						if (is != null) {
-							try {
-								is.close();
-							} catch (IOException e) {
-								e.printStackTrace();
-							}
-						}
-					}
-				}
-			}
-			LogUtil.getInstance(ConfigParseMgr.class).systemWarning("分析了" + configCount + "个XML文件。");
-
+			factory.newDocumentBuilder();
 		} catch (ParserConfigurationException e) {
 			e.printStackTrace();
 			throw new JDependException(e);
 		}
-	}
 
-	public Map<String, List<TableInfo>> getTheTables(String type) {
+		final List<TargetFileInfo> files = new ArrayList<TargetFileInfo>();
+		for (String place : configs.keySet()) {
+			files.addAll(configs.get(place));
+		}
 
-		Map<String, List<TableInfo>> theTableInfos = new HashMap<String, List<TableInfo>>();
+		final TableInfoCollection[] results = new TableInfoCollection[files.size()];
+		final AtomicInteger configCount = new AtomicInteger();
+		AnalysisExecutor.forEach("parseConfig", files.size(), new IntConsumer() {
+			@Override
+			public void accept(int index) {
+				results[index] = parse(factory, files.get(index));
+				if (results[index] != null) {
+					configCount.incrementAndGet();
+				}
+			}
+		});
 
-		for (TableInfoItem item : this.tables.getTableInfos()) {
-			if (item.getType().equals(type)) {
-				theTableInfos.put(item.getName(), item.getTableInfos());
+		synchronized (this) {
+			for (TableInfoCollection result : results) {
+				if (result != null) {
+					this.tables.addAll(result);
+				}
 			}
+			this.indexes = null;
 		}
+		this.getIndexes();
 
-		return theTableInfos;
+		LogUtil.getInstance(ConfigParseMgr.class).systemWarning("分析了" + configCount.get() + "个XML文件。");
+	}
 
+	/**
+	 * 解析一个配置文件
+	 * 
+	 * @param factory
+	 * @param config
+	 * @return 解析失败时返回null
+	 */
+	private TableInfoCollection parse(DocumentBuilderFactory factory, TargetFileInfo config) {
+		TableInfoCollection result = new TableInfoCollection();
+		InputStream is = null;
+		try {
+			XMLTypeResolver resolver = new XMLTypeResolver();
+			DocumentBuilder builder;
+			synchronized (factory) {
+				builder = factory.newDocumentBuilder();
+			}
+			builder.setEntityResolver(resolver);
+			is = new ByteArrayInputStream(config.getContent());
+			Document doc = builder.parse(is);
+			String xmlType = resolver.getXMLType();
+			if (xmlType != null && this.parses.get(xmlType) != null) {
+				this.parses.get(xmlType).parse(doc, result);
+			} else if (xmlType != null && this.parses.get(xmlType) == null) {
+				LogUtil.getInstance(ConfigParseMgr.class).systemWarning("未配置" + xmlType + "XML解析器。");
+			}
+			return result;
+		} catch (Exception e) {
+			e.printStackTrace();
+			return null;
+		} finally {
+			if (is != null) {
+				try {
+					is.close();
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+			}
+		}
+	}
+
+	/**
+	 * 得到指定类型的表信息
+	 * 
+	 * @param type
+	 * @return 名称 -> 表信息，不可修改
+	 */
+	public Map<String, List<TableInfo>> getTheTables(String type) {
+		Map<String, List<TableInfo>> theTableInfos = this.getIndexes().get(type);
+		if (theTableInfos == null) {
+			return Collections.emptyMap();
+		} else {
+			return theTableInfos;
+		}
 	}
 
 	/**
@@ -113,49 +161,79 @@ public final class ConfigParseMgr {
 	 * @param tbs
 	 *            表信息
 	 */
-	public void addTables(String type, Map<String, List<TableInfo>> tbs) {
-		for (String name : tbs.keySet()) {
-			this.tables.addItem(name, type, tbs.get(name));
-		}
+	public synchronized void addTables(String type, Map<String, List<TableInfo>> tbs) {
+		this.tables.addTables(type, tbs);
+		this.indexes = null;
 	}
-	
-	public void clear(){
-		this.tables = new TableInfoCollection();
+
+	private Map<String, Map<String, List<TableInfo>>> getIndexes() {
+		Map<String, Map<String, List<TableInfo>>> current = this.indexes;
+		if (current == null) {
+			synchronized (this) {
+				current = this.indexes;
+				if (current == null) {
+					current = this.createIndexes();
+					this.indexes = current;
+				}
+			}
+		}
+		return current;
 	}
-	
-	public void init(){
-		this.tables = new TableInfoCollection();
+
+	/**
+	 * 按类型建立索引，同一名称后加入的表信息覆盖先加入的
+	 * 
+	 * @return
+	 */
+	private Map<String, Map<String, List<TableInfo>>> createIndexes() {
+		Map<String, Map<String, List<TableInfo>>> typeIndexes = new HashMap<String, Map<String, List<TableInfo>>>();
+		Map<String, List<TableInfo>> index;
+		for (TableInfoItem item : this.tables.getTableInfos()) {
+			index = typeIndexes.get(item.getType());
+			if (index == null) {
+				index = new HashMap<String, List<TableInfo>>();
+				typeIndexes.put(item.getType(), index);
+			}
+			index.put(item.getName(), Collections.unmodifiableList(item.getTableInfos()));
+		}
+		for (String type : typeIndexes.keySet()) {
+			typeIndexes.put(type, Collections.unmodifiableMap(typeIndexes.get(type)));
+		}
+		return typeIndexes;
 	}
 
-	private DocumentBuilder getDocumentBuilder() throws ParserConfigurationException {
-
-		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-		DocumentBuilder builder = factory.newDocumentBuilder();
-		builder.setEntityResolver(new EntityResolver() {
-			public InputSource resolveEntity(String publicId, String systemId) throws SAXException, IOException {
-				if (publicId != null) {
-					if (publicId.equalsIgnoreCase("-//ibatis.apache.org//DTD SQL Map 2.0//EN")) {
-						currentXMLType = IBATIS_SQL_2_0;
-					} else if (publicId.equalsIgnoreCase("-//iBATIS.com//DTD SQL Map 2.0//EN")) {
-						currentXMLType = IBATIS_SQL_2_0;
-					} else if (publicId.equalsIgnoreCase("-//ibatis.apache.org//DTD Mapper 3.0//EN")) {
-						currentXMLType = IBATIS_Mapper_3_0;
-					} else if (publicId.equalsIgnoreCase("-//Hibernate/Hibernate Mapping DTD 3.0//EN")) {
-						currentXMLType = Hibernate;
-					} else if (publicId.equalsIgnoreCase("-//Hibernate/Hibernate Mapping DTD//EN")) {
-						currentXMLType = Hibernate;
-					} else {
-						LogUtil.getInstance(ConfigParseMgr.class).systemWarning("未处理" + publicId + "说明的XML。");
-						currentXMLType = null;
-					}
+	/**
+	 * 根据DTD的publicId识别XML类型，每个配置文件使用一个
+	 */
+	private static final class XMLTypeResolver implements EntityResolver {
+
+		private String xmlType;
+
+		public String getXMLType() {
+			return xmlType;
+		}
+
+		public InputSource resolveEntity(String publicId, String systemId) throws SAXException, IOException {
+			if (publicId != null) {
+				if (publicId.equalsIgnoreCase("-//ibatis.apache.org//DTD SQL Map 2.0//EN")) {
+					xmlType = IBATIS_SQL_2_0;
+				} else if (publicId.equalsIgnoreCase("-//iBATIS.com//DTD SQL Map 2.0//EN")) {
+					xmlType = IBATIS_SQL_2_0;
+				} else if (publicId.equalsIgnoreCase("-//ibatis.apache.org//DTD Mapper 3.0//EN")) {
+					xmlType = IBATIS_Mapper_3_0;
+				} else if (publicId.equalsIgnoreCase("-//Hibernate/Hibernate Mapping DTD 3.0//EN")) {
+					xmlType = Hibernate;
+				} else if (publicId.equalsIgnoreCase("-//Hibernate/Hibernate Mapping DTD//EN")) {
+					xmlType = Hibernate;
 				} else {
-					LogUtil.getInstance(ConfigParseMgr.class).systemWarning("未处理不明publicId说明的XML。");
-					currentXMLType = null;
+					LogUtil.getInstance(ConfigParseMgr.class).systemWarning("未处理" + publicId + "说明的XML。");
+					xmlType = null;
 				}
-				return new InputSource(new ByteArrayInputStream("<?xml version='1.0' encoding='UTF-8'?>".getBytes()));
-
+			} else {
+				LogUtil.getInstance(ConfigParseMgr.class).systemWarning("未处理不明publicId说明的XML。");
+				xmlType = null;
 			}
-		});
-		return builder;
+			return new InputSource(new ByteArrayInputStream("<?xml version='1.0' encoding='UTF-8'?>".getBytes()));
+		}
 	}
 }
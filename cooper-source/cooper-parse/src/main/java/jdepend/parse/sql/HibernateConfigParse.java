@@ -16,7 +16,7 @@ import org.w3c.dom.NodeList;
 public class HibernateConfigParse implements ConfigParse {
 
 	@Override
-	public void parse(Document doc) {
+	public void parse(Document doc, TableInfoCollection tableInfoCollection) {
 		Map<String, List<TableInfo>> tables = new HashMap<String, List<TableInfo>>();
 		List<TableInfo> tableInfos;
 		TableInfo tableInfo;
@@ -40,7 +40,7 @@ public class HibernateConfigParse implements ConfigParse {
 		}
 		if (tables.size() > 0) {
 			LogUtil.getInstance(HibernateConfigParse.class).systemLog("tables:" + tables);
-			ConfigParseMgr.getInstance().addTables(TableInfoItem.ClassNameType, tables);
+			tableInfoCollection.addTables(TableInfoItem.ClassNameType, tables);
 		}
 	}
 }
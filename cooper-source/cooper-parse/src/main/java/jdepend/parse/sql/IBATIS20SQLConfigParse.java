@@ -15,7 +15,7 @@ import org.w3c.dom.NodeList;
 public class IBATIS20SQLConfigParse implements ConfigParse {
 
 	@Override
-	public void parse(Document doc) {
+	public void parse(Document doc, TableInfoCollection tableInfoCollection) {
 
 		Map<String, List<TableInfo>> tables = new HashMap<String, List<TableInfo>>();
 
@@ -36,6 +36,6 @@ public class IBATIS20SQLConfigParse implements ConfigParse {
 			}
 		}
 		LogUtil.getInstance(IBATIS20SQLConfigParse.class).systemLog("tables:" + tables);
-		ConfigParseMgr.getInstance().addTables(TableInfoItem.KeyType, tables);
+		tableInfoCollection.addTables(TableInfoItem.KeyType, tables);
 	}
 }
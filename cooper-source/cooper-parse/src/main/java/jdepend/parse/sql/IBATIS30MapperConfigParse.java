@@ -15,7 +15,7 @@ import org.w3c.dom.NodeList;
 public class IBATIS30MapperConfigParse implements ConfigParse {
 
 	@Override
-	public void parse(Document doc) {
+	public void parse(Document doc, TableInfoCollection tableInfoCollection) {
 
 		Map<String, List<TableInfo>> tables = new HashMap<String, List<TableInfo>>();
 
@@ -36,7 +36,7 @@ public class IBATIS30MapperConfigParse implements ConfigParse {
 			}
 		}
 		LogUtil.getInstance(IBATIS30MapperConfigParse.class).systemLog("tables:" + tables);
-		ConfigParseMgr.getInstance().addTables(TableInfoItem.ClassNameType, tables);
+		tableInfoCollection.addTables(TableInfoItem.ClassNameType, tables);
 
 	}
 
@@ -6,7 +6,8 @@ import jdepend.metadata.TableInfo;
 
 public class SqlParseUtil {
 	
-	private static SqlParser parser = new SqlParserSelf();
+	private static SqlParser parser = new SqlParserStream();
+//	private static SqlParser parser = new SqlParserSelf();
 //	private static SqlParser parser = new SqlParserThird();
 	
 	public static boolean isSQL(String arg){
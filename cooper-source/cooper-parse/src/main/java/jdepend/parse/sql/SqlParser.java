@@ -1,40 +1,78 @@
 package jdepend.parse.sql;
 
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 
 import jdepend.metadata.TableInfo;
 
 public abstract class SqlParser {
 
-	private static Collection<String> sqlKeys;
-
-	static {
-		sqlKeys = new ArrayList<String>();
-
-		sqlKeys.add("select ");
-		sqlKeys.add("insert ");
-		sqlKeys.add("update ");
-		sqlKeys.add("delete ");
-	}
-
+	/**
+	 * 是否包含SQL语句的开始关键字（select、insert、update、delete、merge后跟空格），不区分大小写
+	 * 
+	 * 在原字符串上按首字母选择关键字后逐位比较，不生成小写副本。
+	 * 
+	 * @param arg
+	 * @return
+	 */
 	public static boolean isSQL(String arg) {
-		if (arg == null) {
+		if (arg == null || arg.length() < 7) {
 			return false;
-		} else {
-			if (arg.length() < 7) {
-				return false;
-			}
-			arg = arg.toLowerCase();
-			for (String sqlKey : sqlKeys) {
-				if (arg.indexOf(sqlKey) != -1) {
+		}
+		int last = arg.length() - 5;
+		for (int i = 0; i < last; i++) {
+			switch (arg.charAt(i) | 0x20) {
+			case 's':
+				if (matches(arg, i, "select ")) {
+					return true;
+				}
+				break;
+			case 'i':
+				if (matches(arg, i, "insert ")) {
+					return true;
+				}
+				break;
+			case 'u':
+				if (matches(arg, i, "update ")) {
 					return true;
 				}
+				break;
+			case 'd':
+				if (matches(arg, i, "delete ")) {
+					return true;
+				}
+				break;
+			case 'm':
+				if (matches(arg, i, "merge ")) {
+					return true;
+				}
+				break;
+			default:
+				break;
 			}
+		}
+		return false;
+	}
+
+	/**
+	 * 从from开始是否为关键字，关键字由小写字母和结尾的空格组成
+	 * 
+	 * @param arg
+	 * @param from
+	 * @param key
+	 * @return
+	 */
+	private static boolean matches(String arg, int from, String key) {
+		int length = key.length();
+		if (from + length > arg.length()) {
 			return false;
 		}
-	};
+		for (int i = 1; i < length - 1; i++) {
+			if ((arg.charAt(from + i) | 0x20) != key.charAt(i)) {
+				return false;
+			}
+		}
+		return arg.charAt(from + length - 1) == ' ';
+	}
 
 	public abstract List<TableInfo> parserSql(String sql);
 
@@ -0,0 +1,391 @@
+package jdepend.parse.sql;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import jdepend.metadata.TableInfo;
+
+/**
+ * 单遍扫描的SQL表名解析器
+ *
+ * 逐个读取SQL中的单词和符号，不生成小写副本，不使用正则表达式；关键字按不区分大小写的方式原位比较。
+ * 识别select/join读取的表、insert写入的表、update/merge更新的表和delete删除的表，跳过字符串常量和注释。
+ * 子查询中的表在扫描到子查询时一并识别。
+ *
+ * @author <b>Abner</b>
+ *
+ */
+public class SqlParserStream extends SqlParser {
+
+	/**
+	 * 不能作为表名或别名的关键字
+	 */
+	private static final String[] ReservedWords = { "as", "on", "or", "by", "and", "not", "for", "set", "from",
+			"join", "into", "left", "full", "then", "when", "with", "lock", "where", "inner", "right", "outer", "cross",
+			"using", "group", "order", "union", "limit", "value", "fetch", "start", "minus", "having", "offset",
+			"values", "select", "insert", "update", "delete", "merge", "except", "nowait", "window", "natural",
+			"connect", "partition", "intersect", "returning" };
+
+	public List<TableInfo> parserSql(String sql) {
+		List<TableInfo> tables = new ArrayList<TableInfo>();
+		if (sql != null) {
+			new Scanner(sql, tables).parse();
+		}
+		return tables;
+	}
+
+	/**
+	 * 一次解析的扫描状态，当前单词为[start, end)
+	 */
+	private static final class Scanner {
+
+		private static final int End = 0;
+
+		private static final int Word = 1;
+
+		private static final int Symbol = 2;
+
+		private final String sql;
+
+		private final int length;
+
+		private final List<TableInfo> tables;
+
+		private int pos = 0;
+
+		private int type;
+
+		private int start;
+
+		private int end;
+
+		private boolean quoted;
+
+		/**
+		 * 已读过的未闭合括号数
+		 */
+		private int depth = 0;
+
+		/**
+		 * 以子查询作为表列表中一项时，子查询结束后继续读取表列表：记录子查询所在的括号层次和操作类型
+		 */
+		private int[] resumeDepths = new int[4];
+
+		private String[] resumeOperations = new String[4];
+
+		private int resumeCount = 0;
+
+		public Scanner(String sql, List<TableInfo> tables) {
+			this.sql = sql;
+			this.length = sql.length();
+			this.tables = tables;
+			this.advance();
+		}
+
+		public void parse() {
+			while (type != End) {
+				if (type == Symbol && sql.charAt(start) == ')') {
+					this.advance();
+					if (resumeCount > 0 && resumeDepths[resumeCount - 1] == depth) {
+						resumeCount--;
+						this.afterTable(resumeOperations[resumeCount], true);
+					}
+				} else if (is("from")) {
+					this.advance();
+					this.tableList(TableInfo.Read);
+				} else if (is("join")) {
+					this.advance();
+					this.table(TableInfo.Read, false);
+				} else if (is("insert")) {
+					this.advance();
+					this.insert();
+				} else if (is("update")) {
+					this.advance();
+					this.update();
+				} else if (is("delete")) {
+					this.advance();
+					this.delete();
+				} else if (is("merge")) {
+					this.advance();
+					this.merge();
+				} else {
+					this.advance();
+				}
+			}
+		}
+
+		/**
+		 * insert [into] table [alias] ( | values | select | set
+		 */
+		private void insert() {
+			if (is("into")) {
+				this.advance();
+			}
+			if (isName()) {
+				int tableStart = start;
+				int tableEnd = end;
+				boolean tableQuoted = quoted;
+				this.advance();
+				this.alias();
+				if (isSymbol('(') || is("values") || is("value") || is("select") || is("set") || is("with")) {
+					this.add(tableStart, tableEnd, tableQuoted, TableInfo.Create);
+				}
+			}
+		}
+
+		/**
+		 * update table [alias] set
+		 */
+		private void update() {
+			if (isName()) {
+				int tableStart = start;
+				int tableEnd = end;
+				boolean tableQuoted = quoted;
+				this.advance();
+				this.alias();
+				if (is("set")) {
+					this.add(tableStart, tableEnd, tableQuoted, TableInfo.Update);
+				}
+			}
+		}
+
+		/**
+		 * delete from table[, table] 或 delete table (where | ; | 结束)
+		 */
+		private void delete() {
+			if (is("from")) {
+				this.advance();
+				this.tableList(TableInfo.Delete);
+			} else if (isName()) {
+				int tableStart = start;
+				int tableEnd = end;
+				boolean tableQuoted = quoted;
+				this.advance();
+				if (type == End || is("where") || isSymbol(';')) {
+					this.add(tableStart, tableEnd, tableQuoted, TableInfo.Delete);
+				}
+			}
+		}
+
+		/**
+		 * merge into table [alias] using table
+		 */
+		private void merge() {
+			if (!is("into")) {
+				return;
+			}
+			this.advance();
+			if (isName()) {
+				this.add(start, end, quoted, TableInfo.Update);
+				this.advance();
+				this.alias();
+				if (is("using")) {
+					this.advance();
+					this.table(TableInfo.Read, false);
+				}
+			}
+		}
+
+		/**
+		 * 读取以逗号分隔的表列表
+		 *
+		 * @param operation
+		 */
+		private void tableList(String operation) {
+			this.table(operation, true);
+		}
+
+		private void table(String operation, boolean list) {
+			if (isSymbol('(')) {
+				// 子查询，其中的表由主循环识别
+				if (list) {
+					if (resumeCount == resumeDepths.length) {
+						resumeDepths = Arrays.copyOf(resumeDepths, resumeCount * 2);
+						resumeOperations = Arrays.copyOf(resumeOperations, resumeCount * 2);
+					}
+					resumeDepths[resumeCount] = depth;
+					resumeOperations[resumeCount] = operation;
+					resumeCount++;
+				}
+				this.advance();
+			} else if (isName()) {
+				this.add(start, end, quoted, operation);
+				this.advance();
+				this.afterTable(operation, list);
+			}
+		}
+
+		private void afterTable(String operation, boolean list) {
+			this.alias();
+			if (list && isSymbol(',')) {
+				this.advance();
+				this.table(operation, list);
+			}
+		}
+
+		/**
+		 * 跳过[as] alias
+		 */
+		private void alias() {
+			if (is("as")) {
+				this.advance();
+			}
+			if (isName()) {
+				this.advance();
+			}
+		}
+
+		private void add(int tableStart, int tableEnd, boolean tableQuoted, String operation) {
+			String name;
+			if (tableQuoted) {
+				StringBuilder builder = new StringBuilder(tableEnd - tableStart);
+				char c;
+				for (int i = tableStart; i < tableEnd; i++) {
+					c = sql.charAt(i);
+					if (c != '"' && c != '`' && c != '[' && c != ']') {
+						builder.append(c);
+					}
+				}
+				name = builder.toString();
+			} else {
+				name = sql.substring(tableStart, tableEnd);
+			}
+			if (name.length() > 0) {
+				TableInfo tableInfo = new TableInfo(name, operation);
+				if (!tables.contains(tableInfo)) {
+					tables.add(tableInfo);
+				}
+			}
+		}
+
+		private boolean is(String keyword) {
+			return type == Word && !quoted && end - start == keyword.length()
+					&& sql.regionMatches(true, start, keyword, 0, keyword.length());
+		}
+
+		private boolean isSymbol(char c) {
+			return type == Symbol && sql.charAt(start) == c;
+		}
+
+		/**
+		 * 当前单词可以作为表名或别名
+		 *
+		 * @return
+		 */
+		private boolean isName() {
+			if (type != Word) {
+				return false;
+			}
+			if (quoted) {
+				return true;
+			}
+			if (Character.isDigit(sql.charAt(start))) {
+				return false;
+			}
+			for (String reservedWord : ReservedWords) {
+				if (is(reservedWord)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * 读取下一个单词或符号，跳过空白、字符串常量和注释
+		 */
+		private void advance() {
+			if (type == Symbol) {
+				char c = sql.charAt(start);
+				if (c == '(') {
+					depth++;
+				} else if (c == ')' && depth > 0) {
+					depth--;
+				}
+			}
+			char c;
+			while (pos < length) {
+				c = sql.charAt(pos);
+				if (Character.isWhitespace(c)) {
+					pos++;
+				} else if (c == '\'') {
+					pos = this.skipString(pos + 1);
+				} else if (c == '-' && pos + 1 < length && sql.charAt(pos + 1) == '-') {
+					pos = this.skipTo("\n", pos + 2);
+				} else if (c == '/' && pos + 1 < length && sql.charAt(pos + 1) == '*') {
+					pos = this.skipTo("*/", pos + 2);
+				} else if (isNameStart(c) || c == '"' || c == '`' || c == '[') {
+					this.readWord();
+					return;
+				} else {
+					type = Symbol;
+					start = pos;
+					end = ++pos;
+					return;
+				}
+			}
+			type = End;
+			start = end = length;
+		}
+
+		/**
+		 * 读取单词，以.连接的多段（如schema.table）作为一个单词
+		 */
+		private void readWord() {
+			type = Word;
+			start = pos;
+			quoted = false;
+			char c;
+			int close;
+			while (pos < length) {
+				c = sql.charAt(pos);
+				if (c == '"' || c == '`' || c == '[') {
+					quoted = true;
+					close = sql.indexOf(c == '[' ? ']' : c, pos + 1);
+					pos = close == -1 ? length : close + 1;
+				} else if (isNameStart(c)) {
+					while (pos < length && isNamePart(sql.charAt(pos))) {
+						pos++;
+					}
+				} else {
+					break;
+				}
+				if (pos < length && sql.charAt(pos) == '.') {
+					pos++;
+				} else {
+					break;
+				}
+			}
+			end = pos;
+		}
+
+		private int skipString(int from) {
+			int i = from;
+			while (i < length) {
+				if (sql.charAt(i) == '\'') {
+					if (i + 1 < length && sql.charAt(i + 1) == '\'') {
+						i += 2;
+					} else {
+						return i + 1;
+					}
+				} else {
+					i++;
+				}
+			}
+			return length;
+		}
+
+		private int skipTo(String mark, int from) {
+			int i = sql.indexOf(mark, from);
+			return i == -1 ? length : i + mark.length();
+		}
+
+		private static boolean isNameStart(char c) {
+			return c == '_' || Character.isLetterOrDigit(c);
+		}
+
+		private static boolean isNamePart(char c) {
+			return c == '_' || c == '$' || c == '#' || Character.isLetterOrDigit(c);
+		}
+	}
+}
@@ -2,6 +2,7 @@ package jdepend.parse.sql;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import jdepend.metadata.TableInfo;
 
@@ -16,6 +17,24 @@ public final class TableInfoCollection {
 		}
 	}
 
+	/**
+	 * 增加表信息
+	 * 
+	 * @param type
+	 *            类型
+	 * @param tbs
+	 *            名称 -> 表信息
+	 */
+	public void addTables(String type, Map<String, List<TableInfo>> tbs) {
+		for (String name : tbs.keySet()) {
+			this.addItem(name, type, tbs.get(name));
+		}
+	}
+
+	public void addAll(TableInfoCollection collection) {
+		this.tableInfos.addAll(collection.tableInfos);
+	}
+
 	public List<TableInfoItem> getTableInfos() {
 		return tableInfos;
 	}
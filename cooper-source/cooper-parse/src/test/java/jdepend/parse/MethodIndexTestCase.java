@@ -0,0 +1,210 @@
+package jdepend.parse;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import jdepend.framework.config.PropertyConfigurator;
+import jdepend.framework.context.JDependContext;
+import jdepend.metadata.JavaClass;
+import jdepend.metadata.JavaPackage;
+import jdepend.metadata.LocalInvokeItem;
+import jdepend.metadata.Method;
+import jdepend.metadata.profile.defaultvalue.DefaultJavaClassRelationItemProfile;
+import jdepend.metadata.util.ParseUtil;
+import jdepend.parse.impl.PackageFilter;
+import junit.framework.TestCase;
+
+/**
+ * 校验JavaClass.getTheMethod(name, signature)按索引查找的结果与LocalInvokeItem.math2逐个匹配的语义一致：
+ * 重载方法按签名区分，参数类型不一致时找不到，继承的方法可以在子类上找到，覆盖的方法返回子类的方法
+ *
+ * @author user
+ *
+ */
+public class MethodIndexTestCase extends TestCase {
+
+	private File workspace;
+
+	private JavaClass base;
+
+	private JavaClass child;
+
+	@Override
+	protected void setUp() throws Exception {
+		workspace = new File(System.getProperty("java.io.tmpdir"), "methodindex-" + System.nanoTime());
+		if (JDependContext.getWorkspacePath() == null) {
+			File conf = new File(workspace, PropertyConfigurator.DEFAULT_PROPERTY_DIR);
+			conf.mkdirs();
+			new File(conf, PropertyConfigurator.DEFAULT_PROPERTY_FILE).createNewFile();
+			JDependContext.setWorkspacePath(workspace.getAbsolutePath());
+		}
+		this.compile("p/Base", "package p; public class Base {" //
+				+ " public void foo(String s) {}" //
+				+ " public void foo(int i) {}" //
+				+ " public <T> T first(java.util.List<T> list) { return null; }" //
+				+ " protected void bar(Object o) {}" //
+				+ " void hidden() {} }");
+		this.compile("p/Child", "package p; public class Child extends Base {" //
+				+ " public void foo(String s) {}" //
+				+ " public void foo(Object o) {}" //
+				+ " public java.util.List<String> names(java.util.Map<String, Integer> m) { return null; } }");
+
+		ParseConfigurator conf = new ParseConfigurator(new HashMap<String, String>());
+		conf.setPackageFilter(new PackageFilter(new ArrayList<String>(), new ArrayList<String>()));
+		conf.setJavaClassRelationTypes(new DefaultJavaClassRelationItemProfile().getJavaClassRelationTypes());
+		Parse parse = new Parse(conf);
+		parse.addDirectorys(new File(workspace, "classes").getAbsolutePath());
+		for (JavaPackage javaPackage : parse.execute()) {
+			for (JavaClass javaClass : javaPackage.getClasses()) {
+				if (javaClass.getName().equals("p.Base")) {
+					base = javaClass;
+				} else if (javaClass.getName().equals("p.Child")) {
+					child = javaClass;
+				}
+			}
+		}
+		assertNotNull(base);
+		assertNotNull(child);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		this.delete(workspace);
+	}
+
+	public void testOverloads() {
+		Method fooString = this.getTheMethod(child, "foo", "(Ljava/lang/String;)V");
+		Method fooInt = this.getTheMethod(child, "foo", "(I)V");
+		Method fooObject = this.getTheMethod(child, "foo", "(Ljava/lang/Object;)V");
+
+		// 覆盖的方法返回子类的方法
+		assertSame(child, fooString.getJavaClass());
+		assertSame(base, fooInt.getJavaClass());
+		assertSame(child, fooObject.getJavaClass());
+		assertNotSame(fooString, fooObject);
+	}
+
+	public void testArgumentTypes() {
+		assertNull(child.getTheMethod("foo", "(J)V"));
+		assertNull(child.getTheMethod("foo", "(Ljava/lang/Integer;)V"));
+		assertNull(child.getTheMethod("foo", "()V"));
+		assertNull(child.getTheMethod("unknown", "()V"));
+		// 父类上没有子类新增的重载
+		assertNull(base.getTheMethod("foo", "(Ljava/lang/Object;)V"));
+	}
+
+	public void testInherited() {
+		assertSame(base.getTheMethod("bar", "(Ljava/lang/Object;)V"),
+				this.getTheMethod(child, "bar", "(Ljava/lang/Object;)V"));
+		assertNotNull(base.getTheMethod("hidden", "()V"));
+		// 包可见的方法不能通过子类使用
+		assertNull(child.getTheMethod("hidden", "()V"));
+	}
+
+	public void testGenerics() {
+		Method first = null;
+		Method names = null;
+		for (Method method : child.getMethods()) {
+			if (method.getName().equals("first")) {
+				first = method;
+			} else if (method.getName().equals("names")) {
+				names = method;
+			}
+		}
+		assertTrue(first.getSignature().indexOf('<') != -1);
+		assertTrue(names.getSignature().indexOf('<') != -1);
+
+		// 完整签名和去掉泛型后的签名都可以找到
+		assertSame(first, this.getTheMethod(child, "first", first.getSignature()));
+		assertSame(first, this.getTheMethod(child, "first", ParseUtil.filterGenerics(first.getSignature())));
+		assertSame(names, this.getTheMethod(child, "names", ParseUtil.filterGenerics(names.getSignature())));
+	}
+
+	/**
+	 * 所有方法名与候选签名的组合上，索引查找的结果都与逐个用math2匹配的结果一致
+	 */
+	public void testSameAsMath2() {
+		for (JavaClass javaClass : new JavaClass[] { base, child }) {
+			List<String> names = new ArrayList<String>();
+			List<String> signatures = new ArrayList<String>();
+			for (Method method : child.getMethods()) {
+				names.add(method.getName());
+				signatures.add(method.getSignature());
+				signatures.add(ParseUtil.filterGenerics(method.getSignature()));
+			}
+			names.add("unknown");
+			signatures.add("(J)V");
+			for (String name : names) {
+				for (String signature : signatures) {
+					this.assertMath2(javaClass, name, signature);
+				}
+			}
+		}
+	}
+
+	private void assertMath2(JavaClass javaClass, String name, String signature) {
+		LocalInvokeItem item = new LocalInvokeItem("virtual", null, javaClass.getName(), name, signature);
+		List<Method> matched = new ArrayList<Method>();
+		Method exact = null;
+		for (Method method : javaClass.getMethods()) {
+			if (item.math2(method)) {
+				matched.add(method);
+				if (method.getSignature().equals(signature)) {
+					exact = method;
+				}
+			}
+		}
+		Method found = javaClass.getTheMethod(name, signature);
+		String message = javaClass.getName() + "." + name + signature;
+		if (matched.isEmpty()) {
+			assertNull(message, found);
+		} else {
+			assertTrue(message, matched.contains(found));
+			// 签名完全一致的方法优先
+			if (exact != null) {
+				assertSame(message, exact, found);
+			}
+		}
+	}
+
+	private Method getTheMethod(JavaClass javaClass, String name, String signature) {
+		Method method = javaClass.getTheMethod(name, signature);
+		assertNotNull(name + signature, method);
+		assertEquals(name, method.getName());
+		return method;
+	}
+
+	private void compile(String name, String source) throws IOException {
+		File sourceFile = new File(workspace, "src/" + name + ".java");
+		sourceFile.getParentFile().mkdirs();
+		OutputStream out = new FileOutputStream(sourceFile);
+		try {
+			out.write(source.getBytes("UTF-8"));
+		} finally {
+			out.close();
+		}
+		File classes = new File(workspace, "classes");
+		classes.mkdirs();
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		assertEquals(0, compiler.run(null, null, null, "-proc:none", "-d", classes.getAbsolutePath(), "-sourcepath",
+				new File(workspace, "src").getAbsolutePath(), sourceFile.getAbsolutePath()));
+	}
+
+	private void delete(File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				this.delete(child);
+			}
+		}
+		file.delete();
+	}
+}
@@ -0,0 +1,144 @@
+package jdepend.parse;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import jdepend.framework.config.PropertyConfigurator;
+import jdepend.framework.context.JDependContext;
+import jdepend.metadata.JavaClass;
+import jdepend.metadata.JavaClassRelationItem;
+import jdepend.metadata.JavaPackage;
+import jdepend.metadata.TableInfo;
+import jdepend.metadata.profile.defaultvalue.DefaultJavaClassRelationItemProfile;
+import jdepend.parse.impl.PackageFilter;
+import junit.framework.TestCase;
+
+/**
+ * 校验同一JVM中同时进行的多个解析互不影响：并行解析的结果与串行解析的结果一致
+ *
+ * @author user
+ *
+ */
+public class ParseConcurrencyTestCase extends TestCase {
+
+	private static final int Count = 4;
+
+	private static final String MapperClassName = "jdepend.parse.impl.JavaClassBuilder";
+
+	private File workspace;
+
+	private File configDir;
+
+	@Override
+	protected void setUp() throws Exception {
+		workspace = new File(System.getProperty("java.io.tmpdir"), "parseconcurrency-" + System.nanoTime());
+		if (JDependContext.getWorkspacePath() == null) {
+			File conf = new File(workspace, PropertyConfigurator.DEFAULT_PROPERTY_DIR);
+			conf.mkdirs();
+			new File(conf, PropertyConfigurator.DEFAULT_PROPERTY_FILE).createNewFile();
+			JDependContext.setWorkspacePath(workspace.getAbsolutePath());
+		}
+		configDir = new File(workspace, "config");
+		configDir.mkdirs();
+		OutputStream out = new FileOutputStream(new File(configDir, "Mapper.xml"));
+		try {
+			out.write(("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+					+ "<!DOCTYPE mapper PUBLIC \"-//ibatis.apache.org//DTD Mapper 3.0//EN\" \"mybatis-3-mapper.dtd\">\n"
+					+ "<mapper namespace=\"" + MapperClassName + "\">\n"
+					+ "<select id=\"select\">select * from T_CONCURRENCY</select>\n" + "</mapper>\n").getBytes("UTF-8"));
+		} finally {
+			out.close();
+		}
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		this.delete(workspace);
+	}
+
+	public void testConcurrentParse() throws Exception {
+		List<String> serial = new ArrayList<String>();
+		for (int i = 0; i < Count; i++) {
+			serial.add(this.parse());
+		}
+		String expected = serial.get(0);
+		assertTrue(expected.contains(MapperClassName + " table:T_CONCURRENCY"));
+		for (String result : serial) {
+			assertEquals(expected, result);
+		}
+
+		ExecutorService pool = Executors.newFixedThreadPool(Count);
+		try {
+			List<Future<String>> futures = new ArrayList<Future<String>>();
+			for (int i = 0; i < Count; i++) {
+				futures.add(pool.submit(new Callable<String>() {
+					@Override
+					public String call() throws Exception {
+						return parse();
+					}
+				}));
+			}
+			for (Future<String> future : futures) {
+				assertEquals(expected, future.get());
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * 解析本模块的类和配置文件，结果以类为单位排序后输出为文本
+	 *
+	 * @return
+	 * @throws Exception
+	 */
+	private String parse() throws Exception {
+		ParseConfigurator conf = new ParseConfigurator(new HashMap<String, String>());
+		conf.setPackageFilter(new PackageFilter(new ArrayList<String>(), new ArrayList<String>()));
+		conf.setJavaClassRelationTypes(new DefaultJavaClassRelationItemProfile().getJavaClassRelationTypes());
+
+		Parse parse = new Parse(conf);
+		parse.addDirectorys(new File("target/classes").getAbsolutePath());
+		parse.addDirectorys(configDir.getAbsolutePath());
+
+		List<String> lines = new ArrayList<String>();
+		for (JavaPackage javaPackage : parse.execute()) {
+			for (JavaClass javaClass : javaPackage.getClasses()) {
+				lines.add(javaClass.getId() + " imported:" + sort(javaClass.getImportedPackages()));
+				for (TableInfo tableInfo : javaClass.getDetail().getTables()) {
+					lines.add(javaClass.getName() + " table:" + tableInfo.getTableName());
+				}
+				for (JavaClassRelationItem item : javaClass.getCeItems()) {
+					lines.add(javaClass.getId() + " -> " + item.getTarget().getId() + " " + item.getTypeName());
+				}
+			}
+		}
+		return sort(lines).toString();
+	}
+
+	private static List<String> sort(Collection<String> values) {
+		List<String> sorted = new ArrayList<String>(values);
+		Collections.sort(sorted);
+		return sorted;
+	}
+
+	private void delete(File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				this.delete(child);
+			}
+		}
+		file.delete();
+	}
+}
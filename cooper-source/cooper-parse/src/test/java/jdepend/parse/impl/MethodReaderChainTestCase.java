@@ -0,0 +1,159 @@
+package jdepend.parse.impl;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.apache.bcel.Const;
+import org.apache.bcel.classfile.ClassParser;
+import org.apache.bcel.classfile.Code;
+import org.apache.bcel.classfile.JavaClass;
+import org.apache.bcel.classfile.Method;
+import org.apache.bcel.classfile.Utility;
+import org.apache.bcel.util.ByteSequence;
+
+/**
+ * 校验MethodReaderChain直接读取字节码得到的指令操作数与BCEL反汇编文本一致
+ * 
+ * @author user
+ * 
+ */
+public class MethodReaderChainTestCase extends TestCase {
+
+	public void testSameAsDisassembly() throws Exception {
+
+		File root = new File(MethodReaderChain.class.getResource("/jdepend/parse").toURI());
+		List<File> classFiles = new ArrayList<File>();
+		this.collectClassFiles(root, classFiles);
+		assertTrue(classFiles.size() > 0);
+
+		int instructionCount = 0;
+		MethodReaderChain chain = new MethodReaderChain();
+		for (File classFile : classFiles) {
+			JavaClass javaClass = new ClassParser(classFile.getPath()).parse();
+			for (Method method : javaClass.getMethods()) {
+				RecordMethodReader reader = new RecordMethodReader();
+				chain.clearReaders();
+				chain.addReader(reader);
+				chain.read(method);
+
+				List<String> expected = this.disassemble(method);
+				assertEquals(javaClass.getClassName() + "." + method.getName(), expected, reader.records);
+				instructionCount += expected.size();
+			}
+		}
+		assertTrue(instructionCount > 0);
+	}
+
+	/**
+	 * INVOKEDYNAMIC不分发给readInvoke；原先按反汇编文本解析时，其操作数中没有“类名.方法名”，同样不会记录为调用项
+	 */
+	public void testInvokeDynamic() throws Exception {
+
+		File classFile = new File(DynamicInvoker.class.getResource("MethodReaderChainTestCase$DynamicInvoker.class")
+				.toURI());
+		JavaClass javaClass = new ClassParser(classFile.getPath()).parse();
+
+		int dynamicCount = 0;
+		MethodReaderChain chain = new MethodReaderChain();
+		for (Method method : javaClass.getMethods()) {
+			RecordMethodReader reader = new RecordMethodReader();
+			chain.clearReaders();
+			chain.addReader(reader);
+			chain.read(method);
+			for (String record : reader.records) {
+				assertFalse(record, record.startsWith(Const.INVOKEDYNAMIC + " "));
+			}
+
+			Code code = method.getCode();
+			if (code == null) {
+				continue;
+			}
+			ByteSequence stream = new ByteSequence(code.getCode());
+			try {
+				while (stream.available() > 0) {
+					int opcode = code.getCode()[stream.getIndex()] & 0xff;
+					String[] infos = Utility.codeToString(stream, method.getConstantPool(), true).split("\\s+");
+					if (opcode == Const.INVOKEDYNAMIC) {
+						assertEquals(infos[1], -1, infos[1].lastIndexOf('.'));
+						dynamicCount++;
+					}
+				}
+			} finally {
+				stream.close();
+			}
+		}
+		assertTrue(dynamicCount > 0);
+	}
+
+	private List<String> disassemble(Method method) throws Exception {
+		List<String> records = new ArrayList<String>();
+		Code code = method.getCode();
+		if (code == null) {
+			return records;
+		}
+		ByteSequence stream = new ByteSequence(code.getCode());
+		try {
+			while (stream.available() > 0) {
+				int opcode = code.getCode()[stream.getIndex()] & 0xff;
+				String[] infos = Utility.codeToString(stream, method.getConstantPool(), true).split("\\s+");
+				if (opcode >= Const.GETSTATIC && opcode <= Const.INVOKEINTERFACE) {
+					records.add(opcode + " " + infos[1]);
+				} else if (opcode == Const.LDC && infos[1].length() > 2 && infos[1].startsWith("\"")
+						&& infos[1].endsWith("\"") && infos[1].indexOf('\\') == -1) {
+					records.add(opcode + " " + infos[1].substring(1, infos[1].length() - 1));
+				}
+			}
+		} finally {
+			stream.close();
+		}
+		return records;
+	}
+
+	private void collectClassFiles(File dir, List<File> classFiles) {
+		for (File file : dir.listFiles()) {
+			if (file.isDirectory()) {
+				this.collectClassFiles(file, classFiles);
+			} else if (file.getName().endsWith(".class")) {
+				classFiles.add(file);
+			}
+		}
+	}
+
+	static class DynamicInvoker {
+
+		Runnable run() {
+			return () -> System.out.println("run");
+		}
+	}
+
+	class RecordMethodReader extends MethodReader {
+
+		private List<String> records = new ArrayList<String>();
+
+		public RecordMethodReader() {
+			super(null);
+		}
+
+		@Override
+		protected void readInvoke(int opcode, String owner, String name, String signature) {
+			records.add(opcode + " " + owner + "." + name + ":" + signature);
+		}
+
+		@Override
+		protected void readField(int opcode, String owner, String name, String signature) {
+			records.add(opcode + " " + owner + "." + name + ":" + signature);
+		}
+
+		@Override
+		protected void readConstant(int opcode, String value) {
+			if (value.length() > 0 && value.indexOf(' ') == -1 && value.indexOf('\t') == -1
+					&& value.indexOf('\n') == -1 && value.indexOf('\r') == -1 && value.indexOf('"') == -1
+					&& value.indexOf('\\') == -1) {
+				records.add(opcode + " " + value);
+			}
+		}
+	}
+}
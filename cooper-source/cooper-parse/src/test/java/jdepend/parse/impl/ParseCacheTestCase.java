@@ -0,0 +1,193 @@
+package jdepend.parse.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import jdepend.metadata.Attribute;
+import jdepend.metadata.InvokeItem;
+import jdepend.metadata.JavaClass;
+import jdepend.metadata.Method;
+import jdepend.parse.ParseConfigurator;
+import junit.framework.TestCase;
+
+/**
+ * 校验解析缓存的读写以及缓存键对解析配置的敏感性
+ *
+ * @author user
+ *
+ */
+public class ParseCacheTestCase extends TestCase {
+
+	private static final String Place = "cooper-parse";
+
+	private File cacheDir;
+
+	private ParseConfigurator conf;
+
+	private byte[] content;
+
+	@Override
+	protected void setUp() throws Exception {
+		cacheDir = new File(System.getProperty("java.io.tmpdir"), "parsecache-" + System.nanoTime());
+
+		Map<String, String> properties = new HashMap<String, String>();
+		properties.put("httpInvokeClassNames", "org.springframework.web.client.RestTemplate");
+		conf = new ParseConfigurator(properties);
+		conf.setPackageFilter(new PackageFilter(new ArrayList<String>(), new ArrayList<String>()));
+
+		content = this.readClass(JavaClassBuilder.class);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		this.delete(cacheDir);
+	}
+
+	public void testGetAndPut() throws Exception {
+		BCELClassFileParser parser = new BCELClassFileParser(conf);
+		ParseCache cache = new ParseCache(cacheDir, parser);
+
+		String key = cache.getKey(Place, content);
+		assertNull(cache.get(key));
+
+		JavaClass parsed = parser.parse(Place, new ByteArrayInputStream(content));
+		cache.put(key, parsed);
+
+		JavaClass cached = cache.get(key);
+		assertNotNull(cached);
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+
+		assertEquals(parsed.getName(), cached.getName());
+		assertEquals(parsed.getPlace(), cached.getPlace());
+		assertEquals(parsed.getImportedPackages(), cached.getImportedPackages());
+		assertEquals(parsed.getDetail().getMethods().size(), cached.getDetail().getMethods().size());
+		assertEquals(parsed.getDetail().getAttributes().size(), cached.getDetail().getAttributes().size());
+
+		int invokeItemCount = 0;
+		for (Method method : cached.getDetail().getMethods()) {
+			assertSame(cached, method.getJavaClass());
+			for (InvokeItem invokeItem : method.getInvokeItems()) {
+				assertSame(method, invokeItem.getCaller());
+				invokeItemCount++;
+			}
+		}
+		assertTrue(invokeItemCount > 0);
+		for (Attribute attribute : cached.getDetail().getAttributes()) {
+			assertSame(cached, attribute.getJavaClass());
+			assertSame(attribute, cached.getDetail().getTheAttribute(attribute.getName()));
+		}
+	}
+
+	public void testKey() throws Exception {
+		BCELClassFileParser parser = new BCELClassFileParser(conf);
+		String key = new ParseCache(cacheDir, parser).getKey(Place, content);
+
+		assertEquals(key, new ParseCache(cacheDir, parser).getKey(Place, content));
+		assertFalse(key.equals(new ParseCache(cacheDir, parser).getKey("other", content)));
+		assertFalse(key.equals(new ParseCache(cacheDir, parser).getKey(Place, this.readClass(ParseCache.class))));
+
+		parser.setModel(AbstractParser.Model_Small);
+		assertFalse(key.equals(new ParseCache(cacheDir, parser).getKey(Place, content)));
+		parser.setModel(AbstractParser.Model_Big);
+
+		ArrayList<String> filtered = new ArrayList<String>();
+		filtered.add("jdepend.framework.*");
+		conf.setPackageFilter(new PackageFilter(filtered, new ArrayList<String>()));
+		assertFalse(key.equals(new ParseCache(cacheDir, parser).getKey(Place, content)));
+	}
+
+	/**
+	 * 总大小超过上限时从最久未命中的缓存开始删除
+	 *
+	 * @throws Exception
+	 */
+	public void testSweepLeastRecentlyUsed() throws Exception {
+		BCELClassFileParser parser = new BCELClassFileParser(conf);
+		JavaClass parsed = parser.parse(Place, new ByteArrayInputStream(content));
+
+		ParseCache writer = new ParseCache(cacheDir, parser);
+		String[] keys = new String[3];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = writer.getKey(Place + i, content);
+			writer.put(keys[i], parsed);
+		}
+		long length = this.getFile(keys[0]).length();
+		long now = System.currentTimeMillis();
+		for (int i = 0; i < keys.length; i++) {
+			this.getFile(keys[i]).setLastModified(now - (keys.length - i) * 60000L);
+		}
+
+		// 命中最旧的缓存后，它成为最近使用的
+		// 4个缓存超过上限，删除到上限的90%以下需删除2个
+		ParseCache cache = new ParseCache(cacheDir, parser, length * 5 / 2, ParseCache.MAX_IDLE_TIME);
+		assertNotNull(cache.get(keys[0]));
+		String key = cache.getKey(Place + keys.length, content);
+		cache.put(key, parsed);
+		cache.sweep();
+
+		assertTrue(this.getFile(keys[0]).exists());
+		assertFalse(this.getFile(keys[1]).exists());
+		assertFalse(this.getFile(keys[2]).exists());
+		assertTrue(this.getFile(key).exists());
+	}
+
+	/**
+	 * 删除超过最长闲置时间的缓存；没有写入新缓存时不整理
+	 *
+	 * @throws Exception
+	 */
+	public void testSweepIdle() throws Exception {
+		BCELClassFileParser parser = new BCELClassFileParser(conf);
+		JavaClass parsed = parser.parse(Place, new ByteArrayInputStream(content));
+
+		ParseCache cache = new ParseCache(cacheDir, parser, ParseCache.MAX_CACHE_SIZE, 60000L);
+		String idle = cache.getKey(Place, content);
+		cache.put(idle, parsed);
+		cache.sweep();
+		this.getFile(idle).setLastModified(System.currentTimeMillis() - 120000L);
+
+		cache.sweep();
+		assertTrue(this.getFile(idle).exists());
+
+		String key = cache.getKey(Place + 1, content);
+		cache.put(key, parsed);
+		cache.sweep();
+		assertFalse(this.getFile(idle).exists());
+		assertTrue(this.getFile(key).exists());
+	}
+
+	private File getFile(String key) {
+		return new File(new File(cacheDir, key.substring(0, 2)), key);
+	}
+
+	private byte[] readClass(Class<?> type) throws Exception {
+		InputStream is = type.getResourceAsStream(type.getSimpleName() + ".class");
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[4096];
+			int len;
+			while ((len = is.read(buffer)) != -1) {
+				out.write(buffer, 0, len);
+			}
+			return out.toByteArray();
+		} finally {
+			is.close();
+		}
+	}
+
+	private void delete(File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				this.delete(child);
+			}
+		}
+		file.delete();
+	}
+}
@@ -0,0 +1,188 @@
+package jdepend.parse.impl;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import jdepend.framework.config.PropertyConfigurator;
+import jdepend.framework.context.JDependContext;
+import jdepend.framework.file.TargetFileHandler;
+import jdepend.framework.file.TargetFileInfo;
+import jdepend.framework.file.TargetFileManager;
+import jdepend.metadata.JavaClass;
+import jdepend.metadata.JavaClassRelationItem;
+import jdepend.metadata.profile.defaultvalue.DefaultJavaClassRelationItemProfile;
+import jdepend.parse.ParseConfigurator;
+import jdepend.parse.ParseListener;
+import junit.framework.TestCase;
+
+/**
+ * 校验流式解析多个jar得到的类与先读取全部类文件再解析的结果一致，并且等待解析的类文件个数不超过上限
+ *
+ * @author user
+ *
+ */
+public class StreamParseTestCase extends TestCase {
+
+	private File workspace;
+
+	private List<File> jars;
+
+	@Override
+	protected void setUp() throws Exception {
+		workspace = new File(System.getProperty("java.io.tmpdir"), "streamparse-" + System.nanoTime());
+		workspace.mkdirs();
+		if (JDependContext.getWorkspacePath() == null) {
+			File conf = new File(workspace, PropertyConfigurator.DEFAULT_PROPERTY_DIR);
+			conf.mkdirs();
+			new File(conf, PropertyConfigurator.DEFAULT_PROPERTY_FILE).createNewFile();
+			JDependContext.setWorkspacePath(workspace.getAbsolutePath());
+		}
+		// 本模块和cooper-metadata的类分别打包为jar
+		jars = new ArrayList<File>();
+		jars.add(this.jar(new File("target/classes"), new File(workspace, "cooper-parse.jar")));
+		jars.add(this.jar(new File(JavaClass.class.getProtectionDomain().getCodeSource().getLocation().toURI()),
+				new File(workspace, "cooper-metadata.jar")));
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		this.delete(workspace);
+	}
+
+	public void testSameAsBuffered() throws Exception {
+
+		TargetFileManager bufferedManager = this.createFileManager();
+		List<String> expected = this.describe(new JavaClassBuilder(this.createConf()).build(bufferedManager
+				.getAnalyzeData()));
+		assertTrue(expected.size() > JavaClassBuilder.StreamBufferSize);
+
+		final AtomicInteger read = new AtomicInteger();
+		final AtomicInteger parsed = new AtomicInteger();
+		final AtomicInteger maxInFlight = new AtomicInteger();
+		TargetFileManager streamManager = new TargetFileManager() {
+			@Override
+			public void readClassDatas(final TargetFileHandler handler) throws IOException {
+				super.readClassDatas(new TargetFileHandler() {
+					@Override
+					public void handle(String place, TargetFileInfo targetFileInfo) throws IOException {
+						handler.handle(place, targetFileInfo);
+						// 已提交而未解析完成的类文件个数
+						int inFlight = read.incrementAndGet() - parsed.get();
+						int max;
+						while (inFlight > (max = maxInFlight.get()) && !maxInFlight.compareAndSet(max, inFlight)) {
+						}
+					}
+				});
+			}
+		};
+		this.addJars(streamManager);
+
+		JavaClassBuilder builder = new JavaClassBuilder(this.createConf());
+		builder.addParseListener(new ParseListener() {
+			@Override
+			public void onParsedJavaClass(JavaClass parsedClass, int process) {
+				try {
+					// 放慢解析，使读取线程先于解析线程到达上限
+					Thread.sleep(1);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				parsed.incrementAndGet();
+			}
+		});
+		List<String> actual = this.describe(builder.build(streamManager.getAnalyzeData(false), streamManager));
+
+		assertEquals(expected, actual);
+		assertEquals(read.get(), parsed.get());
+		assertTrue("maxInFlight:" + maxInFlight.get(), maxInFlight.get() <= JavaClassBuilder.StreamBufferSize);
+	}
+
+	private ParseConfigurator createConf() {
+		ParseConfigurator conf = new ParseConfigurator(new HashMap<String, String>());
+		conf.setPackageFilter(new PackageFilter(new ArrayList<String>(), new ArrayList<String>()));
+		conf.setJavaClassRelationTypes(new DefaultJavaClassRelationItemProfile().getJavaClassRelationTypes());
+		return conf;
+	}
+
+	private TargetFileManager createFileManager() throws IOException {
+		TargetFileManager fileManager = new TargetFileManager();
+		this.addJars(fileManager);
+		return fileManager;
+	}
+
+	private void addJars(TargetFileManager fileManager) throws IOException {
+		for (File jar : jars) {
+			fileManager.addDirectory(jar.getAbsolutePath());
+		}
+	}
+
+	/**
+	 * 类及其关系以文本形式排序后输出
+	 *
+	 * @param javaClasses
+	 * @return
+	 */
+	private List<String> describe(Collection<JavaClass> javaClasses) {
+		List<String> lines = new ArrayList<String>();
+		for (JavaClass javaClass : javaClasses) {
+			lines.add(javaClass.getId() + " methods:" + javaClass.getDetail().getMethods().size());
+			for (JavaClassRelationItem item : javaClass.getCeItems()) {
+				lines.add(javaClass.getId() + " -> " + item.getTarget().getId() + " " + item.getTypeName());
+			}
+		}
+		Collections.sort(lines);
+		return lines;
+	}
+
+	private File jar(File classes, File jar) throws IOException {
+		JarOutputStream out = new JarOutputStream(new FileOutputStream(jar));
+		try {
+			this.addEntries(classes, "", out);
+		} finally {
+			out.close();
+		}
+		return jar;
+	}
+
+	private void addEntries(File dir, String prefix, JarOutputStream out) throws IOException {
+		for (File file : dir.listFiles()) {
+			if (file.isDirectory()) {
+				this.addEntries(file, prefix + file.getName() + "/", out);
+			} else if (file.getName().endsWith(".class")) {
+				out.putNextEntry(new JarEntry(prefix + file.getName()));
+				InputStream in = new FileInputStream(file);
+				try {
+					byte[] buffer = new byte[4096];
+					int length;
+					while ((length = in.read(buffer)) != -1) {
+						out.write(buffer, 0, length);
+					}
+				} finally {
+					in.close();
+				}
+				out.closeEntry();
+			}
+		}
+	}
+
+	private void delete(File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				this.delete(child);
+			}
+		}
+		file.delete();
+	}
+}
@@ -0,0 +1,74 @@
+package jdepend.parse.sql;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jdepend.framework.config.PropertyConfigurator;
+import jdepend.framework.context.JDependContext;
+import jdepend.framework.file.TargetFileInfo;
+import jdepend.metadata.TableInfo;
+import junit.framework.TestCase;
+
+public class ConfigParseMgrTestCase extends TestCase {
+
+	private static final int MapperCount = 200;
+
+	@Override
+	protected void setUp() throws Exception {
+		if (JDependContext.getWorkspacePath() == null) {
+			File workspace = new File(System.getProperty("java.io.tmpdir"), "configparsemgr-" + System.nanoTime());
+			File conf = new File(workspace, PropertyConfigurator.DEFAULT_PROPERTY_DIR);
+			conf.mkdirs();
+			new File(conf, PropertyConfigurator.DEFAULT_PROPERTY_FILE).createNewFile();
+			JDependContext.setWorkspacePath(workspace.getAbsolutePath());
+		}
+	}
+
+	public void testParse() throws Exception {
+		List<TargetFileInfo> files = new ArrayList<TargetFileInfo>();
+		for (int i = 0; i < MapperCount; i++) {
+			files.add(createConfig("<!DOCTYPE mapper PUBLIC \"-//ibatis.apache.org//DTD Mapper 3.0//EN\" \"mybatis-3-mapper.dtd\">\n"
+					+ "<mapper namespace=\"test.Mapper" + i + "\">\n" + "<select id=\"select\">select * from T_" + i
+					+ "</select>\n" + "</mapper>\n"));
+		}
+		// 同一namespace后解析的文件覆盖先解析的
+		files.add(createConfig("<!DOCTYPE mapper PUBLIC \"-//ibatis.apache.org//DTD Mapper 3.0//EN\" \"mybatis-3-mapper.dtd\">\n"
+				+ "<mapper namespace=\"test.Mapper0\">\n"
+				+ "<delete id=\"delete\">delete from T_OVERRIDE where id = ?</delete>\n" + "</mapper>\n"));
+		files.add(createConfig("<!DOCTYPE sqlMap PUBLIC \"-//ibatis.apache.org//DTD SQL Map 2.0//EN\" \"sql-map-2.dtd\">\n"
+				+ "<sqlMap namespace=\"Account\">\n"
+				+ "<update id=\"updateBalance\">update T_ACCOUNT set balance = ? where id = ?</update>\n" + "</sqlMap>\n"));
+		files.add(createConfig("<broken>"));
+		Map<String, List<TargetFileInfo>> configs = new HashMap<String, List<TargetFileInfo>>();
+		configs.put("test", files);
+
+		ConfigParseMgr configParseMgr = new ConfigParseMgr();
+		configParseMgr.parse(configs);
+
+		Map<String, List<TableInfo>> classTables = configParseMgr.getTheTables(TableInfoItem.ClassNameType);
+		assertEquals(MapperCount, classTables.size());
+		assertEquals("T_OVERRIDE", classTables.get("test.Mapper0").get(0).getTableName());
+		assertEquals("T_" + (MapperCount - 1), classTables.get("test.Mapper" + (MapperCount - 1)).get(0).getTableName());
+		assertSame(classTables, configParseMgr.getTheTables(TableInfoItem.ClassNameType));
+		try {
+			classTables.clear();
+			fail();
+		} catch (UnsupportedOperationException e) {
+		}
+
+		Map<String, List<TableInfo>> keyTables = configParseMgr.getTheTables(TableInfoItem.KeyType);
+		assertEquals(1, keyTables.size());
+		assertEquals(TableInfo.Update, keyTables.get("Account.updateBalance").get(0).getType());
+
+		assertTrue(configParseMgr.getTheTables("unknown").isEmpty());
+	}
+
+	private static TargetFileInfo createConfig(String content) throws Exception {
+		TargetFileInfo config = new TargetFileInfo();
+		config.setContent(("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" + content).getBytes("UTF-8"));
+		return config;
+	}
+}
@@ -0,0 +1,72 @@
+package jdepend.parse.sql;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import jdepend.metadata.TableInfo;
+import junit.framework.TestCase;
+
+public class SqlParserStreamTestCase extends TestCase {
+
+	public void testCorpus() throws IOException {
+		InputStream is = SqlParserStreamTestCase.class.getResourceAsStream("sql-corpus.txt");
+		assertNotNull(is);
+		BufferedReader reader = new BufferedReader(new InputStreamReader(is, "UTF-8"));
+		SqlParserStream parser = new SqlParserStream();
+		int caseCount = 0;
+		try {
+			StringBuilder sql = new StringBuilder();
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.startsWith("#")) {
+					continue;
+				} else if (line.startsWith("=>")) {
+					assertEquals(sql.toString(), expected(line.substring(2)), actual(parser.parserSql(sql.toString())));
+					sql.setLength(0);
+					caseCount++;
+				} else if (line.trim().length() > 0) {
+					if (sql.length() > 0) {
+						sql.append('\n');
+					}
+					sql.append(line);
+				}
+			}
+		} finally {
+			reader.close();
+		}
+		assertTrue(caseCount > 20);
+	}
+
+	public void testIsSQL() {
+		assertTrue(SqlParser.isSQL("select id from t"));
+		assertTrue(SqlParser.isSQL("  SELECT id FROM t"));
+		assertTrue(SqlParser.isSQL("Delete From t"));
+		assertTrue(SqlParser.isSQL("merge into t using s on (t.id = s.id)"));
+		assertFalse(SqlParser.isSQL(null));
+		assertFalse(SqlParser.isSQL("select"));
+		assertFalse(SqlParser.isSQL("selection of items"));
+		assertFalse(SqlParser.isSQL("jdepend/parse/sql/SqlParser"));
+	}
+
+	private static List<String> expected(String line) {
+		List<String> tables = new ArrayList<String>();
+		for (String table : line.split(",")) {
+			if (table.trim().length() > 0) {
+				tables.add(table.trim());
+			}
+		}
+		return tables;
+	}
+
+	private static List<String> actual(List<TableInfo> tableInfos) {
+		List<String> tables = new ArrayList<String>();
+		for (TableInfo tableInfo : tableInfos) {
+			tables.add(tableInfo.getType() + " " + tableInfo.getTableName());
+		}
+		return tables;
+	}
+}
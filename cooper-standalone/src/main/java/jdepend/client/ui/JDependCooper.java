@@ -488,6 +488,11 @@ public class JDependCooper extends JDependFrame implements ParseListener,
 		this.progress(process);
 	}
 
+	@Override
+	public void onParseCache(int hitCount, int missCount) {
+		LogUtil.getInstance(JDependCooper.class).systemLog("解析缓存命中：" + hitCount + "，未命中：" + missCount);
+	}
+
 	public void onSaveReport(String group, String command) {
 		this.getPropertyPanel().showReportHistory(group, command);
 	}
@@ -19,6 +19,7 @@ import javax.swing.JScrollPane;
 import javax.swing.JTable;
 import javax.swing.table.DefaultTableModel;
 
+import jdepend.framework.exception.JDependException;
 import jdepend.framework.ui.component.MultiLineTableCellRender;
 import jdepend.framework.ui.util.JTableUtil;
 import jdepend.framework.util.BundleUtil;
@@ -62,11 +63,11 @@ public class MementoPanel extends JPanel {
 			row = new Object[7];
 			row[0] = memento.getCreateDate();
 			row[1] = getAction(memento.getActions());
-			row[2] = MetricsFormat.toFormattedMetrics(memento.getResult().getDistance());
-			row[3] = MetricsFormat.toFormattedMetrics(memento.getResult().getBalance());
-			row[4] = MetricsFormat.toFormattedMetrics(memento.getResult().getEncapsulation());
-			row[5] = MetricsFormat.toFormattedMetrics(memento.getResult().getRelationRationality());
-			row[6] = MetricsFormat.toFormattedMetrics(memento.getResult().getScore());
+			row[2] = MetricsFormat.toFormattedMetrics(memento.getDistance());
+			row[3] = MetricsFormat.toFormattedMetrics(memento.getBalance());
+			row[4] = MetricsFormat.toFormattedMetrics(memento.getEncapsulation());
+			row[5] = MetricsFormat.toFormattedMetrics(memento.getRelationRationality());
+			row[6] = MetricsFormat.toFormattedMetrics(memento.getScore());
 			mementoModel.addRow(row);
 		}
 
@@ -181,7 +182,13 @@ public class MementoPanel extends JPanel {
 			if (this.selectedMementos.get(0) != null) {
 				Memento memento = AdjustHistory.getInstance().getTheMemento(this.selectedMementos.get(0));
 				if (memento != null) {
-					JDependUnitMgr.getInstance().setResult(memento.getResult());
+					try {
+						JDependUnitMgr.getInstance().setResult(memento.getResult());
+					} catch (JDependException e) {
+						e.printStackTrace();
+						frame.showStatusError(e.getMessage());
+						return;
+					}
 				}
 			} else {
 				JDependUnitMgr.getInstance().setResult(AdjustHistory.getInstance().getCurrent());
@@ -202,7 +209,13 @@ public class MementoPanel extends JPanel {
 
 		AnalysisResult result;
 		if (id2 != null) {
-			result = AdjustHistory.getInstance().getTheMemento(id2).getResult();
+			try {
+				result = AdjustHistory.getInstance().getTheMemento(id2).getResult();
+			} catch (JDependException e) {
+				e.printStackTrace();
+				frame.showStatusError(e.getMessage());
+				return;
+			}
 		} else {
 			result = AdjustHistory.getInstance().getCurrent();
 		}
@@ -6,12 +6,12 @@ import java.sql.DriverManager;
 import java.sql.SQLException;
 
 import jdepend.framework.context.JDependContext;
-import jdepend.framework.persistent.ConnectionProvider;
+import jdepend.framework.persistent.PooledConnectionProvider;
 
-public final class StatisticsConnectionProvider implements ConnectionProvider {
+public final class StatisticsConnectionProvider extends PooledConnectionProvider {
 
 	@Override
-	public Connection getConnection() throws SQLException {
+	protected Connection createConnection() throws SQLException {
 		String dbPath = File.separator + "clientdb" + File.separator + "clientdb";
 		return DriverManager.getConnection("jdbc:hsqldb:file:" + JDependContext.getWorkspacePath() + dbPath, "sa", "");
 	}
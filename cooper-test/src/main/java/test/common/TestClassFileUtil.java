@@ -0,0 +1,94 @@
+package test.common;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import org.apache.bcel.classfile.ClassParser;
+import org.apache.bcel.classfile.JavaClass;
+
+/**
+ * 为性能测试准备BCEL类文件
+ * 
+ * @author user
+ * 
+ */
+public class TestClassFileUtil {
+
+	/**
+	 * 得到所给类所在的目录或jar
+	 * 
+	 * @param anchors
+	 * @return
+	 */
+	public static List<String> getCodeSourcePaths(Class<?>... anchors) {
+		List<String> paths = new ArrayList<String>();
+		for (Class<?> anchor : anchors) {
+			try {
+				String path = new File(anchor.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+				if (!paths.contains(path)) {
+					paths.add(path);
+				}
+			} catch (URISyntaxException e) {
+				throw new IllegalArgumentException(e);
+			}
+		}
+		return paths;
+	}
+
+	/**
+	 * 解析所给类所在目录或jar中的全部类文件
+	 * 
+	 * @param anchors
+	 * @return
+	 * @throws IOException
+	 */
+	public static List<JavaClass> parseClasses(Class<?>... anchors) throws IOException {
+		List<JavaClass> javaClasses = new ArrayList<JavaClass>();
+		for (String path : getCodeSourcePaths(anchors)) {
+			File file = new File(path);
+			if (file.isDirectory()) {
+				parseDirectory(file, javaClasses);
+			} else {
+				parseJar(file, javaClasses);
+			}
+		}
+		return javaClasses;
+	}
+
+	private static void parseDirectory(File dir, List<JavaClass> javaClasses) throws IOException {
+		for (File file : dir.listFiles()) {
+			if (file.isDirectory()) {
+				parseDirectory(file, javaClasses);
+			} else if (file.getName().endsWith(".class")) {
+				javaClasses.add(new ClassParser(file.getPath()).parse());
+			}
+		}
+	}
+
+	private static void parseJar(File file, List<JavaClass> javaClasses) throws IOException {
+		JarFile jarFile = new JarFile(file);
+		try {
+			Enumeration<JarEntry> entries = jarFile.entries();
+			while (entries.hasMoreElements()) {
+				JarEntry entry = entries.nextElement();
+				if (entry.getName().endsWith(".class")) {
+					InputStream in = jarFile.getInputStream(entry);
+					try {
+						javaClasses.add(new ClassParser(in, entry.getName()).parse());
+					} finally {
+						in.close();
+					}
+				}
+			}
+		} finally {
+			jarFile.close();
+		}
+	}
+}
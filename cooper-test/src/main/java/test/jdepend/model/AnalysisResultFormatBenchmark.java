@@ -0,0 +1,173 @@
+package test.jdepend.model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import jdepend.framework.context.JDependContext;
+import jdepend.metadata.JavaClass;
+import jdepend.model.result.AnalysisResult;
+import jdepend.model.result.AnalysisResultFormat;
+import jdepend.model.util.JavaClassUnitUtil;
+import jdepend.service.JDependLocalService;
+import jdepend.service.ServiceFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import test.common.TestConfigUtil;
+
+/**
+ * 对比GZIP压缩的Java序列化格式与紧凑二进制格式保存和加载分析结果的耗时，两种格式的大小在Setup时输出
+ *
+ * path为分析目标，多个路径以逗号分隔，为空时分析自身；未设置工作区时以当前目录为工作区。
+ *
+ * @author user
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AnalysisResultFormatBenchmark {
+
+	@Param({ "" })
+	private String path;
+
+	private AnalysisResult result;
+
+	private byte[] serializedData;
+
+	private byte[] compactData;
+
+	@Setup
+	public void setUp() throws Exception {
+		if (JDependContext.getWorkspacePath() == null) {
+			JDependContext.setWorkspacePath(System.getProperty("user.dir"));
+		}
+		JDependLocalService service = ServiceFactory.createJDependLocalService();
+		if (path.length() == 0) {
+			for (String p : TestConfigUtil.getSelfPath()) {
+				service.addDirectory(p);
+			}
+		} else {
+			for (String p : path.split(",")) {
+				service.addDirectory(p);
+			}
+		}
+		result = service.analyze();
+
+		serializedData = serialize(result);
+		compactData = compact(result);
+
+		System.out.println();
+		System.out.println("classes: " + JavaClassUnitUtil.getAllClasses(result.getComponents()).size()
+				+ " serialized: " + serializedData.length + " bytes compact: " + compactData.length + " bytes");
+	}
+
+	/**
+	 * 原有方式：ObjectOutputStream写入GZIPOutputStream
+	 *
+	 * @return
+	 * @throws IOException
+	 */
+	@Benchmark
+	public byte[] writeSerialized() throws IOException {
+		return serialize(result);
+	}
+
+	/**
+	 * 新方式：AnalysisResultFormat
+	 *
+	 * @return
+	 * @throws IOException
+	 */
+	@Benchmark
+	public byte[] writeCompact() throws IOException {
+		return compact(result);
+	}
+
+	/**
+	 * 原有方式：反序列化后填充类关系和全部类细节
+	 *
+	 * @return
+	 * @throws Exception
+	 */
+	@Benchmark
+	public AnalysisResult readSerialized() throws Exception {
+		return AnalysisResult.create(serializedData);
+	}
+
+	/**
+	 * 新方式：只加载组件、类和类关系，类细节在第一次访问时加载
+	 *
+	 * @return
+	 * @throws Exception
+	 */
+	@Benchmark
+	public AnalysisResult readCompact() throws Exception {
+		return AnalysisResult.create(compactData);
+	}
+
+	/**
+	 * 新方式：加载后立即访问类细节，包含全部类细节的解码和填充
+	 *
+	 * @return
+	 * @throws Exception
+	 */
+	@Benchmark
+	public AnalysisResult readCompactWithDetail() throws Exception {
+		AnalysisResult compactResult = AnalysisResult.create(compactData);
+		for (JavaClass javaClass : JavaClassUnitUtil.getAllClasses(compactResult.getComponents())) {
+			javaClass.getDetail();
+			break;
+		}
+		return compactResult;
+	}
+
+	private static byte[] serialize(AnalysisResult result) throws IOException {
+		ByteArrayOutputStream outstream = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(new GZIPOutputStream(outstream));
+		out.writeObject(result);
+		out.close();
+		return outstream.toByteArray();
+	}
+
+	private static byte[] compact(AnalysisResult result) throws IOException {
+		ByteArrayOutputStream outstream = new ByteArrayOutputStream();
+		AnalysisResultFormat.write(result, outstream);
+		return outstream.toByteArray();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		OptionsBuilder options = new OptionsBuilder();
+		options.include(AnalysisResultFormatBenchmark.class.getSimpleName());
+		if (args.length > 0) {
+			StringBuilder path = new StringBuilder();
+			for (String arg : args) {
+				if (path.length() > 0) {
+					path.append(',');
+				}
+				path.append(arg);
+			}
+			options.param("path", path.toString());
+		}
+		new Runner(options.build()).run();
+	}
+}
@@ -0,0 +1,132 @@
+package test.jdepend.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import jdepend.framework.context.JDependContext;
+import jdepend.metadata.InvokeItem;
+import jdepend.metadata.Method;
+import jdepend.metadata.util.CallGraph;
+import jdepend.model.result.AnalysisResult;
+import jdepend.service.JDependLocalService;
+import jdepend.service.ServiceFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import test.common.TestConfigUtil;
+
+/**
+ * 对比递归合并调用者与调用图两种方式计算全部方法的间接调用者的耗时
+ *
+ * 每次操作都重新计算（递归方式新建缓存，调用图方式新建CallGraph）。path为分析目标，多个路径以逗号分隔，为空时分析自身。
+ *
+ * @author user
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CallGraphBenchmark {
+
+	@Param({ "" })
+	private String path;
+
+	private List<Method> methods;
+
+	@Setup
+	public void setUp() throws Exception {
+		if (JDependContext.getWorkspacePath() == null) {
+			JDependContext.setWorkspacePath(System.getProperty("user.dir"));
+		}
+		JDependLocalService service = ServiceFactory.createJDependLocalService();
+		if (path.length() == 0) {
+			for (String p : TestConfigUtil.getSelfPath()) {
+				service.addDirectory(p);
+			}
+		} else {
+			for (String p : path.split(",")) {
+				service.addDirectory(p);
+			}
+		}
+		AnalysisResult result = service.analyze();
+		methods = new ArrayList<Method>(result.getMethods());
+		System.out.println();
+		System.out.println("methods: " + methods.size());
+	}
+
+	/**
+	 * 原有方式：按方法缓存，递归合并调用者的结果（循环调用时结果不完整）
+	 *
+	 * @param blackhole
+	 */
+	@Benchmark
+	public void recursive(Blackhole blackhole) {
+		Map<Method, Collection<InvokeItem>> cache = new HashMap<Method, Collection<InvokeItem>>();
+		for (Method method : methods) {
+			blackhole.consume(cascadeInvokedItems(method, cache));
+		}
+	}
+
+	/**
+	 * 新方式：建立调用图后逐个查询
+	 *
+	 * @param blackhole
+	 */
+	@Benchmark
+	public void callGraph(Blackhole blackhole) {
+		CallGraph callGraph = new CallGraph(methods);
+		for (Method method : methods) {
+			blackhole.consume(callGraph.getCascadeInvokedItems(method));
+		}
+	}
+
+	/**
+	 * 只建立调用图
+	 *
+	 * @param blackhole
+	 */
+	@Benchmark
+	public void build(Blackhole blackhole) {
+		blackhole.consume(new CallGraph(methods));
+	}
+
+	private static Collection<InvokeItem> cascadeInvokedItems(Method method, Map<Method, Collection<InvokeItem>> cache) {
+		Collection<InvokeItem> items = cache.get(method);
+		if (items == null) {
+			items = new HashSet<InvokeItem>();
+			cache.put(method, items);
+			items.addAll(method.getInvokedItems());
+			for (Method caller : method.getInvokedMethods()) {
+				items.addAll(caller.getInvokedItems());
+				items.addAll(cascadeInvokedItems(caller, cache));
+			}
+		}
+		return items;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(CallGraphBenchmark.class.getSimpleName()).build()).run();
+	}
+}
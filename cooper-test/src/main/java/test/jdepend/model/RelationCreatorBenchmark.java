@@ -0,0 +1,150 @@
+package test.jdepend.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import jdepend.framework.util.ThreadPool;
+import jdepend.metadata.JavaClass;
+import jdepend.metadata.JavaClassRelationItem;
+import jdepend.metadata.JavaPackage;
+import jdepend.metadata.relationtype.FieldRelation;
+import jdepend.model.Component;
+import jdepend.model.JavaClassUnit;
+import jdepend.model.RelationDetail;
+import jdepend.model.component.VirtualComponent;
+import jdepend.model.util.RelationCreator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 对比逐个组件对计算耦合细节与按Class索引一次遍历两种方式建立组件关系的耗时随组件个数的变化
+ *
+ * 每个组件20个Class，每个Class有8个传出关系，一半指向本组件的Class，一半随机指向其他组件的Class。
+ *
+ * @author user
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RelationCreatorBenchmark {
+
+	private static final int ClassCount = 20;
+
+	private static final int CeCount = 8;
+
+	@Param({ "100", "200", "400" })
+	private int componentCount;
+
+	private List<Component> components;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(componentCount);
+		FieldRelation type = new FieldRelation(1F);
+
+		components = new ArrayList<Component>();
+		List<JavaClass> javaClasses = new ArrayList<JavaClass>();
+		Component component;
+		JavaPackage javaPackage;
+		JavaClass javaClass;
+		for (int i = 0; i < componentCount; i++) {
+			component = new VirtualComponent("test.component" + i, null);
+			javaPackage = new JavaPackage(null, "test.component" + i);
+			for (int j = 0; j < ClassCount; j++) {
+				javaClass = new JavaClass("test.component" + i + ".Class" + j, true);
+				javaPackage.addClass(javaClass);
+				javaClasses.add(javaClass);
+				component.addJavaClass(new JavaClassUnit(javaClass));
+			}
+			components.add(component);
+		}
+
+		JavaClass target;
+		JavaClassRelationItem item;
+		for (int index = 0; index < javaClasses.size(); index++) {
+			javaClass = javaClasses.get(index);
+			for (int k = 0; k < CeCount; k++) {
+				if (k % 2 == 0) {
+					target = javaClasses.get(index - index % ClassCount + random.nextInt(ClassCount));
+				} else {
+					target = javaClasses.get(random.nextInt(javaClasses.size()));
+				}
+				item = new JavaClassRelationItem();
+				item.setType(type);
+				item.setSource(javaClass);
+				item.setTarget(target);
+				javaClass.addCeItems(item);
+				target.addCaItems(item);
+			}
+		}
+	}
+
+	/**
+	 * 原有方式：每个左侧组件对每个右侧组件调用calCeCouplingDetail
+	 *
+	 * @param blackhole
+	 */
+	@Benchmark
+	public void pairwise(final Blackhole blackhole) {
+		ExecutorService pool = ThreadPool.getPool();
+		for (final Component left : components) {
+			pool.execute(new Runnable() {
+				@Override
+				public void run() {
+					RelationDetail detail;
+					for (Component right : components) {
+						detail = left.calCeCouplingDetail(right);
+						if (detail.getIntensity() != 0) {
+							blackhole.consume(detail);
+						}
+					}
+				}
+			});
+		}
+		ThreadPool.awaitTermination(pool);
+	}
+
+	/**
+	 * 新方式：RelationCreator按Class索引一次遍历传出关系
+	 *
+	 * @param blackhole
+	 */
+	@Benchmark
+	public void indexed(Blackhole blackhole) {
+		blackhole.consume(new RelationCreator(false, false).create(components));
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		List<String> params = new ArrayList<String>();
+		for (String arg : args) {
+			params.add(arg);
+		}
+		OptionsBuilder options = new OptionsBuilder();
+		options.include(RelationCreatorBenchmark.class.getSimpleName());
+		if (params.size() > 0) {
+			options.param("componentCount", params.toArray(new String[params.size()]));
+		}
+		new Runner(options.build()).run();
+	}
+}
@@ -0,0 +1,167 @@
+package test.jdepend.parse;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import jdepend.metadata.annotation.Annotation;
+import jdepend.metadata.annotation.AnnotationMgr;
+import jdepend.metadata.annotation.Autowired;
+import jdepend.metadata.annotation.Qualifier;
+import jdepend.metadata.annotation.RequestMapping;
+import jdepend.metadata.annotation.Transactional;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 对比加锁遍历与并发Map两种Annotation享元方式在多个解析线程下的吞吐量
+ *
+ * 每次操作模拟解析一个使用Spring注解的类：新建该类上的Annotation并取得共享实例。main以1、2、4、8个线程分别运行。
+ *
+ * @author user
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AnnotationMgrBenchmark {
+
+	/**
+	 * 每个类上的Annotation个数
+	 */
+	private static final int AnnotationCount = 16;
+
+	/**
+	 * 不同取值的个数
+	 */
+	private static final int ValueCount = 64;
+
+	private LegacyAnnotationMgr<Annotation> legacyMgr;
+
+	private AnnotationMgr<Annotation> concurrentMgr;
+
+	@Setup(Level.Iteration)
+	public void setUp() {
+		legacyMgr = new LegacyAnnotationMgr<Annotation>();
+		concurrentMgr = new AnnotationMgr<Annotation>();
+	}
+
+	@State(Scope.Thread)
+	public static class ClassIndex {
+		private int index;
+
+		public int next() {
+			return index++;
+		}
+	}
+
+	/**
+	 * 原有方式：全局锁内按类型查找HashSet，再遍历找到相等的实例
+	 *
+	 * @param classIndex
+	 * @param blackhole
+	 */
+	@Benchmark
+	public void legacy(ClassIndex classIndex, Blackhole blackhole) {
+		int index = classIndex.next();
+		for (int i = 0; i < AnnotationCount; i++) {
+			blackhole.consume(legacyMgr.getType(create(index + i)));
+		}
+	}
+
+	/**
+	 * 新方式：以Annotation为键的ConcurrentHashMap
+	 *
+	 * @param classIndex
+	 * @param blackhole
+	 */
+	@Benchmark
+	public void concurrent(ClassIndex classIndex, Blackhole blackhole) {
+		int index = classIndex.next();
+		for (int i = 0; i < AnnotationCount; i++) {
+			blackhole.consume(concurrentMgr.getType(create(index + i)));
+		}
+	}
+
+	private static Annotation create(int index) {
+		int value = index % ValueCount;
+		switch (index & 3) {
+		case 0:
+			Transactional transactional = new Transactional();
+			transactional.setReadOnly((value & 1) == 0);
+			transactional.setPropagation("REQUIRED");
+			return transactional;
+		case 1:
+			RequestMapping requestMapping = new RequestMapping();
+			requestMapping.setValue("/path" + value);
+			requestMapping.setMethod("GET");
+			return requestMapping;
+		case 2:
+			Autowired autowired = new Autowired();
+			autowired.setRequired((value & 1) == 0);
+			return autowired;
+		default:
+			Qualifier qualifier = new Qualifier();
+			qualifier.setValue("bean" + value);
+			return qualifier;
+		}
+	}
+
+	/**
+	 * 原有的AnnotationMgr实现
+	 */
+	private static final class LegacyAnnotationMgr<T extends Annotation> {
+
+		private Map<String, Collection<T>> elements;
+
+		public synchronized T getType(T t) {
+			if (elements == null) {
+				elements = new HashMap<String, Collection<T>>();
+			}
+			Collection<T> types = elements.get(t.getClass().getName());
+			if (types == null) {
+				types = new HashSet<T>();
+				elements.put(t.getClass().getName(), types);
+			}
+			if (!types.contains(t)) {
+				types.add(t);
+			}
+			T t1;
+			Iterator<T> it = types.iterator();
+			while (it.hasNext()) {
+				t1 = it.next();
+				if (t1.equals(t)) {
+					return t1;
+				}
+			}
+			return null;
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		for (int threads : new int[] { 1, 2, 4, 8 }) {
+			new Runner(new OptionsBuilder().include(AnnotationMgrBenchmark.class.getSimpleName()).threads(threads)
+					.build()).run();
+		}
+	}
+}
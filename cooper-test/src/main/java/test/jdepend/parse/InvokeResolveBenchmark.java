@@ -0,0 +1,138 @@
+package test.jdepend.parse;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import jdepend.framework.context.JDependContext;
+import jdepend.metadata.InvokeItem;
+import jdepend.metadata.JavaClass;
+import jdepend.metadata.LocalInvokeItem;
+import jdepend.metadata.Method;
+import jdepend.model.result.AnalysisResult;
+import jdepend.model.util.JavaClassUnitUtil;
+import jdepend.service.JDependLocalService;
+import jdepend.service.ServiceFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import test.common.TestConfigUtil;
+
+/**
+ * 对比遍历被调用类的方法列表与按方法名和签名索引两种方式查找全部本地调用的被调用方法的耗时
+ *
+ * path为分析目标，多个路径以逗号分隔，为空时分析自身；未设置工作区时以当前目录为工作区。
+ *
+ * @author user
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class InvokeResolveBenchmark {
+
+	@Param({ "" })
+	private String path;
+
+	private List<LocalInvokeItem> invokeItems;
+
+	private List<JavaClass> invokeClasses;
+
+	@Setup
+	public void setUp() throws Exception {
+		if (JDependContext.getWorkspacePath() == null) {
+			JDependContext.setWorkspacePath(System.getProperty("user.dir"));
+		}
+		JDependLocalService service = ServiceFactory.createJDependLocalService();
+		if (path.length() == 0) {
+			for (String p : TestConfigUtil.getSelfPath()) {
+				service.addDirectory(p);
+			}
+		} else {
+			for (String p : path.split(",")) {
+				service.addDirectory(p);
+			}
+		}
+		AnalysisResult result = service.analyze();
+
+		Map<String, JavaClass> javaClasses = new HashMap<String, JavaClass>();
+		for (JavaClass javaClass : JavaClassUnitUtil.getAllClasses(result.getComponents())) {
+			javaClasses.put(javaClass.getName(), javaClass);
+		}
+		invokeItems = new ArrayList<LocalInvokeItem>();
+		invokeClasses = new ArrayList<JavaClass>();
+		JavaClass invokeClass;
+		for (JavaClass javaClass : javaClasses.values()) {
+			for (Method method : javaClass.getSelfMethods()) {
+				for (InvokeItem item : method.getInvokeItems()) {
+					if (item instanceof LocalInvokeItem) {
+						invokeClass = javaClasses.get(((LocalInvokeItem) item).getInvokeClassName());
+						if (invokeClass != null) {
+							invokeItems.add((LocalInvokeItem) item);
+							invokeClasses.add(invokeClass);
+						}
+					}
+				}
+			}
+		}
+		System.out.println();
+		System.out.println("invokeItems: " + invokeItems.size());
+	}
+
+	/**
+	 * 原有方式：遍历被调用类的方法列表（包含继承的方法），逐个比较方法名和签名
+	 *
+	 * @param blackhole
+	 */
+	@Benchmark
+	public void scan(Blackhole blackhole) {
+		LocalInvokeItem item;
+		for (int i = 0; i < invokeItems.size(); i++) {
+			item = invokeItems.get(i);
+			for (Method method : invokeClasses.get(i).getMethods()) {
+				if (item.math2(method)) {
+					blackhole.consume(method);
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * 新方式：JavaClass按方法名和签名建立的索引
+	 *
+	 * @param blackhole
+	 */
+	@Benchmark
+	public void index(Blackhole blackhole) {
+		LocalInvokeItem item;
+		for (int i = 0; i < invokeItems.size(); i++) {
+			item = invokeItems.get(i);
+			blackhole.consume(invokeClasses.get(i).getTheMethod(item.getInvokeMethodName(),
+					item.getInvokeMethodSignature()));
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(InvokeResolveBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,135 @@
+package test.jdepend.parse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import jdepend.metadata.JavaClass;
+import jdepend.parse.impl.MethodReader;
+import jdepend.parse.impl.MethodReaderChain;
+import jdepend.service.JDependLocalService;
+
+import org.apache.bcel.Const;
+import org.apache.bcel.classfile.Code;
+import org.apache.bcel.classfile.Method;
+import org.apache.bcel.classfile.Utility;
+import org.apache.bcel.util.ByteSequence;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import test.common.TestClassFileUtil;
+
+/**
+ * 对比反汇编为字符串后再拆分与直接读取字节码两种方法內容读取方式的性能
+ * 
+ * @author user
+ * 
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class MethodReaderBenchmark {
+
+	private List<Method> methods;
+
+	@Setup
+	public void setUp() throws IOException {
+		methods = new ArrayList<Method>();
+		for (org.apache.bcel.classfile.JavaClass javaClass : TestClassFileUtil.parseClasses(JavaClass.class,
+				MethodReaderChain.class, JDependLocalService.class)) {
+			for (Method method : javaClass.getMethods()) {
+				if (method.getCode() != null) {
+					methods.add(method);
+				}
+			}
+		}
+	}
+
+	/**
+	 * 原有方式：每条指令通过Utility.codeToString反汇编，再拆分字符串得到调用和属性信息
+	 * 
+	 * @param blackhole
+	 * @throws IOException
+	 */
+	@Benchmark
+	public void disassembly(Blackhole blackhole) throws IOException {
+		for (Method method : methods) {
+			Code code = method.getCode();
+			ByteSequence stream = new ByteSequence(code.getCode());
+			try {
+				while (stream.available() > 0) {
+					int opcode = code.getCode()[stream.getIndex()] & 0xff;
+					String info = Utility.codeToString(stream, method.getConstantPool(), true);
+					if (opcode >= Const.GETSTATIC && opcode <= Const.INVOKEINTERFACE) {
+						String[] infos = info.split("\\s+");
+						int pos = infos[1].lastIndexOf('.');
+						int pos2 = infos[1].indexOf(':');
+						blackhole.consume(infos[1].substring(0, pos));
+						blackhole.consume(infos[1].substring(pos + 1, pos2));
+						blackhole.consume(infos[1].substring(pos2 + 1));
+					}
+				}
+			} finally {
+				stream.close();
+			}
+		}
+	}
+
+	/**
+	 * 新方式：MethodReaderChain直接按常量池索引解析操作数
+	 * 
+	 * @param blackhole
+	 */
+	@Benchmark
+	public void opcode(Blackhole blackhole) {
+		MethodReaderChain chain = new MethodReaderChain();
+		chain.addReader(new BlackholeMethodReader(blackhole));
+		for (Method method : methods) {
+			chain.read(method);
+		}
+	}
+
+	static class BlackholeMethodReader extends MethodReader {
+
+		private Blackhole blackhole;
+
+		public BlackholeMethodReader(Blackhole blackhole) {
+			super(null);
+			this.blackhole = blackhole;
+		}
+
+		@Override
+		protected void readInvoke(int opcode, String owner, String name, String signature) {
+			blackhole.consume(owner);
+			blackhole.consume(name);
+			blackhole.consume(signature);
+		}
+
+		@Override
+		protected void readField(int opcode, String owner, String name, String signature) {
+			blackhole.consume(owner);
+			blackhole.consume(name);
+			blackhole.consume(signature);
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(MethodReaderBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,114 @@
+package test.jdepend.parse;
+
+import java.util.concurrent.TimeUnit;
+
+import jdepend.parse.sql.SqlParser;
+import jdepend.parse.sql.SqlParserSelf;
+import jdepend.parse.sql.SqlParserStream;
+import jdepend.parse.sql.SqlParserThird;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 对比三种SQL表名解析器解析一组常见SQL的耗时，以及判断常量池字符串是否为SQL的耗时
+ *
+ * @author user
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SqlParserBenchmark {
+
+	private static final String[] Sqls = {
+			"select classname, name, tip, bigtip, type, username, createdate from analyzer",
+			"select * from tableA aa, tableD dd where aa.id = dd.id",
+			"select m.* from share_share as m left join share_heat as mh on m.id=mh.id where m.deleted_flag = 0 order by mh.heat desc",
+			"select a.id from orders a inner join customer c on a.cid = c.id where a.state = ?",
+			"insert into analyzer(classname, name, tip, bigtip, type, defaultdata, def, username, createdate) values(?, ?, ?, ?, ?, ?, ?, ?, now())",
+			"insert into analysisdata values(?, ?)",
+			"update t_account set balance = balance - ? where id = ?",
+			"delete from analysisdata where id = ?" };
+
+	/**
+	 * 常量池中的字符串以类名、方法描述符等非SQL内容为主
+	 */
+	private static final String[] Constants = { "jdepend/parse/impl/BigClassFileVisitor",
+			"(Lorg/apache/bcel/classfile/ConstantUtf8;)V", "visitConstantUtf8: obj.getBytes(this.cp) = ",
+			"LineNumberTable", "Ljava/util/List<Ljdepend/metadata/TableInfo;>;", "未处理不明publicId说明的XML。",
+			"select classname, name, tip from analyzer", "update t_account set balance = ? where id = ?" };
+
+	private final SqlParser self = new SqlParserSelf();
+
+	private final SqlParser third = new SqlParserThird();
+
+	private final SqlParser stream = new SqlParserStream();
+
+	@Benchmark
+	public void parseSelf(Blackhole blackhole) {
+		for (String sql : Sqls) {
+			blackhole.consume(self.parserSql(sql));
+		}
+	}
+
+	@Benchmark
+	public void parseThird(Blackhole blackhole) {
+		for (String sql : Sqls) {
+			blackhole.consume(third.parserSql(sql));
+		}
+	}
+
+	@Benchmark
+	public void parseStream(Blackhole blackhole) {
+		for (String sql : Sqls) {
+			blackhole.consume(stream.parserSql(sql));
+		}
+	}
+
+	/**
+	 * 原有方式：生成小写副本后逐个关键字indexOf
+	 *
+	 * @param blackhole
+	 */
+	@Benchmark
+	public void isSQLLowerCase(Blackhole blackhole) {
+		for (String constant : Constants) {
+			blackhole.consume(isSQLLowerCase(constant));
+		}
+	}
+
+	@Benchmark
+	public void isSQL(Blackhole blackhole) {
+		for (String constant : Constants) {
+			blackhole.consume(SqlParser.isSQL(constant));
+		}
+	}
+
+	private static boolean isSQLLowerCase(String arg) {
+		if (arg == null || arg.length() < 7) {
+			return false;
+		}
+		arg = arg.toLowerCase();
+		return arg.indexOf("select ") != -1 || arg.indexOf("insert ") != -1 || arg.indexOf("update ") != -1
+				|| arg.indexOf("delete ") != -1;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(SqlParserBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,131 @@
+package test.jdepend.parse;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import jdepend.metadata.JavaClass;
+import jdepend.metadata.JavaClassRelationType;
+import jdepend.metadata.TableInfo;
+import jdepend.metadata.relationtype.JavaClassRelationTypes;
+import jdepend.metadata.relationtype.TableRelation;
+import jdepend.metadata.util.JavaClassCollection;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 对比逐个扫描全部Class与按表名索引两种方式建立表关系的耗时随Class个数的变化
+ *
+ * 每个Class写一张表、读两张表，每五个Class共用一张表，每张表有一个定义它的Entity。
+ *
+ * @author user
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TableRelationBenchmark {
+
+	@Param({ "500", "1000", "2000", "4000" })
+	private int classCount;
+
+	private JavaClassCollection javaClasses;
+
+	private TableRelation tableRelation;
+
+	@Setup(Level.Invocation)
+	public void setUp() {
+		tableRelation = new TableRelation(1F);
+		Map<String, JavaClassRelationType> types = new HashMap<String, JavaClassRelationType>();
+		types.put(JavaClassRelationTypes.Table, tableRelation);
+		JavaClassRelationTypes javaClassRelationTypes = new JavaClassRelationTypes();
+		javaClassRelationTypes.setTypes(types);
+
+		int tableCount = classCount / 5;
+		Collection<JavaClass> classes = new ArrayList<JavaClass>();
+		JavaClass javaClass;
+		for (int i = 0; i < classCount; i++) {
+			javaClass = new JavaClass("test.erp.Service" + i, true);
+			javaClass.getDetail().addTable(new TableInfo("T_" + (i % tableCount), TableInfo.Update));
+			javaClass.getDetail().addTable(new TableInfo("T_" + ((i * 7) % tableCount), TableInfo.Read));
+			javaClass.getDetail().addTable(new TableInfo("T_" + ((i * 13 + 1) % tableCount), TableInfo.Read));
+			classes.add(javaClass);
+		}
+		for (int i = 0; i < tableCount; i++) {
+			javaClass = new JavaClass("test.erp.Entity" + i, true);
+			javaClass.getDetail().addTable(new TableInfo("T_" + i, TableInfo.Define));
+			classes.add(javaClass);
+		}
+		javaClasses = new JavaClassCollection(javaClassRelationTypes, classes);
+	}
+
+	/**
+	 * 原有方式：每个读表信息都扫描全部Class的全部表信息
+	 *
+	 * @param blackhole
+	 */
+	@Benchmark
+	public void scan(Blackhole blackhole) {
+		for (JavaClass javaClass : javaClasses.getJavaClasses()) {
+			for (TableInfo tableInfo : javaClass.getDetail().getTables()) {
+				if (!tableInfo.isDefine()) {
+					for (JavaClass dependClass : javaClasses.getJavaClasses()) {
+						for (TableInfo currentTableInfo : dependClass.getDetail().getTables()) {
+							if (currentTableInfo.getTableName().equalsIgnoreCase(tableInfo.getTableName())
+									&& (currentTableInfo.isWrite() || currentTableInfo.isDefine())) {
+								blackhole.consume(dependClass);
+							}
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * 新方式：TableRelation.init建立表名索引，create时直接查找并建立关系
+	 *
+	 * @param blackhole
+	 */
+	@Benchmark
+	public void indexed(Blackhole blackhole) {
+		tableRelation.init(javaClasses);
+		for (JavaClass javaClass : javaClasses.getJavaClasses()) {
+			blackhole.consume(tableRelation.create(javaClass, javaClasses));
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		List<String> params = new ArrayList<String>();
+		for (String arg : args) {
+			params.add(arg);
+		}
+		OptionsBuilder options = new OptionsBuilder();
+		options.include(TableRelationBenchmark.class.getSimpleName());
+		if (params.size() > 0) {
+			options.param("classCount", params.toArray(new String[params.size()]));
+		}
+		new Runner(options.build()).run();
+	}
+}
@@ -0,0 +1,193 @@
+package test.jdepend.service;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import jdepend.metadata.JavaClass;
+import jdepend.metadata.JavaPackage;
+import jdepend.model.Component;
+import jdepend.model.JavaClassUnit;
+import jdepend.model.Relation;
+import jdepend.model.component.JarComponent;
+import jdepend.model.component.JavaPackageComponent;
+import jdepend.model.result.AnalysisResult;
+import jdepend.model.result.ProfileFacadeImpl;
+import jdepend.parse.Parse;
+import jdepend.parse.ParseConfigurator;
+import jdepend.parse.impl.PackageFilter;
+import jdepend.service.JDependLocalService;
+import jdepend.service.ServiceFactory;
+import junit.framework.TestCase;
+import test.common.TestConfigUtil;
+
+/**
+ * 比较增量分析与全量分析的结果
+ *
+ * @author user
+ *
+ */
+public class IncrementalAnalyzeTest extends TestCase {
+
+	private AnalysisResult previousResult;
+
+	@Override
+	protected void setUp() throws Exception {
+		previousResult = this.createService().analyze();
+	}
+
+	public void testNoChange() throws Exception {
+		AnalysisResult result = this.createService().analyze(previousResult, new ArrayList<String>());
+
+		assertEquals(this.getComponentInfos(previousResult), this.getComponentInfos(result));
+		assertEquals(this.getRelationInfos(previousResult), this.getRelationInfos(result));
+	}
+
+	public void testChange() throws Exception {
+		List<String> changedClassNames = new ArrayList<String>();
+		int index = 0;
+		for (JavaClassUnit javaClass : previousResult.getClasses()) {
+			if (index++ % 50 == 0) {
+				changedClassNames.add(javaClass.getName());
+			}
+		}
+
+		AnalysisResult result = this.createService().analyze(previousResult, changedClassNames);
+		AnalysisResult fullResult = this.createService().analyze();
+
+		assertEquals(this.getComponentInfos(fullResult), this.getComponentInfos(result));
+		assertEquals(this.getRelationInfos(fullResult), this.getRelationInfos(result));
+		assertEquals(fullResult.getScore(), result.getScore());
+	}
+
+	/**
+	 * 修改一个Class的依赖：p1.A从依赖p2.B改为依赖p3.C
+	 * 
+	 * @throws Exception
+	 */
+	public void testChangeDependency() throws Exception {
+		File dir = new File(System.getProperty("java.io.tmpdir"), "incremental-" + System.nanoTime());
+		this.compile(dir, "p2/B", "package p2; public class B { }");
+		this.compile(dir, "p3/C", "package p3; public class C { }");
+		for (int i = 0; i < 10; i++) {
+			this.compile(dir, "p4/D" + i, "package p4; public class D" + i + " { p2.B b; }");
+		}
+		this.compile(dir, "p1/A", "package p1; public class A { p2.B b = new p2.B(); }");
+		AnalysisResult previous = this.createService(dir).analyze();
+		Collection<JavaClass> previousClasses = new ArrayList<JavaClass>();
+		for (JavaPackage javaPackage : this.createParse(dir).execute()) {
+			previousClasses.addAll(javaPackage.getClasses());
+		}
+
+		this.compile(dir, "p1/A", "package p1; public class A { p3.C c = new p3.C(); }");
+		List<String> changedClassNames = Arrays.asList("p1.A");
+
+		AnalysisResult result = this.createService(dir).analyze(previous, changedClassNames);
+		AnalysisResult fullResult = this.createService(dir).analyze();
+
+		assertEquals(this.getClassRelationInfos(fullResult), this.getClassRelationInfos(result));
+		assertTrue(this.getClassRelationInfos(result).contains("p1.A->[java.lang.Object, p3.C]"));
+		assertEquals(this.getComponentInfos(fullResult), this.getComponentInfos(result));
+		assertEquals(this.getRelationInfos(fullResult), this.getRelationInfos(result));
+		assertEquals(fullResult.getScore(), result.getScore());
+
+		// 只为变化的Class及其上次依赖的Class重新建立关系
+		Parse parse = this.createParse(dir);
+		parse.setPreviousClasses(previousClasses, changedClassNames);
+		parse.execute();
+		List<String> affectedClassNames = new ArrayList<String>();
+		for (String id : parse.getAffectedClassIds()) {
+			affectedClassNames.add(fullResult.getTheClass(id).getName());
+		}
+		Collections.sort(affectedClassNames);
+		assertEquals(Arrays.asList("java.lang.Object", "p1.A", "p2.B"), affectedClassNames);
+	}
+
+	private JDependLocalService createService() throws Exception {
+		JDependLocalService service = ServiceFactory.createJDependLocalService();
+		for (String p : TestConfigUtil.getSelfPath()) {
+			service.addDirectory(p);
+		}
+		service.setComponent(new JarComponent());
+		return service;
+	}
+
+	private JDependLocalService createService(File dir) throws Exception {
+		JDependLocalService service = ServiceFactory.createJDependLocalService();
+		service.addDirectory(new File(dir, "classes").getAbsolutePath());
+		service.setComponent(new JavaPackageComponent());
+		return service;
+	}
+
+	private Parse createParse(File dir) throws IOException {
+		ProfileFacadeImpl profileFacade = new ProfileFacadeImpl(new ProfileFacadeImpl());
+		ParseConfigurator conf = new ParseConfigurator(new HashMap<String, String>());
+		conf.setPackageFilter(new PackageFilter(new ArrayList<String>(), new ArrayList<String>()));
+		conf.setJavaClassRelationTypes(profileFacade.getJavaClassRelationItemProfile().getJavaClassRelationTypes());
+		Parse parse = new Parse(conf);
+		parse.addDirectorys(new File(dir, "classes").getAbsolutePath());
+		return parse;
+	}
+
+	private void compile(File dir, String name, String source) throws IOException {
+		File sourceFile = new File(dir, "src/" + name + ".java");
+		sourceFile.getParentFile().mkdirs();
+		OutputStream out = new FileOutputStream(sourceFile);
+		try {
+			out.write(source.getBytes("UTF-8"));
+		} finally {
+			out.close();
+		}
+		File classes = new File(dir, "classes");
+		classes.mkdirs();
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		assertEquals(0, compiler.run(null, null, null, "-proc:none", "-d", classes.getAbsolutePath(), "-sourcepath",
+				new File(dir, "src").getAbsolutePath(), sourceFile.getAbsolutePath()));
+	}
+
+	private List<String> getComponentInfos(AnalysisResult result) {
+		List<String> infos = new ArrayList<String>();
+		for (Component component : result.getComponents()) {
+			infos.add(component.getName() + ":" + component.getClassCount() + ":" + component.getAfferentCoupling()
+					+ ":" + component.getEfferentCoupling() + ":" + component.getStability() + ":"
+					+ component.getCohesion() + ":" + component.getCoupling() + ":" + component.getContainsCycle());
+		}
+		Collections.sort(infos);
+		return infos;
+	}
+
+	private List<String> getClassRelationInfos(AnalysisResult result) {
+		List<String> infos = new ArrayList<String>();
+		List<String> ceNames;
+		for (JavaClassUnit javaClass : result.getClasses()) {
+			ceNames = new ArrayList<String>();
+			for (JavaClassUnit ce : javaClass.getCeList()) {
+				ceNames.add(ce.getName());
+			}
+			Collections.sort(ceNames);
+			infos.add(javaClass.getName() + "->" + ceNames);
+		}
+		Collections.sort(infos);
+		return infos;
+	}
+
+	private List<String> getRelationInfos(AnalysisResult result) {
+		List<String> infos = new ArrayList<String>();
+		for (Relation relation : result.getRelations()) {
+			infos.add(relation.getCurrent().getName() + "->" + relation.getDepend().getName() + ":"
+					+ relation.getIntensity() + ":" + relation.getAttentionTypeName());
+		}
+		Collections.sort(infos);
+		return infos;
+	}
+}
@@ -0,0 +1,100 @@
+package test.jdepend.util;
+
+import java.util.concurrent.TimeUnit;
+
+import jdepend.framework.context.JDependContext;
+import jdepend.model.JDependUnitMgr;
+import jdepend.model.result.AnalysisResult;
+import jdepend.service.JDependLocalService;
+import jdepend.service.ServiceFactory;
+import jdepend.util.refactor.AdjustHistory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import test.common.TestConfigUtil;
+
+/**
+ * 对比复制整个分析结果与只记录组件划分变化两种方式保存调整快照的耗时
+ *
+ * 每次操作保存一个快照（重构工具每次调整前都会保存）。path为分析目标，多个路径以逗号分隔，为空时分析自身。
+ *
+ * @author user
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AdjustHistoryBenchmark {
+
+	@Param({ "" })
+	private String path;
+
+	private AnalysisResult result;
+
+	@Setup
+	public void setUp() throws Exception {
+		if (JDependContext.getWorkspacePath() == null) {
+			JDependContext.setWorkspacePath(System.getProperty("user.dir"));
+		}
+		JDependLocalService service = ServiceFactory.createJDependLocalService();
+		if (path.length() == 0) {
+			for (String p : TestConfigUtil.getSelfPath()) {
+				service.addDirectory(p);
+			}
+		} else {
+			for (String p : path.split(",")) {
+				service.addDirectory(p);
+			}
+		}
+		result = service.analyze();
+		JDependUnitMgr.getInstance().setResult(result);
+		System.out.println();
+		System.out.println("classes: " + result.getClasses().size());
+	}
+
+	@Setup(Level.Iteration)
+	public void setUpHistory() {
+		AdjustHistory.getInstance().clear();
+		AdjustHistory.getInstance().addMemento();
+	}
+
+	/**
+	 * 原有方式：复制整个分析结果
+	 *
+	 * @param blackhole
+	 */
+	@Benchmark
+	public void copy(Blackhole blackhole) {
+		blackhole.consume(result.clone());
+	}
+
+	/**
+	 * 新方式：记录相对于前一个快照的组件划分变化
+	 */
+	@Benchmark
+	public void delta() {
+		AdjustHistory.getInstance().addMemento();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(AdjustHistoryBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -64,7 +64,7 @@ public class TODOTest extends TestCase {
 			List<Memento> mementos = AdjustHistory.getInstance().getMementos();
 
 			if (mementos.size() > 0) {
-				float score1 = MetricsFormat.toFormattedMetrics(mementos.get(0).getResult().getScore());
+				float score1 = MetricsFormat.toFormattedMetrics(mementos.get(0).getScore());
 				float score2 = MetricsFormat.toFormattedMetrics(AdjustHistory.getInstance().getCurrent().getScore());
 				System.out.println("调整前分数 :" + score1);
 				System.out.println("调整后分数 :" + score2);
@@ -5,8 +5,8 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
-import jdepend.metadata.InvokeItem;
 import jdepend.metadata.Method;
+import jdepend.metadata.util.CallGraph;
 import jdepend.model.JavaClassUnit;
 import jdepend.model.result.AnalysisResult;
 import jdepend.util.analyzer.framework.AbstractAnalyzer;
@@ -34,6 +34,7 @@ public final class IdentifyWillMoveMethod extends AbstractAnalyzer {
 		boolean sameInvokeClass;
 		boolean selfInvokeClass;
 
+		CallGraph callGraph = result.getCallGraph();
 		for (JavaClassUnit javaClass : result.getClasses()) {
 			for (Method method : javaClass.getJavaClass().getSelfMethods()) {
 				if (method.getSelfLineCount() > 10) {
@@ -42,16 +43,16 @@ public final class IdentifyWillMoveMethod extends AbstractAnalyzer {
 						invokeMethods = new ArrayList<String>();
 						sameInvokeClass = true;
 						selfInvokeClass = false;
-						L: for (InvokeItem invokeItem : method.getInvokeItems()) {
-							if (!invokeItem.getCallee().getJavaClass().equals(method.getJavaClass())) {
+						L: for (Method callee : callGraph.getInvokeMethods(method)) {
+							if (!callee.getJavaClass().equals(method.getJavaClass())) {
 								if (invokeClassName != null
-										&& !invokeClassName.equals(invokeItem.getCallee().getJavaClass().getName())) {
+										&& !invokeClassName.equals(callee.getJavaClass().getName())) {
 									sameInvokeClass = false;
 									break L;
 								} else if (invokeClassName == null) {
-									invokeClassName = invokeItem.getCallee().getJavaClass().getName();
+									invokeClassName = callee.getJavaClass().getName();
 								}
-								invokeMethods.add(invokeItem.getCallee().getName());
+								invokeMethods.add(callee.getName());
 							} else {
 								selfInvokeClass = true;
 								break L;
@@ -7,6 +7,7 @@ import java.util.Map;
 
 import jdepend.metadata.JavaClass;
 import jdepend.metadata.Method;
+import jdepend.metadata.util.CallGraph;
 import jdepend.model.result.AnalysisResult;
 import jdepend.util.analyzer.framework.AbstractAnalyzer;
 import jdepend.util.analyzer.framework.Analyzer;
@@ -29,10 +30,12 @@ public final class TogetherInvokeMethod extends AbstractAnalyzer {
 		CollectionMethod cm;
 		Map<CollectionMethod, Collection<Method>> cms = new HashMap<CollectionMethod, Collection<Method>>();
 
+		CallGraph callGraph = result.getCallGraph();
+
 		for (Method method : result.getMethods()) {
 			// 对方法中调用的方法按着类进行分组
 			invokedMethods = new HashMap<JavaClass, Collection<Method>>();
-			for (Method invokeMethod1 : method.getInvokeMethods()) {
+			for (Method invokeMethod1 : callGraph.getInvokeMethods(method)) {
 				if (!invokeMethod1.getJavaClass().equals(method.getJavaClass())) {
 					if (!invokedMethods.containsKey(invokeMethod1.getJavaClass())) {
 						invokedMethods.put(invokeMethod1.getJavaClass(), new ArrayList<Method>());
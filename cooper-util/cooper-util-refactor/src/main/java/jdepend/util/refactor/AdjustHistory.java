@@ -5,19 +5,33 @@ import java.util.Date;
 import java.util.List;
 
 import jdepend.framework.exception.JDependException;
+import jdepend.model.ComponentException;
 import jdepend.model.JDependUnitMgr;
 import jdepend.model.result.AnalysisResult;
 
+/**
+ * 调整历史
+ * 
+ * 第一个快照复制一次原始结果，之后的快照只记录组件划分的变化；撤销、重做和比较都由原始结果和组件划分的变化得到。
+ */
 public class AdjustHistory {
 
 	private List<Memento> mementos = new ArrayList<Memento>();
 
+	private List<Memento> redoMementos = new ArrayList<Memento>();
+
+	private ComponentLayout priorLayout;// 最后一个快照的组件划分
+
+	private AnalysisResult comparedResult;// 比较的快照的结果
+
 	private List<String> actions;
 
 	private AnalysisResult current;// 移动后的当前结果
 
 	private Memento compared = null;
 
+	private boolean undoneToOriginality = false;// 当前结果已撤销到第一个快照
+
 	private static AdjustHistory inst = new AdjustHistory();
 
 	private AdjustHistory() {
@@ -28,16 +42,98 @@ public class AdjustHistory {
 	}
 
 	public void addMemento() {
-		AnalysisResult result = JDependUnitMgr.getInstance().getResult().clone();
-		this.addMemento(CreateMemento(result));
+		// 撤销到第一个快照后，当前结果就是第一个快照，不再重复保存
+		if (this.undoneToOriginality) {
+			this.undoneToOriginality = false;
+		} else {
+			this.addMemento(JDependUnitMgr.getInstance().getResult());
+		}
+		this.redoMementos.clear();
 	}
 
-	private void addMemento(Memento memento) {
-		this.mementos.add(memento);
+	private void addMemento(AnalysisResult result) {
+		try {
+			this.mementos.add(CreateMemento(result));
+		} catch (ComponentException e) {
+			e.printStackTrace();
+		}
 	}
 
-	private Memento CreateMemento(AnalysisResult result) {
-		return new Memento(result, actions);
+	private Memento CreateMemento(AnalysisResult result) throws ComponentException {
+		ComponentLayout layout = ComponentLayout.of(result);
+		Memento memento;
+		if (this.mementos.size() == 0) {
+			memento = new Memento(null, result.clone(), layout.getComponents(), layout.getClassComponents(), result,
+					actions);
+		} else {
+			Memento prior = this.getPrior();
+			if (this.priorLayout == null) {
+				this.priorLayout = prior.getLayout();
+			}
+			memento = new Memento(prior, prior.getOriginality(), layout.sameComponents(priorLayout) ? null
+					: layout.getComponents(), layout.movedClasses(priorLayout), result, actions);
+		}
+		this.priorLayout = layout;
+		return memento;
+	}
+
+	/**
+	 * 撤销最近一次调整，撤销第一次调整时恢复第一个快照（原始结果）但保留该快照
+	 * 
+	 * @return 是否撤销
+	 * @throws JDependException
+	 */
+	public boolean undo() throws JDependException {
+		if (!this.canUndo()) {
+			return false;
+		}
+		Memento redo = CreateMemento(JDependUnitMgr.getInstance().getResult());
+		Memento prior;
+		if (this.mementos.size() == 1) {
+			prior = this.mementos.get(0);
+			this.undoneToOriginality = true;
+		} else {
+			prior = this.mementos.remove(this.mementos.size() - 1);
+		}
+		this.priorLayout = null;
+		this.redoMementos.add(redo);
+		this.restore(prior);
+		return true;
+	}
+
+	/**
+	 * 重做最近一次撤销的调整
+	 * 
+	 * @return 是否重做
+	 * @throws JDependException
+	 */
+	public boolean redo() throws JDependException {
+		if (this.redoMementos.size() == 0) {
+			return false;
+		}
+		Memento redo = this.redoMementos.remove(this.redoMementos.size() - 1);
+		if (this.undoneToOriginality) {
+			this.undoneToOriginality = false;
+		} else {
+			this.mementos.add(CreateMemento(JDependUnitMgr.getInstance().getResult()));
+		}
+		this.restore(redo);
+		return true;
+	}
+
+	public boolean canUndo() {
+		return this.mementos.size() > 1 || (this.mementos.size() == 1 && !this.undoneToOriginality);
+	}
+
+	public boolean canRedo() {
+		return this.redoMementos.size() > 0;
+	}
+
+	private void restore(Memento memento) throws JDependException {
+		AnalysisResult result = memento.getResult();
+		JDependUnitMgr.getInstance().setResult(result);
+		this.actions = memento.getActions();
+		this.current = result;
 	}
 
 	public Memento getCompared() {
@@ -58,6 +154,24 @@ public class AdjustHistory {
 
 	public void setCompared(Memento memento) {
 		this.compared = memento;
+		this.comparedResult = null;
+	}
+
+	/**
+	 * 得到比较的快照的结果，原始快照直接使用共享的原始结果
+	 * 
+	 * @return
+	 * @throws JDependException
+	 */
+	private AnalysisResult getComparedResult() throws JDependException {
+		Memento memento = this.getCompared();
+		if (memento == this.getOriginality()) {
+			return memento.getOriginality();
+		}
+		if (this.comparedResult == null) {
+			this.comparedResult = memento.getResult();
+		}
+		return this.comparedResult;
 	}
 
 	public List<String> getActions() {
@@ -87,9 +201,13 @@ public class AdjustHistory {
 
 	public void clear() {
 		this.mementos = new ArrayList<Memento>();
+		this.redoMementos = new ArrayList<Memento>();
+		this.priorLayout = null;
 		this.actions = null;
 		this.current = null;
 		this.compared = null;
+		this.comparedResult = null;
+		this.undoneToOriginality = false;
 	}
 
 	public boolean empty() {
@@ -106,7 +224,7 @@ public class AdjustHistory {
 
 	public CompareInfo compare(CompareObject object) throws JDependException {
 		if (this.getCompared() != null) {
-			AnalysisResult result = this.getCompared().getResult();
+			AnalysisResult result = this.getComparedResult();
 			Object originality = object.getOriginalityValue(result);
 			// 获取比较的数值
 			CompareInfo info = new CompareInfo(object);
@@ -0,0 +1,182 @@
+package jdepend.util.refactor;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jdepend.model.Component;
+import jdepend.model.ComponentException;
+import jdepend.model.JavaClassUnit;
+import jdepend.model.component.MemoryComponent;
+import jdepend.model.result.AnalysisResult;
+import jdepend.model.util.CopyUtil;
+
+/**
+ * 组件划分：组件描述（不含类）和类所属的组件
+ *
+ * 在共享的原始结果上按组件划分重新组织组件即可得到调整后的结果。
+ */
+final class ComponentLayout implements Serializable {
+
+	private static final long serialVersionUID = -2470317463413281567L;
+
+	/**
+	 * 已不在任何组件中的类暂时放在该组件中，建立结果后删除
+	 */
+	private static final String RemovedComponentName = "__removed__";
+
+	private List<Component> components;
+
+	private Map<String, String> classComponents;
+
+	public ComponentLayout(List<Component> components, Map<String, String> classComponents) {
+		this.components = components;
+		this.classComponents = classComponents;
+	}
+
+	/**
+	 * 得到结果当前的组件划分
+	 *
+	 * @param result
+	 * @return
+	 * @throws ComponentException
+	 */
+	public static ComponentLayout of(AnalysisResult result) throws ComponentException {
+		List<Component> components = new ArrayList<Component>(result.getComponents().size());
+		Map<String, String> classComponents = new HashMap<String, String>();
+		Map<String, JavaClassUnit> noClasses = Collections.emptyMap();
+		for (Component component : result.getComponents()) {
+			components.add(component.clone(noClasses));
+			for (JavaClassUnit javaClass : component.getClasses()) {
+				classComponents.put(javaClass.getId(), component.getName());
+			}
+		}
+		return new ComponentLayout(components, classComponents);
+	}
+
+	/**
+	 * 组件描述（不含类）
+	 *
+	 * @return
+	 */
+	public List<Component> getComponents() {
+		return components;
+	}
+
+	/**
+	 * 类Id与所属组件名称的对应关系
+	 *
+	 * @return
+	 */
+	public Map<String, String> getClassComponents() {
+		return classComponents;
+	}
+
+	/**
+	 * 组件名称是否与另一个组件划分相同
+	 *
+	 * @param layout
+	 * @return
+	 */
+	public boolean sameComponents(ComponentLayout layout) {
+		if (this.components.size() != layout.components.size()) {
+			return false;
+		}
+		for (int i = 0; i < this.components.size(); i++) {
+			if (!this.components.get(i).getName().equals(layout.components.get(i).getName())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 计算相对于prior所属组件发生变化的类，值为null表示该类已不在任何组件中
+	 *
+	 * @param prior
+	 * @return
+	 */
+	public Map<String, String> movedClasses(ComponentLayout prior) {
+		Map<String, String> movedClasses = new HashMap<String, String>();
+		String componentName;
+		for (String id : this.classComponents.keySet()) {
+			componentName = this.classComponents.get(id);
+			if (!componentName.equals(prior.classComponents.get(id))) {
+				movedClasses.put(id, componentName);
+			}
+		}
+		for (String id : prior.classComponents.keySet()) {
+			if (!this.classComponents.containsKey(id)) {
+				movedClasses.put(id, null);
+			}
+		}
+		return movedClasses;
+	}
+
+	/**
+	 * 应用一次变化
+	 *
+	 * @param components
+	 *            为null时组件描述不变
+	 * @param movedClasses
+	 */
+	public void apply(List<Component> components, Map<String, String> movedClasses) {
+		if (components != null) {
+			this.components = components;
+		}
+		for (String id : movedClasses.keySet()) {
+			if (movedClasses.get(id) == null) {
+				this.classComponents.remove(id);
+			} else {
+				this.classComponents.put(id, movedClasses.get(id));
+			}
+		}
+	}
+
+	/**
+	 * 复制原始结果中的类，按组件划分重新组织组件，得到新的结果
+	 *
+	 * @param originality
+	 * @return
+	 * @throws ComponentException
+	 */
+	public AnalysisResult createResult(AnalysisResult originality) throws ComponentException {
+		List<Component> copies = (new CopyUtil()).copy(originality.getRunningContext(), originality.getComponents());
+
+		Map<String, JavaClassUnit> noClasses = Collections.emptyMap();
+		Map<String, Component> targets = new HashMap<String, Component>();
+		List<Component> newComponents = new ArrayList<Component>(this.components.size() + 1);
+		Component removed = new MemoryComponent(RemovedComponentName);
+		newComponents.add(removed);
+		Component newComponent;
+		for (Component component : this.components) {
+			newComponent = component.clone(noClasses);
+			targets.put(newComponent.getName(), newComponent);
+			newComponents.add(newComponent);
+		}
+
+		String componentName;
+		Component target;
+		for (Component copy : copies) {
+			for (JavaClassUnit javaClass : copy.getClasses()) {
+				componentName = this.classComponents.get(javaClass.getId());
+				target = componentName == null ? null : targets.get(componentName);
+				if (target != null) {
+					target.addJavaClass(javaClass);
+				} else {
+					removed.addJavaClass(javaClass);
+				}
+			}
+		}
+
+		AnalysisResult result = new AnalysisResult(newComponents, originality.getRunningContext());
+		// 与删除组件时一样去掉已删除的类与其他类之间的关系
+		result.deleteTheComponent(RemovedComponentName);
+		result.clearCache();
+
+		return result;
+	}
+}
@@ -2,31 +2,115 @@ package jdepend.util.refactor;
 
 import java.io.Serializable;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
+import jdepend.model.Component;
+import jdepend.model.ComponentException;
 import jdepend.model.result.AnalysisResult;
 
+/**
+ * 调整历史中的快照
+ * 
+ * 只保存相对于前一个快照的组件划分变化，调整前的类和关系由所有快照共享的原始结果提供，需要时才建立完整的结果。
+ */
 public class Memento implements Serializable {
 
-	private AnalysisResult result;
+	private Memento prior;// 前一个快照，为null时为第一个快照
+
+	private AnalysisResult originality;// 共享的原始结果，不做修改
+
+	private List<Component> components;// 组件描述，与前一个快照相同时为null
+
+	private Map<String, String> movedClasses;// 所属组件发生变化的类
 
 	private List<String> actions;
 
 	private Date createDate;
 
-	public Memento(AnalysisResult result, List<String> actions) {
-		this.result = result;
+	private Float distance;
+
+	private Float balance;
+
+	private Float encapsulation;
+
+	private Float relationRationality;
+
+	private Float score;
+
+	Memento(Memento prior, AnalysisResult originality, List<Component> components, Map<String, String> movedClasses,
+			AnalysisResult result, List<String> actions) {
+		this.prior = prior;
+		this.originality = originality;
+		this.components = components;
+		this.movedClasses = movedClasses;
 		this.actions = actions;
 		this.createDate = new Date();
+
+		this.distance = result.getDistance();
+		this.balance = result.getBalance();
+		this.encapsulation = result.getEncapsulation();
+		this.relationRationality = result.getRelationRationality();
+		this.score = result.getScore();
 	}
 
 	public List<String> getActions() {
 		return actions;
 	}
 
-	public AnalysisResult getResult() {
-		return result;
+	/**
+	 * 建立该快照的完整结果，每次调用都返回新的结果
+	 * 
+	 * @return
+	 * @throws ComponentException
+	 */
+	public AnalysisResult getResult() throws ComponentException {
+		return this.getLayout().createResult(originality);
+	}
+
+	/**
+	 * 从第一个快照开始依次应用变化得到组件划分
+	 * 
+	 * @return
+	 */
+	ComponentLayout getLayout() {
+		LinkedList<Memento> mementos = new LinkedList<Memento>();
+		for (Memento memento = this; memento != null; memento = memento.prior) {
+			mementos.addFirst(memento);
+		}
+		ComponentLayout layout = new ComponentLayout(new ArrayList<Component>(), new HashMap<String, String>());
+		for (Memento memento : mementos) {
+			layout.apply(memento.components, memento.movedClasses);
+		}
+		return layout;
+	}
+
+	AnalysisResult getOriginality() {
+		return originality;
+	}
+
+	public Float getDistance() {
+		return distance;
+	}
+
+	public Float getBalance() {
+		return balance;
+	}
+
+	public Float getEncapsulation() {
+		return encapsulation;
+	}
+
+	public Float getRelationRationality() {
+		return relationRationality;
+	}
+
+	public Float getScore() {
+		return score;
 	}
 
 	public Date getCreateDate() {
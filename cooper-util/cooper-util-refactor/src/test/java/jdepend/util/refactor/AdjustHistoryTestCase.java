@@ -0,0 +1,238 @@
+package jdepend.util.refactor;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import jdepend.framework.config.PropertyConfigurator;
+import jdepend.framework.context.JDependContext;
+import jdepend.metadata.JavaClass;
+import jdepend.metadata.JavaPackage;
+import jdepend.model.Component;
+import jdepend.model.JDependUnitMgr;
+import jdepend.model.JavaClassUnit;
+import jdepend.model.result.AnalysisResult;
+import jdepend.model.result.AnalysisRunningContext;
+import jdepend.model.result.ProfileFacadeImpl;
+import jdepend.parse.Parse;
+import jdepend.parse.ParseConfigurator;
+import jdepend.parse.impl.PackageFilter;
+import junit.framework.TestCase;
+
+/**
+ * 校验调整历史按组件划分的变化撤销、重做和比较后，组件与类的对应关系与每一步调整后一致
+ *
+ * @author user
+ *
+ */
+public class AdjustHistoryTestCase extends TestCase {
+
+	private RefactorTool tool;
+
+	@Override
+	protected void setUp() throws Exception {
+		if (JDependContext.getWorkspacePath() == null) {
+			File workspace = new File(System.getProperty("java.io.tmpdir"), "adjusthistory-" + System.nanoTime());
+			File conf = new File(workspace, PropertyConfigurator.DEFAULT_PROPERTY_DIR);
+			conf.mkdirs();
+			new File(conf, PropertyConfigurator.DEFAULT_PROPERTY_FILE).createNewFile();
+			JDependContext.setWorkspacePath(workspace.getAbsolutePath());
+		}
+		JDependUnitMgr.getInstance().setResult(this.analyze());
+		AdjustHistory.getInstance().clear();
+		tool = RefactorToolFactory.createTool();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		AdjustHistory.getInstance().clear();
+	}
+
+	public void testUndoRedo() throws Exception {
+		AdjustHistory history = AdjustHistory.getInstance();
+		assertFalse(history.canUndo());
+		assertFalse(history.undo());
+
+		List<Map<String, TreeSet<String>>> layouts = new ArrayList<Map<String, TreeSet<String>>>();
+		layouts.add(layout());
+
+		tool.createComponent("created", 0);
+		Map<String, TreeSet<String>> created = layout();
+		assertEquals(layouts.get(0).size() + 1, created.size());
+		assertEquals(0, created.get("created").size());
+		layouts.add(created);
+
+		Component source = this.getComponentWithClasses(2);
+		List<JavaClassUnit> moved = new ArrayList<JavaClassUnit>(source.getClasses()).subList(0, 2);
+		List<String> movedIds = new ArrayList<String>();
+		for (JavaClassUnit javaClass : moved) {
+			movedIds.add(javaClass.getId());
+		}
+		tool.moveClass(new ArrayList<JavaClassUnit>(moved), JDependUnitMgr.getInstance().getResult()
+				.getTheComponent("created"));
+		Map<String, TreeSet<String>> afterMove = layout();
+		assertEquals(new TreeSet<String>(movedIds), afterMove.get("created"));
+		for (String id : movedIds) {
+			assertFalse(afterMove.get(source.getName()).contains(id));
+		}
+		layouts.add(afterMove);
+
+		Component other = this.getOtherComponent(source.getName(), "created");
+		List<String> united = new ArrayList<String>();
+		united.add(source.getName());
+		united.add(other.getName());
+		tool.uniteComponent("united", 0, united);
+		Map<String, TreeSet<String>> afterUnite = layout();
+		assertFalse(afterUnite.containsKey(source.getName()));
+		assertFalse(afterUnite.containsKey(other.getName()));
+		assertEquals(afterMove.get("created"), afterUnite.get("created"));
+		TreeSet<String> unitedClasses = new TreeSet<String>(afterMove.get(source.getName()));
+		unitedClasses.addAll(afterMove.get(other.getName()));
+		assertEquals(unitedClasses, afterUnite.get("united"));
+		layouts.add(afterUnite);
+
+		// 依次撤销到原始结果
+		for (int i = layouts.size() - 2; i >= 0; i--) {
+			assertTrue(history.canUndo());
+			assertTrue(history.undo());
+			assertEquals(layouts.get(i), layout());
+		}
+		assertFalse(history.canUndo());
+		assertFalse(history.undo());
+		assertEquals(1, history.getMementos().size());
+
+		// 依次重做到最后一次调整
+		for (int i = 1; i < layouts.size(); i++) {
+			assertTrue(history.canRedo());
+			assertTrue(history.redo());
+			assertEquals(layouts.get(i), layout());
+		}
+		assertFalse(history.canRedo());
+		assertFalse(history.redo());
+
+		// 重做后可以再次全部撤销
+		for (int i = layouts.size() - 2; i >= 0; i--) {
+			assertTrue(history.undo());
+			assertEquals(layouts.get(i), layout());
+		}
+		assertFalse(history.undo());
+	}
+
+	public void testAdjustAfterUndoToOriginality() throws Exception {
+		AdjustHistory history = AdjustHistory.getInstance();
+		Map<String, TreeSet<String>> originality = layout();
+
+		tool.createComponent("first", 0);
+		assertTrue(history.undo());
+		assertEquals(originality, layout());
+
+		// 撤销后的新调整清除重做，并且仍然可以撤销到原始结果
+		tool.createComponent("second", 0);
+		Map<String, TreeSet<String>> second = layout();
+		assertTrue(second.containsKey("second"));
+		assertFalse(second.containsKey("first"));
+		assertFalse(history.canRedo());
+		assertEquals(1, history.getMementos().size());
+
+		assertTrue(history.undo());
+		assertEquals(originality, layout());
+		assertFalse(history.undo());
+		assertTrue(history.redo());
+		assertEquals(second, layout());
+	}
+
+	public void testCompare() throws Exception {
+		AdjustHistory history = AdjustHistory.getInstance();
+		int components = JDependUnitMgr.getInstance().getComponents().size();
+
+		tool.createComponent("created", 0);
+		tool.createComponent("created2", 0);
+		assertEquals(components + 2, JDependUnitMgr.getInstance().getComponents().size());
+
+		CompareObject object = new CompareObject(components + 2, "components", "components") {
+			@Override
+			public Object getOriginalityValue(AnalysisResult result) {
+				return result.getComponents().size();
+			}
+		};
+		// 默认与原始结果比较
+		assertEquals(components, history.compare(object).getOriginality());
+
+		// 与第二个快照（创建第一个组件后）比较
+		history.setCompared(history.getMementos().get(1));
+		assertEquals(components + 1, history.compare(object).getOriginality());
+	}
+
+	/**
+	 * 组件名称与组件中类Id的对应关系
+	 *
+	 * @return
+	 */
+	private Map<String, TreeSet<String>> layout() {
+		Map<String, TreeSet<String>> layout = new TreeMap<String, TreeSet<String>>();
+		for (Component component : JDependUnitMgr.getInstance().getComponents()) {
+			TreeSet<String> classes = new TreeSet<String>();
+			for (JavaClassUnit javaClass : component.getClasses()) {
+				classes.add(javaClass.getId());
+			}
+			layout.put(component.getName(), classes);
+		}
+		return layout;
+	}
+
+	private Component getComponentWithClasses(int count) {
+		Iterator<Component> it = JDependUnitMgr.getInstance().getComponents().iterator();
+		Component component;
+		while (it.hasNext()) {
+			component = it.next();
+			if (component.getClasses().size() > count) {
+				return component;
+			}
+		}
+		throw new IllegalStateException("没有类数超过" + count + "的组件");
+	}
+
+	private Component getOtherComponent(String... names) {
+		List<String> excluded = Arrays.asList(names);
+		for (Component component : JDependUnitMgr.getInstance().getComponents()) {
+			if (!excluded.contains(component.getName()) && component.getClasses().size() > 0) {
+				return component;
+			}
+		}
+		throw new IllegalStateException("没有其他组件");
+	}
+
+	/**
+	 * 分析cooper-metadata的类，每个包为一个组件
+	 *
+	 * @return
+	 * @throws Exception
+	 */
+	private AnalysisResult analyze() throws Exception {
+		ProfileFacadeImpl profileFacade = new ProfileFacadeImpl(new ProfileFacadeImpl());
+
+		ParseConfigurator conf = new ParseConfigurator(new HashMap<String, String>());
+		conf.setPackageFilter(new PackageFilter(new ArrayList<String>(), new ArrayList<String>()));
+		conf.setJavaClassRelationTypes(profileFacade.getJavaClassRelationItemProfile().getJavaClassRelationTypes());
+
+		Parse parse = new Parse(conf);
+		parse.addDirectorys(new File(JavaClass.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+				.getAbsolutePath());
+		Collection<JavaPackage> javaPackages = parse.execute();
+
+		AnalysisRunningContext context = new AnalysisRunningContext();
+		Component component = Component.getDefaultComponent();
+		context.setComponent(component);
+		context.setProfileFacade(profileFacade);
+		context.setJavaPackages(new ArrayList<JavaPackage>(javaPackages));
+
+		return new AnalysisResult(component.list(javaPackages), context);
+	}
+}
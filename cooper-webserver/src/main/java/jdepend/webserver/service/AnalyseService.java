@@ -23,14 +23,19 @@ import org.springframework.stereotype.Service;
 @Service
 public class AnalyseService {
 
-	public Collection<JavaPackage> listPackages(AnalyzeData analyseData) throws JDependException {
+	public Collection<JavaPackage> parse(String group, String command, AnalyzeData data) throws JDependException {
 
-		JDependLocalServiceImpl service = new JDependLocalServiceImpl(null, null);
+		JDependLocalServiceImpl service = new JDependLocalServiceImpl(group, command);
+
+		service.setAnalyzeData(data);
+
+		return service.parsePackages();
+	}
 
-		service.setAnalyzeData(analyseData);
+	public Collection<JavaPackage> listPackages(Collection<JavaPackage> javaPackages) {
 
 		Collection<JavaPackage> innerJavaPackages = new ArrayList<JavaPackage>();
-		for (JavaPackage javaPackage : service.getPackages()) {
+		for (JavaPackage javaPackage : javaPackages) {
 			if (javaPackage.isInner()) {
 				innerJavaPackages.add(javaPackage);
 			}
@@ -48,9 +53,25 @@ public class AnalyseService {
 
 		service.setComponent(component);
 
+		return this.analyze(service, data.getPath());
+	}
+
+	public AnalysisResult analyze(String group, String command, String path, Collection<JavaPackage> javaPackages,
+			Component component) throws JDependException {
+
+		JDependLocalServiceImpl service = new JDependLocalServiceImpl(group, command);
+
+		service.setJavaPackages(javaPackages);
+
+		service.setComponent(component);
+
+		return this.analyze(service, path);
+	}
+
+	private AnalysisResult analyze(JDependLocalServiceImpl service, String path) throws JDependException {
 		// 调用分析服务
 		AnalysisResult result = service.analyze();
-		result.getRunningContext().setPath(data.getPath());
+		result.getRunningContext().setPath(path);
 
 		// 保存分析结果
 		AnalysisResultRepository.getInstance().save(result);
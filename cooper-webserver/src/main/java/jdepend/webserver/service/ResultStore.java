@@ -0,0 +1,313 @@
+package jdepend.webserver.service;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import jdepend.framework.context.JDependContext;
+import jdepend.framework.exception.JDependException;
+import jdepend.model.result.AnalysisResult;
+import jdepend.util.todolist.TODOItem;
+import jdepend.util.todolist.TODOListIdentifyerFacade;
+import jdepend.webserver.model.WebAnalysisResult;
+
+import org.apache.log4j.Logger;
+import org.springframework.stereotype.Service;
+
+/**
+ * 分析结果存储
+ *
+ * 分析结果不再放在HttpSession中，而是按结果Id保存在服务器上，页面通过Id访问。
+ * 最近使用的结果保存在内存中，内存中的结果数量和类的总数都有上限，超出时淘汰最久未使用的结果；
+ * 所有结果在保存时以压缩格式写入磁盘，从内存淘汰后再次访问时从磁盘读取，磁盘上的结果数量也有上限。
+ *
+ * @author user
+ *
+ */
+@Service
+public class ResultStore {
+
+	public static final String DEFAULT_STORE_DIR = "resultstore";
+
+	/**
+	 * 内存中最多保存的结果数量
+	 */
+	public static final int MAX_MEMORY_RESULTS = 20;
+
+	/**
+	 * 内存中结果的类总数上限
+	 */
+	public static final int MAX_MEMORY_CLASSES = 100000;
+
+	/**
+	 * 磁盘上最多保存的结果数量
+	 */
+	public static final int MAX_DISK_RESULTS = 1000;
+
+	private Logger logger = Logger.getLogger(ResultStore.class);
+
+	private final Map<String, Entry> memory = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+
+	private final Map<String, File> disk = new LinkedHashMap<String, File>();
+
+	private final int maxMemoryResults;
+
+	private final int maxMemoryClasses;
+
+	private final int maxDiskResults;
+
+	private int memoryClasses;
+
+	private File storeDir;
+
+	public ResultStore() {
+		this(null, MAX_MEMORY_RESULTS, MAX_MEMORY_CLASSES, MAX_DISK_RESULTS);
+	}
+
+	ResultStore(File storeDir, int maxMemoryResults, int maxMemoryClasses, int maxDiskResults) {
+		this.storeDir = storeDir;
+		this.maxMemoryResults = maxMemoryResults;
+		this.maxMemoryClasses = maxMemoryClasses;
+		this.maxDiskResults = maxDiskResults;
+	}
+
+	/**
+	 * 以新的Id保存分析结果
+	 *
+	 * @param result
+	 * @return 保存的结果，调用者持有该对象，不受之后淘汰的影响
+	 * @throws JDependException
+	 */
+	public Entry put(AnalysisResult result) throws JDependException {
+		return this.put(createId(), result);
+	}
+
+	/**
+	 * 以指定的Id保存分析结果，替换该Id已经保存的结果
+	 *
+	 * @param id
+	 * @param result
+	 * @return 保存的结果，调用者持有该对象，不受之后淘汰的影响
+	 * @throws JDependException
+	 */
+	public Entry put(String id, AnalysisResult result) throws JDependException {
+		Entry entry = new Entry(id, result instanceof WebAnalysisResult ? (WebAnalysisResult) result
+				: new WebAnalysisResult(result));
+
+		// 文件名不使用调用者指定的Id
+		File file = new File(this.getStoreDir(), createId());
+		try {
+			writeFile(file, result.sequence());
+		} catch (IOException e) {
+			throw new JDependException("保存分析结果失败", e);
+		}
+
+		synchronized (this) {
+			File previous = this.disk.remove(id);
+			if (previous != null) {
+				previous.delete();
+			}
+			this.disk.put(id, file);
+			Iterator<File> files = this.disk.values().iterator();
+			while (this.disk.size() > this.maxDiskResults) {
+				files.next().delete();
+				files.remove();
+			}
+			this.cache(entry);
+		}
+		return entry;
+	}
+
+	/**
+	 * 得到已经保存的分析结果
+	 *
+	 * @param id
+	 * @return 结果不存在或已被淘汰时返回null
+	 * @throws JDependException
+	 */
+	public Entry find(String id) throws JDependException {
+		File file;
+		synchronized (this) {
+			Entry entry = this.memory.get(id);
+			if (entry != null) {
+				return entry;
+			}
+			file = this.disk.get(id);
+		}
+		if (file == null) {
+			return null;
+		}
+
+		Entry entry;
+		try {
+			entry = new Entry(id, new WebAnalysisResult(AnalysisResult.create(readFile(file))));
+		} catch (IOException e) {
+			throw new JDependException("读取分析结果失败", e);
+		} catch (ClassNotFoundException e) {
+			throw new JDependException("读取分析结果失败", e);
+		}
+		logger.info("load result " + id + " from disk");
+
+		synchronized (this) {
+			Entry other = this.memory.get(id);
+			if (other != null) {
+				return other;
+			}
+			if (this.disk.get(id) == file) {
+				this.cache(entry);
+			}
+		}
+		return entry;
+	}
+
+	/**
+	 * 得到分析结果
+	 *
+	 * @param id
+	 * @return
+	 * @throws JDependException
+	 *             结果不存在或已被淘汰
+	 */
+	public Entry get(String id) throws JDependException {
+		Entry entry = this.find(id);
+		if (entry == null) {
+			throw new JDependException("分析结果已过期，请重新分析。");
+		}
+		return entry;
+	}
+
+	/**
+	 * 删除保存的分析结果
+	 *
+	 * @param id
+	 */
+	public synchronized void remove(String id) {
+		Entry entry = this.memory.remove(id);
+		if (entry != null) {
+			this.memoryClasses -= entry.getClassCount();
+		}
+		File file = this.disk.remove(id);
+		if (file != null) {
+			file.delete();
+		}
+	}
+
+	private void cache(Entry entry) {
+		Entry previous = this.memory.put(entry.getId(), entry);
+		if (previous != null) {
+			this.memoryClasses -= previous.getClassCount();
+		}
+		this.memoryClasses += entry.getClassCount();
+
+		Iterator<Entry> entries = this.memory.values().iterator();
+		Entry eldest;
+		while (this.memory.size() > 1
+				&& (this.memory.size() > this.maxMemoryResults || this.memoryClasses > this.maxMemoryClasses)) {
+			eldest = entries.next();
+			entries.remove();
+			this.memoryClasses -= eldest.getClassCount();
+		}
+	}
+
+	private static String createId() {
+		return UUID.randomUUID().toString().replace("-", "");
+	}
+
+	private synchronized File getStoreDir() throws JDependException {
+		if (this.storeDir == null) {
+			File dir = new File(JDependContext.getWorkspacePath(), DEFAULT_STORE_DIR);
+			// 上次运行留下的结果已经没有页面引用
+			File[] files = dir.listFiles();
+			if (files != null) {
+				for (File file : files) {
+					file.delete();
+				}
+			}
+			if (!dir.exists() && !dir.mkdirs()) {
+				throw new JDependException("创建目录[" + dir.getPath() + "]失败");
+			}
+			this.storeDir = dir;
+		}
+		return this.storeDir;
+	}
+
+	private static void writeFile(File file, byte[] data) throws IOException {
+		OutputStream out = new FileOutputStream(file);
+		try {
+			out.write(data);
+		} finally {
+			out.close();
+		}
+	}
+
+	private static byte[] readFile(File file) throws IOException {
+		byte[] data = new byte[(int) file.length()];
+		InputStream in = new FileInputStream(file);
+		try {
+			int pos = 0;
+			int count;
+			while (pos < data.length && (count = in.read(data, pos, data.length - pos)) != -1) {
+				pos += count;
+			}
+		} finally {
+			in.close();
+		}
+		return data;
+	}
+
+	/**
+	 * 保存的分析结果及由结果计算得到的待做事项
+	 *
+	 * @author user
+	 *
+	 */
+	public static class Entry {
+
+		private String id;
+
+		private WebAnalysisResult result;
+
+		private int classCount;
+
+		private List<TODOItem> todoList;
+
+		Entry(String id, WebAnalysisResult result) {
+			this.id = id;
+			this.result = result;
+			this.classCount = result.getClasses().size();
+		}
+
+		public String getId() {
+			return id;
+		}
+
+		public WebAnalysisResult getResult() {
+			return result;
+		}
+
+		int getClassCount() {
+			return classCount;
+		}
+
+		/**
+		 * 待做事项，从磁盘读取的结果重新计算
+		 *
+		 * @return
+		 * @throws JDependException
+		 */
+		public synchronized List<TODOItem> getTodoList() throws JDependException {
+			if (todoList == null) {
+				todoList = new TODOListIdentifyerFacade().identify(result);
+			}
+			return todoList;
+		}
+	}
+}
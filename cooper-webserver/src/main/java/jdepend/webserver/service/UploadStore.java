@@ -0,0 +1,289 @@
+package jdepend.webserver.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+
+import jdepend.framework.context.JDependContext;
+import jdepend.framework.exception.JDependException;
+import jdepend.framework.file.AnalyzeData;
+import jdepend.metadata.JavaPackage;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * 上传的分析数据存储
+ *
+ * 上传时在上传请求中完整解析一次（同时解析的上传数量有上限），解析得到的包按上传Id保存在内存中，列出包和执行分析都使用这次解析的结果。
+ * 内存中的上传数量和类的总数都有上限，超出时淘汰最久未使用的上传；上传的类文件内容同时保存在磁盘上，
+ * 被淘汰的上传在执行分析时从磁盘读取后重新解析。执行分析后删除，超过有效期没有执行的上传在下次上传时删除。
+ *
+ * @author user
+ *
+ */
+@Service
+public class UploadStore {
+
+	public static final String DEFAULT_STORE_DIR = "uploadstore";
+
+	/**
+	 * 上传的有效期
+	 */
+	public static final long EXPIRE_TIME = 60 * 60 * 1000L;
+
+	/**
+	 * 内存中最多保存的上传数量
+	 */
+	public static final int MAX_MEMORY_UPLOADS = 10;
+
+	/**
+	 * 内存中上传的类总数上限
+	 */
+	public static final int MAX_MEMORY_CLASSES = 100000;
+
+	/**
+	 * 同时解析的上传数量
+	 */
+	public static final int PARSE_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+	@Autowired
+	private AnalyseService analyseService;
+
+	private final Semaphore parsing = new Semaphore(PARSE_THREADS);
+
+	private final Map<String, Upload> memory = new LinkedHashMap<String, Upload>(16, 0.75f, true);
+
+	private final int maxUploads;
+
+	private final int maxClasses;
+
+	private int memoryClasses;
+
+	private File storeDir;
+
+	public UploadStore() {
+		this(null, null, MAX_MEMORY_UPLOADS, MAX_MEMORY_CLASSES);
+	}
+
+	UploadStore(AnalyseService analyseService, File storeDir, int maxUploads, int maxClasses) {
+		this.analyseService = analyseService;
+		this.storeDir = storeDir;
+		this.maxUploads = maxUploads;
+		this.maxClasses = maxClasses;
+	}
+
+	/**
+	 * 保存上传的分析数据并解析
+	 *
+	 * @param group
+	 * @param command
+	 * @param data
+	 * @return 保存的上传，调用者持有该对象，不受之后淘汰的影响
+	 * @throws JDependException
+	 */
+	public Upload put(String group, String command, AnalyzeData data) throws JDependException {
+		File dir = this.getStoreDir();
+		long expire = System.currentTimeMillis() - EXPIRE_TIME;
+		File[] files = dir.listFiles();
+		if (files != null) {
+			for (File file : files) {
+				if (file.lastModified() < expire) {
+					file.delete();
+				}
+			}
+		}
+
+		String id = UUID.randomUUID().toString().replace("-", "");
+		File file = new File(dir, id);
+		ObjectOutputStream out = null;
+		try {
+			out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+			out.writeObject(data);
+		} catch (IOException e) {
+			file.delete();
+			throw new JDependException("保存上传的文件失败", e);
+		} finally {
+			if (out != null) {
+				try {
+					out.close();
+				} catch (IOException ignore) {
+				}
+			}
+		}
+
+		Collection<JavaPackage> packages;
+		try {
+			parsing.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			file.delete();
+			throw new JDependException("等待解析上传的文件被中断", e);
+		}
+		try {
+			packages = analyseService.parse(group, command, data);
+		} catch (JDependException e) {
+			file.delete();
+			throw e;
+		} finally {
+			parsing.release();
+		}
+		Upload upload = new Upload(id, data.getPath(), data.getClassesCount(), packages);
+
+		synchronized (this) {
+			this.memory.put(id, upload);
+			this.memoryClasses += upload.classCount;
+
+			Iterator<Upload> uploads = this.memory.values().iterator();
+			Upload eldest;
+			while (this.memory.size() > 1
+					&& (this.memory.size() > this.maxUploads || this.memoryClasses > this.maxClasses)) {
+				eldest = uploads.next();
+				uploads.remove();
+				this.memoryClasses -= eldest.classCount;
+			}
+		}
+		return upload;
+	}
+
+	/**
+	 * 得到内存中的上传
+	 *
+	 * @param id
+	 * @return 上传已被淘汰时返回null
+	 */
+	public synchronized Upload get(String id) {
+		return this.memory.get(id);
+	}
+
+	/**
+	 * 从磁盘读取上传的分析数据
+	 *
+	 * @param id
+	 * @return
+	 * @throws JDependException
+	 *             上传不存在或已过期
+	 */
+	public AnalyzeData getData(String id) throws JDependException {
+		File file = this.getFile(id);
+		if (!file.exists()) {
+			throw new JDependException("上传的文件已过期，请重新上传。");
+		}
+		ObjectInputStream in = null;
+		try {
+			in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)));
+			return (AnalyzeData) in.readObject();
+		} catch (IOException e) {
+			throw new JDependException("读取上传的文件失败", e);
+		} catch (ClassNotFoundException e) {
+			throw new JDependException("读取上传的文件失败", e);
+		} finally {
+			if (in != null) {
+				try {
+					in.close();
+				} catch (IOException ignore) {
+				}
+			}
+		}
+	}
+
+	/**
+	 * 删除上传
+	 *
+	 * @param id
+	 * @throws JDependException
+	 */
+	public void remove(String id) throws JDependException {
+		synchronized (this) {
+			Upload upload = this.memory.remove(id);
+			if (upload != null) {
+				this.memoryClasses -= upload.classCount;
+			}
+		}
+		this.getFile(id).delete();
+	}
+
+	private File getFile(String id) throws JDependException {
+		if (!isId(id)) {
+			throw new JDependException("上传Id[" + id + "]格式错误");
+		}
+		return new File(this.getStoreDir(), id);
+	}
+
+	private synchronized File getStoreDir() throws JDependException {
+		if (this.storeDir == null) {
+			File dir = new File(JDependContext.getWorkspacePath(), DEFAULT_STORE_DIR);
+			if (!dir.exists() && !dir.mkdirs()) {
+				throw new JDependException("创建目录[" + dir.getPath() + "]失败");
+			}
+			this.storeDir = dir;
+		}
+		return this.storeDir;
+	}
+
+	private static boolean isId(String id) {
+		if (id == null || id.length() == 0) {
+			return false;
+		}
+		char c;
+		for (int i = 0; i < id.length(); i++) {
+			c = id.charAt(i);
+			if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 内存中的上传：分析路径和解析得到的包
+	 *
+	 * @author user
+	 *
+	 */
+	public static class Upload {
+
+		private String id;
+
+		private String path;
+
+		private int classCount;
+
+		private Collection<JavaPackage> packages;
+
+		Upload(String id, String path, int classCount, Collection<JavaPackage> packages) {
+			this.id = id;
+			this.path = path;
+			this.classCount = classCount;
+			this.packages = packages;
+		}
+
+		public String getId() {
+			return id;
+		}
+
+		public String getPath() {
+			return path;
+		}
+
+		/**
+		 * 解析得到的包
+		 *
+		 * @return
+		 */
+		public Collection<JavaPackage> getPackages() {
+			return packages;
+		}
+	}
+}
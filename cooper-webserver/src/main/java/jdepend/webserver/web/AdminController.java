@@ -5,7 +5,6 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.OutputStream;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
@@ -13,20 +12,16 @@ import java.util.zip.ZipOutputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
-import jdepend.core.util.TableViewInfo;
-import jdepend.core.util.TableViewUtil;
 import jdepend.framework.context.JDependContext;
 import jdepend.framework.exception.JDependException;
 import jdepend.knowledge.database.AnalysisResultRepository;
 import jdepend.model.result.AnalysisResult;
-import jdepend.util.todolist.TODOItem;
-import jdepend.util.todolist.TODOListIdentifyerFacade;
-import jdepend.webserver.model.WebAnalysisResult;
-import jdepend.webserver.web.WebRelationGraphUtil.RelationGraphData;
+import jdepend.webserver.service.ResultStore;
 
 import org.apache.log4j.Logger;
 import org.apache.shiro.authz.annotation.RequiresPermissions;
 import org.json.JSONArray;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.ModelAttribute;
@@ -41,6 +36,9 @@ public class AdminController {
 
 	private Logger logger = Logger.getLogger(AdminController.class);
 
+	@Autowired
+	private ResultStore resultStore;
+
 	@RequiresPermissions("admin:list")
 	@RequestMapping(value = "", method = RequestMethod.GET)
 	public String admin(Model model, HttpServletRequest request) throws JDependException {
@@ -61,21 +59,15 @@ public class AdminController {
 	@RequestMapping(value = "/result/{id}/view", method = RequestMethod.GET)
 	public String view(Model model, @PathVariable String id, HttpServletRequest request) throws JDependException {
 
-		AnalysisResult result = AnalysisResultRepository.getInstance().getResult(id);
-
-		WebAnalysisResult webResult = new WebAnalysisResult(result);
-		model.addAttribute("result", webResult);
-		request.getSession().setAttribute(WebConstants.SESSION_RESULT, webResult);
-
-		TODOListIdentifyerFacade identify = new TODOListIdentifyerFacade();
-		List<TODOItem> todoList = identify.identify(result);
-		model.addAttribute("todoList", todoList);
-
-		List<TableViewInfo> tableInfos = TableViewUtil.view(result);
-		model.addAttribute("tableList", tableInfos);
+		// 同一个仓库结果重复查看时使用已经保存的结果
+		String resultId = getResultId(id);
+		ResultStore.Entry entry = resultStore.find(resultId);
+		if (entry == null) {
+			AnalysisResult result = AnalysisResultRepository.getInstance().getResult(id);
+			entry = resultStore.put(resultId, result);
+		}
 
-		RelationGraphData relationGraphData = WebRelationGraphUtil.getGraphData(result.getRelations());
-		model.addAttribute("relation_graph_data", relationGraphData);
+		AnalyseController.view(entry, model);
 
 		return "result";
 	}
@@ -88,6 +80,7 @@ public class AdminController {
 		JSONArray idArray = new JSONArray(ids);
 		for (int i = 0; i < idArray.length(); i++) {
 			AnalysisResultRepository.getInstance().delete(idArray.getString(i));
+			resultStore.remove(getResultId(idArray.getString(i)));
 		}
 
 		resultMap.put("code", "1");
@@ -111,6 +104,10 @@ public class AdminController {
 		bos.close();
 	}
 
+	private static String getResultId(String id) {
+		return "repository-" + id;
+	}
+
 	private void zip(OutputStream os, File inputFile) throws Exception {
 		ZipOutputStream out = new ZipOutputStream(os);
 		zip(out, inputFile, "");
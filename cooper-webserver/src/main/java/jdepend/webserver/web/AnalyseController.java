@@ -14,15 +14,13 @@ import jdepend.core.util.TableViewUtil;
 import jdepend.framework.exception.JDependException;
 import jdepend.framework.file.AnalyzeData;
 import jdepend.metadata.JavaPackage;
-import jdepend.model.Component;
 import jdepend.model.component.CustomComponent;
 import jdepend.model.component.JarComponent;
 import jdepend.model.component.modelconf.JavaPackageComponentModelConf;
 import jdepend.model.result.AnalysisResult;
-import jdepend.util.todolist.TODOItem;
-import jdepend.util.todolist.TODOListIdentifyerFacade;
-import jdepend.webserver.model.WebAnalysisResult;
 import jdepend.webserver.service.AnalyseService;
+import jdepend.webserver.service.ResultStore;
+import jdepend.webserver.service.UploadStore;
 import jdepend.webserver.web.WebRelationGraphUtil.RelationGraphData;
 
 import org.apache.log4j.Logger;
@@ -32,6 +30,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -46,6 +45,12 @@ public class AnalyseController {
 	@Autowired
 	private AnalyseService analyseService;
 
+	@Autowired
+	private ResultStore resultStore;
+
+	@Autowired
+	private UploadStore uploadStore;
+
 	@RequestMapping(value = "/upload", method = RequestMethod.GET)
 	public String upload(HttpServletRequest request) throws JDependException {
 		logger.info(request.getRemoteAddr() + " enter into upload jar page");
@@ -85,19 +90,24 @@ public class AnalyseController {
 		}
 
 		if (jarComponent == null) {
+			// 上传时完整解析，执行分析时直接使用解析结果
+			UploadStore.Upload upload = uploadStore.put(WebConstants.DEFLAUT_GROUP, WebConstants.DEFLAUT_COMMAND,
+					analyseData);
+
 			List<JavaPackage> sortedInnerJavaPackages = new ArrayList<JavaPackage>(
-					analyseService.listPackages(analyseData));
+					analyseService.listPackages(upload.getPackages()));
 			Collections.sort(sortedInnerJavaPackages);
 			model.addAttribute("listPackages", sortedInnerJavaPackages);
 			model.addAttribute("analysePath", analyseData.getPath());
-
-			request.getSession().setAttribute(WebConstants.SESSION_FILE, analyseData);
+			model.addAttribute("uploadId", upload.getId());
 
 			logger.info(request.getRemoteAddr() + " enter into upload listPackages page");
 
 			return "listPackages";
 		} else {
-			this.createAnalysisResult(analyseData, new JarComponent(), model, request);
+			AnalysisResult result = this.analyseService.analyze(WebConstants.DEFLAUT_GROUP,
+					WebConstants.DEFLAUT_COMMAND, analyseData, new JarComponent());
+			this.createAnalysisResult(result, model, request);
 
 			return "result";
 		}
@@ -105,8 +115,9 @@ public class AnalyseController {
 	}
 
 	@RequestMapping(value = "/execute", method = RequestMethod.POST)
-	public String execute(@ModelAttribute("componentModel") String componentModel, Model model,
-			HttpServletRequest request) throws JDependException {
+	public String execute(@ModelAttribute("componentModel") String componentModel,
+			@RequestParam("uploadId") String uploadId, Model model, HttpServletRequest request)
+			throws JDependException {
 
 		JavaPackageComponentModelConf componentModelConf = new JavaPackageComponentModelConf();
 		JSONObject componentModelObject = new JSONObject(componentModel);
@@ -123,56 +134,59 @@ public class AnalyseController {
 			throw new JDependException("没有配置组件模型信息。");
 		}
 
-		AnalyzeData data = (AnalyzeData) request.getSession().getAttribute(WebConstants.SESSION_FILE);
-		if (data == null) {
-			throw new JDependException("Session 中不存在 AnalyseData");
-		}
-
 		CustomComponent component = new CustomComponent();
 		component.setComponentInfo(componentModelConf);
 
-		this.createAnalysisResult(data, component, model, request);
+		AnalysisResult result;
+		UploadStore.Upload upload = uploadStore.get(uploadId);
+		if (upload != null) {
+			result = this.analyseService.analyze(WebConstants.DEFLAUT_GROUP, WebConstants.DEFLAUT_COMMAND,
+					upload.getPath(), upload.getPackages(), component);
+		} else {
+			// 解析结果已被淘汰，重新解析
+			result = this.analyseService.analyze(WebConstants.DEFLAUT_GROUP, WebConstants.DEFLAUT_COMMAND,
+					uploadStore.getData(uploadId), component);
+		}
+		uploadStore.remove(uploadId);
+
+		this.createAnalysisResult(result, model, request);
 
 		return "result";
 	}
 
-	private void createAnalysisResult(AnalyzeData data, Component component, Model model, HttpServletRequest request)
+	private void createAnalysisResult(AnalysisResult result, Model model, HttpServletRequest request)
+			throws JDependException {
+		view(resultStore.put(result), model);
+
+		logger.info(request.getRemoteAddr() + " enter into upload result page");
+	}
+
+	@RequestMapping(value = "/{resultId}/view", method = RequestMethod.GET)
+	public String view(Model model, @PathVariable String resultId, HttpServletRequest request)
 			throws JDependException {
-		AnalysisResult result = this.analyseService.analyze(WebConstants.DEFLAUT_GROUP, WebConstants.DEFLAUT_COMMAND,
-				data, component);
+		view(resultStore.get(resultId), model);
 
-		WebAnalysisResult webResult = new WebAnalysisResult(result);
-		model.addAttribute("result", webResult);
-		request.getSession().setAttribute(WebConstants.SESSION_RESULT, webResult);
+		return "result";
+	}
 
-		TODOListIdentifyerFacade identify = new TODOListIdentifyerFacade();
-		List<TODOItem> todoList = identify.identify(result);
-		model.addAttribute("todoList", todoList);
+	/**
+	 * 准备结果页面的数据，页面通过resultId访问结果明细
+	 *
+	 * @param entry
+	 * @param model
+	 * @throws JDependException
+	 */
+	static void view(ResultStore.Entry entry, Model model) throws JDependException {
+		AnalysisResult result = entry.getResult();
 
-		request.getSession().setAttribute(WebConstants.SESSION_RESULT_TODOLIST, todoList);
+		model.addAttribute("resultId", entry.getId());
+		model.addAttribute("result", result);
+		model.addAttribute("todoList", entry.getTodoList());
 
 		List<TableViewInfo> tableInfos = TableViewUtil.view(result);
 		model.addAttribute("tableList", tableInfos);
-		// temp
-		request.getSession().setAttribute("tableList", tableInfos);
 
-		RelationGraphData relationGraphData = WebRelationGraphUtil.getGraphData(result.getRelations());
+		RelationGraphData relationGraphData = WebRelationGraphUtil.getSummaryGraphData(result.getRelations());
 		model.addAttribute("relation_graph_data", relationGraphData);
-		// temp
-		request.getSession().setAttribute("relation_graph_data", relationGraphData);
-
-		request.getSession().removeAttribute(WebConstants.SESSION_FILE);
-
-		logger.info(request.getRemoteAddr() + " enter into upload result page");
-	}
-
-	@RequestMapping(value = "/view", method = RequestMethod.GET)
-	public String view(Model model, HttpServletRequest request) throws JDependException {
-		model.addAttribute("result", request.getSession().getAttribute(WebConstants.SESSION_RESULT));
-		model.addAttribute("todoList", request.getSession().getAttribute(WebConstants.SESSION_RESULT_TODOLIST));
-		model.addAttribute("tableList", request.getSession().getAttribute("tableList"));
-		model.addAttribute("relation_graph_data", request.getSession().getAttribute("relation_graph_data"));
-
-		return "result";
 	}
 }
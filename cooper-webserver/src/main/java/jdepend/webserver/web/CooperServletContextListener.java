@@ -20,6 +20,8 @@ public class CooperServletContextListener implements ServletContextListener {
 
 	@Override
 	public void contextDestroyed(ServletContextEvent arg0) {
+		// 关闭连接池
+		ConnectionFactory.close();
 	}
 
 	@Override
@@ -1,167 +1,176 @@
 package jdepend.webserver.web;
 
+import java.io.IOException;
 import java.util.List;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
 import jdepend.framework.exception.JDependException;
 import jdepend.util.todolist.TODOItem;
 import jdepend.webserver.model.WebAnalysisResult;
+import jdepend.webserver.service.ResultStore;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 
 @Controller
 @RequestMapping(value = "result")
 public class ResultController {
 
-	@RequestMapping(value = "/component/{componentId}/classes/view.ajax", method = RequestMethod.GET)
-	public String componentDetails(Model model, @PathVariable String componentId, HttpServletRequest request)
-			throws JDependException {
+	@Autowired
+	private ResultStore resultStore;
 
-		WebAnalysisResult result = (WebAnalysisResult) request.getSession().getAttribute(WebConstants.SESSION_RESULT);
-		if (result == null) {
-			throw new JDependException("Session 过期，或者非法进入该页。");
-		}
+	@RequestMapping(value = "/{resultId}/component/{componentId}/classes/view.ajax", method = RequestMethod.GET)
+	public String componentDetails(Model model, @PathVariable String resultId, @PathVariable String componentId,
+			HttpServletRequest request) throws JDependException {
+
+		WebAnalysisResult result = resultStore.get(resultId).getResult();
 		model.addAttribute("classes", result.getTheComponent(componentId).getClasses());
 		return "class_list";
 	}
 
-	@RequestMapping(value = "/component/{componentId}/ca/view.ajax", method = RequestMethod.GET)
-	public String componentCa(Model model, @PathVariable String componentId, HttpServletRequest request)
-			throws JDependException {
+	@RequestMapping(value = "/{resultId}/component/{componentId}/ca/view.ajax", method = RequestMethod.GET)
+	public String componentCa(Model model, @PathVariable String resultId, @PathVariable String componentId,
+			HttpServletRequest request) throws JDependException {
 
-		WebAnalysisResult result = (WebAnalysisResult) request.getSession().getAttribute(WebConstants.SESSION_RESULT);
-		if (result == null) {
-			throw new JDependException("Session 过期，或者非法进入该页。");
-		}
+		WebAnalysisResult result = resultStore.get(resultId).getResult();
 		model.addAttribute("components", result.getTheComponent(componentId).getAfferents());
 
 		return "component_list";
 	}
 
-	@RequestMapping(value = "/component/{componentId}/ce/view.ajax", method = RequestMethod.GET)
-	public String componentCe(Model model, @PathVariable String componentId, HttpServletRequest request)
-			throws JDependException {
+	@RequestMapping(value = "/{resultId}/component/{componentId}/ce/view.ajax", method = RequestMethod.GET)
+	public String componentCe(Model model, @PathVariable String resultId, @PathVariable String componentId,
+			HttpServletRequest request) throws JDependException {
 
-		WebAnalysisResult result = (WebAnalysisResult) request.getSession().getAttribute(WebConstants.SESSION_RESULT);
-		if (result == null) {
-			throw new JDependException("Session 过期，或者非法进入该页。");
-		}
+		WebAnalysisResult result = resultStore.get(resultId).getResult();
 		model.addAttribute("components", result.getTheComponent(componentId).getEfferents());
 
 		return "component_list";
 	}
 
-	@RequestMapping(value = "/methods/{javaClassId}/view.ajax", method = RequestMethod.GET)
-	public String methodlist(Model model, @PathVariable String javaClassId, HttpServletRequest request)
-			throws JDependException {
+	@RequestMapping(value = "/{resultId}/methods/{javaClassId}/view.ajax", method = RequestMethod.GET)
+	public String methodlist(Model model, @PathVariable String resultId, @PathVariable String javaClassId,
+			HttpServletRequest request) throws JDependException {
 
-		WebAnalysisResult result = (WebAnalysisResult) request.getSession().getAttribute(WebConstants.SESSION_RESULT);
-		if (result == null) {
-			throw new JDependException("Session 过期，或者非法进入该页。");
-		}
+		WebAnalysisResult result = resultStore.get(resultId).getResult();
 		model.addAttribute("methods", result.getTheClass(javaClassId).getJavaClass().getMethods());
 
 		return "method_list";
 	}
 
-	@RequestMapping(value = "/invokedItems/{javaClassId}/{methodInfo}/view.ajax", method = RequestMethod.GET)
-	public String invokedItemList(Model model, @PathVariable String javaClassId, @PathVariable String methodInfo,
-			HttpServletRequest request) throws JDependException {
+	@RequestMapping(value = "/{resultId}/invokedItems/{javaClassId}/{methodInfo}/view.ajax", method = RequestMethod.GET)
+	public String invokedItemList(Model model, @PathVariable String resultId, @PathVariable String javaClassId,
+			@PathVariable String methodInfo, HttpServletRequest request) throws JDependException {
 
-		WebAnalysisResult result = (WebAnalysisResult) request.getSession().getAttribute(WebConstants.SESSION_RESULT);
-		if (result == null) {
-			throw new JDependException("Session 过期，或者非法进入该页。");
-		}
+		WebAnalysisResult result = resultStore.get(resultId).getResult();
 		model.addAttribute("invokeitems", result.getTheClass(javaClassId).getJavaClass().getTheMethod(methodInfo)
 				.getInvokedItems());
 
 		return "invokeitem_list";
 	}
 
-	@RequestMapping(value = "/cascadeInvokedItems/{javaClassId}/{methodInfo}/view.ajax", method = RequestMethod.GET)
-	public String cascadeInvokedItemList(Model model, @PathVariable String javaClassId,
+	@RequestMapping(value = "/{resultId}/cascadeInvokedItems/{javaClassId}/{methodInfo}/view.ajax", method = RequestMethod.GET)
+	public String cascadeInvokedItemList(Model model, @PathVariable String resultId, @PathVariable String javaClassId,
 			@PathVariable String methodInfo, HttpServletRequest request) throws JDependException {
 
-		WebAnalysisResult result = (WebAnalysisResult) request.getSession().getAttribute(WebConstants.SESSION_RESULT);
-		if (result == null) {
-			throw new JDependException("Session 过期，或者非法进入该页。");
-		}
+		WebAnalysisResult result = resultStore.get(resultId).getResult();
 		model.addAttribute("invokeitems", result.getTheClass(javaClassId).getJavaClass().getTheMethod(methodInfo)
 				.getCascadeInvokedItems());
 
 		return "invokeitem_list";
 	}
 
-	@RequestMapping(value = "/invokeItems/{javaClassId}/{methodInfo}/view.ajax", method = RequestMethod.GET)
-	public String invokeItemList(Model model, @PathVariable String javaClassId, @PathVariable String methodInfo,
-			HttpServletRequest request) throws JDependException {
+	@RequestMapping(value = "/{resultId}/invokeItems/{javaClassId}/{methodInfo}/view.ajax", method = RequestMethod.GET)
+	public String invokeItemList(Model model, @PathVariable String resultId, @PathVariable String javaClassId,
+			@PathVariable String methodInfo, HttpServletRequest request) throws JDependException {
 
-		WebAnalysisResult result = (WebAnalysisResult) request.getSession().getAttribute(WebConstants.SESSION_RESULT);
-		if (result == null) {
-			throw new JDependException("Session 过期，或者非法进入该页。");
-		}
+		WebAnalysisResult result = resultStore.get(resultId).getResult();
 		model.addAttribute("invokeitems", result.getTheClass(javaClassId).getJavaClass().getTheMethod(methodInfo)
 				.getInvokeItems());
 
 		return "invokeitem_list";
 	}
 
-	@RequestMapping(value = "/classes/view.ajax", method = RequestMethod.GET)
-	public String classeslist(Model model, HttpServletRequest request) throws JDependException {
+	@RequestMapping(value = "/{resultId}/classes/view.ajax", method = RequestMethod.GET)
+	public String classeslist(Model model, @PathVariable String resultId, HttpServletRequest request)
+			throws JDependException {
 
-		WebAnalysisResult result = (WebAnalysisResult) request.getSession().getAttribute(WebConstants.SESSION_RESULT);
-		if (result == null) {
-			throw new JDependException("Session 过期，或者非法进入该页。");
-		}
+		WebAnalysisResult result = resultStore.get(resultId).getResult();
 		model.addAttribute("classes", result.getClasses());
 		
 		return "class_list";
 	}
 	
-	@RequestMapping(value = "/methods/view.ajax", method = RequestMethod.GET)
-	public String methodslist(Model model, HttpServletRequest request) throws JDependException {
+	@RequestMapping(value = "/{resultId}/methods/view.ajax", method = RequestMethod.GET)
+	public String methodslist(Model model, @PathVariable String resultId, HttpServletRequest request)
+			throws JDependException {
 
-		WebAnalysisResult result = (WebAnalysisResult) request.getSession().getAttribute(WebConstants.SESSION_RESULT);
-		if (result == null) {
-			throw new JDependException("Session 过期，或者非法进入该页。");
-		}
+		WebAnalysisResult result = resultStore.get(resultId).getResult();
 		model.addAttribute("methods", result.getMethods());
 		
 		return "method_list";
 	}
 
-	@RequestMapping(value = "/relation/{current}/{depend}/view.ajax", method = RequestMethod.GET)
-	public String relationDetails(Model model, @PathVariable String current, @PathVariable String depend,
-			HttpServletRequest request) throws JDependException {
+	@RequestMapping(value = "/{resultId}/relation/{current}/{depend}/view.ajax", method = RequestMethod.GET)
+	public String relationDetails(Model model, @PathVariable String resultId, @PathVariable String current,
+			@PathVariable String depend, HttpServletRequest request) throws JDependException {
 
-		WebAnalysisResult result = (WebAnalysisResult) request.getSession().getAttribute(WebConstants.SESSION_RESULT);
-		if (result == null) {
-			throw new JDependException("Session 过期，或者非法进入该页。");
-		}
+		WebAnalysisResult result = resultStore.get(resultId).getResult();
 		model.addAttribute("relation", result.getTheRelation(current, depend));
 
 		return "relation_details";
 	}
 
-	@RequestMapping(value = "/todoItem/{id}/view.ajax", method = RequestMethod.GET)
-	public String todoItemDetails(Model model, @PathVariable String id, HttpServletRequest request)
-			throws JDependException {
+	/**
+	 * 输出聚合后的关系图数据，页面点击聚合的节点时展开其中的组件
+	 * 
+	 * @param resultId
+	 * @param level
+	 *            聚合方式：component、area、package
+	 * @param depth
+	 *            按包名前缀聚合时前缀的段数
+	 * @param expand
+	 *            展开的分组
+	 * @param response
+	 * @throws JDependException
+	 * @throws IOException
+	 */
+	@RequestMapping(value = "/{resultId}/relationGraph/view.ajax", method = RequestMethod.GET)
+	public void relationGraph(@PathVariable String resultId,
+			@RequestParam(value = "level", required = false) String level,
+			@RequestParam(value = "depth", required = false, defaultValue = "0") int depth,
+			@RequestParam(value = "expand", required = false) List<String> expand, HttpServletResponse response)
+			throws JDependException, IOException {
+
+		WebAnalysisResult result = resultStore.get(resultId).getResult();
+
+		response.setContentType("application/json;charset=UTF-8");
+		WebRelationGraphUtil.getGraphData(result.getRelations(), WebRelationGraphUtil.Grouping.create(level, depth),
+				expand).write(response.getWriter());
+	}
+
+	@RequestMapping(value = "/{resultId}/todoItem/{id}/view.ajax", method = RequestMethod.GET)
+	public String todoItemDetails(Model model, @PathVariable String resultId, @PathVariable String id,
+			HttpServletRequest request) throws JDependException {
 
-		List<TODOItem> todoList = (List<TODOItem>) request.getSession().getAttribute(
-				WebConstants.SESSION_RESULT_TODOLIST);
-		if (todoList == null) {
-			throw new JDependException("Session 过期，或者非法进入该页。");
+		List<TODOItem> todoList = resultStore.get(resultId).getTodoList();
+		int index;
+		try {
+			index = Integer.parseInt(id);
+		} catch (NumberFormatException e) {
+			throw new JDependException("待做事项[" + id + "]不存在");
 		}
-		for (TODOItem item : todoList) {
-			if (item.getId().equals(id)) {
-				model.addAttribute("todoItem", item);
-			}
+		if (index < 0 || index >= todoList.size()) {
+			throw new JDependException("待做事项[" + id + "]不存在");
 		}
+		model.addAttribute("todoItem", todoList.get(index));
 
 		return "todo_item";
 	}
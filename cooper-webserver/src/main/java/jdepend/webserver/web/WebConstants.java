@@ -2,18 +2,6 @@ package jdepend.webserver.web;
 
 public interface WebConstants {
 
-	/**
-	 * 分析的文件信息
-	 */
-	public final static String SESSION_FILE = "SESSION_FILE";
-	/**
-	 * 分析结果
-	 */
-	public final static String SESSION_RESULT = "SESSION_RESULT";
-	/**
-	 * 分析结果TODOLIST
-	 */
-	public final static String SESSION_RESULT_TODOLIST = "SESSION_RESULT_TODOLIST";
 	/**
 	 * 分析的组名称
 	 */
@@ -1,49 +1,256 @@
 package jdepend.webserver.web;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+import jdepend.model.Component;
 import jdepend.model.Element;
 import jdepend.model.Relation;
-import net.sf.json.JSONArray;
+
+import org.json.JSONObject;
 
 public class WebRelationGraphUtil {
 
+	/**
+	 * 不聚合
+	 */
+	public static final String LEVEL_COMPONENT = "component";
+
+	/**
+	 * 按组件区域聚合
+	 */
+	public static final String LEVEL_AREA = "area";
+
+	/**
+	 * 按组件名称（包名）前缀聚合
+	 */
+	public static final String LEVEL_PACKAGE = "package";
+
+	/**
+	 * 结果页面的关系图节点数超过该值时聚合显示，点击聚合的节点再展开
+	 */
+	public static final int MAX_DETAIL_NODES = 60;
+
+	/**
+	 * 包名前缀的最大段数
+	 */
+	private static final int MAX_DEPTH = 8;
+
 	static RelationGraphData getGraphData(Collection<Relation> relations) {
+		return getGraphData(relations, null, null);
+	}
+
+	/**
+	 * 得到结果页面初始显示的关系图：节点数不超过MAX_DETAIL_NODES时显示全部组件，
+	 * 否则优先按组件区域聚合，组件区域聚合后节点仍然太多时按包名前缀聚合
+	 *
+	 * @param relations
+	 * @return
+	 */
+	static RelationGraphData getSummaryGraphData(Collection<Relation> relations) {
+		Collection<Element> elements = Relation.calElements(relations);
+		if (elements.size() <= MAX_DETAIL_NODES) {
+			return getGraphData(relations, null, null);
+		}
+		Grouping area = Grouping.create(LEVEL_AREA, 0);
+		if (area.countNodes(elements) <= MAX_DETAIL_NODES) {
+			return getGraphData(relations, area, null);
+		}
+		// 选择节点数不超过上限的最细的前缀
+		Grouping grouping = Grouping.create(LEVEL_PACKAGE, 1);
+		Grouping deeper;
+		for (int depth = 2; depth <= MAX_DEPTH; depth++) {
+			deeper = Grouping.create(LEVEL_PACKAGE, depth);
+			if (deeper.countNodes(elements) > MAX_DETAIL_NODES) {
+				break;
+			}
+			grouping = deeper;
+		}
+		return getGraphData(relations, grouping, null);
+	}
+
+	/**
+	 * 得到聚合后的关系图数据
+	 *
+	 * 同一分组的组件聚合为一个节点（节点的value为组件数），分组之间的关系聚合为一条边（边的weight为关系数），
+	 * 分组内部的关系不显示。只有一个组件的分组和expanded中的分组显示为组件。
+	 *
+	 * @param relations
+	 * @param grouping
+	 *            为null时不聚合
+	 * @param expanded
+	 *            展开显示组件的分组
+	 * @return
+	 */
+	static RelationGraphData getGraphData(Collection<Relation> relations, Grouping grouping,
+			Collection<String> expanded) {
 
 		Collection<Element> elements = Relation.calElements(relations);
 
+		Map<String, Integer> groupSizes = grouping == null ? Collections.<String, Integer> emptyMap() : grouping
+				.groupSizes(elements);
+
 		List<Node> nodes = new ArrayList<Node>();
+		Map<Element, Integer> elementPositions = new HashMap<Element, Integer>(elements.size() * 2);
+		Map<String, Integer> groupPositions = new HashMap<String, Integer>();
 		Node node;
+		String group;
+		Integer position;
 		for (Element element : elements) {
-			node = new Node();
-			node.setCategory(0);
-			node.setName(element.getName());
-			nodes.add(node);
+			group = grouping == null ? null : grouping.getGroup(element.getComponent());
+			if (group == null || groupSizes.get(group) < 2 || (expanded != null && expanded.contains(group))) {
+				node = new Node();
+				node.setCategory(Node.COMPONENT);
+				node.setName(element.getName());
+				elementPositions.put(element, nodes.size());
+				nodes.add(node);
+			} else {
+				position = groupPositions.get(group);
+				if (position == null) {
+					node = new Node();
+					node.setCategory(Node.GROUP);
+					node.setName(group);
+					node.setValue(groupSizes.get(group));
+					position = nodes.size();
+					groupPositions.put(group, position);
+					nodes.add(node);
+				}
+				elementPositions.put(element, position);
+			}
 		}
 
-		List<Edge> edges = new ArrayList<Edge>();
+		Map<Long, Edge> edges = new LinkedHashMap<Long, Edge>();
 		Edge edge;
+		int source;
+		int target;
+		Long key;
 		for (Relation relation : relations) {
-			edge = new Edge();
-			edge.setSource(getPosition(elements, relation.getCurrent()));
-			edge.setTarget(getPosition(elements, relation.getDepend()));
-			edges.add(edge);
+			source = elementPositions.get(relation.getCurrent());
+			target = elementPositions.get(relation.getDepend());
+			if (source == target) {
+				continue;
+			}
+			key = ((long) source << 32) | target;
+			edge = edges.get(key);
+			if (edge == null) {
+				edge = new Edge();
+				edge.setSource(source);
+				edge.setTarget(target);
+				edges.put(key, edge);
+			}
+			edge.setWeight(edge.getWeight() + 1);
 		}
-		return new RelationGraphData(nodes, edges);
+
+		RelationGraphData data = new RelationGraphData(nodes, new ArrayList<Edge>(edges.values()));
+		if (grouping != null) {
+			data.setLevel(grouping.getLevel());
+			data.setDepth(grouping.getDepth());
+		}
+		return data;
 	}
 
-	private static int getPosition(Collection<Element> elements, Element obj) {
-		int i = 0;
-		for (Element element : elements) {
-			if (obj.equals(element)) {
-				return i;
+	/**
+	 * 组件的分组方式
+	 */
+	public static abstract class Grouping {
+
+		private String level;
+
+		private int depth;
+
+		protected Grouping(String level, int depth) {
+			this.level = level;
+			this.depth = depth;
+		}
+
+		/**
+		 * 创建分组方式
+		 *
+		 * @param level
+		 *            LEVEL_AREA、LEVEL_PACKAGE，其他值不分组
+		 * @param depth
+		 *            按包名前缀分组时前缀的段数
+		 * @return 不分组时返回null
+		 */
+		public static Grouping create(String level, int depth) {
+			if (LEVEL_AREA.equals(level)) {
+				return new Grouping(LEVEL_AREA, 0) {
+					@Override
+					public String getGroup(Component component) {
+						return component.getAreaComponent() == null ? null : component.getAreaComponent().getName();
+					}
+				};
+			} else if (LEVEL_PACKAGE.equals(level)) {
+				final int prefixDepth = Math.max(1, Math.min(depth, MAX_DEPTH));
+				return new Grouping(LEVEL_PACKAGE, prefixDepth) {
+					@Override
+					public String getGroup(Component component) {
+						String name = component.getName();
+						int pos = -1;
+						for (int i = 0; i < prefixDepth; i++) {
+							pos = name.indexOf('.', pos + 1);
+							if (pos == -1) {
+								return name;
+							}
+						}
+						return name.substring(0, pos);
+					}
+				};
+			} else {
+				return null;
+			}
+		}
+
+		/**
+		 * 得到组件所属的分组
+		 *
+		 * @param component
+		 * @return 不属于任何分组时返回null
+		 */
+		public abstract String getGroup(Component component);
+
+		public String getLevel() {
+			return level;
+		}
+
+		public int getDepth() {
+			return depth;
+		}
+
+		Map<String, Integer> groupSizes(Collection<Element> elements) {
+			Map<String, Integer> groupSizes = new HashMap<String, Integer>();
+			String group;
+			Integer size;
+			for (Element element : elements) {
+				group = this.getGroup(element.getComponent());
+				if (group != null) {
+					size = groupSizes.get(group);
+					groupSizes.put(group, size == null ? 1 : size + 1);
+				}
 			}
-			i++;
+			return groupSizes;
 		}
-		throw new RuntimeException("数据错误！");
 
+		int countNodes(Collection<Element> elements) {
+			int count = 0;
+			for (Map.Entry<String, Integer> entry : this.groupSizes(elements).entrySet()) {
+				count += entry.getValue() < 2 ? entry.getValue() : 1;
+			}
+			for (Element element : elements) {
+				if (this.getGroup(element.getComponent()) == null) {
+					count++;
+				}
+			}
+			return count;
+		}
 	}
 
 	public static class RelationGraphData {
@@ -52,6 +259,10 @@ public class WebRelationGraphUtil {
 
 		private List<Edge> edges;
 
+		private String level = LEVEL_COMPONENT;
+
+		private int depth;
+
 		public RelationGraphData(List<Node> nodes, List<Edge> edges) {
 			super();
 			this.nodes = nodes;
@@ -59,16 +270,106 @@ public class WebRelationGraphUtil {
 		}
 
 		public String getNodeInfo() {
-			return JSONArray.fromObject(nodes).toString();
+			StringWriter out = new StringWriter();
+			try {
+				this.writeNodes(out);
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+			return out.toString();
 		}
 
 		public String getEdgeInfo() {
-			return JSONArray.fromObject(edges).toString();
+			StringWriter out = new StringWriter();
+			try {
+				this.writeEdges(out);
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+			return out.toString();
+		}
+
+		public String getLevel() {
+			return level;
+		}
+
+		public void setLevel(String level) {
+			this.level = level;
+		}
+
+		public int getDepth() {
+			return depth;
+		}
+
+		public void setDepth(int depth) {
+			this.depth = depth;
+		}
+
+		/**
+		 * 输出{"nodes":[...],"links":[...]}
+		 *
+		 * @param out
+		 * @throws IOException
+		 */
+		public void write(Writer out) throws IOException {
+			out.write("{\"nodes\":");
+			this.writeNodes(out);
+			out.write(",\"links\":");
+			this.writeEdges(out);
+			out.write('}');
+		}
+
+		private void writeNodes(Writer out) throws IOException {
+			out.write('[');
+			boolean first = true;
+			for (Node node : nodes) {
+				if (!first) {
+					out.write(',');
+				}
+				first = false;
+				out.write("{\"category\":");
+				out.write(String.valueOf(node.getCategory()));
+				out.write(",\"name\":");
+				JSONObject.quote(node.getName(), out);
+				out.write(",\"value\":");
+				out.write(String.valueOf(node.getValue()));
+				out.write('}');
+			}
+			out.write(']');
+		}
+
+		private void writeEdges(Writer out) throws IOException {
+			out.write('[');
+			boolean first = true;
+			for (Edge edge : edges) {
+				if (!first) {
+					out.write(',');
+				}
+				first = false;
+				out.write("{\"source\":");
+				out.write(String.valueOf(edge.getSource()));
+				out.write(",\"target\":");
+				out.write(String.valueOf(edge.getTarget()));
+				out.write(",\"weight\":");
+				out.write(String.valueOf(edge.getWeight()));
+				out.write('}');
+			}
+			out.write(']');
 		}
 	}
 
 	public static class Node {
 
+		/**
+		 * 组件
+		 */
+		public static final int COMPONENT = 0;
+
+		/**
+		 * 聚合的分组
+		 */
+		public static final int GROUP = 1;
+
 		private int category;
 		private String name;
 		private int value;
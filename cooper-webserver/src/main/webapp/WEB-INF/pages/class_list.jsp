@@ -53,7 +53,7 @@ $('.Methods').mousedown(function(e){
 $('.Methods').click(function(){
 	var javaClassId = $(this).parent().find('.classId').attr('id');
 	$.ajax({    
-	    url:'${ctx}/result/methods/' + javaClassId + '/view.ajax',   
+	    url:'${ctx}/result/' + resultId + '/methods/' + javaClassId + '/view.ajax',   
 	    type:'get',    
 	    success:function(data) {
 	    	$('#myModalLabel2').text(javaClassId + '方法列表');
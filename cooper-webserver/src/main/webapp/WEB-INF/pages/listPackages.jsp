@@ -84,6 +84,7 @@
 </div>
 <form id="submitForm" action = '${ctx}/analyse/execute' method="POST">
 	<input id="componentModel" name="componentModel" type="hidden"/>
+	<input id="uploadId" name="uploadId" type="hidden" value="${uploadId}"/>
 </form>
 <script language="javascript" type="text/javascript"
 	src="${ctx}/styles/js/pa_ui.js"></script>
@@ -51,7 +51,7 @@ $('.invokedItems').click(function(){
 	var javaClassId = $(this).parent().find('.methodId').attr('classid');
 	var methodInfo = $(this).parent().find('.methodId').attr('methodInfo');
 	$.ajax({    
-	    url:'${ctx}/result/invokedItems/' + javaClassId + '/' + methodInfo + '/view.ajax',   
+	    url:'${ctx}/result/' + resultId + '/invokedItems/' + javaClassId + '/' + methodInfo + '/view.ajax',   
 	    type:'get',    
 	    success:function(data) {
 	    	$('#myModalLabel3').text(methodInfo + '方法传入列表');
@@ -70,7 +70,7 @@ $('.cascadeInvokedItems').click(function(){
 	var javaClassId = $(this).parent().find('.methodId').attr('classid');
 	var methodInfo = $(this).parent().find('.methodId').attr('methodInfo');
 	$.ajax({    
-	    url:'${ctx}/result/cascadeInvokedItems/' + javaClassId + '/' + methodInfo + '/view.ajax',   
+	    url:'${ctx}/result/' + resultId + '/cascadeInvokedItems/' + javaClassId + '/' + methodInfo + '/view.ajax',   
 	    type:'get',    
 	    success:function(data) {
 	    	$('#myModalLabel3').text(methodInfo + '级联方法传入列表');
@@ -89,7 +89,7 @@ $('.invokeItems').click(function(){
 	var javaClassId = $(this).parent().find('.methodId').attr('classid');
 	var methodInfo = $(this).parent().find('.methodId').attr('methodInfo');
 	$.ajax({    
-	    url:'${ctx}/result/invokeItems/' + javaClassId + '/' + methodInfo + '/view.ajax',   
+	    url:'${ctx}/result/' + resultId + '/invokeItems/' + javaClassId + '/' + methodInfo + '/view.ajax',   
 	    type:'get',    
 	    success:function(data) {
 	    	$('#myModalLabel3').text(methodInfo + '方法传入列表');
@@ -200,9 +200,9 @@ margin: 0 0 0 -500px;
 							</tr>
 						</thead>
 						<tbody id="listTodos">
-							<c:forEach items="${todoList}" var="item">
+							<c:forEach items="${todoList}" var="item" varStatus="status">
 								<tr>
-									<td><input type="checkbox" class="itemId" value="${item.id}" /></td>
+									<td><input type="checkbox" class="itemId" value="${status.index}" /></td>
 									<td class="todoItem" style="color:blue;cursor:pointer;">${item.content}</td>
 									<td>${item.according}</td>
 								</tr>
@@ -353,6 +353,14 @@ margin: 0 0 0 -500px;
             	                            color : '#87cdfa'
             	                        }
             	                    }
+            	                },
+            	                {
+            	                    name: '组件分组',
+            	                    itemStyle: {
+            	                        normal: {
+            	                            color : '#f4a460'
+            	                        }
+            	                    }
             	                }
             	            ],
             	            itemStyle: {
@@ -393,10 +401,16 @@ margin: 0 0 0 -500px;
             	    ]
             	};
             	var ecConfig = require('echarts/config');
+            	// 组件较多时关系图按分组聚合显示，点击分组节点展开其中的组件
+            	var graphChart = myChart;
+            	var graphOption = option;
+            	var graphLevel = '${relation_graph_data.level}';
+            	var graphDepth = ${relation_graph_data.depth};
+            	var expandedGroups = [];
             	function focus(param) {
             	    var data = param.data;
-            	    var links = option.series[0].links;
-            	    var nodes = option.series[0].nodes;
+            	    var links = graphOption.series[0].links;
+            	    var nodes = graphOption.series[0].nodes;
             	    if (
             	        data.source !== undefined
             	        && data.target !== undefined
@@ -406,6 +420,21 @@ margin: 0 0 0 -500px;
             	        console.log("选中了边 " + sourceNode.name + ' -> ' + targetNode.name + ' (' + data.weight + ')');
             	    } else { // 点击的是点
             	        console.log("选中了" + data.name + '(' + data.value + ')');
+            	        if (data.category == 1) {
+            	            expandedGroups.push(data.name);
+            	            $.ajax({
+            	                url:'${ctx}/result/' + resultId + '/relationGraph/view.ajax',
+            	                type:'get',
+            	                traditional:true,
+            	                dataType:'json',
+            	                data:{level:graphLevel, depth:graphDepth, expand:expandedGroups},
+            	                success:function(graph) {
+            	                    graphOption.series[0].nodes = graph.nodes;
+            	                    graphOption.series[0].links = graph.links;
+            	                    graphChart.setOption(graphOption, true);
+            	                }
+            	            });
+            	        }
             	    }
             	    console.log(param);
             	}
@@ -498,6 +527,8 @@ margin: 0 0 0 -500px;
         }
     );
     
+    var resultId = '${resultId}';
+    
     $().ready(function() {
     	$('.classCount').mousedown(function(e){
     		e.stopPropagation();
@@ -505,7 +536,7 @@ margin: 0 0 0 -500px;
     	$('.classCount').click(function(e){
     		var componentName = $(this).parent().find('.itemName').text();
     		$.ajax({    
-			    url:'${ctx}/result/component/' + componentName + '/classes/view.ajax',   
+			    url:'${ctx}/result/' + resultId + '/component/' + componentName + '/classes/view.ajax',   
 			    type:'get',    
 			    success:function(data) {
 			    	$('#myModalLabel').text(componentName + '组件类列表');
@@ -522,7 +553,7 @@ margin: 0 0 0 -500px;
     	$('.Ca').click(function(){
     		var componentName = $(this).parent().find('.itemName').text();
     		$.ajax({    
-			    url:'${ctx}/result/component/' + componentName + '/ca/view.ajax',   
+			    url:'${ctx}/result/' + resultId + '/component/' + componentName + '/ca/view.ajax',   
 			    type:'get',    
 			    success:function(data) {
 			    	$('#myModalLabel').text(componentName + '组件传入列表');
@@ -539,7 +570,7 @@ margin: 0 0 0 -500px;
     	$('.Ce').click(function(){
     		var componentName = $(this).parent().find('.itemName').text();
     		$.ajax({    
-			    url:'${ctx}/result/component/' + componentName + '/ce/view.ajax',   
+			    url:'${ctx}/result/' + resultId + '/component/' + componentName + '/ce/view.ajax',   
 			    type:'get',    
 			    success:function(data) {
 			    	$('#myModalLabel').text(componentName + '组件传出列表');
@@ -557,7 +588,7 @@ margin: 0 0 0 -500px;
     		var current = $(this).parent().find('.current').text();
     		var depend = $(this).parent().find('.depend').text();
     		$.ajax({    
-			    url:'${ctx}/result/relation/' + current + '/' + depend + '/view.ajax',   
+			    url:'${ctx}/result/' + resultId + '/relation/' + current + '/' + depend + '/view.ajax',   
 			    type:'get',    
 			    success:function(data) {
 			    	$('#myModalLabel').text(current + "->" + depend + '关系明细');
@@ -575,7 +606,7 @@ margin: 0 0 0 -500px;
     		var id = $(this).parent().find('.itemId').val();
     		var name = $(this).text();
     		$.ajax({    
-			    url:'${ctx}/result/todoItem/' + id + '/view.ajax',   
+			    url:'${ctx}/result/' + resultId + '/todoItem/' + id + '/view.ajax',   
 			    type:'get',    
 			    success:function(data) {
 			    	$('#myModalLabel').text('待做事项说明');
@@ -587,7 +618,7 @@ margin: 0 0 0 -500px;
     	
     	$('.classlistBtn').click(function(){
     		$.ajax({    
-			    url:'${ctx}/result/classes/view.ajax',   
+			    url:'${ctx}/result/' + resultId + '/classes/view.ajax',   
 			    type:'get',    
 			    success:function(data) {
 			    	$('#myModalLabel').text('全部类列表');
@@ -600,7 +631,7 @@ margin: 0 0 0 -500px;
     	
     	$('.methodlistBtn').click(function(){
     		$.ajax({    
-			    url:'${ctx}/result/methods/view.ajax',   
+			    url:'${ctx}/result/' + resultId + '/methods/view.ajax',   
 			    type:'get',    
 			    success:function(data) {
 			    	$('#myModalLabel').text('全部方法列表');
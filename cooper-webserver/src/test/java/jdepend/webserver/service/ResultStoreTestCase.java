@@ -0,0 +1,99 @@
+package jdepend.webserver.service;
+
+import java.io.File;
+import java.util.ArrayList;
+
+import jdepend.framework.config.PropertyConfigurator;
+import jdepend.framework.context.JDependContext;
+import jdepend.framework.exception.JDependException;
+import jdepend.model.Component;
+import jdepend.model.result.AnalysisResult;
+import jdepend.model.result.AnalysisRunningContext;
+import jdepend.model.result.ProfileFacadeImpl;
+import junit.framework.TestCase;
+
+/**
+ * 校验ResultStore的内存淘汰、从磁盘读取以及磁盘上的淘汰
+ *
+ * @author user
+ *
+ */
+public class ResultStoreTestCase extends TestCase {
+
+	private File storeDir;
+
+	@Override
+	protected void setUp() throws Exception {
+		storeDir = new File(System.getProperty("java.io.tmpdir"), "resultstore-" + System.nanoTime());
+		storeDir.mkdirs();
+		if (JDependContext.getWorkspacePath() == null) {
+			File conf = new File(storeDir.getParentFile(), storeDir.getName() + "-workspace/"
+					+ PropertyConfigurator.DEFAULT_PROPERTY_DIR);
+			conf.mkdirs();
+			new File(conf, PropertyConfigurator.DEFAULT_PROPERTY_FILE).createNewFile();
+			JDependContext.setWorkspacePath(conf.getParent());
+		}
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		File[] files = storeDir.listFiles();
+		if (files != null) {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+		storeDir.delete();
+	}
+
+	public void testLoadEvictedFromDisk() throws Exception {
+		ResultStore store = new ResultStore(storeDir, 1, 100, 10);
+
+		ResultStore.Entry first = store.put(this.newResult());
+		ResultStore.Entry second = store.put(this.newResult());
+		assertSame(second, store.get(second.getId()));
+
+		// 从内存淘汰后从磁盘读取，读取后再次保存在内存中
+		ResultStore.Entry loaded = store.get(first.getId());
+		assertNotSame(first, loaded);
+		assertEquals(first.getId(), loaded.getId());
+		assertSame(loaded, store.get(first.getId()));
+	}
+
+	public void testEvictFromDisk() throws Exception {
+		ResultStore store = new ResultStore(storeDir, 1, 100, 2);
+
+		ResultStore.Entry first = store.put(this.newResult());
+		ResultStore.Entry second = store.put(this.newResult());
+		ResultStore.Entry third = store.put(this.newResult());
+
+		assertNull(store.find(first.getId()));
+		try {
+			store.get(first.getId());
+			fail();
+		} catch (JDependException ignore) {
+		}
+		assertSame(third, store.find(third.getId()));
+		assertNotNull(store.find(second.getId()));
+		assertEquals(2, storeDir.listFiles().length);
+	}
+
+	public void testReplaceAndRemove() throws Exception {
+		ResultStore store = new ResultStore(storeDir, 10, 100, 10);
+
+		store.put("repository-1", this.newResult());
+		ResultStore.Entry replaced = store.put("repository-1", this.newResult());
+		assertSame(replaced, store.get("repository-1"));
+		assertEquals(1, storeDir.listFiles().length);
+
+		store.remove("repository-1");
+		assertNull(store.find("repository-1"));
+		assertEquals(0, storeDir.listFiles().length);
+	}
+
+	private AnalysisResult newResult() {
+		AnalysisRunningContext context = new AnalysisRunningContext();
+		context.setProfileFacade(new ProfileFacadeImpl(new ProfileFacadeImpl()));
+		return new AnalysisResult(new ArrayList<Component>(), context);
+	}
+}
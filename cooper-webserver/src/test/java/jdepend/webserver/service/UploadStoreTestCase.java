@@ -0,0 +1,166 @@
+package jdepend.webserver.service;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+
+import jdepend.framework.exception.JDependException;
+import jdepend.framework.file.AnalyzeData;
+import jdepend.framework.file.TargetFileInfo;
+import jdepend.metadata.JavaPackage;
+import junit.framework.TestCase;
+
+/**
+ * 校验UploadStore的解析、淘汰以及被淘汰后从磁盘读取
+ *
+ * @author user
+ *
+ */
+public class UploadStoreTestCase extends TestCase {
+
+	private File storeDir;
+
+	private CountingAnalyseService analyseService;
+
+	@Override
+	protected void setUp() throws Exception {
+		storeDir = new File(System.getProperty("java.io.tmpdir"), "uploadstore-" + System.nanoTime());
+		storeDir.mkdirs();
+		analyseService = new CountingAnalyseService();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		File[] files = storeDir.listFiles();
+		if (files != null) {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+		storeDir.delete();
+	}
+
+	public void testPutParsesOnce() throws Exception {
+		UploadStore store = new UploadStore(analyseService, storeDir, 10, 100);
+
+		UploadStore.Upload upload = store.put("group", "command", this.createData("a", 1));
+
+		assertEquals(1, analyseService.count);
+		assertSame(upload, store.get(upload.getId()));
+		assertSame(analyseService.last, upload.getPackages());
+	}
+
+	public void testEvictByCount() throws Exception {
+		UploadStore store = new UploadStore(analyseService, storeDir, 2, 100);
+
+		UploadStore.Upload first = store.put("group", "command", this.createData("a", 1));
+		Collection<JavaPackage> firstPackages = first.getPackages();
+		UploadStore.Upload second = store.put("group", "command", this.createData("b", 1));
+		// 访问第一个上传后，淘汰的是第二个
+		store.get(first.getId());
+		UploadStore.Upload third = store.put("group", "command", this.createData("c", 1));
+
+		assertSame(first, store.get(first.getId()));
+		assertNull(store.get(second.getId()));
+		assertSame(third, store.get(third.getId()));
+		// 持有被淘汰上传的请求仍然可以使用解析结果，不会重新解析
+		assertNotNull(second.getPackages());
+		assertSame(firstPackages, first.getPackages());
+		assertEquals(3, analyseService.count);
+	}
+
+	public void testEvictByClasses() throws Exception {
+		UploadStore store = new UploadStore(analyseService, storeDir, 10, 3);
+
+		UploadStore.Upload first = store.put("group", "command", this.createData("a", 2));
+		UploadStore.Upload second = store.put("group", "command", this.createData("b", 2));
+
+		assertNull(store.get(first.getId()));
+		assertSame(second, store.get(second.getId()));
+
+		// 最近的上传即使超出类总数上限也保留
+		UploadStore.Upload third = store.put("group", "command", this.createData("c", 5));
+		assertNull(store.get(second.getId()));
+		assertSame(third, store.get(third.getId()));
+	}
+
+	public void testReadEvictedFromDisk() throws Exception {
+		UploadStore store = new UploadStore(analyseService, storeDir, 1, 100);
+
+		UploadStore.Upload first = store.put("group", "command", this.createData("a", 2));
+		store.put("group", "command", this.createData("b", 1));
+		assertNull(store.get(first.getId()));
+
+		AnalyzeData data = store.getData(first.getId());
+		assertEquals(2, data.getClassesCount());
+		assertEquals(first.getPath(), data.getPath());
+	}
+
+	public void testRemove() throws Exception {
+		UploadStore store = new UploadStore(analyseService, storeDir, 10, 100);
+
+		UploadStore.Upload upload = store.put("group", "command", this.createData("a", 1));
+		store.remove(upload.getId());
+
+		assertNull(store.get(upload.getId()));
+		try {
+			store.getData(upload.getId());
+			fail();
+		} catch (JDependException ignore) {
+		}
+	}
+
+	public void testParseFailure() throws Exception {
+		UploadStore store = new UploadStore(analyseService, storeDir, 10, 100);
+		analyseService.fail = true;
+
+		try {
+			store.put("group", "command", this.createData("a", 1));
+			fail();
+		} catch (JDependException ignore) {
+		}
+		// 解析失败的上传不保留在磁盘上
+		assertEquals(0, storeDir.listFiles().length);
+	}
+
+	public void testInvalidId() throws Exception {
+		UploadStore store = new UploadStore(analyseService, storeDir, 10, 100);
+		try {
+			store.getData("../a");
+			fail();
+		} catch (JDependException ignore) {
+		}
+	}
+
+	private AnalyzeData createData(String place, int classCount) {
+		AnalyzeData data = new AnalyzeData();
+		TargetFileInfo info;
+		for (int i = 0; i < classCount; i++) {
+			info = new TargetFileInfo();
+			info.setName(place + "/C" + i);
+			info.setType(TargetFileInfo.TYPE_CLASS);
+			info.setContent(new byte[] { (byte) i });
+			data.addFileInfo(place, info);
+		}
+		return data;
+	}
+
+	private static class CountingAnalyseService extends AnalyseService {
+
+		private int count;
+
+		private boolean fail;
+
+		private Collection<JavaPackage> last;
+
+		@Override
+		public Collection<JavaPackage> parse(String group, String command, AnalyzeData data) throws JDependException {
+			if (fail) {
+				throw new JDependException("解析失败");
+			}
+			count++;
+			last = new ArrayList<JavaPackage>();
+			return last;
+		}
+	}
+}